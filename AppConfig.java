@@ -4,6 +4,7 @@ import com.trailtales.repository.*;
 import com.trailtales.util.DatabaseInitializer;
 import com.trailtales.util.EmailService;
 import com.trailtales.util.PasswordHasher;
+import com.trailtales.util.PhotoStorage;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import jakarta.validation.Validation;
@@ -126,6 +127,35 @@ public class AppConfig {
     return new TagRepository(jdbcTemplate);
   }
 
+  @Bean
+  public PhotoBlobRepository photoBlobRepository(JdbcTemplate jdbcTemplate) {
+    return new PhotoBlobRepository(jdbcTemplate);
+  }
+
+  @Bean
+  public PhotoStorage photoStorage(
+      @Value("${trailtales.upload.dir}") String uploadDir,
+      @Value("${trailtales.upload.hard-links:false}") boolean hardLinks,
+      @Value("${trailtales.upload.fsync:true}") boolean fsync) {
+    return new PhotoStorage(uploadDir, hardLinks, fsync);
+  }
+
+  @Bean
+  public RouteMetricsRepository routeMetricsRepository(JdbcTemplate jdbcTemplate) {
+    return new RouteMetricsRepository(jdbcTemplate);
+  }
+
+  @Bean
+  public UploadSessionRepository uploadSessionRepository(JdbcTemplate jdbcTemplate) {
+    return new UploadSessionRepository(jdbcTemplate);
+  }
+
+  @Bean
+  public StorageReconciliationRepository storageReconciliationRepository(
+      JdbcTemplate jdbcTemplate) {
+    return new StorageReconciliationRepository(jdbcTemplate);
+  }
+
   @Bean
   public DatabaseInitializer databaseInitializer(DataSource dataSource, JdbcTemplate jdbcTemplate) {
     return new DatabaseInitializer(dataSource, jdbcTemplate);
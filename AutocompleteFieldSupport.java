@@ -0,0 +1,110 @@
+package com.trailtales.ui;
+
+import com.trailtales.dto.NameCompletion;
+import java.util.List;
+import java.util.function.BiFunction;
+import javafx.geometry.Side;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.CustomMenuItem;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+
+/**
+ * Підключає до текстового поля випадний список підказок. Підказки беруться з індексу в пам'яті,
+ * тож оновлюються на кожне натискання клавіші без затримки і без запитів до бази даних.
+ */
+public final class AutocompleteFieldSupport {
+
+  /** Кількість підказок, що показуються одночасно. */
+  private static final int MAX_SUGGESTIONS = 8;
+
+  private AutocompleteFieldSupport() {}
+
+  /**
+   * Підключає автодоповнення, яке замінює весь текст поля обраною назвою.
+   *
+   * @param field поле введення.
+   * @param source джерело підказок: (префікс, ліміт) → варіанти.
+   */
+  public static void attach(
+      TextField field, BiFunction<String, Integer, List<NameCompletion>> source) {
+    attach(field, source, false);
+  }
+
+  /**
+   * Підключає автодоповнення до поля зі списком назв через кому: доповнюється лише останній
+   * елемент списку.
+   *
+   * @param field поле введення.
+   * @param source джерело підказок: (префікс, ліміт) → варіанти.
+   */
+  public static void attachToList(
+      TextField field, BiFunction<String, Integer, List<NameCompletion>> source) {
+    attach(field, source, true);
+  }
+
+  private static void attach(
+      TextField field,
+      BiFunction<String, Integer, List<NameCompletion>> source,
+      boolean commaSeparated) {
+    ContextMenu popup = new ContextMenu();
+    popup.setStyle("-fx-background-color: #3c3f41;");
+    // Вибір підказки сам змінює текст поля; цю зміну не слід обробляти як введення.
+    boolean[] applyingCompletion = {false};
+
+    field
+        .textProperty()
+        .addListener(
+            (obs, oldText, newText) -> {
+              if (applyingCompletion[0]) {
+                return;
+              }
+              if (!field.isFocused() || newText == null) {
+                popup.hide();
+                return;
+              }
+              int tokenStart = commaSeparated ? newText.lastIndexOf(',') + 1 : 0;
+              String prefix = newText.substring(tokenStart).strip();
+              List<NameCompletion> completions =
+                  prefix.isEmpty() ? List.of() : source.apply(prefix, MAX_SUGGESTIONS);
+              if (completions.isEmpty()
+                  || (completions.size() == 1
+                      && completions.get(0).getName().equalsIgnoreCase(prefix))) {
+                popup.hide();
+                return;
+              }
+
+              popup.getItems().clear();
+              for (NameCompletion completion : completions) {
+                Label label = new Label(completion.getName());
+                label.setStyle("-fx-text-fill: #e0e0e0;");
+                CustomMenuItem item = new CustomMenuItem(label, true);
+                item.setOnAction(
+                    e -> {
+                      String head = newText.substring(0, tokenStart);
+                      String separator = commaSeparated && tokenStart > 0 ? " " : "";
+                      applyingCompletion[0] = true;
+                      try {
+                        field.setText(head.stripTrailing() + separator + completion.getName());
+                      } finally {
+                        applyingCompletion[0] = false;
+                      }
+                      field.positionCaret(field.getText().length());
+                      popup.hide();
+                    });
+                popup.getItems().add(item);
+              }
+              if (!popup.isShowing()) {
+                popup.show(field, Side.BOTTOM, 0, 0);
+              }
+            });
+    field
+        .focusedProperty()
+        .addListener(
+            (obs, wasFocused, isFocused) -> {
+              if (!isFocused) {
+                popup.hide();
+              }
+            });
+  }
+}
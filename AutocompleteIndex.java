@@ -0,0 +1,253 @@
+package com.trailtales.index;
+
+import com.trailtales.dto.NameCompletion;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Компактний індекс автодоповнення назв: відсортований масив ключів з бінарним пошуком діапазону
+ * за префіксом. Ключами є назва та кожен її суфікс, що починається з нового слова, тож
+ * {@code "карп"} знаходить і "Карпати", і "Національний парк Карпати". Серед збігів повертаються
+ * k найпопулярніших назв.
+ *
+ * <p>Префіксам з однієї-двох літер відповідає велика частина ключів, тож для них найпопулярніші
+ * назви обчислюються заздалегідь і оновлюються при змінах, а запит лише копіює готовий список.
+ * Вставка та видалення зсувають масив ({@code O(n)}), що прийнятно для рідкісних змін довідників;
+ * пошук виконується без алокацій на кожен ключ і без звернень до бази даних.
+ */
+public class AutocompleteIndex {
+
+  private static final Comparator<NameCompletion> BY_POPULARITY =
+      Comparator.comparingLong(NameCompletion::getWeight)
+          .reversed()
+          .thenComparingInt(completion -> completion.getName().length())
+          .thenComparing(NameCompletion::getName);
+
+  /** Найбільша довжина префікса, для якого найпопулярніші назви зберігаються готовими. */
+  private static final int SHORT_PREFIX_LENGTH = 2;
+
+  /** Скільки найпопулярніших назв зберігається для кожного короткого префікса. */
+  private static final int SHORT_PREFIX_TOP = 20;
+
+  private String[] keys = new String[0];
+  private long[] keyIds = new long[0];
+  private int size;
+  private final Map<Long, NameCompletion> entries = new HashMap<>();
+
+  /** Короткий префікс → його найпопулярніші назви, найпопулярніші першими. */
+  private final Map<String, NameCompletion[]> shortPrefixTop = new HashMap<>();
+
+  /**
+   * Замінює весь вміст індексу.
+   *
+   * @param completions назви з вагами.
+   */
+  public synchronized void load(List<NameCompletion> completions) {
+    entries.clear();
+    List<Object[]> pairs = new ArrayList<>();
+    for (NameCompletion completion : completions) {
+      entries.put(completion.getId(), completion);
+      for (String key : keysOf(completion.getName())) {
+        pairs.add(new Object[] {key, completion.getId()});
+      }
+    }
+    pairs.sort(Comparator.comparing(pair -> (String) pair[0]));
+    size = pairs.size();
+    keys = new String[Math.max(16, size)];
+    keyIds = new long[keys.length];
+    Set<String> shortPrefixes = new HashSet<>();
+    for (int i = 0; i < size; i++) {
+      keys[i] = (String) pairs.get(i)[0];
+      keyIds[i] = (Long) pairs.get(i)[1];
+      addShortPrefixes(keys[i], shortPrefixes);
+    }
+    shortPrefixTop.clear();
+    shortPrefixes.forEach(this::refreshShortPrefix);
+  }
+
+  /**
+   * Додає назву або оновлює вже відому (наприклад, після перейменування). Якщо вага не відома,
+   * зберігається попередня вага запису з тим самим ID.
+   *
+   * @param id ID запису.
+   * @param name назва.
+   * @param weight вага популярності або {@code null}, щоб залишити поточну.
+   */
+  public synchronized void put(long id, String name, Long weight) {
+    NameCompletion previous = entries.get(id);
+    long effectiveWeight = weight != null ? weight : previous != null ? previous.getWeight() : 0;
+    if (previous != null) {
+      if (previous.getName().equals(name)) {
+        previous.setWeight(effectiveWeight);
+        refreshShortPrefixes(name, null);
+        return;
+      }
+      removeKeys(id, previous.getName());
+    }
+    entries.put(id, new NameCompletion(id, name, effectiveWeight));
+    for (String key : keysOf(name)) {
+      insertKey(key, id);
+    }
+    refreshShortPrefixes(name, previous != null ? previous.getName() : null);
+  }
+
+  /**
+   * Видаляє назву з індексу.
+   *
+   * @param id ID запису.
+   */
+  public synchronized void remove(long id) {
+    NameCompletion previous = entries.remove(id);
+    if (previous != null) {
+      removeKeys(id, previous.getName());
+      refreshShortPrefixes(previous.getName(), null);
+    }
+  }
+
+  /**
+   * Повертає до {@code limit} найпопулярніших назв, що починаються з префікса (або містять слово,
+   * що з нього починається).
+   *
+   * @param prefix введений текст.
+   * @param limit максимальна кількість варіантів.
+   * @return варіанти, найпопулярніші першими.
+   */
+  public synchronized List<NameCompletion> complete(String prefix, int limit) {
+    String normalized = normalize(prefix);
+    if (normalized.isEmpty() || limit <= 0) {
+      return List.of();
+    }
+    if (normalized.length() <= SHORT_PREFIX_LENGTH && limit <= SHORT_PREFIX_TOP) {
+      NameCompletion[] top = shortPrefixTop.get(normalized);
+      return top == null ? List.of() : List.of(Arrays.copyOf(top, Math.min(limit, top.length)));
+    }
+    return findBest(normalized, limit);
+  }
+
+  /** Кількість назв в індексі. */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Перебирає всі ключі з префіксом і відбирає {@code limit} найпопулярніших назв. Назва, кілька
+   * ключів якої підходять, потрапляє до відбору один раз: повтор або вже є серед кращих, або
+   * гірший за них.
+   */
+  private List<NameCompletion> findBest(String normalized, int limit) {
+    int from = lowerBound(normalized);
+    int to = lowerBound(normalized + Character.MAX_VALUE);
+
+    PriorityQueue<NameCompletion> best = new PriorityQueue<>(BY_POPULARITY.reversed());
+    for (int i = from; i < to; i++) {
+      NameCompletion candidate = entries.get(keyIds[i]);
+      if (best.size() < limit) {
+        if (!best.contains(candidate)) {
+          best.add(candidate);
+        }
+      } else if (BY_POPULARITY.compare(candidate, best.peek()) < 0 && !best.contains(candidate)) {
+        best.poll();
+        best.add(candidate);
+      }
+    }
+    List<NameCompletion> result = new ArrayList<>(best);
+    result.sort(BY_POPULARITY);
+    return result;
+  }
+
+  /** Переобчислює готові списки коротких префіксів, яких торкнулася зміна назв. */
+  private void refreshShortPrefixes(String name, String previousName) {
+    Set<String> prefixes = new HashSet<>();
+    for (String changed : new String[] {name, previousName}) {
+      if (changed != null) {
+        keysOf(changed).forEach(key -> addShortPrefixes(key, prefixes));
+      }
+    }
+    prefixes.forEach(this::refreshShortPrefix);
+  }
+
+  private void refreshShortPrefix(String prefix) {
+    List<NameCompletion> top = findBest(prefix, SHORT_PREFIX_TOP);
+    if (top.isEmpty()) {
+      shortPrefixTop.remove(prefix);
+    } else {
+      shortPrefixTop.put(prefix, top.toArray(new NameCompletion[0]));
+    }
+  }
+
+  private static void addShortPrefixes(String key, Set<String> prefixes) {
+    for (int length = 1; length <= Math.min(SHORT_PREFIX_LENGTH, key.length()); length++) {
+      prefixes.add(key.substring(0, length));
+    }
+  }
+
+  private void insertKey(String key, long id) {
+    if (size == keys.length) {
+      keys = Arrays.copyOf(keys, Math.max(16, size * 2));
+      keyIds = Arrays.copyOf(keyIds, keys.length);
+    }
+    int position = lowerBound(key);
+    System.arraycopy(keys, position, keys, position + 1, size - position);
+    System.arraycopy(keyIds, position, keyIds, position + 1, size - position);
+    keys[position] = key;
+    keyIds[position] = id;
+    size++;
+  }
+
+  private void removeKeys(long id, String name) {
+    for (String key : keysOf(name)) {
+      for (int i = lowerBound(key); i < size && keys[i].equals(key); i++) {
+        if (keyIds[i] == id) {
+          System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+          System.arraycopy(keyIds, i + 1, keyIds, i, size - i - 1);
+          size--;
+          keys[size] = null;
+          break;
+        }
+      }
+    }
+  }
+
+  private int lowerBound(String key) {
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (keys[mid].compareTo(key) < 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private static Set<String> keysOf(String name) {
+    String normalized = normalize(name);
+    Set<String> result = new LinkedHashSet<>();
+    if (normalized.isEmpty()) {
+      return result;
+    }
+    result.add(normalized);
+    for (int i = 1; i < normalized.length(); i++) {
+      if (!Character.isLetterOrDigit(normalized.charAt(i - 1))
+          && Character.isLetterOrDigit(normalized.charAt(i))) {
+        result.add(normalized.substring(i));
+      }
+    }
+    return result;
+  }
+
+  private static String normalize(String text) {
+    return text == null ? "" : text.strip().toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,114 @@
+package com.trailtales.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.trailtales.dto.NameCompletion;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AutocompleteIndexTest {
+
+  private AutocompleteIndex index;
+
+  @BeforeEach
+  void setUp() {
+    index = new AutocompleteIndex();
+    index.load(
+        List.of(
+            new NameCompletion(1L, "Карпати", 5),
+            new NameCompletion(2L, "Національний парк Карпати", 9),
+            new NameCompletion(3L, "Карпатський заповідник", 5),
+            new NameCompletion(4L, "Київ", 1)));
+  }
+
+  @Test
+  void matchesNameStartAndEveryWordStartByPopularity() {
+    assertEquals(List.of(2L, 1L, 3L), ids("карп", 10));
+    assertEquals(List.of(2L), ids("парк", 10));
+    assertEquals(List.of(), ids("арпати", 10));
+  }
+
+  @Test
+  void equalWeightsPreferShorterThenAlphabeticalNames() {
+    index.put(5L, "Карпатка", 5L);
+
+    assertEquals(List.of(2L, 1L, 5L, 3L), ids("карп", 10));
+  }
+
+  @Test
+  void limitKeepsMostPopular() {
+    assertEquals(List.of(2L, 1L), ids("к", 2));
+  }
+
+  @Test
+  void nameMatchingSeveralKeysIsReturnedOnce() {
+    index.put(6L, "Гора Говерла гора", 3L);
+
+    assertEquals(List.of(6L), ids("гора", 10));
+  }
+
+  @Test
+  void prefixIsTrimmedAndCaseInsensitive() {
+    assertEquals(List.of(4L), ids("  КИЇ ", 10));
+    assertEquals(List.of(), ids("   ", 10));
+    assertEquals(List.of(), ids(null, 10));
+    assertEquals(List.of(), ids("київ", 0));
+  }
+
+  @Test
+  void putWithoutWeightKeepsPreviousWeight() {
+    index.put(4L, "Київ", null);
+    assertEquals(1, index.complete("київ", 1).get(0).getWeight());
+
+    index.put(4L, "Київ", 20L);
+    assertEquals(List.of(4L, 2L), ids("к", 2));
+  }
+
+  @Test
+  void renameReplacesOldKeys() {
+    index.put(1L, "Говерла", null);
+
+    assertEquals(List.of(2L, 3L), ids("карп", 10));
+    assertEquals(List.of(1L), ids("гов", 10));
+    assertEquals(5, index.complete("гов", 1).get(0).getWeight());
+    assertEquals(4, index.size());
+  }
+
+  @Test
+  void removeDropsAllKeysOfName() {
+    index.remove(2L);
+    index.remove(42L); // відсутній запис ігнорується
+
+    assertEquals(List.of(1L, 3L), ids("карп", 10));
+    assertEquals(List.of(), ids("парк", 10));
+    assertEquals(3, index.size());
+  }
+
+  @Test
+  void insertsGrowEmptyIndex() {
+    index = new AutocompleteIndex();
+    for (long id = 1; id <= 40; id++) {
+      index.put(id, "Тег " + id, id);
+    }
+
+    assertEquals(40, index.size());
+    assertEquals(List.of(40L, 39L), ids("тег", 2));
+    assertEquals(List.of(40L, 39L), ids("т", 2));
+    assertEquals(40, ids("т", 100).size());
+  }
+
+  @Test
+  void shortPrefixListsFollowChanges() {
+    index.put(1L, "Говерла", null);
+    index.remove(4L);
+
+    assertEquals(List.of(2L, 3L), ids("к", 10));
+    assertEquals(List.of(1L), ids("г", 10));
+    assertEquals(List.of(2L), ids("на", 10));
+  }
+
+  private List<Long> ids(String prefix, int limit) {
+    return index.complete(prefix, limit).stream().map(NameCompletion::getId).toList();
+  }
+}
@@ -0,0 +1,63 @@
+package com.trailtales.service;
+
+import com.trailtales.dto.NameCompletion;
+import com.trailtales.entity.Location;
+import com.trailtales.entity.Tag;
+import java.util.List;
+
+/**
+ * Сервіс автодоповнення назв локацій і тегів у формах. Назви з вагами популярності завантажуються
+ * один раз за сесію і далі оновлюються поштучно з методів запису інших сервісів, тож підказки на
+ * кожне натискання клавіші не звертаються до бази даних.
+ */
+public interface AutocompleteService {
+
+  /** Запускає завантаження назв у фоновому потоці. Поки воно триває, підказки порожні. */
+  void loadAsync();
+
+  /**
+   * Повертає найпопулярніші локації, назва яких (або одне з її слів) починається з префікса.
+   *
+   * @param prefix введений текст.
+   * @param limit максимальна кількість варіантів.
+   * @return варіанти, найпопулярніші першими.
+   */
+  List<NameCompletion> completeLocations(String prefix, int limit);
+
+  /**
+   * Повертає найпопулярніші теги, назва яких (або одне з її слів) починається з префікса.
+   *
+   * @param prefix введений текст.
+   * @param limit максимальна кількість варіантів.
+   * @return варіанти, найпопулярніші першими.
+   */
+  List<NameCompletion> completeTags(String prefix, int limit);
+
+  /**
+   * Додає створену або оновлює перейменовану локацію.
+   *
+   * @param location збережена локація.
+   */
+  void onLocationSaved(Location location);
+
+  /**
+   * Видаляє локацію з підказок.
+   *
+   * @param locationId ID видаленої локації.
+   */
+  void onLocationDeleted(Long locationId);
+
+  /**
+   * Додає створений або оновлює перейменований тег.
+   *
+   * @param tag збережений тег.
+   */
+  void onTagSaved(Tag tag);
+
+  /**
+   * Видаляє тег з підказок.
+   *
+   * @param tagId ID видаленого тегу.
+   */
+  void onTagDeleted(Long tagId);
+}
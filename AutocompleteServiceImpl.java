@@ -0,0 +1,126 @@
+package com.trailtales.service.impl;
+
+import com.trailtales.dto.NameCompletion;
+import com.trailtales.entity.Location;
+import com.trailtales.entity.Tag;
+import com.trailtales.index.AutocompleteIndex;
+import com.trailtales.index.PendingChanges;
+import com.trailtales.repository.LocationRepository;
+import com.trailtales.repository.TagRepository;
+import com.trailtales.service.AutocompleteService;
+import java.util.List;
+import java.util.function.Consumer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class AutocompleteServiceImpl implements AutocompleteService {
+
+  private final LocationRepository locationRepository;
+  private final TagRepository tagRepository;
+
+  private final AutocompleteIndex locationIndex = new AutocompleteIndex();
+  private final AutocompleteIndex tagIndex = new AutocompleteIndex();
+
+  /** Зміни, що надійшли під час фонового завантаження; застосовуються після його завершення. */
+  private final PendingChanges<AutocompleteServiceImpl> pendingChanges = new PendingChanges<>();
+
+  private boolean loading;
+
+  /**
+   * Конструктор для впровадження залежностей.
+   *
+   * @param locationRepository Репозиторій для роботи з локаціями.
+   * @param tagRepository Репозиторій для роботи з тегами.
+   */
+  @Autowired
+  public AutocompleteServiceImpl(
+      LocationRepository locationRepository, TagRepository tagRepository) {
+    this.locationRepository = locationRepository;
+    this.tagRepository = tagRepository;
+  }
+
+  @Override
+  public void loadAsync() {
+    synchronized (this) {
+      if (loading) {
+        return;
+      }
+      loading = true;
+      pendingChanges.begin();
+    }
+    Thread loader = new Thread(this::load, "autocomplete-loader");
+    loader.setDaemon(true);
+    loader.start();
+  }
+
+  private void load() {
+    long startedAt = System.currentTimeMillis();
+    try {
+      List<NameCompletion> locations = locationRepository.findNameWeights();
+      List<NameCompletion> tags = tagRepository.findNameWeights();
+      synchronized (this) {
+        locationIndex.load(locations);
+        tagIndex.load(tags);
+        pendingChanges.replay(this);
+      }
+      System.out.println(
+          "Підказки автодоповнення завантажено за "
+              + (System.currentTimeMillis() - startedAt)
+              + " мс ("
+              + locations.size()
+              + " локацій, "
+              + tags.size()
+              + " тегів).");
+    } catch (RuntimeException e) {
+      System.err.println("Помилка завантаження підказок автодоповнення: " + e.getMessage());
+    } finally {
+      synchronized (this) {
+        pendingChanges.discard();
+        loading = false;
+      }
+    }
+  }
+
+  @Override
+  public List<NameCompletion> completeLocations(String prefix, int limit) {
+    return locationIndex.complete(prefix, limit);
+  }
+
+  @Override
+  public List<NameCompletion> completeTags(String prefix, int limit) {
+    return tagIndex.complete(prefix, limit);
+  }
+
+  @Override
+  public void onLocationSaved(Location location) {
+    if (location != null && location.getId() != null) {
+      apply(service -> service.locationIndex.put(location.getId(), location.getName(), null));
+    }
+  }
+
+  @Override
+  public void onLocationDeleted(Long locationId) {
+    if (locationId != null) {
+      apply(service -> service.locationIndex.remove(locationId));
+    }
+  }
+
+  @Override
+  public void onTagSaved(Tag tag) {
+    if (tag != null && tag.getId() != null) {
+      apply(service -> service.tagIndex.put(tag.getId(), tag.getName(), null));
+    }
+  }
+
+  @Override
+  public void onTagDeleted(Long tagId) {
+    if (tagId != null) {
+      apply(service -> service.tagIndex.remove(tagId));
+    }
+  }
+
+  private synchronized void apply(Consumer<AutocompleteServiceImpl> change) {
+    pendingChanges.apply(this, change);
+  }
+}
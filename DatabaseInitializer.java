@@ -1,21 +1,65 @@
 package com.trailtales.util;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
 import javax.sql.DataSource;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
-import org.springframework.jdbc.datasource.init.ScriptUtils;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
 
+/**
+ * Застосовує версійовані міграції схеми бази даних. Кожен скрипт виконується лише один раз; його
+ * версія та контрольна сума фіксуються в таблиці {@code schema_version}. Якщо схема актуальна,
+ * ініціалізація зводиться до одного запиту без жодних блокувань і без читання скриптів.
+ * Контрольні суми застосованих скриптів звіряються, коли є нові міграції, перед їх застосуванням.
+ */
 public class DatabaseInitializer {
 
+  /**
+   * Ключ рекомендаційного блокування PostgreSQL, яке серіалізує застосування міграцій між
+   * клієнтами, що стартують одночасно.
+   */
+  private static final long MIGRATION_LOCK_KEY = 0x7472_6169_6c74_616cL;
+
+  /** SQLSTATE PostgreSQL для звернення до таблиці, якої не існує. */
+  private static final String UNDEFINED_TABLE = "42P01";
+
+  /**
+   * Упорядкований список міграцій. Вже застосовані скрипти змінювати не можна (це виявить
+   * перевірка контрольної суми) — зміни схеми чи даних додаються новими версіями в кінець списку.
+   */
+  private static final List<Migration> MIGRATIONS =
+      List.of(
+          new Migration(1, "Базова схема", "ddl.sql"),
+          new Migration(2, "Початкові дані", "dml.sql"),
+          new Migration(3, "Індекси лічильників подорожі", "V3__journey_child_indexes.sql"),
+          new Migration(4, "Діапазон дат подорожі", "V4__journey_date_range.sql"),
+          new Migration(5, "Індекс хронології подій", "V5__event_timeline_index.sql"),
+          new Migration(6, "Повнотекстовий пошук подорожей", "V6__journey_full_text_search.sql"),
+          new Migration(7, "Триграмні індекси назв", "V7__name_trigram_indexes.sql"),
+          new Migration(8, "Просторовий індекс локацій", "V8__location_geo_index.sql"),
+          new Migration(9, "Метрики маршруту подорожі", "V9__journey_route_metrics.sql"),
+          new Migration(10, "Зменшені копії фотографій", "V10__photo_thumbnails.sql"),
+          new Migration(11, "Сховище фотографій за вмістом", "V11__photo_blobs.sql"),
+          new Migration(12, "Метадані EXIF фотографій", "V12__photo_exif.sql"),
+          new Migration(13, "Звірка сховища фотографій", "V13__storage_reconciliation.sql"),
+          new Migration(14, "Сесії завантаження великих файлів", "V14__upload_sessions.sql"),
+          new Migration(15, "Триграмні індекси подій", "V15__event_trigram_indexes.sql"));
+
   private final DataSource dataSource;
 
   public DatabaseInitializer(DataSource dataSource, JdbcTemplate jdbcTemplate) {
@@ -23,59 +67,182 @@ public class DatabaseInitializer {
   }
 
   public void initialize() {
-    Connection connection = null;
-    try {
-      connection = dataSource.getConnection();
-      connection.setAutoCommit(false);
-
-      System.out.println("Виконання скрипту ddl.sql...");
-      executeScript(connection, "ddl.sql");
-
-      System.out.println("Виконання скрипту dml.sql...");
-      executeScript(connection, "dml.sql");
+    long startedAt = System.currentTimeMillis();
+    try (Connection connection = dataSource.getConnection()) {
+      if (isUpToDate(connection)) {
+        System.out.println(
+            "Схема бази даних актуальна (перевірка за "
+                + (System.currentTimeMillis() - startedAt)
+                + " мс).");
+        return;
+      }
 
-      connection.commit();
-      System.out.println("База даних успішно ініціалізована та дані зафіксовано.");
+      acquireMigrationLock(connection);
+      try {
+        ensureSchemaVersionTable(connection);
+        Map<Integer, String> checksums = computeChecksums();
+        Map<Integer, String> applied = loadAppliedChecksums(connection);
+        verifyChecksums(applied, checksums);
 
-    } catch (Exception e) {
-      if (connection != null) {
-        try {
-          connection.rollback();
-          System.err.println("Транзакцію ініціалізації бази даних відкочено.");
-        } catch (SQLException ex) {
-          System.err.println("Помилка відкочування транзакції: " + ex.getMessage());
+        for (Migration migration : MIGRATIONS) {
+          if (!applied.containsKey(migration.version())) {
+            applyMigration(connection, migration, checksums.get(migration.version()));
+          }
         }
+      } finally {
+        releaseMigrationLock(connection);
       }
+      System.out.println(
+          "Базу даних успішно ініціалізовано за "
+              + (System.currentTimeMillis() - startedAt)
+              + " мс.");
+    } catch (Exception e) {
       System.err.println("Помилка ініціалізації бази даних: " + e.getMessage());
       e.printStackTrace();
       throw new RuntimeException("Помилка ініціалізації бази даних", e);
-    } finally {
-      if (connection != null) {
-        try {
-          connection.setAutoCommit(true);
-          connection.close();
-        } catch (SQLException e) {
-          System.err.println("Помилка закриття з'єднання: " + e.getMessage());
-        }
+    }
+  }
+
+  /**
+   * Швидка перевірка одним запитом без блокувань: схема актуальна, якщо всі відомі версії вже
+   * зафіксовані. Таблиці {@code schema_version} ще немає лише в порожній базі.
+   */
+  private boolean isUpToDate(Connection connection) throws SQLException {
+    Map<Integer, String> applied;
+    try {
+      applied = loadAppliedChecksums(connection);
+    } catch (SQLException e) {
+      if (UNDEFINED_TABLE.equals(e.getSQLState())) {
+        return false;
       }
+      throw e;
     }
+    return MIGRATIONS.stream().allMatch(migration -> applied.containsKey(migration.version()));
   }
 
-  private void executeScript(Connection connection, String scriptFileName) throws SQLException, IOException {
-    Resource resource = new ClassPathResource(scriptFileName);
-    if (scriptFileName.equals("ddl.sql")) {
-      String scriptContent;
-      try (BufferedReader reader =
-                   new BufferedReader(
-                           new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
-        scriptContent = reader.lines().collect(Collectors.joining("\n"));
+  private void ensureSchemaVersionTable(Connection connection) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute(
+          "CREATE TABLE IF NOT EXISTS schema_version ("
+              + "version INTEGER PRIMARY KEY, "
+              + "description VARCHAR(255) NOT NULL, "
+              + "script VARCHAR(255) NOT NULL, "
+              + "checksum VARCHAR(64) NOT NULL, "
+              + "execution_time_ms BIGINT NOT NULL, "
+              + "applied_at TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP)");
+    }
+  }
+
+  private Map<Integer, String> loadAppliedChecksums(Connection connection) throws SQLException {
+    Map<Integer, String> applied = new HashMap<>();
+    try (Statement statement = connection.createStatement();
+        ResultSet rs = statement.executeQuery("SELECT version, checksum FROM schema_version")) {
+      while (rs.next()) {
+        applied.put(rs.getInt("version"), rs.getString("checksum"));
+      }
+    }
+    return applied;
+  }
+
+  private void verifyChecksums(Map<Integer, String> applied, Map<Integer, String> checksums) {
+    List<String> mismatches = new ArrayList<>();
+    for (Migration migration : MIGRATIONS) {
+      String appliedChecksum = applied.get(migration.version());
+      if (appliedChecksum != null && !appliedChecksum.equals(checksums.get(migration.version()))) {
+        mismatches.add(migration.version() + " (" + migration.script() + ")");
+      }
+    }
+    if (!mismatches.isEmpty()) {
+      throw new IllegalStateException(
+          "Контрольна сума вже застосованих міграцій не збігається: "
+              + String.join(", ", mismatches)
+              + ". Зміни схеми слід додавати новою міграцією.");
+    }
+  }
+
+  private void applyMigration(Connection connection, Migration migration, String checksum)
+      throws SQLException, IOException {
+    long startedAt = System.currentTimeMillis();
+    connection.setAutoCommit(false);
+    try {
+      System.out.println(
+          "Застосування міграції " + migration.version() + ": " + migration.script() + "...");
+      executeScript(connection, migration.script());
+
+      try (PreparedStatement ps =
+          connection.prepareStatement(
+              "INSERT INTO schema_version (version, description, script, checksum, execution_time_ms) VALUES (?, ?, ?, ?, ?)")) {
+        ps.setInt(1, migration.version());
+        ps.setString(2, migration.description());
+        ps.setString(3, migration.script());
+        ps.setString(4, checksum);
+        ps.setLong(5, System.currentTimeMillis() - startedAt);
+        ps.executeUpdate();
       }
+      connection.commit();
+    } catch (SQLException | IOException | RuntimeException e) {
+      connection.rollback();
+      System.err.println("Транзакцію міграції " + migration.version() + " відкочено.");
+      throw e;
+    } finally {
+      connection.setAutoCommit(true);
+    }
+  }
+
+  private void acquireMigrationLock(Connection connection) throws SQLException {
+    try (PreparedStatement ps = connection.prepareStatement("SELECT pg_advisory_lock(?)")) {
+      ps.setLong(1, MIGRATION_LOCK_KEY);
+      ps.execute();
+    }
+  }
+
+  private void releaseMigrationLock(Connection connection) {
+    try (PreparedStatement ps = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+      ps.setLong(1, MIGRATION_LOCK_KEY);
+      ps.execute();
+    } catch (SQLException e) {
+      System.err.println("Помилка зняття блокування міграцій: " + e.getMessage());
+    }
+  }
+
+  private Map<Integer, String> computeChecksums() throws IOException {
+    Map<Integer, String> checksums = new HashMap<>();
+    for (Migration migration : MIGRATIONS) {
+      checksums.put(migration.version(), sha256(readScript(migration.script())));
+    }
+    return checksums;
+  }
+
+  private void executeScript(Connection connection, String scriptFileName)
+      throws SQLException, IOException {
+    String scriptContent = readScript(scriptFileName);
+    // Скрипти з тілами функцій ($$ ... $$) не можна розбивати за крапкою з комою,
+    // тому вони виконуються одним запитом.
+    if (scriptContent.contains("$$")) {
       try (Statement statement = connection.createStatement()) {
         statement.execute(scriptContent);
       }
     } else {
-      ScriptUtils.executeSqlScript(connection, resource);
+      ScriptUtils.executeSqlScript(connection, new ClassPathResource(scriptFileName));
     }
     System.out.println("Скрипт " + scriptFileName + " успішно виконано.");
   }
-}
\ No newline at end of file
+
+  private String readScript(String scriptFileName) throws IOException {
+    Resource resource = new ClassPathResource(scriptFileName);
+    try (InputStream in = resource.getInputStream()) {
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+
+  private static String sha256(String content) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("Алгоритм SHA-256 недоступний", e);
+    }
+  }
+
+  private record Migration(int version, String description, String script) {}
+}
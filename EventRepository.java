@@ -1,11 +1,16 @@
 package com.trailtales.repository;
 
 import com.trailtales.entity.Event;
+import com.trailtales.util.SqlUtils;
 import java.sql.PreparedStatement;
 import java.sql.Statement;
 import java.sql.Timestamp;
 import java.sql.Types;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -21,6 +26,12 @@ public class EventRepository {
 
   private final JdbcTemplate jdbcTemplate;
 
+  /** Вираз ключа сортування хронології; має збігатися з індексом idx_events_journey_timeline. */
+  private static final String TIMELINE_KEY = "event_date, COALESCE(event_time, TIME '00:00'), id";
+
+  private static final String SELECT_EVENTS =
+      "SELECT id, journey_id, name, description, event_date, event_time, location_id, created_at, updated_at FROM events ";
+
   /** RowMapper для відображення рядків ResultSet у об'єкти Event. */
   private final RowMapper<Event> eventRowMapper =
       (rs, rowNum) -> {
@@ -83,14 +94,146 @@ public class EventRepository {
    * Знаходить події за ID подорожі.
    *
    * @param journeyId ID подорожі.
-   * @return Список об'єктів Event, пов'язаних з вказаною подорожжю.
+   * @return Список об'єктів Event, пов'язаних з вказаною подорожжю, у хронологічному порядку
+   *     (події без дати — в кінці).
    */
   public List<Event> findByJourneyId(Long journeyId) {
     String sql =
-        "SELECT id, journey_id, name, description, event_date, event_time, location_id, created_at, updated_at FROM events WHERE journey_id = ?";
+        SELECT_EVENTS
+            + "WHERE journey_id = ? "
+            + "ORDER BY event_date NULLS LAST, COALESCE(event_time, TIME '00:00'), id";
     return jdbcTemplate.query(sql, eventRowMapper, journeyId);
   }
 
+  /**
+   * Знаходить події кількох подорожей одним запитом.
+   *
+   * @param journeyIds ID подорожей.
+   * @return Список подій у довільному порядку.
+   */
+  public List<Event> findByJourneyIds(Collection<Long> journeyIds) {
+    if (journeyIds == null || journeyIds.isEmpty()) {
+      return List.of();
+    }
+    String sql = SELECT_EVENTS + "WHERE journey_id = ANY (?)";
+    return jdbcTemplate.query(
+        connection -> {
+          PreparedStatement ps = connection.prepareStatement(sql);
+          ps.setArray(1, connection.createArrayOf("bigint", journeyIds.toArray()));
+          return ps;
+        },
+        eventRowMapper);
+  }
+
+  /**
+   * Повертає наступну сторінку хронології подорожі: події з ключем (дата, час, id), строго
+   * більшим за вказану позицію, у хронологічному порядку. Якщо {@code afterId} дорівнює
+   * {@code null}, сторінка починається з подій, що відбулися в момент (date, time). Події без дати
+   * до хронології не входять.
+   *
+   * @param journeyId ID подорожі.
+   * @param date дата позиції; {@code null} — від початку хронології.
+   * @param time час позиції; {@code null} — початок дня.
+   * @param afterId ID останньої побаченої події.
+   * @param limit максимальна кількість подій.
+   * @return список подій у хронологічному порядку.
+   */
+  public List<Event> findTimelineAfter(
+      Long journeyId, LocalDate date, LocalTime time, Long afterId, int limit) {
+    if (date == null) {
+      return jdbcTemplate.query(
+          SELECT_EVENTS
+              + "WHERE journey_id = ? AND event_date IS NOT NULL ORDER BY "
+              + TIMELINE_KEY
+              + " LIMIT ?",
+          eventRowMapper,
+          journeyId,
+          limit);
+    }
+    return jdbcTemplate.query(
+        SELECT_EVENTS
+            + "WHERE journey_id = ? AND event_date IS NOT NULL AND ("
+            + TIMELINE_KEY
+            + ") > (?, ?, ?) ORDER BY "
+            + TIMELINE_KEY
+            + " LIMIT ?",
+        eventRowMapper,
+        journeyId,
+        java.sql.Date.valueOf(date),
+        java.sql.Time.valueOf(time != null ? time : LocalTime.MIDNIGHT),
+        afterId != null ? afterId : 0L,
+        limit);
+  }
+
+  /**
+   * Повертає попередню сторінку хронології подорожі: події з ключем (дата, час, id), строго
+   * меншим за вказану позицію. Запит читає індекс у зворотному порядку, а результат повертається
+   * у хронологічному. Якщо {@code beforeId} дорівнює {@code null}, сторінка закінчується подіями,
+   * що відбулися до моменту (date, time).
+   *
+   * @param journeyId ID подорожі.
+   * @param date дата позиції; {@code null} — від кінця хронології.
+   * @param time час позиції; {@code null} — початок дня.
+   * @param beforeId ID першої побаченої події.
+   * @param limit максимальна кількість подій.
+   * @return список подій у хронологічному порядку.
+   */
+  public List<Event> findTimelineBefore(
+      Long journeyId, LocalDate date, LocalTime time, Long beforeId, int limit) {
+    String descending =
+        "event_date DESC, COALESCE(event_time, TIME '00:00') DESC, id DESC LIMIT ?";
+    List<Event> events;
+    if (date == null) {
+      events =
+          jdbcTemplate.query(
+              SELECT_EVENTS + "WHERE journey_id = ? AND event_date IS NOT NULL ORDER BY " + descending,
+              eventRowMapper,
+              journeyId,
+              limit);
+    } else {
+      events =
+          jdbcTemplate.query(
+              SELECT_EVENTS
+                  + "WHERE journey_id = ? AND event_date IS NOT NULL AND ("
+                  + TIMELINE_KEY
+                  + ") < (?, ?, ?) ORDER BY "
+                  + descending,
+              eventRowMapper,
+              journeyId,
+              java.sql.Date.valueOf(date),
+              java.sql.Time.valueOf(time != null ? time : LocalTime.MIDNIGHT),
+              beforeId != null ? beforeId : 0L,
+              limit);
+    }
+    Collections.reverse(events);
+    return events;
+  }
+
+  /**
+   * Шукає події, назва або опис яких містить вказаний текст (без урахування регістру). Фільтрація,
+   * сортування та обмеження кількості виконуються на боці бази даних; {@code ILIKE} з провідним
+   * {@code %} обслуговують триграмні індекси (міграція V15).
+   *
+   * @param query текст для пошуку; порожній або {@code null} повертає останні події без фільтра.
+   * @param limit максимальна кількість подій у результаті.
+   * @return список подій, відсортований від найновіших.
+   */
+  public List<Event> search(String query, int limit) {
+    String select =
+        "SELECT id, journey_id, name, description, event_date, event_time, location_id, created_at, updated_at FROM events ";
+    String order = "ORDER BY event_date DESC NULLS LAST, event_time DESC NULLS LAST, id DESC LIMIT ?";
+    if (query == null || query.isBlank()) {
+      return jdbcTemplate.query(select + order, eventRowMapper, limit);
+    }
+    String pattern = SqlUtils.containsPattern(query.trim());
+    return jdbcTemplate.query(
+        select + "WHERE name ILIKE ? OR description ILIKE ? " + order,
+        eventRowMapper,
+        pattern,
+        pattern,
+        limit);
+  }
+
   /**
    * Зберігає або оновлює подію у базі даних.
    *
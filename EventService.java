@@ -1,6 +1,7 @@
 package com.trailtales.service;
 
 import com.trailtales.dto.EventCreationDto;
+import com.trailtales.dto.EventTimelineCursor;
 import com.trailtales.entity.Event;
 import com.trailtales.entity.User;
 import java.util.List;
@@ -39,6 +40,17 @@ public interface EventService {
    */
   List<Event> getAllEvents();
 
+  /**
+   * Шукає події за текстом у назві або описі. Фільтрація та ліміт виконуються в базі даних, тому
+   * метод придатний для виклику на кожне натискання клавіші в полі пошуку.
+   *
+   * @param query текст для пошуку (порожній рядок повертає останні події).
+   * @param limit максимальна кількість подій у результаті.
+   * @return список {@link Event}, відсортований від найновіших.
+   * @throws IllegalArgumentException якщо ліміт не є додатним.
+   */
+  List<Event> searchEvents(String query, int limit);
+
   /**
    * Повертає список усіх подій, пов'язаних з певною подорожжю.
    *
@@ -47,6 +59,32 @@ public interface EventService {
    */
   List<Event> getEventsByJourneyId(Long journeyId);
 
+  /**
+   * Повертає сторінку хронології подорожі, що йде одразу після вказаної позиції. Для переходу до
+   * "сьогодні" використовується {@link EventTimelineCursor#at}, для гортання вперед — {@link
+   * EventTimelineCursor#of} від останньої події попередньої сторінки. Події без дати до хронології
+   * не входять.
+   *
+   * @param journeyId ID подорожі.
+   * @param cursor позиція в хронології; {@code null} — від початку подорожі.
+   * @param limit максимальна кількість подій на сторінці.
+   * @return список {@link Event}, упорядкований за датою та часом.
+   * @throws IllegalArgumentException якщо ID подорожі не задано або ліміт не є додатним.
+   */
+  List<Event> getTimelineAfter(Long journeyId, EventTimelineCursor cursor, int limit);
+
+  /**
+   * Повертає сторінку хронології подорожі, що передує вказаній позиції. Для гортання назад
+   * позиція будується від першої події поточної сторінки.
+   *
+   * @param journeyId ID подорожі.
+   * @param cursor позиція в хронології; {@code null} — останні події подорожі.
+   * @param limit максимальна кількість подій на сторінці.
+   * @return список {@link Event}, упорядкований за датою та часом.
+   * @throws IllegalArgumentException якщо ID подорожі не задано або ліміт не є додатним.
+   */
+  List<Event> getTimelineBefore(Long journeyId, EventTimelineCursor cursor, int limit);
+
   /**
    * Оновлює існуючу подію. Об'єкт {@code event} повинен містити ID події, яку потрібно оновити, а
    * також поля, які підлягають оновленню.
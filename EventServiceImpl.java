@@ -1,6 +1,7 @@
 package com.trailtales.service.impl;
 
 import com.trailtales.dto.EventCreationDto;
+import com.trailtales.dto.EventTimelineCursor;
 import com.trailtales.entity.Event;
 import com.trailtales.entity.Journey;
 import com.trailtales.entity.Location;
@@ -8,7 +9,12 @@ import com.trailtales.entity.User;
 import com.trailtales.repository.EventRepository;
 import com.trailtales.repository.JourneyRepository;
 import com.trailtales.repository.LocationRepository;
+import com.trailtales.service.AutocompleteService;
 import com.trailtales.service.EventService;
+import com.trailtales.service.RouteMetricsService;
+import com.trailtales.service.SearchIndexService;
+import com.trailtales.util.SqlUtils;
+import com.trailtales.util.TransactionUtils;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
 import java.time.LocalDateTime;
@@ -27,17 +33,26 @@ public class EventServiceImpl implements EventService {
   private final JourneyRepository journeyRepository;
   private final LocationRepository locationRepository;
   private final Validator validator;
+  private final SearchIndexService searchIndexService;
+  private final AutocompleteService autocompleteService;
+  private final RouteMetricsService routeMetricsService;
 
   @Autowired
   public EventServiceImpl(
       EventRepository eventRepository,
       JourneyRepository journeyRepository,
       LocationRepository locationRepository,
-      Validator validator) {
+      Validator validator,
+      SearchIndexService searchIndexService,
+      AutocompleteService autocompleteService,
+      RouteMetricsService routeMetricsService) {
     this.eventRepository = eventRepository;
     this.journeyRepository = journeyRepository;
     this.locationRepository = locationRepository;
     this.validator = validator;
+    this.searchIndexService = searchIndexService;
+    this.autocompleteService = autocompleteService;
+    this.routeMetricsService = routeMetricsService;
   }
 
   @Override
@@ -92,7 +107,18 @@ public class EventServiceImpl implements EventService {
     event.setCreatedAt(LocalDateTime.now());
     event.setUpdatedAt(LocalDateTime.now());
 
-    return eventRepository.save(event);
+    Event savedEvent = eventRepository.save(event);
+    Location eventLocation = location;
+    TransactionUtils.afterCommit(
+        () -> {
+          searchIndexService.onEventSaved(savedEvent);
+          if (eventLocation != null) {
+            searchIndexService.onLocationSaved(eventLocation);
+            autocompleteService.onLocationSaved(eventLocation);
+          }
+        });
+    routeMetricsService.requestRefresh();
+    return savedEvent;
   }
 
   @Override
@@ -107,12 +133,48 @@ public class EventServiceImpl implements EventService {
     return eventRepository.findAll();
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public List<Event> searchEvents(String query, int limit) {
+    SqlUtils.requirePositiveLimit(limit);
+    return eventRepository.search(query, limit);
+  }
+
   @Override
   @Transactional(readOnly = true)
   public List<Event> getEventsByJourneyId(Long journeyId) {
     return eventRepository.findByJourneyId(journeyId);
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public List<Event> getTimelineAfter(Long journeyId, EventTimelineCursor cursor, int limit) {
+    validateTimelineRequest(journeyId, limit);
+    if (cursor == null) {
+      return eventRepository.findTimelineAfter(journeyId, null, null, null, limit);
+    }
+    return eventRepository.findTimelineAfter(
+        journeyId, cursor.getDate(), cursor.getTime(), cursor.getEventId(), limit);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<Event> getTimelineBefore(Long journeyId, EventTimelineCursor cursor, int limit) {
+    validateTimelineRequest(journeyId, limit);
+    if (cursor == null) {
+      return eventRepository.findTimelineBefore(journeyId, null, null, null, limit);
+    }
+    return eventRepository.findTimelineBefore(
+        journeyId, cursor.getDate(), cursor.getTime(), cursor.getEventId(), limit);
+  }
+
+  private void validateTimelineRequest(Long journeyId, int limit) {
+    if (journeyId == null) {
+      throw new IllegalArgumentException("ID подорожі не може бути порожнім.");
+    }
+    SqlUtils.requirePositiveLimit(limit);
+  }
+
   @Override
   @Transactional
   public Event updateEvent(Event eventUpdates, User currentUser) {
@@ -179,7 +241,10 @@ public class EventServiceImpl implements EventService {
     }
 
     existingEvent.setUpdatedAt(LocalDateTime.now());
-    return eventRepository.save(existingEvent);
+    Event savedEvent = eventRepository.save(existingEvent);
+    TransactionUtils.afterCommit(() -> searchIndexService.onEventSaved(savedEvent));
+    routeMetricsService.requestRefresh();
+    return savedEvent;
   }
 
   @Override
@@ -209,6 +274,8 @@ public class EventServiceImpl implements EventService {
       }
     }
     eventRepository.deleteById(id);
+    TransactionUtils.afterCommit(() -> searchIndexService.onEventDeleted(id));
+    routeMetricsService.requestRefresh();
   }
 
   @Override
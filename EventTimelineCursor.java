@@ -0,0 +1,45 @@
+package com.trailtales.dto;
+
+import com.trailtales.entity.Event;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Позиція у хронології подій подорожі для посторінкової навігації. Події впорядковуються за ключем
+ * (дата, час, ID); подія без часу вважається такою, що відбулася на початку дня.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventTimelineCursor {
+  private LocalDate date;
+  private LocalTime time;
+
+  /** ID події, на якій зупинилася попередня сторінка; {@code null} для позиції за моментом часу. */
+  private Long eventId;
+
+  /**
+   * Створює позицію одразу після (або перед) вказаною подією.
+   *
+   * @param event остання подія попередньої сторінки; повинна мати дату.
+   * @return позиція в хронології.
+   */
+  public static EventTimelineCursor of(Event event) {
+    return new EventTimelineCursor(event.getEventDate(), event.getEventTime(), event.getId());
+  }
+
+  /**
+   * Створює позицію за моментом часу, наприклад "сьогодні": сторінка вперед починається з подій у
+   * цей момент, сторінка назад закінчується подіями перед ним.
+   *
+   * @param instant момент часу.
+   * @return позиція в хронології.
+   */
+  public static EventTimelineCursor at(LocalDateTime instant) {
+    return new EventTimelineCursor(instant.toLocalDate(), instant.toLocalTime(), null);
+  }
+}
@@ -7,10 +7,11 @@ import com.trailtales.entity.Journey;
 import com.trailtales.entity.User;
 import com.trailtales.service.EventService;
 import com.trailtales.service.JourneyService;
+import com.trailtales.service.SearchIndexService;
 import com.trailtales.ui.MainApplicationFrame;
 import com.trailtales.ui.UIConstants;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import javafx.animation.PauseTransition;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
@@ -19,11 +20,19 @@ import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Text;
+import javafx.util.Duration;
 
 public class EventViewManager {
 
+  /** Максимальна кількість рядків, яку список запитує з бази даних за один раз. */
+  private static final int MAX_VISIBLE_ITEMS = 200;
+
+  /** Затримка перед запитом пошуку, щоб не звертатися до бази на кожне натискання клавіші. */
+  private static final Duration SEARCH_DEBOUNCE = Duration.millis(250);
+
   private final EventService eventService;
   private final JourneyService journeyService;
+  private final SearchIndexService searchIndexService;
   private final User currentUser;
   private final MainApplicationFrame mainAppFrame;
 
@@ -33,10 +42,12 @@ public class EventViewManager {
   public EventViewManager(
       EventService eventService,
       JourneyService journeyService,
+      SearchIndexService searchIndexService,
       User currentUser,
       MainApplicationFrame mainAppFrame) {
     this.eventService = eventService;
     this.journeyService = journeyService;
+    this.searchIndexService = searchIndexService;
     this.currentUser = currentUser;
     this.mainAppFrame = mainAppFrame;
   }
@@ -87,7 +98,19 @@ public class EventViewManager {
             });
 
     refreshEventList(searchField.getText());
-    searchField.textProperty().addListener((obs, oldVal, newVal) -> refreshEventList(newVal));
+    PauseTransition searchDebounce = new PauseTransition(SEARCH_DEBOUNCE);
+    searchDebounce.setOnFinished(e -> refreshEventList(searchField.getText()));
+    searchField
+        .textProperty()
+        .addListener(
+            (obs, oldVal, newVal) -> {
+              if (searchIndexService.isReady()) {
+                searchDebounce.stop();
+                refreshEventList(newVal);
+              } else {
+                searchDebounce.playFromStart();
+              }
+            });
 
     Button createBtn = new Button("Створити");
     createBtn.setStyle(UIConstants.BUTTON_STYLE_PRIMARY);
@@ -169,26 +192,21 @@ public class EventViewManager {
   }
 
   public void refreshEventList(String searchText) {
-    String currentSearchText = searchText != null ? searchText.toLowerCase() : "";
-    ObservableList<Event> sourceList = loadEvents();
-    if (currentSearchText.isEmpty()) {
-      eventListView.setItems(sourceList);
-    } else {
-      eventListView.setItems(
-          sourceList.stream()
-              .filter(
-                  event ->
-                      (event.getName() != null
-                              && event.getName().toLowerCase().contains(currentSearchText))
-                          || (event.getDescription() != null
-                              && event.getDescription().toLowerCase().contains(currentSearchText)))
-              .collect(Collectors.toCollection(FXCollections::observableArrayList)));
-    }
+    eventListView.setItems(loadEvents(searchText));
   }
 
-  private ObservableList<Event> loadEvents() {
+  /**
+   * Непорожній запит після побудови пошукового індексу обслуговується з пам'яті (події подорожей
+   * користувача); інакше — пошуком у базі даних.
+   */
+  private ObservableList<Event> loadEvents(String searchText) {
     try {
-      return FXCollections.observableArrayList(eventService.getAllEvents());
+      if (searchText != null && !searchText.isBlank() && searchIndexService.isReady()) {
+        return FXCollections.observableArrayList(
+            searchIndexService.searchEvents(searchText, MAX_VISIBLE_ITEMS));
+      }
+      return FXCollections.observableArrayList(
+          eventService.searchEvents(searchText, MAX_VISIBLE_ITEMS));
     } catch (Exception e) {
       mainAppFrame.showAlert(
           Alert.AlertType.ERROR, "Помилка", "Не вдалося оновити список подій: " + e.getMessage());
@@ -0,0 +1,373 @@
+package com.trailtales.util;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+/**
+ * Читає метадані фотографії: час зйомки, камеру, орієнтацію, розміри та координати GPS. Для JPEG
+ * файл читається потоково лише до кадру: маркери сегментів перебираються, тіла непотрібних
+ * сегментів пропускаються, а в пам'ять потрапляє тільки сегмент APP1 з EXIF. Для інших форматів
+ * розміри беруться із заголовка через {@link ImageIO} без декодування зображення.
+ */
+public final class ExifReader {
+
+  private static final int MARKER_SOI = 0xD8;
+  private static final int MARKER_EOI = 0xD9;
+  private static final int MARKER_SOS = 0xDA;
+  private static final int MARKER_APP1 = 0xE1;
+
+  private static final byte[] EXIF_HEADER = {'E', 'x', 'i', 'f', 0, 0};
+
+  private static final int TAG_MAKE = 0x010F;
+  private static final int TAG_MODEL = 0x0110;
+  private static final int TAG_ORIENTATION = 0x0112;
+  private static final int TAG_DATE_TIME = 0x0132;
+  private static final int TAG_EXIF_IFD = 0x8769;
+  private static final int TAG_GPS_IFD = 0x8825;
+  private static final int TAG_DATE_TIME_ORIGINAL = 0x9003;
+  private static final int TAG_PIXEL_X_DIMENSION = 0xA002;
+  private static final int TAG_PIXEL_Y_DIMENSION = 0xA003;
+  private static final int TAG_GPS_LATITUDE_REF = 0x0001;
+  private static final int TAG_GPS_LATITUDE = 0x0002;
+  private static final int TAG_GPS_LONGITUDE_REF = 0x0003;
+  private static final int TAG_GPS_LONGITUDE = 0x0004;
+
+  private static final int TYPE_BYTE = 1;
+  private static final int TYPE_ASCII = 2;
+  private static final int TYPE_SHORT = 3;
+  private static final int TYPE_LONG = 4;
+  private static final int TYPE_RATIONAL = 5;
+
+  /** Найдовший рядок (виробник, модель камери), що зберігається; відповідає стовпцям таблиці. */
+  private static final int MAX_TEXT_LENGTH = 100;
+
+  private static final DateTimeFormatter EXIF_DATE_TIME =
+      DateTimeFormatter.ofPattern("yyyy:MM:dd HH:mm:ss");
+
+  private ExifReader() {}
+
+  /**
+   * Читає метадані файлу. Відсутні теги та пошкоджений EXIF дають {@code null} у відповідних
+   * полях, а не помилку.
+   *
+   * @param file файл фотографії.
+   * @return метадані; {@link Metadata#EMPTY}, якщо формат не розпізнано.
+   * @throws IOException якщо файл не вдалося прочитати.
+   */
+  public static Metadata read(Path file) throws IOException {
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if (in.readUnsignedByte() == 0xFF && in.readUnsignedByte() == MARKER_SOI) {
+        return readJpeg(in);
+      }
+    } catch (EOFException e) {
+      return Metadata.EMPTY;
+    }
+    return readImageHeader(file);
+  }
+
+  private static Metadata readJpeg(DataInputStream in) throws IOException {
+    MetadataBuilder metadata = new MetadataBuilder();
+    boolean exifRead = false;
+    try {
+      while (true) {
+        if (in.readUnsignedByte() != 0xFF) {
+          break; // Порушена структура сегментів
+        }
+        int marker = in.readUnsignedByte();
+        while (marker == 0xFF) {
+          marker = in.readUnsignedByte(); // Байти заповнення
+        }
+        if (marker == MARKER_SOS || marker == MARKER_EOI) {
+          break;
+        }
+        if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD7)) {
+          continue; // Маркери без тіла
+        }
+        int length = in.readUnsignedShort() - 2;
+        if (length < 0) {
+          break;
+        }
+        if (marker == MARKER_APP1 && !exifRead) {
+          byte[] segment = new byte[length];
+          in.readFully(segment);
+          exifRead = parseExifSegment(segment, metadata);
+        } else if (isStartOfFrame(marker)) {
+          // Розміри кадру точніші за теги EXIF, які редактори часто не оновлюють
+          in.readUnsignedByte(); // Точність
+          metadata.height = in.readUnsignedShort();
+          metadata.width = in.readUnsignedShort();
+          break; // EXIF розташований перед кадром
+        } else {
+          skipFully(in, length);
+        }
+      }
+    } catch (EOFException e) {
+      // Обрізаний файл: повертаємо те, що вдалося прочитати
+    }
+    return metadata.build();
+  }
+
+  private static boolean isStartOfFrame(int marker) {
+    return marker >= 0xC0
+        && marker <= 0xCF
+        && marker != 0xC4 // DHT
+        && marker != 0xC8 // JPG
+        && marker != 0xCC; // DAC
+  }
+
+  private static void skipFully(InputStream in, int length) throws IOException {
+    long remaining = length;
+    while (remaining > 0) {
+      long skipped = in.skip(remaining);
+      if (skipped <= 0) {
+        if (in.read() < 0) {
+          throw new EOFException();
+        }
+        skipped = 1;
+      }
+      remaining -= skipped;
+    }
+  }
+
+  /**
+   * Розбирає сегмент APP1.
+   *
+   * @return {@code true}, якщо це був сегмент EXIF (а не, наприклад, XMP).
+   */
+  private static boolean parseExifSegment(byte[] segment, MetadataBuilder metadata) {
+    if (segment.length < EXIF_HEADER.length + 8) {
+      return false;
+    }
+    for (int i = 0; i < EXIF_HEADER.length; i++) {
+      if (segment[i] != EXIF_HEADER[i]) {
+        return false;
+      }
+    }
+    ByteBuffer tiff =
+        ByteBuffer.wrap(segment, EXIF_HEADER.length, segment.length - EXIF_HEADER.length)
+            .slice();
+    try {
+      if (tiff.get(0) == 'I' && tiff.get(1) == 'I') {
+        tiff.order(ByteOrder.LITTLE_ENDIAN);
+      } else if (tiff.get(0) != 'M' || tiff.get(1) != 'M') {
+        return true;
+      }
+      Map<Integer, Integer> ifd0 = readIfd(tiff, tiff.getInt(4));
+      metadata.cameraMake = readAscii(tiff, ifd0.get(TAG_MAKE));
+      metadata.cameraModel = readAscii(tiff, ifd0.get(TAG_MODEL));
+      Integer orientation = readInteger(tiff, ifd0.get(TAG_ORIENTATION));
+      if (orientation != null && orientation >= 1 && orientation <= 8) {
+        metadata.orientation = orientation;
+      }
+      metadata.takenAt = parseDateTime(readAscii(tiff, ifd0.get(TAG_DATE_TIME)));
+
+      Integer exifIfdOffset = readInteger(tiff, ifd0.get(TAG_EXIF_IFD));
+      if (exifIfdOffset != null) {
+        Map<Integer, Integer> exifIfd = readIfd(tiff, exifIfdOffset);
+        LocalDateTime original =
+            parseDateTime(readAscii(tiff, exifIfd.get(TAG_DATE_TIME_ORIGINAL)));
+        if (original != null) {
+          metadata.takenAt = original;
+        }
+        metadata.width = readInteger(tiff, exifIfd.get(TAG_PIXEL_X_DIMENSION));
+        metadata.height = readInteger(tiff, exifIfd.get(TAG_PIXEL_Y_DIMENSION));
+      }
+
+      Integer gpsIfdOffset = readInteger(tiff, ifd0.get(TAG_GPS_IFD));
+      if (gpsIfdOffset != null) {
+        Map<Integer, Integer> gpsIfd = readIfd(tiff, gpsIfdOffset);
+        Double latitude =
+            readCoordinate(
+                tiff, gpsIfd.get(TAG_GPS_LATITUDE), gpsIfd.get(TAG_GPS_LATITUDE_REF), 'S');
+        Double longitude =
+            readCoordinate(
+                tiff, gpsIfd.get(TAG_GPS_LONGITUDE), gpsIfd.get(TAG_GPS_LONGITUDE_REF), 'W');
+        if (latitude != null
+            && longitude != null
+            && Math.abs(latitude) <= 90
+            && Math.abs(longitude) <= 180) {
+          metadata.latitude = latitude;
+          metadata.longitude = longitude;
+        }
+      }
+    } catch (IndexOutOfBoundsException | BufferUnderflowException e) {
+      // Зміщення за межами сегмента: пошкоджений EXIF, решту тегів пропускаємо
+    }
+    return true;
+  }
+
+  /**
+   * Читає каталог тегів (IFD).
+   *
+   * @return тег → позиція 12-байтового запису тегу в буфері.
+   */
+  private static Map<Integer, Integer> readIfd(ByteBuffer tiff, int offset) {
+    Map<Integer, Integer> entries = new HashMap<>();
+    int count = Short.toUnsignedInt(tiff.getShort(offset));
+    for (int i = 0; i < count; i++) {
+      int entry = offset + 2 + i * 12;
+      entries.put(Short.toUnsignedInt(tiff.getShort(entry)), entry);
+    }
+    return entries;
+  }
+
+  /** Позиція значення тегу: до 4 байтів зберігаються в самому записі, довші — за зміщенням. */
+  private static int valuePosition(ByteBuffer tiff, int entry, int byteCount) {
+    return byteCount <= 4 ? entry + 8 : tiff.getInt(entry + 8);
+  }
+
+  private static String readAscii(ByteBuffer tiff, Integer entry) {
+    if (entry == null || Short.toUnsignedInt(tiff.getShort(entry + 2)) != TYPE_ASCII) {
+      return null;
+    }
+    int count = tiff.getInt(entry + 4);
+    if (count <= 0 || count > tiff.limit()) {
+      return null;
+    }
+    int position = valuePosition(tiff, entry, count);
+    byte[] bytes = new byte[count];
+    tiff.get(position, bytes);
+    int length = 0;
+    while (length < count && bytes[length] != 0) {
+      length++;
+    }
+    String text = new String(bytes, 0, length, StandardCharsets.UTF_8).trim();
+    if (text.isEmpty()) {
+      return null;
+    }
+    return text.length() > MAX_TEXT_LENGTH ? text.substring(0, MAX_TEXT_LENGTH) : text;
+  }
+
+  private static Integer readInteger(ByteBuffer tiff, Integer entry) {
+    if (entry == null) {
+      return null;
+    }
+    return switch (Short.toUnsignedInt(tiff.getShort(entry + 2))) {
+      case TYPE_SHORT -> Short.toUnsignedInt(tiff.getShort(entry + 8));
+      case TYPE_LONG -> tiff.getInt(entry + 8);
+      default -> null;
+    };
+  }
+
+  /** Координата GPS: три раціональні числа (градуси, хвилини, секунди) та півкуля. */
+  private static Double readCoordinate(
+      ByteBuffer tiff, Integer valueEntry, Integer refEntry, char negativeRef) {
+    if (valueEntry == null
+        || Short.toUnsignedInt(tiff.getShort(valueEntry + 2)) != TYPE_RATIONAL
+        || tiff.getInt(valueEntry + 4) != 3) {
+      return null;
+    }
+    int position = valuePosition(tiff, valueEntry, 24);
+    double degrees = rational(tiff, position);
+    double minutes = rational(tiff, position + 8);
+    double seconds = rational(tiff, position + 16);
+    if (Double.isNaN(degrees) || Double.isNaN(minutes) || Double.isNaN(seconds)) {
+      return null;
+    }
+    double value = degrees + minutes / 60 + seconds / 3600;
+    if (refEntry != null) {
+      int refType = Short.toUnsignedInt(tiff.getShort(refEntry + 2));
+      boolean textual = refType == TYPE_ASCII || refType == TYPE_BYTE;
+      if (textual && tiff.get(refEntry + 8) == negativeRef) {
+        value = -value;
+      }
+    }
+    return value;
+  }
+
+  private static double rational(ByteBuffer tiff, int position) {
+    long numerator = Integer.toUnsignedLong(tiff.getInt(position));
+    long denominator = Integer.toUnsignedLong(tiff.getInt(position + 4));
+    return denominator == 0 ? Double.NaN : (double) numerator / denominator;
+  }
+
+  private static LocalDateTime parseDateTime(String value) {
+    if (value == null) {
+      return null;
+    }
+    try {
+      return LocalDateTime.parse(value, EXIF_DATE_TIME);
+    } catch (DateTimeParseException e) {
+      return null; // Наприклад, "0000:00:00 00:00:00" у камер без годинника
+    }
+  }
+
+  /** Розміри зображення інших форматів із заголовка, без декодування пікселів. */
+  private static Metadata readImageHeader(Path file) throws IOException {
+    try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+      if (input == null) {
+        return Metadata.EMPTY;
+      }
+      Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+      if (!readers.hasNext()) {
+        return Metadata.EMPTY;
+      }
+      ImageReader reader = readers.next();
+      try {
+        reader.setInput(input, true, true);
+        MetadataBuilder metadata = new MetadataBuilder();
+        metadata.width = reader.getWidth(0);
+        metadata.height = reader.getHeight(0);
+        return metadata.build();
+      } catch (IOException | RuntimeException e) {
+        return Metadata.EMPTY;
+      } finally {
+        reader.dispose();
+      }
+    }
+  }
+
+  private static final class MetadataBuilder {
+    private LocalDateTime takenAt;
+    private String cameraMake;
+    private String cameraModel;
+    private Integer orientation;
+    private Integer width;
+    private Integer height;
+    private Double latitude;
+    private Double longitude;
+
+    Metadata build() {
+      return new Metadata(
+          takenAt, cameraMake, cameraModel, orientation, width, height, latitude, longitude);
+    }
+  }
+
+  /**
+   * Метадані фотографії. Поля, відсутні у файлі, дорівнюють {@code null}.
+   *
+   * @param orientation орієнтація EXIF (1–8), де 1 — без повороту.
+   */
+  public record Metadata(
+      LocalDateTime takenAt,
+      String cameraMake,
+      String cameraModel,
+      Integer orientation,
+      Integer width,
+      Integer height,
+      Double latitude,
+      Double longitude) {
+
+    public static final Metadata EMPTY =
+        new Metadata(null, null, null, null, null, null, null, null);
+  }
+}
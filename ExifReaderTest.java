@@ -0,0 +1,270 @@
+package com.trailtales.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ExifReaderTest {
+
+  private static final int EXIF_IFD_OFFSET = 200;
+  private static final int GPS_IFD_OFFSET = 300;
+
+  @TempDir Path tempDir;
+
+  @Test
+  void readsTagsFromLittleEndianExif() throws IOException {
+    Tiff tiff = new Tiff(ByteOrder.LITTLE_ENDIAN);
+    tiff.ifd(
+        8,
+        tiff.ascii(0x010F, "Canon"),
+        tiff.ascii(0x0110, "  EOS R6  "),
+        tiff.shortValue(0x0112, 6),
+        tiff.ascii(0x0132, "2024:06:01 10:00:00"),
+        tiff.longValue(0x8769, EXIF_IFD_OFFSET),
+        tiff.longValue(0x8825, GPS_IFD_OFFSET));
+    tiff.ifd(
+        EXIF_IFD_OFFSET,
+        tiff.ascii(0x9003, "2024:05:31 08:15:30"),
+        tiff.longValue(0xA002, 6000),
+        tiff.shortValue(0xA003, 4000));
+    tiff.ifd(
+        GPS_IFD_OFFSET,
+        tiff.ascii(0x0001, "S"),
+        tiff.rational(0x0002, 33, 1, 51, 1, 3600, 100),
+        tiff.ascii(0x0003, "W"),
+        tiff.rational(0x0004, 151, 1, 12, 1, 0, 1));
+
+    ExifReader.Metadata metadata = ExifReader.read(jpeg(app1(tiff.bytes())));
+
+    assertEquals("Canon", metadata.cameraMake());
+    assertEquals("EOS R6", metadata.cameraModel());
+    assertEquals(6, metadata.orientation());
+    assertEquals(LocalDateTime.of(2024, 5, 31, 8, 15, 30), metadata.takenAt());
+    assertEquals(6000, metadata.width());
+    assertEquals(4000, metadata.height());
+    assertEquals(-(33 + 51 / 60.0 + 36 / 3600.0), metadata.latitude(), 1e-9);
+    assertEquals(-(151 + 12 / 60.0), metadata.longitude(), 1e-9);
+  }
+
+  @Test
+  void frameSizeOverridesExifDimensions() throws IOException {
+    Tiff tiff = new Tiff(ByteOrder.BIG_ENDIAN);
+    tiff.ifd(8, tiff.longValue(0x8769, EXIF_IFD_OFFSET));
+    tiff.ifd(EXIF_IFD_OFFSET, tiff.longValue(0xA002, 6000), tiff.longValue(0xA003, 4000));
+
+    ExifReader.Metadata metadata =
+        ExifReader.read(jpeg(app1(tiff.bytes()), startOfFrame(1200, 800)));
+
+    assertEquals(1200, metadata.width());
+    assertEquals(800, metadata.height());
+  }
+
+  @Test
+  void invalidValuesAreLeftEmpty() throws IOException {
+    Tiff tiff = new Tiff(ByteOrder.BIG_ENDIAN);
+    tiff.ifd(
+        8,
+        tiff.ascii(0x010F, "   "),
+        tiff.shortValue(0x0112, 9),
+        tiff.ascii(0x0132, "0000:00:00 00:00:00"),
+        tiff.longValue(0x8825, GPS_IFD_OFFSET));
+    tiff.ifd(
+        GPS_IFD_OFFSET,
+        tiff.rational(0x0002, 50, 1, 27, 0, 0, 1),
+        tiff.rational(0x0004, 30, 1, 31, 1, 0, 1));
+
+    ExifReader.Metadata metadata = ExifReader.read(jpeg(app1(tiff.bytes())));
+
+    assertNull(metadata.cameraMake());
+    assertNull(metadata.orientation());
+    assertNull(metadata.takenAt());
+    assertNull(metadata.latitude());
+    assertNull(metadata.longitude());
+  }
+
+  @Test
+  void longTextIsTruncated() throws IOException {
+    Tiff tiff = new Tiff(ByteOrder.BIG_ENDIAN);
+    tiff.ifd(8, tiff.ascii(0x0110, "x".repeat(150)));
+
+    ExifReader.Metadata metadata = ExifReader.read(jpeg(app1(tiff.bytes())));
+
+    assertEquals("x".repeat(100), metadata.cameraModel());
+  }
+
+  @Test
+  void offsetOutsideSegmentKeepsTagsReadBeforeIt() throws IOException {
+    Tiff tiff = new Tiff(ByteOrder.BIG_ENDIAN);
+    tiff.ifd(8, tiff.ascii(0x010F, "Nikon"), tiff.longValue(0x8769, 100_000));
+
+    ExifReader.Metadata metadata =
+        ExifReader.read(jpeg(app1(tiff.bytes()), startOfFrame(640, 480)));
+
+    assertEquals("Nikon", metadata.cameraMake());
+    assertEquals(640, metadata.width());
+  }
+
+  @Test
+  void exifAfterOtherApp1SegmentAndFillBytesIsFound() throws IOException {
+    Tiff tiff = new Tiff(ByteOrder.BIG_ENDIAN);
+    tiff.ifd(8, tiff.ascii(0x010F, "Sony"));
+    byte[] xmp =
+        segment(0xE1, "http://ns.adobe.com/xap/1.0/\0<x/>".getBytes(StandardCharsets.UTF_8));
+    byte[] fill = {(byte) 0xFF, (byte) 0xFF};
+
+    ExifReader.Metadata metadata = ExifReader.read(jpeg(xmp, fill, app1(tiff.bytes())));
+
+    assertEquals("Sony", metadata.cameraMake());
+  }
+
+  @Test
+  void truncatedJpegReturnsWhatWasRead() throws IOException {
+    Tiff tiff = new Tiff(ByteOrder.BIG_ENDIAN);
+    tiff.ifd(8, tiff.ascii(0x010F, "Fujifilm"));
+    byte[] whole = bytes(new byte[] {(byte) 0xFF, (byte) 0xD8}, app1(tiff.bytes()));
+    byte[] truncatedFrame = Arrays.copyOf(startOfFrame(10, 10), 5);
+
+    ExifReader.Metadata metadata = ExifReader.read(write("cut.jpg", bytes(whole, truncatedFrame)));
+
+    assertEquals("Fujifilm", metadata.cameraMake());
+    assertNull(metadata.width());
+  }
+
+  @Test
+  void otherFormatsGetDimensionsFromHeader() throws IOException {
+    Path png = tempDir.resolve("photo.png");
+    ImageIO.write(new BufferedImage(30, 20, BufferedImage.TYPE_INT_RGB), "png", png.toFile());
+
+    ExifReader.Metadata metadata = ExifReader.read(png);
+
+    assertEquals(30, metadata.width());
+    assertEquals(20, metadata.height());
+    assertNull(metadata.takenAt());
+  }
+
+  @Test
+  void unknownOrEmptyFileGivesEmptyMetadata() throws IOException {
+    assertEquals(ExifReader.Metadata.EMPTY, ExifReader.read(write("empty.jpg", new byte[0])));
+    assertEquals(
+        ExifReader.Metadata.EMPTY,
+        ExifReader.read(write("notes.txt", "not an image".getBytes(StandardCharsets.UTF_8))));
+  }
+
+  private Path jpeg(byte[]... segments) throws IOException {
+    byte[] start = {(byte) 0xFF, (byte) 0xD8};
+    byte[] scan = {(byte) 0xFF, (byte) 0xDA, 0, 2, (byte) 0xFF, (byte) 0xD9};
+    byte[][] parts = new byte[segments.length + 2][];
+    parts[0] = start;
+    System.arraycopy(segments, 0, parts, 1, segments.length);
+    parts[parts.length - 1] = scan;
+    return write("photo.jpg", bytes(parts));
+  }
+
+  private Path write(String name, byte[] content) throws IOException {
+    return Files.write(tempDir.resolve(name), content);
+  }
+
+  private static byte[] app1(byte[] tiff) {
+    return segment(0xE1, bytes(new byte[] {'E', 'x', 'i', 'f', 0, 0}, tiff));
+  }
+
+  private static byte[] startOfFrame(int width, int height) {
+    return segment(
+        0xC0,
+        new byte[] {
+          8, (byte) (height >> 8), (byte) height, (byte) (width >> 8), (byte) width, 1, 1, 0x11, 0
+        });
+  }
+
+  private static byte[] segment(int marker, byte[] body) {
+    int length = body.length + 2;
+    return bytes(
+        new byte[] {(byte) 0xFF, (byte) marker, (byte) (length >> 8), (byte) length}, body);
+  }
+
+  private static byte[] bytes(byte[]... parts) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (byte[] part : parts) {
+      out.writeBytes(part);
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * Структура TIFF усередині EXIF: IFD0 за зміщенням 8, вкладені IFD за фіксованими зміщеннями,
+   * довші за 4 байти значення — в області даних після них.
+   */
+  private static final class Tiff {
+    private final ByteBuffer buffer = ByteBuffer.allocate(1024);
+    private int dataOffset = 400;
+
+    Tiff(ByteOrder order) {
+      buffer.order(order);
+      buffer.put(0, (byte) (order == ByteOrder.LITTLE_ENDIAN ? 'I' : 'M'));
+      buffer.put(1, buffer.get(0));
+      buffer.putShort(2, (short) 42);
+      buffer.putInt(4, 8);
+    }
+
+    void ifd(int offset, Field... fields) {
+      buffer.putShort(offset, (short) fields.length);
+      for (int i = 0; i < fields.length; i++) {
+        Field field = fields[i];
+        int entry = offset + 2 + i * 12;
+        buffer.putShort(entry, (short) field.tag());
+        buffer.putShort(entry + 2, (short) field.type());
+        buffer.putInt(entry + 4, field.count());
+        if (field.value().length <= 4) {
+          buffer.put(entry + 8, field.value());
+        } else {
+          buffer.putInt(entry + 8, dataOffset);
+          buffer.put(dataOffset, field.value());
+          dataOffset += field.value().length;
+        }
+      }
+    }
+
+    Field ascii(int tag, String text) {
+      byte[] value = (text + "\0").getBytes(StandardCharsets.US_ASCII);
+      return new Field(tag, 2, value.length, value);
+    }
+
+    Field shortValue(int tag, int value) {
+      return new Field(tag, 3, 1, encode(2).putShort((short) value).array());
+    }
+
+    Field longValue(int tag, int value) {
+      return new Field(tag, 4, 1, encode(4).putInt(value).array());
+    }
+
+    /** Раціональні числа парами чисельник, знаменник. */
+    Field rational(int tag, int... parts) {
+      ByteBuffer value = encode(parts.length * 4);
+      Arrays.stream(parts).forEach(value::putInt);
+      return new Field(tag, 5, parts.length / 2, value.array());
+    }
+
+    byte[] bytes() {
+      return Arrays.copyOf(buffer.array(), dataOffset);
+    }
+
+    private ByteBuffer encode(int size) {
+      return ByteBuffer.allocate(size).order(buffer.order());
+    }
+  }
+
+  private record Field(int tag, int type, int count, byte[] value) {}
+}
@@ -0,0 +1,227 @@
+package com.trailtales.index;
+
+import com.trailtales.dto.JourneyAttributes;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+/**
+ * Фасетний індекс подорожей на стиснутих бітових мапах. Кожна подорож отримує щільний порядковий
+ * номер, а для кожного значення фасету (тегу, локації, власника, року) зберігається бітова мапа
+ * номерів подорожей з цим значенням. Довільні комбінації умов AND/OR/NOT обчислюються операціями
+ * над мапами, а фасетні лічильники — кардинальністю їх перетину з результатом.
+ *
+ * <p>Індекс оновлюється поштучно при записі подорожей. Усі методи синхронізовані, оскільки
+ * {@link RoaringBitmap} не є потокобезпечним.
+ */
+public class FacetIndex {
+
+  private final Map<JourneyFacet, Map<Long, RoaringBitmap>> bitmaps =
+      new EnumMap<>(JourneyFacet.class);
+  private final Map<Long, Integer> ordinalsByJourneyId = new HashMap<>();
+  private final List<Long> journeyIdsByOrdinal = new ArrayList<>();
+  private final Map<Integer, List<FacetValue>> valuesByOrdinal = new HashMap<>();
+  private final RoaringBitmap live = new RoaringBitmap();
+
+  public FacetIndex() {
+    for (JourneyFacet facet : JourneyFacet.values()) {
+      bitmaps.put(facet, new HashMap<>());
+    }
+  }
+
+  /**
+   * Додає подорож до індексу або оновлює її значення фасетів.
+   *
+   * @param attributes атрибути подорожі.
+   */
+  public synchronized void put(JourneyAttributes attributes) {
+    Integer ordinal = ordinalsByJourneyId.get(attributes.getJourneyId());
+    if (ordinal == null) {
+      ordinal = journeyIdsByOrdinal.size();
+      journeyIdsByOrdinal.add(attributes.getJourneyId());
+      ordinalsByJourneyId.put(attributes.getJourneyId(), ordinal);
+    } else {
+      clearValues(ordinal);
+    }
+
+    List<FacetValue> values = new ArrayList<>();
+    if (attributes.getTagIds() != null) {
+      attributes.getTagIds().forEach(tagId -> values.add(new FacetValue(JourneyFacet.TAG, tagId)));
+    }
+    if (attributes.getOriginLocationId() != null) {
+      values.add(new FacetValue(JourneyFacet.ORIGIN, attributes.getOriginLocationId()));
+    }
+    if (attributes.getDestinationLocationId() != null) {
+      values.add(new FacetValue(JourneyFacet.DESTINATION, attributes.getDestinationLocationId()));
+    }
+    if (attributes.getOwnerId() != null) {
+      values.add(new FacetValue(JourneyFacet.OWNER, attributes.getOwnerId()));
+    }
+    if (attributes.getStartDate() != null || attributes.getEndDate() != null) {
+      int fromYear =
+          (attributes.getStartDate() != null ? attributes.getStartDate() : attributes.getEndDate())
+              .getYear();
+      int toYear =
+          (attributes.getEndDate() != null ? attributes.getEndDate() : attributes.getStartDate())
+              .getYear();
+      for (int year = Math.min(fromYear, toYear); year <= Math.max(fromYear, toYear); year++) {
+        values.add(new FacetValue(JourneyFacet.YEAR, year));
+      }
+    }
+
+    for (FacetValue value : values) {
+      bitmaps
+          .get(value.facet())
+          .computeIfAbsent(value.value(), v -> new RoaringBitmap())
+          .add(ordinal);
+    }
+    valuesByOrdinal.put(ordinal, values);
+    live.add(ordinal);
+  }
+
+  /**
+   * Видаляє подорож з індексу. Її порядковий номер більше не використовується.
+   *
+   * @param journeyId ID подорожі.
+   */
+  public synchronized void remove(Long journeyId) {
+    Integer ordinal = ordinalsByJourneyId.remove(journeyId);
+    if (ordinal == null) {
+      return;
+    }
+    clearValues(ordinal);
+    valuesByOrdinal.remove(ordinal);
+    journeyIdsByOrdinal.set(ordinal, null);
+    live.remove(ordinal);
+  }
+
+  /**
+   * Прибирає значення фасету з усіх подорожей, наприклад після видалення тегу чи локації.
+   *
+   * @param facet фасет.
+   * @param value значення, що більше не існує.
+   */
+  public synchronized void removeValue(JourneyFacet facet, long value) {
+    RoaringBitmap bitmap = bitmaps.get(facet).remove(value);
+    if (bitmap == null) {
+      return;
+    }
+    FacetValue removed = new FacetValue(facet, value);
+    IntIterator ordinals = bitmap.getIntIterator();
+    while (ordinals.hasNext()) {
+      valuesByOrdinal.get(ordinals.next()).remove(removed);
+    }
+  }
+
+  /**
+   * Обчислює запит і повертає ID знайдених подорожей (новіші першими) разом з лічильниками всіх
+   * фасетів серед знайдених подорожей.
+   *
+   * @param query логічний вираз над фасетами.
+   * @param limit максимальна кількість ID у результаті.
+   * @return результат запиту.
+   */
+  public synchronized Result query(FacetQuery query, int limit) {
+    RoaringBitmap matches = evaluate(query);
+
+    List<Long> journeyIds = new ArrayList<>(Math.min(limit, matches.getCardinality()));
+    IntIterator iterator = matches.getReverseIntIterator();
+    while (iterator.hasNext() && journeyIds.size() < limit) {
+      journeyIds.add(journeyIdsByOrdinal.get(iterator.next()));
+    }
+
+    Map<JourneyFacet, Map<Long, Long>> facetCounts = new EnumMap<>(JourneyFacet.class);
+    for (Map.Entry<JourneyFacet, Map<Long, RoaringBitmap>> facet : bitmaps.entrySet()) {
+      Map<Long, Long> counts = new LinkedHashMap<>();
+      facet
+          .getValue()
+          .forEach(
+              (value, bitmap) -> {
+                long count = RoaringBitmap.andCardinality(bitmap, matches);
+                if (count > 0) {
+                  counts.put(value, count);
+                }
+              });
+      facetCounts.put(facet.getKey(), counts);
+    }
+    return new Result(journeyIds, matches.getLongCardinality(), facetCounts);
+  }
+
+  /** Кількість подорожей в індексі. */
+  public synchronized int size() {
+    return live.getCardinality();
+  }
+
+  /** Приблизний обсяг пам'яті, який займають бітові мапи, у байтах. */
+  public synchronized long estimateMemoryBytes() {
+    long bytes = live.getLongSizeInBytes();
+    for (Map<Long, RoaringBitmap> values : bitmaps.values()) {
+      for (RoaringBitmap bitmap : values.values()) {
+        bytes += bitmap.getLongSizeInBytes();
+      }
+    }
+    return bytes;
+  }
+
+  private RoaringBitmap evaluate(FacetQuery query) {
+    return switch (query) {
+      case FacetQuery.All all -> live.clone();
+      case FacetQuery.Term term -> {
+        RoaringBitmap bitmap = bitmaps.get(term.facet()).get(term.value());
+        yield bitmap != null ? bitmap.clone() : new RoaringBitmap();
+      }
+      case FacetQuery.And and -> {
+        RoaringBitmap result = live.clone();
+        for (FacetQuery operand : and.operands()) {
+          result.and(evaluate(operand));
+          if (result.isEmpty()) {
+            break;
+          }
+        }
+        yield result;
+      }
+      case FacetQuery.Or or -> {
+        RoaringBitmap result = new RoaringBitmap();
+        for (FacetQuery operand : or.operands()) {
+          result.or(evaluate(operand));
+        }
+        yield result;
+      }
+      case FacetQuery.Not not -> RoaringBitmap.andNot(live, evaluate(not.operand()));
+    };
+  }
+
+  private void clearValues(int ordinal) {
+    List<FacetValue> previous = valuesByOrdinal.get(ordinal);
+    if (previous == null) {
+      return;
+    }
+    for (FacetValue value : previous) {
+      Map<Long, RoaringBitmap> values = bitmaps.get(value.facet());
+      RoaringBitmap bitmap = values.get(value.value());
+      if (bitmap != null) {
+        bitmap.remove(ordinal);
+        if (bitmap.isEmpty()) {
+          values.remove(value.value());
+        }
+      }
+    }
+  }
+
+  /**
+   * Результат обчислення запиту.
+   *
+   * @param journeyIds ID знайдених подорожей (обмежена кількість, новіші першими).
+   * @param totalCount загальна кількість збігів.
+   * @param facetCounts фасет → (значення → кількість збігів з цим значенням).
+   */
+  public record Result(
+      List<Long> journeyIds, long totalCount, Map<JourneyFacet, Map<Long, Long>> facetCounts) {}
+
+  private record FacetValue(JourneyFacet facet, long value) {}
+}
@@ -0,0 +1,122 @@
+package com.trailtales.index;
+
+import static com.trailtales.index.FacetQuery.and;
+import static com.trailtales.index.FacetQuery.not;
+import static com.trailtales.index.FacetQuery.or;
+import static com.trailtales.index.FacetQuery.term;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.trailtales.dto.JourneyAttributes;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FacetIndexTest {
+
+  private FacetIndex index;
+
+  @BeforeEach
+  void setUp() {
+    index = new FacetIndex();
+    index.put(journey(1L, 10L, LocalDate.of(2024, 5, 1), LocalDate.of(2024, 5, 3), 100L));
+    index.put(journey(2L, 10L, LocalDate.of(2024, 12, 30), LocalDate.of(2025, 1, 2), 100L, 200L));
+    index.put(journey(3L, 20L, null, LocalDate.of(2025, 7, 1), 200L));
+  }
+
+  @Test
+  void queryReturnsNewestJourneysFirstWithTotalCount() {
+    FacetIndex.Result result = index.query(FacetQuery.all(), 2);
+
+    assertEquals(List.of(3L, 2L), result.journeyIds());
+    assertEquals(3, result.totalCount());
+  }
+
+  @Test
+  void andOrNotCombineTerms() {
+    assertEquals(List.of(2L), ids(and(term(JourneyFacet.TAG, 100), term(JourneyFacet.TAG, 200))));
+    assertEquals(
+        List.of(3L, 1L),
+        ids(
+            or(
+                term(JourneyFacet.OWNER, 20),
+                and(term(JourneyFacet.YEAR, 2024), not(term(JourneyFacet.TAG, 200))))));
+    assertEquals(List.of(3L), ids(not(term(JourneyFacet.OWNER, 10))));
+    assertEquals(List.of(), ids(term(JourneyFacet.TAG, 999)));
+  }
+
+  @Test
+  void emptyAndMatchesAllAndEmptyOrMatchesNothing() {
+    assertEquals(List.of(3L, 2L, 1L), ids(and()));
+    assertEquals(List.of(), ids(or()));
+  }
+
+  @Test
+  void journeySpanningNewYearBelongsToBothYears() {
+    assertEquals(List.of(2L, 1L), ids(term(JourneyFacet.YEAR, 2024)));
+    assertEquals(List.of(3L, 2L), ids(term(JourneyFacet.YEAR, 2025)));
+  }
+
+  @Test
+  void facetCountsAreLimitedToMatches() {
+    Map<JourneyFacet, Map<Long, Long>> counts =
+        index.query(term(JourneyFacet.OWNER, 10), 10).facetCounts();
+
+    assertEquals(Map.of(100L, 2L, 200L, 1L), counts.get(JourneyFacet.TAG));
+    assertEquals(Map.of(2024L, 2L, 2025L, 1L), counts.get(JourneyFacet.YEAR));
+    assertEquals(Map.of(10L, 2L), counts.get(JourneyFacet.OWNER));
+  }
+
+  @Test
+  void putReplacesValuesButKeepsPosition() {
+    index.put(journey(1L, 20L, null, null));
+
+    assertEquals(List.of(3L, 1L), ids(term(JourneyFacet.OWNER, 20)));
+    assertEquals(List.of(2L), ids(term(JourneyFacet.TAG, 100)));
+    assertEquals(List.of(2L), ids(term(JourneyFacet.YEAR, 2024)));
+    assertEquals(3, index.size());
+  }
+
+  @Test
+  void removedJourneyIsExcludedFromNegation() {
+    index.remove(3L);
+    index.remove(42L); // відсутня подорож ігнорується
+
+    assertEquals(List.of(), ids(not(term(JourneyFacet.OWNER, 10))));
+    assertEquals(List.of(2L, 1L), ids(FacetQuery.all()));
+    assertEquals(2, index.size());
+  }
+
+  @Test
+  void readdedJourneyGetsNewPosition() {
+    index.remove(1L);
+    index.put(journey(1L, 10L, null, null));
+
+    assertEquals(List.of(1L, 3L, 2L), ids(FacetQuery.all()));
+  }
+
+  @Test
+  void removeValueDropsItFromEveryJourney() {
+    index.removeValue(JourneyFacet.TAG, 200);
+
+    assertEquals(List.of(), ids(term(JourneyFacet.TAG, 200)));
+    assertEquals(
+        Map.of(100L, 2L),
+        index.query(FacetQuery.all(), 10).facetCounts().get(JourneyFacet.TAG));
+
+    // Подальше оновлення подорожі не повертає прибране значення
+    index.put(journey(2L, 10L, null, null, 100L));
+    assertEquals(List.of(), ids(term(JourneyFacet.TAG, 200)));
+  }
+
+  private List<Long> ids(FacetQuery query) {
+    return index.query(query, 10).journeyIds();
+  }
+
+  private static JourneyAttributes journey(
+      Long id, Long ownerId, LocalDate start, LocalDate end, Long... tagIds) {
+    return new JourneyAttributes(id, ownerId, null, null, start, end, Set.of(tagIds));
+  }
+}
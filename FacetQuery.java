@@ -0,0 +1,46 @@
+package com.trailtales.index;
+
+import java.util.List;
+
+/**
+ * Логічний вираз над фасетами подорожі, наприклад {@code and(term(TAG, 5), or(term(YEAR, 2025),
+ * term(YEAR, 2026)), not(term(OWNER, 3)))}. Обчислюється {@link FacetIndex} операціями над
+ * бітовими мапами.
+ */
+public sealed interface FacetQuery {
+
+  /** Усі подорожі. */
+  static FacetQuery all() {
+    return new All();
+  }
+
+  /** Подорожі, що мають значення {@code value} фасету {@code facet}. */
+  static FacetQuery term(JourneyFacet facet, long value) {
+    return new Term(facet, value);
+  }
+
+  /** Перетин умов; порожній список означає всі подорожі. */
+  static FacetQuery and(FacetQuery... operands) {
+    return new And(List.of(operands));
+  }
+
+  /** Об'єднання умов; порожній список не знаходить нічого. */
+  static FacetQuery or(FacetQuery... operands) {
+    return new Or(List.of(operands));
+  }
+
+  /** Заперечення умови відносно всіх подорожей. */
+  static FacetQuery not(FacetQuery operand) {
+    return new Not(operand);
+  }
+
+  record All() implements FacetQuery {}
+
+  record Term(JourneyFacet facet, long value) implements FacetQuery {}
+
+  record And(List<FacetQuery> operands) implements FacetQuery {}
+
+  record Or(List<FacetQuery> operands) implements FacetQuery {}
+
+  record Not(FacetQuery operand) implements FacetQuery {}
+}
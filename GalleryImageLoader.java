@@ -0,0 +1,185 @@
+package com.trailtales.ui;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+
+/**
+ * Завантажує зображення галереї у фонових потоках і кешує декодовані {@link Image} в межах
+ * заданого обсягу пам'яті з витісненням найдавніше використаних (LRU). Ключ кешу — ID фото та час
+ * його останньої зміни в базі, тож змінене фото декодується заново. Методи, крім внутрішніх задач,
+ * викликаються з потоку JavaFX і не звертаються до файлової системи: наявність файлів перевіряє
+ * фонова задача.
+ *
+ * <p>Кожен {@link ImageView} має щонайбільше одне незавершене завантаження: новий запит для того
+ * самого вузла (коли клітинка сітки перевикористовується для іншого фото) скасовує попередній, тож
+ * запізнілий результат не з'явиться в чужій клітинці.
+ */
+public class GalleryImageLoader {
+
+  /** Кількість потоків декодування. */
+  private static final int LOADER_THREADS = 2;
+
+  private final long maxCacheBytes;
+  private final Map<CacheKey, Image> cache = new LinkedHashMap<>(64, 0.75f, true);
+  private long cachedBytes;
+
+  private final ExecutorService executor;
+
+  /** Незавершені завантаження за вузлом, у який їх слід показати. */
+  private final Map<ImageView, PendingLoad> pendingLoads = new HashMap<>();
+
+  /**
+   * Створює завантажувач з кешем заданого обсягу.
+   *
+   * @param maxCacheBytes найбільший обсяг декодованих зображень у кеші, у байтах.
+   */
+  public GalleryImageLoader(long maxCacheBytes) {
+    this.maxCacheBytes = maxCacheBytes;
+    AtomicInteger threadNumber = new AtomicInteger();
+    this.executor =
+        Executors.newFixedThreadPool(
+            LOADER_THREADS,
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "gallery-image-loader-" + threadNumber.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * Показує зображення у {@code target}: одразу, якщо воно є в кеші, інакше очищує вузол і показує
+   * зображення після декодування у фоні. Завантаження, скасоване через {@link #cancel(ImageView)},
+   * {@link #cancelPending()} або новим запитом для того самого вузла, не змінює {@code target}.
+   *
+   * @param photoId ID фото.
+   * @param version час останньої зміни фото в базі.
+   * @param files файли зображення в порядку переваги; декодується перший наявний.
+   * @param size найбільша сторона декодованого зображення, у пікселях.
+   * @param target вузол, у який слід показати зображення.
+   * @param onMissing викликається в потоці JavaFX, якщо жодного з файлів немає.
+   */
+  public void load(
+      long photoId,
+      LocalDateTime version,
+      List<File> files,
+      double size,
+      ImageView target,
+      Runnable onMissing) {
+    CacheKey key = new CacheKey(photoId, version, size);
+    PendingLoad previous = pendingLoads.get(target);
+    if (previous != null && previous.key().equals(key)) {
+      return; // Це зображення вже завантажується
+    }
+    cancel(target);
+    Image cached = getCached(key);
+    if (cached != null) {
+      target.setImage(cached);
+      return;
+    }
+    target.setImage(null);
+    Future<?> task =
+        executor.submit(
+            () -> {
+              File file = files.stream().filter(File::isFile).findFirst().orElse(null);
+              if (file == null) {
+                finish(target, key, onMissing);
+                return;
+              }
+              Image image = new Image(file.toURI().toString(), size, size, true, true);
+              if (image.isError()) {
+                System.err.println(
+                    "Помилка завантаження зображення: "
+                        + file
+                        + " - "
+                        + image.getException().getMessage());
+              } else {
+                putCached(key, image);
+              }
+              finish(
+                  target,
+                  key,
+                  () -> {
+                    if (!image.isError()) {
+                      target.setImage(image);
+                    }
+                  });
+            });
+    pendingLoads.put(target, new PendingLoad(key, task));
+  }
+
+  /**
+   * Передає результат фонової задачі в потік JavaFX, якщо вузол досі чекає саме на неї: він міг
+   * отримати інший запит, поки задача виконувалася.
+   */
+  private void finish(ImageView target, CacheKey key, Runnable result) {
+    Platform.runLater(
+        () -> {
+          PendingLoad current = pendingLoads.get(target);
+          if (current != null && current.key().equals(key)) {
+            pendingLoads.remove(target);
+            result.run();
+          }
+        });
+  }
+
+  /**
+   * Скасовує незавершене завантаження для вузла, наприклад коли клітинка сітки стала порожньою.
+   *
+   * @param target вузол, завантаження для якого більше не потрібне.
+   */
+  public void cancel(ImageView target) {
+    PendingLoad load = pendingLoads.remove(target);
+    if (load != null) {
+      load.task().cancel(false);
+    }
+  }
+
+  /** Скасовує завантаження, які ще не почалися, і відкидає результати тих, що вже тривають. */
+  public void cancelPending() {
+    pendingLoads.values().forEach(load -> load.task().cancel(false));
+    pendingLoads.clear();
+  }
+
+  private synchronized Image getCached(CacheKey key) {
+    return cache.get(key);
+  }
+
+  private synchronized void putCached(CacheKey key, Image image) {
+    long bytes = estimateBytes(image);
+    if (bytes > maxCacheBytes) {
+      return;
+    }
+    Image previous = cache.put(key, image);
+    if (previous != null) {
+      cachedBytes -= estimateBytes(previous);
+    }
+    cachedBytes += bytes;
+    Iterator<Image> eldest = cache.values().iterator();
+    while (cachedBytes > maxCacheBytes && eldest.hasNext()) {
+      cachedBytes -= estimateBytes(eldest.next());
+      eldest.remove();
+    }
+  }
+
+  /** Декодоване зображення займає 4 байти на піксель. */
+  private static long estimateBytes(Image image) {
+    return (long) image.getWidth() * (long) image.getHeight() * 4;
+  }
+
+  private record CacheKey(long photoId, LocalDateTime version, double size) {}
+
+  private record PendingLoad(CacheKey key, Future<?> task) {}
+}
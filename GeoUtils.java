@@ -0,0 +1,110 @@
+package com.trailtales.util;
+
+/** Допоміжні геодезичні обчислення для координат у градусах WGS 84. */
+public final class GeoUtils {
+
+  /** Середній радіус Землі в кілометрах. */
+  public static final double EARTH_RADIUS_KM = 6371.0088;
+
+  private static final double KM_PER_DEGREE_LATITUDE = Math.PI * EARTH_RADIUS_KM / 180;
+
+  private GeoUtils() {}
+
+  /**
+   * Перевіряє, що координати задано парою і в допустимих межах.
+   *
+   * @param latitude широта або {@code null}.
+   * @param longitude довгота або {@code null}.
+   * @throws IllegalArgumentException якщо задано лише одну координату або вона поза межами.
+   */
+  public static void requireValidCoordinates(Double latitude, Double longitude) {
+    if ((latitude == null) != (longitude == null)) {
+      throw new IllegalArgumentException("Широту та довготу потрібно задавати разом.");
+    }
+    if (latitude != null) {
+      requireValidPoint(latitude, longitude);
+    }
+  }
+
+  /**
+   * Перевіряє, що точка має допустимі координати.
+   *
+   * @param latitude широта.
+   * @param longitude довгота.
+   * @throws IllegalArgumentException якщо широта поза [-90, 90] або довгота поза [-180, 180].
+   */
+  public static void requireValidPoint(double latitude, double longitude) {
+    if (!(latitude >= -90 && latitude <= 90)) {
+      throw new IllegalArgumentException("Широта повинна бути в межах від -90 до 90.");
+    }
+    if (!(longitude >= -180 && longitude <= 180)) {
+      throw new IllegalArgumentException("Довгота повинна бути в межах від -180 до 180.");
+    }
+  }
+
+  /**
+   * Відстань між двома точками по поверхні Землі (формула гаверсинусів).
+   *
+   * @return відстань у кілометрах.
+   */
+  public static double haversineKm(
+      double latitude1, double longitude1, double latitude2, double longitude2) {
+    double deltaLatitude = Math.toRadians(latitude2 - latitude1);
+    double deltaLongitude = Math.toRadians(longitude2 - longitude1);
+    double a =
+        Math.pow(Math.sin(deltaLatitude / 2), 2)
+            + Math.cos(Math.toRadians(latitude1))
+                * Math.cos(Math.toRadians(latitude2))
+                * Math.pow(Math.sin(deltaLongitude / 2), 2);
+    return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+  }
+
+  /**
+   * Обчислює прямокутник, що гарантовано містить коло заданого радіуса. Використовується як
+   * індексний фільтр перед точною перевіркою відстані. Якщо коло перетинає антимеридіан,
+   * {@code minLongitude > maxLongitude}; якщо коло накриває полюс, прямокутник охоплює всі довготи.
+   *
+   * @param latitude широта центру.
+   * @param longitude довгота центру.
+   * @param radiusKm радіус у кілометрах.
+   * @return обмежувальний прямокутник.
+   */
+  public static BoundingBox boundingBox(double latitude, double longitude, double radiusKm) {
+    double deltaLatitude = radiusKm / KM_PER_DEGREE_LATITUDE;
+    double minLatitude = latitude - deltaLatitude;
+    double maxLatitude = latitude + deltaLatitude;
+    if (minLatitude <= -90 || maxLatitude >= 90) {
+      return new BoundingBox(Math.max(-90, minLatitude), -180, Math.min(90, maxLatitude), 180);
+    }
+    double sinDelta = Math.sin(radiusKm / EARTH_RADIUS_KM) / Math.cos(Math.toRadians(latitude));
+    double deltaLongitude = Math.toDegrees(Math.asin(Math.min(1, sinDelta)));
+    return new BoundingBox(
+        minLatitude,
+        normalizeLongitude(longitude - deltaLongitude),
+        maxLatitude,
+        normalizeLongitude(longitude + deltaLongitude));
+  }
+
+  private static double normalizeLongitude(double longitude) {
+    if (longitude < -180) {
+      return longitude + 360;
+    }
+    if (longitude > 180) {
+      return longitude - 360;
+    }
+    return longitude;
+  }
+
+  /**
+   * Прямокутник у координатах. Якщо {@code minLongitude > maxLongitude}, прямокутник перетинає
+   * антимеридіан і складається з двох частин: [minLongitude, 180] та [-180, maxLongitude].
+   */
+  public record BoundingBox(
+      double minLatitude, double minLongitude, double maxLatitude, double maxLongitude) {
+
+    /** Чи перетинає прямокутник антимеридіан. */
+    public boolean crossesAntimeridian() {
+      return minLongitude > maxLongitude;
+    }
+  }
+}
@@ -0,0 +1,220 @@
+package com.trailtales.util;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.UUID;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+/**
+ * Багаторівнева піраміда плиток зображення для перегляду з масштабуванням. Рівень 0 — оригінальна
+ * роздільність, кожен наступний зменшений удвічі; найвищий рівень вміщується в одну плитку.
+ *
+ * <p>Плитки створюються лише під час першого запиту: оригінал читається з обмеженням області та
+ * проріджуванням ({@link ImageReadParam#setSourceRegion}, {@link
+ * ImageReadParam#setSourceSubsampling}), тож у пам'яті одночасно перебуває не більше однієї
+ * плитки незалежно від розміру знімка. Готові плитки зберігаються на диску у форматі JPEG.
+ * Методи можна викликати з кількох потоків одночасно.
+ */
+public final class ImagePyramid {
+
+  /** Сторона плитки, у пікселях. */
+  public static final int TILE_SIZE = 256;
+
+  private static final float JPEG_QUALITY = 0.85f;
+
+  private final Path source;
+  private final Path cacheDir;
+  private final int width;
+  private final int height;
+  private final int levelCount;
+
+  private ImagePyramid(Path source, Path cacheDir, int width, int height) {
+    this.source = source;
+    this.cacheDir = cacheDir;
+    this.width = width;
+    this.height = height;
+    int levels = 1;
+    while (Math.max(levelWidth(levels - 1), levelHeight(levels - 1)) > TILE_SIZE) {
+      levels++;
+    }
+    this.levelCount = levels;
+  }
+
+  /**
+   * Відкриває піраміду зображення, читаючи лише заголовок файлу.
+   *
+   * @param source файл оригіналу.
+   * @param cacheDir каталог для плиток цього зображення.
+   * @return піраміда або {@code null}, якщо формат файлу не підтримується.
+   * @throws IOException якщо файл не вдалося прочитати.
+   */
+  public static ImagePyramid open(Path source, Path cacheDir) throws IOException {
+    try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+      ImageReader reader = createReader(input);
+      if (reader == null) {
+        return null;
+      }
+      try {
+        return new ImagePyramid(source, cacheDir, reader.getWidth(0), reader.getHeight(0));
+      } finally {
+        reader.dispose();
+      }
+    }
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  public int getHeight() {
+    return height;
+  }
+
+  public int getLevelCount() {
+    return levelCount;
+  }
+
+  /** Ширина зображення на рівні {@code level}, у пікселях. */
+  public int levelWidth(int level) {
+    return ceilDiv(width, 1 << level);
+  }
+
+  /** Висота зображення на рівні {@code level}, у пікселях. */
+  public int levelHeight(int level) {
+    return ceilDiv(height, 1 << level);
+  }
+
+  public int columns(int level) {
+    return ceilDiv(levelWidth(level), TILE_SIZE);
+  }
+
+  public int rows(int level) {
+    return ceilDiv(levelHeight(level), TILE_SIZE);
+  }
+
+  /**
+   * Повертає файл плитки, створюючи його під час першого запиту.
+   *
+   * @param level рівень піраміди.
+   * @param column стовпець плитки.
+   * @param row рядок плитки.
+   * @return файл плитки у форматі JPEG.
+   * @throws IOException якщо оригінал не вдалося прочитати або плитку записати.
+   */
+  public Path tile(int level, int column, int row) throws IOException {
+    if (level < 0
+        || level >= levelCount
+        || column < 0
+        || column >= columns(level)
+        || row < 0
+        || row >= rows(level)) {
+      throw new IllegalArgumentException("Плитки " + level + "/" + column + "_" + row + " немає");
+    }
+    Path target = cacheDir.resolve(level + "/" + column + "_" + row + ".jpg");
+    if (Files.isRegularFile(target)) {
+      return target;
+    }
+    BufferedImage image = readTile(level, column, row);
+    Files.createDirectories(target.getParent());
+    // Плитку можуть одночасно створювати кілька потоків; читач не повинен побачити частковий файл
+    Path temp = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+    try {
+      writeJpeg(image, temp);
+      try {
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+    return target;
+  }
+
+  /** Декодує з оригіналу лише область плитки, проріджуючи її до роздільності рівня. */
+  private BufferedImage readTile(int level, int column, int row) throws IOException {
+    int step = 1 << level;
+    int span = TILE_SIZE * step;
+    int x = column * span;
+    int y = row * span;
+    Rectangle region = new Rectangle(x, y, Math.min(span, width - x), Math.min(span, height - y));
+    try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+      ImageReader reader = createReader(input);
+      if (reader == null) {
+        throw new IOException("Формат файлу не підтримується: " + source);
+      }
+      try {
+        ImageReadParam param = reader.getDefaultReadParam();
+        param.setSourceRegion(region);
+        param.setSourceSubsampling(step, step, 0, 0);
+        return toRgb(reader.read(0, param));
+      } finally {
+        reader.dispose();
+      }
+    }
+  }
+
+  private static ImageReader createReader(ImageInputStream input) throws IOException {
+    if (input == null) {
+      return null;
+    }
+    Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+    if (!readers.hasNext()) {
+      return null;
+    }
+    ImageReader reader = readers.next();
+    reader.setInput(input, true, true);
+    return reader;
+  }
+
+  /** JPEG не має альфа-каналу, тож прозорі ділянки заповнюються білим. */
+  private static BufferedImage toRgb(BufferedImage image) {
+    if (image.getType() == BufferedImage.TYPE_INT_RGB
+        || image.getType() == BufferedImage.TYPE_3BYTE_BGR) {
+      return image;
+    }
+    BufferedImage rgb =
+        new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+    Graphics2D graphics = rgb.createGraphics();
+    try {
+      graphics.setColor(Color.WHITE);
+      graphics.fillRect(0, 0, rgb.getWidth(), rgb.getHeight());
+      graphics.drawImage(image, 0, 0, null);
+    } finally {
+      graphics.dispose();
+    }
+    return rgb;
+  }
+
+  private static void writeJpeg(BufferedImage image, Path target) throws IOException {
+    ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+    try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+      ImageWriteParam param = writer.getDefaultWriteParam();
+      param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+      param.setCompressionQuality(JPEG_QUALITY);
+      writer.setOutput(output);
+      writer.write(null, new IIOImage(image, null, null), param);
+    } finally {
+      writer.dispose();
+    }
+  }
+
+  private static int ceilDiv(int value, int divisor) {
+    return (value + divisor - 1) / divisor;
+  }
+}
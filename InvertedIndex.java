@@ -0,0 +1,282 @@
+package com.trailtales.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Інвертований індекс у пам'яті для миттєвого пошуку під час набору тексту. Кожен документ
+ * ідентифікується числовим ID, містить довільний об'єкт (наприклад, сутність для відображення у
+ * списку) та набір текстових полів, які розбиваються на слова.
+ *
+ * <p>Терміни зберігаються у впорядкованій мапі, тож пошук за префіксом зводиться до перегляду
+ * суміжного діапазону ключів. Документи можна додавати, оновлювати та видаляти поштучно, не
+ * перебудовуючи індекс. Клас потокобезпечний: пошук виконується під спільним блокуванням читання,
+ * зміни — під блокуванням запису.
+ *
+ * @param <T> тип об'єкта, що повертається як результат пошуку.
+ */
+public class InvertedIndex<T> {
+
+  private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+  // Приблизні розміри структур JVM (64-біт, стиснуті вказівники) для оцінки займаної пам'яті.
+  private static final int TREE_ENTRY_BYTES = 40;
+  private static final int HASH_ENTRY_BYTES = 32;
+  private static final int BOXED_LONG_BYTES = 16;
+  private static final int STRING_BYTES = 40;
+  private static final int SET_BYTES = 64;
+  private static final int DOCUMENT_BYTES = 32;
+
+  private final NavigableMap<String, Set<Long>> postings = new TreeMap<>();
+  private final Map<Long, Document<T>> documents = new HashMap<>();
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private long postingCount;
+
+  /**
+   * Додає документ до індексу або замінює вже проіндексований документ з тим самим ID.
+   *
+   * @param id ID документа.
+   * @param payload об'єкт, що повертається в результатах пошуку.
+   * @param fields текстові поля документа; {@code null} ігноруються.
+   */
+  public void put(long id, T payload, String... fields) {
+    Set<String> tokens = new LinkedHashSet<>();
+    for (String field : fields) {
+      tokens.addAll(tokenize(field));
+    }
+    lock.writeLock().lock();
+    try {
+      removeInternal(id);
+      for (String token : tokens) {
+        postings.computeIfAbsent(token, t -> new HashSet<>()).add(id);
+      }
+      postingCount += tokens.size();
+      documents.put(id, new Document<>(payload, tokens.toArray(new String[0])));
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Видаляє документ з індексу. Відсутній документ ігнорується.
+   *
+   * @param id ID документа.
+   */
+  public void remove(long id) {
+    lock.writeLock().lock();
+    try {
+      removeInternal(id);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** Видаляє всі документи. */
+  public void clear() {
+    lock.writeLock().lock();
+    try {
+      postings.clear();
+      documents.clear();
+      postingCount = 0;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Повертає проіндексований об'єкт за ID документа.
+   *
+   * @param id ID документа.
+   * @return об'єкт або {@code null}, якщо документа немає в індексі.
+   */
+  public T get(long id) {
+    lock.readLock().lock();
+    try {
+      Document<T> document = documents.get(id);
+      return document != null ? document.payload : null;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Повертає всі проіндексовані об'єкти.
+   *
+   * @return знімок вмісту індексу.
+   */
+  public List<T> values() {
+    lock.readLock().lock();
+    try {
+      List<T> values = new ArrayList<>(documents.size());
+      documents.values().forEach(document -> values.add(document.payload));
+      return values;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Шукає документи, що містять усі слова запиту. Кожне слово запиту зіставляється з термінами як
+   * префікс, тож недописане останнє слово теж знаходить збіги. Документи, в яких більше слів
+   * запиту збігаються повністю, йдуть першими; серед рівних — новіші (з більшим ID).
+   *
+   * @param query текст запиту.
+   * @param limit максимальна кількість результатів.
+   * @return знайдені об'єкти; порожній список, якщо запит не містить слів.
+   */
+  public List<T> search(String query, int limit) {
+    List<String> queryTokens = tokenize(query);
+    if (queryTokens.isEmpty() || limit <= 0) {
+      return List.of();
+    }
+    lock.readLock().lock();
+    try {
+      Set<Long> candidates = null;
+      for (String token : queryTokens) {
+        Set<Long> matches = matchPrefix(token);
+        if (candidates == null) {
+          candidates = matches;
+        } else {
+          candidates.retainAll(matches);
+        }
+        if (candidates.isEmpty()) {
+          return List.of();
+        }
+      }
+
+      Map<Long, Integer> exactMatches = new HashMap<>();
+      for (Long id : candidates) {
+        Set<String> documentTokens = Set.of(documents.get(id).tokens);
+        int exact = 0;
+        for (String token : queryTokens) {
+          if (documentTokens.contains(token)) {
+            exact++;
+          }
+        }
+        exactMatches.put(id, exact);
+      }
+
+      List<T> results = new ArrayList<>(Math.min(limit, candidates.size()));
+      candidates.stream()
+          .sorted(
+              Comparator.comparing((Long id) -> exactMatches.get(id))
+                  .thenComparing(id -> id)
+                  .reversed())
+          .limit(limit)
+          .forEach(id -> results.add(documents.get(id).payload));
+      return results;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Кількість проіндексованих документів. */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return documents.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Кількість унікальних термінів у словнику індексу. */
+  public int termCount() {
+    lock.readLock().lock();
+    try {
+      return postings.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Оцінює обсяг пам'яті, який займають структури індексу (словник, списки входжень і дескриптори
+   * документів). Самі об'єкти-результати не враховуються, оскільки ними володіє решта застосунку.
+   *
+   * @return приблизний розмір у байтах.
+   */
+  public long estimateMemoryBytes() {
+    lock.readLock().lock();
+    try {
+      long bytes = 0;
+      for (String term : postings.keySet()) {
+        bytes += TREE_ENTRY_BYTES + STRING_BYTES + 2L * term.length() + SET_BYTES;
+      }
+      bytes += postingCount * (HASH_ENTRY_BYTES + BOXED_LONG_BYTES);
+      bytes += (long) documents.size() * (HASH_ENTRY_BYTES + BOXED_LONG_BYTES + DOCUMENT_BYTES);
+      bytes += postingCount * 4; // посилання на терміни в дескрипторах документів
+      return bytes;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Розбиває текст на слова: нижній регістр, роздільниками є всі символи, крім літер і цифр.
+   *
+   * @param text текст; {@code null} дає порожній список.
+   * @return унікальні слова в порядку появи.
+   */
+  public static List<String> tokenize(String text) {
+    if (text == null || text.isBlank()) {
+      return List.of();
+    }
+    return Arrays.stream(TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+        .filter(token -> !token.isEmpty())
+        .distinct()
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Допоміжний метод для побудови полів документа з колекції назв (наприклад, тегів).
+   *
+   * @param parts частини тексту.
+   * @return рядок, у якому частини розділені пробілами.
+   */
+  public static String join(Collection<String> parts) {
+    return parts == null ? null : String.join(" ", parts);
+  }
+
+  private Set<Long> matchPrefix(String prefix) {
+    Set<Long> matches = new HashSet<>();
+    for (Set<Long> ids :
+        postings.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values()) {
+      matches.addAll(ids);
+    }
+    return matches;
+  }
+
+  private void removeInternal(long id) {
+    Document<T> existing = documents.remove(id);
+    if (existing == null) {
+      return;
+    }
+    for (String token : existing.tokens) {
+      Set<Long> ids = postings.get(token);
+      if (ids != null) {
+        ids.remove(id);
+        if (ids.isEmpty()) {
+          postings.remove(token);
+        }
+      }
+    }
+    postingCount -= existing.tokens.length;
+  }
+
+  private record Document<T>(T payload, String[] tokens) {}
+}
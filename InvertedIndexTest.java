@@ -0,0 +1,96 @@
+package com.trailtales.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class InvertedIndexTest {
+
+  @Test
+  void tokenizeLowercasesSplitsOnNonLettersAndDropsDuplicates() {
+    assertEquals(
+        List.of("карпати", "2024", "hike"), InvertedIndex.tokenize("Карпати-2024, hike КАРПАТИ!"));
+    assertEquals(List.of(), InvertedIndex.tokenize(null));
+    assertEquals(List.of(), InvertedIndex.tokenize("  ,;  "));
+  }
+
+  @Test
+  void searchMatchesEveryQueryWordAsPrefix() {
+    InvertedIndex<String> index = new InvertedIndex<>();
+    index.put(1, "lviv", "Львів", "старе місто");
+    index.put(2, "kyiv", "Київ", "Андріївський узвіз");
+    index.put(3, "lviv-lakes", "Львівські озера", null);
+
+    assertEquals(List.of("lviv-lakes", "lviv"), index.search("льв", 10));
+    assertEquals(List.of("lviv"), index.search("львів ст", 10));
+    assertEquals(List.of(), index.search("львів узвіз", 10));
+  }
+
+  @Test
+  void exactMatchesRankBeforePrefixMatchesAndNewerDocumentsFirst() {
+    InvertedIndex<String> index = new InvertedIndex<>();
+    index.put(1, "exact-old", "гори");
+    index.put(2, "prefix", "горище");
+    index.put(3, "exact-new", "гори");
+
+    assertEquals(List.of("exact-new", "exact-old", "prefix"), index.search("гори", 10));
+    assertEquals(List.of("exact-new"), index.search("гори", 1));
+  }
+
+  @Test
+  void blankQueryOrNonPositiveLimitReturnsNothing() {
+    InvertedIndex<String> index = new InvertedIndex<>();
+    index.put(1, "a", "море");
+
+    assertEquals(List.of(), index.search("   ", 10));
+    assertEquals(List.of(), index.search("море", 0));
+  }
+
+  @Test
+  void putReplacesDocumentAndDropsItsOldTerms() {
+    InvertedIndex<String> index = new InvertedIndex<>();
+    index.put(1, "before", "море");
+    index.put(1, "after", "гори");
+
+    assertEquals(1, index.size());
+    assertEquals(1, index.termCount());
+    assertEquals(List.of(), index.search("море", 10));
+    assertEquals(List.of("after"), index.search("гори", 10));
+  }
+
+  @Test
+  void removeDropsDocumentAndUnusedTerms() {
+    InvertedIndex<String> index = new InvertedIndex<>();
+    index.put(1, "a", "море гори");
+    index.put(2, "b", "гори");
+    long before = index.estimateMemoryBytes();
+
+    index.remove(1);
+    index.remove(42); // відсутній документ ігнорується
+
+    assertNull(index.get(1));
+    assertEquals(List.of("b"), index.values());
+    assertEquals(1, index.termCount());
+    assertTrue(index.estimateMemoryBytes() < before);
+  }
+
+  @Test
+  void clearEmptiesIndex() {
+    InvertedIndex<String> index = new InvertedIndex<>();
+    index.put(1, "a", "море");
+    index.clear();
+
+    assertEquals(0, index.size());
+    assertEquals(0, index.termCount());
+    assertEquals(0, index.estimateMemoryBytes());
+  }
+
+  @Test
+  void joinIgnoresNullCollection() {
+    assertNull(InvertedIndex.join(null));
+    assertEquals("гори море", InvertedIndex.join(List.of("гори", "море")));
+  }
+}
@@ -0,0 +1,52 @@
+package com.trailtales.dto;
+
+import com.trailtales.entity.Journey;
+import com.trailtales.entity.Tag;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Легкий знімок атрибутів подорожі, потрібних для фасетного індексу, без завантаження пов'язаних
+ * сутностей.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JourneyAttributes {
+  private Long journeyId;
+  private Long ownerId;
+  private Long originLocationId;
+  private Long destinationLocationId;
+  private LocalDate startDate;
+  private LocalDate endDate;
+  private Set<Long> tagIds;
+
+  /**
+   * Будує знімок з уже завантаженої подорожі.
+   *
+   * @param journey подорож.
+   * @return атрибути подорожі.
+   */
+  public static JourneyAttributes of(Journey journey) {
+    Set<Long> tagIds =
+        journey.getTags() == null
+            ? Set.of()
+            : journey.getTags().stream()
+                .map(Tag::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    return new JourneyAttributes(
+        journey.getId(),
+        journey.getUserId(),
+        journey.getOriginLocationId(),
+        journey.getDestinationLocationId(),
+        journey.getStartDate(),
+        journey.getEndDate(),
+        tagIds);
+  }
+}
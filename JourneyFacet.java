@@ -0,0 +1,15 @@
+package com.trailtales.index;
+
+/** Атрибути подорожі, за якими можна фільтрувати список і отримувати фасетні лічильники. */
+public enum JourneyFacet {
+  /** Тег подорожі; значення — ID тегу. */
+  TAG,
+  /** Початкова локація; значення — ID локації. */
+  ORIGIN,
+  /** Кінцева локація; значення — ID локації. */
+  DESTINATION,
+  /** Власник подорожі; значення — ID користувача. */
+  OWNER,
+  /** Рік, у який відбувалася подорож; значення — рік (подорож на межі років належить обом). */
+  YEAR
+}
@@ -0,0 +1,24 @@
+package com.trailtales.dto;
+
+import com.trailtales.entity.Journey;
+import com.trailtales.index.JourneyFacet;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Результат фасетного запиту: сторінка знайдених подорожей, загальна кількість збігів і лічильники
+ * значень кожного фасету серед знайдених подорожей.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JourneyFacetResult {
+  private List<Journey> journeys;
+  private long totalCount;
+
+  /** Фасет → (значення → кількість знайдених подорожей з цим значенням). */
+  private Map<JourneyFacet, Map<Long, Long>> facetCounts;
+}
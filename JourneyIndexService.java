@@ -0,0 +1,63 @@
+package com.trailtales.service;
+
+import com.trailtales.entity.Journey;
+import com.trailtales.index.FacetIndex;
+import com.trailtales.index.FacetQuery;
+import com.trailtales.index.JourneySimilarityIndex;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+/**
+ * Сервіс індексів подорожей у пам'яті: фасетного індексу та індексу схожості (MinHash/LSH). Кожен
+ * індекс будується під час першого запиту і далі оновлюється поштучно з методів запису подорожей,
+ * тегів і локацій після фіксації їх транзакцій.
+ */
+public interface JourneyIndexService {
+
+  /**
+   * Обчислює фасетний запит.
+   *
+   * @param query логічний вираз над фасетами.
+   * @param limit максимальна кількість ID подорожей у результаті.
+   * @return ID знайдених подорожей, загальна кількість і фасетні лічильники.
+   */
+  FacetIndex.Result queryFacets(FacetQuery query, int limit);
+
+  /**
+   * Знаходить подорожі, схожі на задану.
+   *
+   * @param journeyId ID подорожі-зразка.
+   * @param limit максимальна кількість результатів.
+   * @param filter які з кандидатів можна повертати.
+   * @return схожі подорожі, найсхожіші першими.
+   */
+  List<JourneySimilarityIndex.Match> findSimilar(Long journeyId, int limit, LongPredicate filter);
+
+  /**
+   * Додає або оновлює збережену подорож.
+   *
+   * @param journey збережена подорож з тегами.
+   */
+  void onJourneySaved(Journey journey);
+
+  /**
+   * Прибирає видалену подорож.
+   *
+   * @param journeyId ID видаленої подорожі.
+   */
+  void onJourneyDeleted(Long journeyId);
+
+  /**
+   * Прибирає видалений тег з усіх подорожей.
+   *
+   * @param tagId ID видаленого тегу.
+   */
+  void onTagDeleted(Long tagId);
+
+  /**
+   * Прибирає видалену локацію з усіх подорожей, де вона була початковою чи кінцевою.
+   *
+   * @param locationId ID видаленої локації.
+   */
+  void onLocationDeleted(Long locationId);
+}
@@ -0,0 +1,196 @@
+package com.trailtales.service.impl;
+
+import com.trailtales.dto.JourneyAttributes;
+import com.trailtales.entity.Journey;
+import com.trailtales.index.FacetIndex;
+import com.trailtales.index.FacetQuery;
+import com.trailtales.index.JourneyFacet;
+import com.trailtales.index.JourneySimilarityIndex;
+import com.trailtales.index.PendingChanges;
+import com.trailtales.repository.JourneyRepository;
+import com.trailtales.service.JourneyIndexService;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class JourneyIndexServiceImpl implements JourneyIndexService {
+
+  private final JourneyRepository journeyRepository;
+
+  /** Фасетний індекс усіх подорожей; будується під час першого фасетного запиту. */
+  private volatile FacetIndex facetIndex;
+
+  /** Індекс схожості подорожей (MinHash/LSH); будується під час першого запиту схожих подорожей. */
+  private volatile JourneySimilarityIndex similarityIndex;
+
+  /**
+   * Зміни, що надійшли під час побудови кожного з індексів. Побудова читає базу поза монітором
+   * сервісу, тож методи зміни не чекають на неї; запам'ятовані зміни застосовуються до нового
+   * індексу під тим самим монітором, тож жодна з них не губиться.
+   */
+  private final PendingChanges<JourneyIndexServiceImpl> facetChanges = new PendingChanges<>();
+
+  private final PendingChanges<JourneyIndexServiceImpl> similarityChanges = new PendingChanges<>();
+
+  /** Не дають двом першим запитам будувати той самий індекс одночасно. */
+  private final Object facetBuildLock = new Object();
+
+  private final Object similarityBuildLock = new Object();
+
+  /**
+   * Конструктор для впровадження залежностей.
+   *
+   * @param journeyRepository Репозиторій для роботи з подорожами.
+   */
+  @Autowired
+  public JourneyIndexServiceImpl(JourneyRepository journeyRepository) {
+    this.journeyRepository = journeyRepository;
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public FacetIndex.Result queryFacets(FacetQuery query, int limit) {
+    return getFacetIndex().query(query, limit);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<JourneySimilarityIndex.Match> findSimilar(
+      Long journeyId, int limit, LongPredicate filter) {
+    return getSimilarityIndex().findSimilar(journeyId, limit, filter);
+  }
+
+  @Override
+  public void onJourneySaved(Journey journey) {
+    if (journey == null || journey.getId() == null) {
+      return;
+    }
+    JourneyAttributes attributes = JourneyAttributes.of(journey);
+    apply(index -> index.put(attributes), index -> index.put(attributes));
+  }
+
+  @Override
+  public void onJourneyDeleted(Long journeyId) {
+    if (journeyId == null) {
+      return;
+    }
+    apply(index -> index.remove(journeyId), index -> index.remove(journeyId));
+  }
+
+  @Override
+  public void onTagDeleted(Long tagId) {
+    if (tagId == null) {
+      return;
+    }
+    apply(index -> index.removeValue(JourneyFacet.TAG, tagId), index -> index.removeTag(tagId));
+  }
+
+  @Override
+  public void onLocationDeleted(Long locationId) {
+    if (locationId == null) {
+      return;
+    }
+    // Зовнішні ключі подорожей на локацію мають ON DELETE SET NULL
+    apply(
+        index -> {
+          index.removeValue(JourneyFacet.ORIGIN, locationId);
+          index.removeValue(JourneyFacet.DESTINATION, locationId);
+        },
+        index -> index.removeLocation(locationId));
+  }
+
+  /** Застосовує зміну до вже побудованих індексів і запам'ятовує її для тих, що саме будуються. */
+  private synchronized void apply(
+      Consumer<FacetIndex> facetChange, Consumer<JourneySimilarityIndex> similarityChange) {
+    facetChanges.apply(
+        this,
+        service -> {
+          if (service.facetIndex != null) {
+            facetChange.accept(service.facetIndex);
+          }
+        });
+    similarityChanges.apply(
+        this,
+        service -> {
+          if (service.similarityIndex != null) {
+            similarityChange.accept(service.similarityIndex);
+          }
+        });
+  }
+
+  private FacetIndex getFacetIndex() {
+    FacetIndex current = facetIndex;
+    if (current != null) {
+      return current;
+    }
+    synchronized (facetBuildLock) {
+      if (facetIndex != null) {
+        return facetIndex;
+      }
+      synchronized (this) {
+        facetChanges.begin();
+      }
+      try {
+        long startedAt = System.currentTimeMillis();
+        FacetIndex index = new FacetIndex();
+        journeyRepository.streamAttributes(index::put);
+        synchronized (this) {
+          facetIndex = index;
+          facetChanges.replay(this);
+        }
+        System.out.println(
+            "Фасетний індекс подорожей побудовано за "
+                + (System.currentTimeMillis() - startedAt)
+                + " мс: подорожей "
+                + index.size()
+                + ", ~"
+                + index.estimateMemoryBytes() / 1024
+                + " КБ.");
+        return index;
+      } finally {
+        synchronized (this) {
+          facetChanges.discard();
+        }
+      }
+    }
+  }
+
+  private JourneySimilarityIndex getSimilarityIndex() {
+    JourneySimilarityIndex current = similarityIndex;
+    if (current != null) {
+      return current;
+    }
+    synchronized (similarityBuildLock) {
+      if (similarityIndex != null) {
+        return similarityIndex;
+      }
+      synchronized (this) {
+        similarityChanges.begin();
+      }
+      try {
+        long startedAt = System.currentTimeMillis();
+        JourneySimilarityIndex index = new JourneySimilarityIndex();
+        journeyRepository.streamAttributes(index::put);
+        synchronized (this) {
+          similarityIndex = index;
+          similarityChanges.replay(this);
+        }
+        System.out.println(
+            "Індекс схожості подорожей побудовано за "
+                + (System.currentTimeMillis() - startedAt)
+                + " мс: подорожей "
+                + index.size()
+                + ".");
+        return index;
+      } finally {
+        synchronized (this) {
+          similarityChanges.discard();
+        }
+      }
+    }
+  }
+}
@@ -1,22 +1,33 @@
 package com.trailtales.repository;
 
+import com.trailtales.dto.JourneyAttributes;
+import com.trailtales.dto.JourneySummary;
 import com.trailtales.entity.Event;
 import com.trailtales.entity.Journey;
+import com.trailtales.entity.Location;
 import com.trailtales.entity.Photo;
 import com.trailtales.entity.Tag;
 import com.trailtales.entity.User;
+import com.trailtales.util.SqlUtils;
+import java.sql.Array;
 import java.sql.PreparedStatement;
 import java.sql.Statement;
 import java.sql.Timestamp;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
@@ -35,6 +46,51 @@ public class JourneyRepository {
 
   private final RowMapper<Journey> journeyRowMapper;
 
+  /** Лише стовпці таблиці {@code journeys}, без пов'язаних сутностей. */
+  private final RowMapper<Journey> journeyColumnsRowMapper =
+      (rs, rowNum) -> {
+        Journey journey = new Journey();
+        journey.setId(rs.getLong("id"));
+        journey.setUserId(rs.getLong("user_id"));
+        journey.setName(rs.getString("name"));
+        journey.setDescription(rs.getString("description"));
+        if (rs.getDate("start_date") != null) {
+          journey.setStartDate(rs.getDate("start_date").toLocalDate());
+        }
+        if (rs.getDate("end_date") != null) {
+          journey.setEndDate(rs.getDate("end_date").toLocalDate());
+        }
+        journey.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        journey.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+        journey.setOriginLocationId(rs.getObject("origin_location_id", Long.class));
+        journey.setDestinationLocationId(rs.getObject("destination_location_id", Long.class));
+        return journey;
+      };
+
+  /** Користувач без ролей — для власників і учасників подорожей. */
+  private final RowMapper<User> userSummaryRowMapper =
+      (rs, rowNum) -> {
+        User user = new User();
+        user.setId(rs.getLong("id"));
+        user.setUsername(rs.getString("username"));
+        user.setEmail(rs.getString("email"));
+        user.setPasswordHash(rs.getString("password_hash"));
+        user.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        user.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+        user.setRoles(new HashSet<>());
+        return user;
+      };
+
+  private final RowMapper<Tag> tagRowMapper =
+      (rs, rowNum) -> {
+        Tag tag = new Tag();
+        tag.setId(rs.getLong("id"));
+        tag.setName(rs.getString("name"));
+        tag.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        tag.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+        return tag;
+      };
+
   public JourneyRepository(
       JdbcTemplate jdbcTemplate,
       LocationRepository locationRepository,
@@ -51,32 +107,15 @@ public class JourneyRepository {
 
     this.journeyRowMapper =
         (rs, rowNum) -> {
-          Journey journey = new Journey();
-          journey.setId(rs.getLong("id"));
-          Long userId = rs.getLong("user_id");
-          journey.setUserId(userId);
+          Journey journey = journeyColumnsRowMapper.mapRow(rs, rowNum);
+          userRepository.findById(journey.getUserId()).ifPresent(journey::setUser);
 
-          userRepository.findById(userId).ifPresent(journey::setUser);
-
-          journey.setName(rs.getString("name"));
-          journey.setDescription(rs.getString("description"));
-          if (rs.getDate("start_date") != null) {
-            journey.setStartDate(rs.getDate("start_date").toLocalDate());
-          }
-          if (rs.getDate("end_date") != null) {
-            journey.setEndDate(rs.getDate("end_date").toLocalDate());
-          }
-          journey.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
-          journey.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
-
-          Long originLocationId = rs.getObject("origin_location_id", Long.class);
-          journey.setOriginLocationId(originLocationId);
+          Long originLocationId = journey.getOriginLocationId();
           if (originLocationId != null) {
             locationRepository.findById(originLocationId).ifPresent(journey::setOriginLocation);
           }
 
-          Long destinationLocationId = rs.getObject("destination_location_id", Long.class);
-          journey.setDestinationLocationId(destinationLocationId);
+          Long destinationLocationId = journey.getDestinationLocationId();
           if (destinationLocationId != null) {
             locationRepository
                 .findById(destinationLocationId)
@@ -110,6 +149,32 @@ public class JourneyRepository {
     }
   }
 
+  /**
+   * Повертає ID власника подорожі без завантаження її графа (учасників, подій, фото) — для
+   * перевірки прав у масових операціях.
+   *
+   * @param journeyId ID подорожі.
+   * @return ID власника або порожній {@link Optional}, якщо подорож не знайдена.
+   */
+  public Optional<Long> findOwnerId(Long journeyId) {
+    return jdbcTemplate
+        .queryForList("SELECT user_id FROM journeys WHERE id = ?", Long.class, journeyId)
+        .stream()
+        .findFirst();
+  }
+
+  /**
+   * Повертає ID подорожей, доступних користувачу: власних і тих, де він учасник.
+   *
+   * @param userId ID користувача.
+   * @return множина ID подорожей.
+   */
+  public Set<Long> findVisibleIds(Long userId) {
+    String sql =
+        "SELECT id FROM journeys WHERE user_id = ? UNION SELECT journey_id FROM journey_participants WHERE user_id = ?";
+    return new HashSet<>(jdbcTemplate.queryForList(sql, Long.class, userId, userId));
+  }
+
   public List<Journey> findAll() {
     String sql = "SELECT j.* FROM journeys j";
     List<Journey> journeys = jdbcTemplate.query(sql, journeyRowMapper);
@@ -280,18 +345,7 @@ public class JourneyRepository {
   public Set<Tag> findTagsByJourneyId(Long journeyId) {
     String sql =
         "SELECT t.id, t.name, t.created_at, t.updated_at FROM tags t JOIN journey_tags jt ON t.id = jt.tag_id WHERE jt.journey_id = ?";
-    return new HashSet<>(
-        jdbcTemplate.query(
-            sql,
-            (rs, rowNum) -> {
-              Tag tag = new Tag();
-              tag.setId(rs.getLong("id"));
-              tag.setName(rs.getString("name"));
-              tag.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
-              tag.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
-              return tag;
-            },
-            journeyId));
+    return new HashSet<>(jdbcTemplate.query(sql, tagRowMapper, journeyId));
   }
 
   public void addParticipant(Long journeyId, Long userId) {
@@ -309,46 +363,37 @@ public class JourneyRepository {
         "SELECT u.id, u.username, u.email, u.password_hash, u.created_at, u.updated_at "
             + "FROM users u JOIN journey_participants jp ON u.id = jp.user_id "
             + "WHERE jp.journey_id = ?";
-    RowMapper<User> participantRowMapper =
-        (rs, rowNum) -> {
-          User user = new User();
-          user.setId(rs.getLong("id"));
-          user.setUsername(rs.getString("username"));
-          user.setEmail(rs.getString("email"));
-          user.setPasswordHash(rs.getString("password_hash"));
-          user.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
-          user.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
-          user.setRoles(new HashSet<>());
-          return user;
-        };
-    return new HashSet<>(jdbcTemplate.query(sql, participantRowMapper, journeyId));
+    return new HashSet<>(jdbcTemplate.query(sql, userSummaryRowMapper, journeyId));
   }
 
-  public List<Journey> searchJourneys(String keyword) {
+  /**
+   * Повнотекстовий пошук подорожей за назвою, описом, тегами та назвами початкової і кінцевої
+   * локацій. Використовує документи з таблиці {@code journey_search_documents} (GIN-індекс), які
+   * підтримуються в актуальному стані тригерами. Кожне слово запиту шукається як префікс;
+   * результати впорядковуються за релевантністю ({@code ts_rank}). Пов'язані сутності
+   * завантажуються пакетно (див. {@link #withRelations(List)}).
+   *
+   * @param keyword ключові слова; для порожнього рядка результат порожній.
+   * @param limit максимальна кількість подорожей у результаті.
+   * @return список подорожей, найрелевантніші першими.
+   */
+  public List<Journey> searchJourneys(String keyword, int limit) {
+    if (keyword == null || keyword.isBlank()) {
+      return List.of();
+    }
+    String tsQuery = SqlUtils.toPrefixTsQuery(keyword);
+    if (tsQuery == null) {
+      return List.of();
+    }
     String sql =
-        "SELECT DISTINCT j.* FROM journeys j "
-            + "LEFT JOIN locations origin_loc ON j.origin_location_id = origin_loc.id "
-            + "LEFT JOIN locations dest_loc ON j.destination_location_id = dest_loc.id "
-            + "LEFT JOIN journey_tags jt ON j.id = jt.journey_id "
-            + "LEFT JOIN tags t ON jt.tag_id = t.id "
-            + "WHERE j.name ILIKE ? OR j.description ILIKE ? OR t.name ILIKE ? "
-            + "OR origin_loc.name ILIKE ? OR dest_loc.name ILIKE ?";
-    String searchKeyword = "%" + keyword + "%";
-    List<Journey> journeys =
-        jdbcTemplate.query(
-            sql,
-            journeyRowMapper,
-            searchKeyword,
-            searchKeyword,
-            searchKeyword,
-            searchKeyword,
-            searchKeyword);
-    journeys.forEach(
-        journey -> {
-          Set<User> participants = findParticipantsByJourneyId(journey.getId());
-          journey.setParticipants(participants);
-        });
-    return journeys;
+        "SELECT j.* FROM journeys j "
+            + "JOIN journey_search_documents d ON d.journey_id = j.id, "
+            + "(SELECT to_tsquery('simple', ?) || to_tsquery('english', ?) AS q) query "
+            + "WHERE d.document @@ query.q "
+            + "ORDER BY ts_rank(d.document, query.q) DESC, j.id "
+            + "LIMIT ?";
+    return withRelations(
+        jdbcTemplate.query(sql, journeyColumnsRowMapper, tsQuery, tsQuery, limit));
   }
 
   public List<Journey> findByTagId(Long tagId) {
@@ -362,4 +407,254 @@ public class JourneyRepository {
         });
     return journeys;
   }
+
+  /**
+   * Знаходить подорожі, діапазон дат яких перетинається з періодом [from, to] (обидві межі
+   * включно). Запит обслуговується GiST-індексом за стовпцем {@code date_range}. Пов'язані
+   * сутності завантажуються пакетно (див. {@link #withRelations(List)}).
+   *
+   * @param from перший день періоду.
+   * @param to останній день періоду.
+   * @param limit максимальна кількість подорожей у результаті.
+   * @return список подорожей, упорядкований за датою початку.
+   */
+  public List<Journey> findOverlappingDateRange(LocalDate from, LocalDate to, int limit) {
+    String sql =
+        "SELECT j.* FROM journeys j WHERE j.date_range && daterange(?, ?, '[]') "
+            + "ORDER BY lower(j.date_range), j.id LIMIT ?";
+    return withRelations(jdbcTemplate.query(sql, journeyColumnsRowMapper, from, to, limit));
+  }
+
+  /**
+   * Знаходить подорожі, що тривають у вказаний день.
+   *
+   * @param date день, який має входити в діапазон дат подорожі.
+   * @param limit максимальна кількість подорожей у результаті.
+   * @return список подорожей, упорядкований за датою початку.
+   */
+  public List<Journey> findActiveOn(LocalDate date, int limit) {
+    String sql =
+        "SELECT j.* FROM journeys j WHERE j.date_range @> CAST(? AS DATE) "
+            + "ORDER BY lower(j.date_range), j.id LIMIT ?";
+    return withRelations(jdbcTemplate.query(sql, journeyColumnsRowMapper, date, limit));
+  }
+
+  /**
+   * Знаходить подорожі, що повністю відбуваються в межах періоду [from, to].
+   *
+   * @param from перший день періоду.
+   * @param to останній день періоду.
+   * @param limit максимальна кількість подорожей у результаті.
+   * @return список подорожей, упорядкований за датою початку.
+   */
+  public List<Journey> findWithinDateRange(LocalDate from, LocalDate to, int limit) {
+    String sql =
+        "SELECT j.* FROM journeys j WHERE j.date_range <@ daterange(?, ?, '[]') "
+            + "ORDER BY lower(j.date_range), j.id LIMIT ?";
+    return withRelations(jdbcTemplate.query(sql, journeyColumnsRowMapper, from, to, limit));
+  }
+
+  /**
+   * Доповнює сторінку подорожей власниками, локаціями, тегами та учасниками: по одному запиту
+   * {@code = ANY (?)} на кожен вид зв'язку замість окремих запитів для кожного рядка. Події та
+   * фото не завантажуються.
+   *
+   * @param journeys подорожі лише зі стовпцями таблиці {@code journeys}.
+   * @return ті самі подорожі.
+   */
+  private List<Journey> withRelations(List<Journey> journeys) {
+    if (journeys.isEmpty()) {
+      return journeys;
+    }
+    Set<Long> journeyIds = new HashSet<>();
+    Set<Long> userIds = new HashSet<>();
+    Set<Long> locationIds = new HashSet<>();
+    for (Journey journey : journeys) {
+      journeyIds.add(journey.getId());
+      userIds.add(journey.getUserId());
+      if (journey.getOriginLocationId() != null) {
+        locationIds.add(journey.getOriginLocationId());
+      }
+      if (journey.getDestinationLocationId() != null) {
+        locationIds.add(journey.getDestinationLocationId());
+      }
+    }
+
+    Map<Long, User> users =
+        jdbcTemplate
+            .query(
+                anyIdStatement(
+                    "SELECT id, username, email, password_hash, created_at, updated_at "
+                        + "FROM users WHERE id = ANY (?)",
+                    userIds),
+                userSummaryRowMapper)
+            .stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+    Map<Long, Location> locations =
+        locationRepository.findByIds(locationIds).stream()
+            .collect(Collectors.toMap(Location::getId, Function.identity()));
+    Map<Long, Set<Tag>> tags = new HashMap<>();
+    jdbcTemplate.query(
+        anyIdStatement(
+            "SELECT jt.journey_id, t.id, t.name, t.created_at, t.updated_at "
+                + "FROM tags t JOIN journey_tags jt ON t.id = jt.tag_id "
+                + "WHERE jt.journey_id = ANY (?)",
+            journeyIds),
+        rs -> {
+          long journeyId = rs.getLong("journey_id");
+          tags.computeIfAbsent(journeyId, id -> new HashSet<>()).add(tagRowMapper.mapRow(rs, 0));
+        });
+    Map<Long, Set<User>> participants = new HashMap<>();
+    jdbcTemplate.query(
+        anyIdStatement(
+            "SELECT jp.journey_id, u.id, u.username, u.email, u.password_hash, u.created_at, "
+                + "u.updated_at FROM users u JOIN journey_participants jp ON u.id = jp.user_id "
+                + "WHERE jp.journey_id = ANY (?)",
+            journeyIds),
+        rs -> {
+          long journeyId = rs.getLong("journey_id");
+          User participant = userSummaryRowMapper.mapRow(rs, 0);
+          participants.computeIfAbsent(journeyId, id -> new HashSet<>()).add(participant);
+        });
+
+    for (Journey journey : journeys) {
+      journey.setUser(users.get(journey.getUserId()));
+      if (journey.getOriginLocationId() != null) {
+        journey.setOriginLocation(locations.get(journey.getOriginLocationId()));
+      }
+      if (journey.getDestinationLocationId() != null) {
+        journey.setDestinationLocation(locations.get(journey.getDestinationLocationId()));
+      }
+      journey.setTags(tags.getOrDefault(journey.getId(), new HashSet<>()));
+      journey.setParticipants(participants.getOrDefault(journey.getId(), new HashSet<>()));
+    }
+    return journeys;
+  }
+
+  private static PreparedStatementCreator anyIdStatement(String sql, Collection<Long> ids) {
+    return connection -> {
+      PreparedStatement ps = connection.prepareStatement(sql);
+      ps.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+      return ps;
+    };
+  }
+
+  /**
+   * Знаходить подорожі за набором ID одним запитом. Пов'язані сутності завантажуються пакетно (див.
+   * {@link #withRelations(List)}).
+   *
+   * @param journeyIds ID подорожей.
+   * @return знайдені подорожі в довільному порядку.
+   */
+  public List<Journey> findByIds(Collection<Long> journeyIds) {
+    if (journeyIds == null || journeyIds.isEmpty()) {
+      return List.of();
+    }
+    return withRelations(
+        jdbcTemplate.query(
+            anyIdStatement("SELECT j.* FROM journeys j WHERE j.id = ANY (?)", journeyIds),
+            journeyColumnsRowMapper));
+  }
+
+  /**
+   * Знаходить подорожі, доступні користувачу (власні та ті, де він учасник), одним запитом.
+   * Пов'язані сутності завантажуються пакетно (див. {@link #withRelations(List)}).
+   *
+   * @param userId ID користувача.
+   * @return знайдені подорожі в довільному порядку.
+   */
+  public List<Journey> findVisibleToUser(Long userId) {
+    String sql =
+        "SELECT j.* FROM journeys j WHERE j.user_id = ? "
+            + "OR j.id IN (SELECT journey_id FROM journey_participants WHERE user_id = ?)";
+    return withRelations(jdbcTemplate.query(sql, journeyColumnsRowMapper, userId, userId));
+  }
+
+  /**
+   * Передає атрибути всіх подорожей (власник, локації, дати, ID тегів) обробнику рядок за рядком,
+   * не завантажуючи пов'язані сутності та не тримаючи весь результат у пам'яті.
+   *
+   * @param consumer обробник атрибутів.
+   */
+  public void streamAttributes(Consumer<JourneyAttributes> consumer) {
+    String sql =
+        "SELECT j.id, j.user_id, j.origin_location_id, j.destination_location_id, "
+            + "j.start_date, j.end_date, "
+            + "ARRAY(SELECT jt.tag_id FROM journey_tags jt WHERE jt.journey_id = j.id) AS tag_ids "
+            + "FROM journeys j ORDER BY j.id";
+    jdbcTemplate.query(
+        connection -> {
+          PreparedStatement ps = connection.prepareStatement(sql);
+          ps.setFetchSize(1000);
+          return ps;
+        },
+        rs -> {
+          Set<Long> tagIds = new HashSet<>();
+          Array tagArray = rs.getArray("tag_ids");
+          if (tagArray != null) {
+            for (Long tagId : (Long[]) tagArray.getArray()) {
+              tagIds.add(tagId);
+            }
+          }
+          consumer.accept(
+              new JourneyAttributes(
+                  rs.getLong("id"),
+                  rs.getLong("user_id"),
+                  rs.getObject("origin_location_id", Long.class),
+                  rs.getObject("destination_location_id", Long.class),
+                  rs.getObject("start_date", LocalDate.class),
+                  rs.getObject("end_date", LocalDate.class),
+                  tagIds));
+        });
+  }
+
+  /**
+   * Повертає кількість подій, фотографій та учасників для кожної з вказаних подорожей одним
+   * згрупованим запитом, не завантажуючи самі дочірні об'єкти.
+   *
+   * @param journeyIds ID подорожей.
+   * @return мапа ID подорожі → {@link JourneySummary}; неіснуючі ID у мапу не потрапляють.
+   */
+  public Map<Long, JourneySummary> findSummariesByIds(Collection<Long> journeyIds) {
+    Map<Long, JourneySummary> summaries = new HashMap<>();
+    if (journeyIds == null || journeyIds.isEmpty()) {
+      return summaries;
+    }
+    String sql =
+        "SELECT j.id, "
+            + "COALESCE(e.event_count, 0) AS event_count, "
+            + "COALESCE(p.photo_count, 0) AS photo_count, "
+            + "COALESCE(jp.participant_count, 0) AS participant_count, "
+            + "m.distance_km, m.span_days "
+            + "FROM journeys j "
+            + "LEFT JOIN journey_route_metrics m ON m.journey_id = j.id "
+            + "LEFT JOIN (SELECT journey_id, COUNT(*) AS event_count FROM events "
+            + "WHERE journey_id = ANY (?) GROUP BY journey_id) e ON e.journey_id = j.id "
+            + "LEFT JOIN (SELECT journey_id, COUNT(*) AS photo_count FROM photos "
+            + "WHERE journey_id = ANY (?) GROUP BY journey_id) p ON p.journey_id = j.id "
+            + "LEFT JOIN (SELECT journey_id, COUNT(*) AS participant_count FROM journey_participants "
+            + "WHERE journey_id = ANY (?) GROUP BY journey_id) jp ON jp.journey_id = j.id "
+            + "WHERE j.id = ANY (?)";
+    jdbcTemplate.query(
+        connection -> {
+          PreparedStatement ps = connection.prepareStatement(sql);
+          Array ids = connection.createArrayOf("bigint", journeyIds.toArray());
+          for (int i = 1; i <= 4; i++) {
+            ps.setArray(i, ids);
+          }
+          return ps;
+        },
+        rs -> {
+          JourneySummary summary =
+              new JourneySummary(
+                  rs.getLong("id"),
+                  rs.getLong("event_count"),
+                  rs.getLong("photo_count"),
+                  rs.getLong("participant_count"),
+                  rs.getObject("distance_km", Double.class),
+                  rs.getObject("span_days", Integer.class));
+          summaries.put(summary.getJourneyId(), summary);
+        });
+    return summaries;
+  }
 }
@@ -0,0 +1,26 @@
+package com.trailtales.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Похідні метрики маршруту подорожі: довжина шляху по великому колу через початкову локацію,
+ * локації подій у хронологічному порядку та кінцеву локацію, прямокутник, що охоплює маршрут, і
+ * тривалість у днях. Поле {@code revision} — версія позначки застарілості, для якої метрики
+ * обчислено.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JourneyRouteMetrics {
+  private Long journeyId;
+  private Double distanceKm;
+  private Double minLatitude;
+  private Double minLongitude;
+  private Double maxLatitude;
+  private Double maxLongitude;
+  private Integer spanDays;
+  private int pointCount;
+  private long revision;
+}
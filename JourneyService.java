@@ -1,11 +1,19 @@
 package com.trailtales.service;
 
 import com.trailtales.dto.JourneyCreationDto;
+import com.trailtales.dto.JourneyFacetResult;
+import com.trailtales.dto.JourneySimilarity;
+import com.trailtales.dto.JourneySummary;
 import com.trailtales.dto.JourneyUpdateDto;
+import com.trailtales.dto.RouteMetric;
 import com.trailtales.entity.Journey;
 import com.trailtales.entity.Tag;
 import com.trailtales.entity.User;
+import com.trailtales.index.FacetQuery;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -201,7 +209,8 @@ public interface JourneyService {
    * @param keyword ключове слово для пошуку.
    * @param currentUser поточний автентифікований користувач (може використовуватися для фільтрації
    *     результатів у майбутньому).
-   * @return список {@link Journey}, що відповідають критеріям пошуку.
+   * @return список {@link Journey}, що відповідають критеріям пошуку; порожній, якщо ключове слово
+   *     не задано.
    */
   List<Journey> searchJourneys(String keyword, User currentUser);
 
@@ -239,4 +248,101 @@ public interface JourneyService {
    * @throws SecurityException якщо поточний користувач не має дозволу видаляти цю подорож.
    */
   void deleteJourney(Long id, User currentUser);
+
+  /**
+   * Повертає зведену інформацію (кількість подій, фотографій та учасників, довжину маршруту й
+   * тривалість) для набору подорожей.
+   * Виконується одним запитом незалежно від кількості подорожей, тож підходить для відображення
+   * лічильників поруч з кожним рядком списку. Подорожі, недоступні користувачу (не власні і не ті,
+   * де він учасник), пропускаються; адміністратор отримує лічильники всіх подорожей.
+   *
+   * @param journeyIds ID подорожей.
+   * @param currentUser поточний автентифікований користувач.
+   * @return мапа ID подорожі → {@link JourneySummary}.
+   */
+  Map<Long, JourneySummary> getJourneySummaries(Collection<Long> journeyIds, User currentUser);
+
+  /**
+   * Повертає подорожі, які хоча б частково відбуваються в період [from, to] — наприклад,
+   * "подорожі, що перетинаються з липнем".
+   *
+   * @param from перший день періоду (включно).
+   * @param to останній день періоду (включно).
+   * @param limit максимальна кількість подорожей.
+   * @return список {@link Journey}, упорядкований за датою початку.
+   * @throws IllegalArgumentException якщо межі не задані, from пізніше за to або ліміт не є
+   *     додатним.
+   */
+  List<Journey> getJourneysOverlapping(LocalDate from, LocalDate to, int limit);
+
+  /**
+   * Повертає подорожі, що тривають у вказаний день.
+   *
+   * @param date день, що цікавить.
+   * @param limit максимальна кількість подорожей.
+   * @return список {@link Journey}, упорядкований за датою початку.
+   * @throws IllegalArgumentException якщо дата не задана або ліміт не є додатним.
+   */
+  List<Journey> getJourneysActiveOn(LocalDate date, int limit);
+
+  /**
+   * Повертає подорожі, що повністю вкладаються в період [from, to].
+   *
+   * @param from перший день періоду (включно).
+   * @param to останній день періоду (включно).
+   * @param limit максимальна кількість подорожей.
+   * @return список {@link Journey}, упорядкований за датою початку.
+   * @throws IllegalArgumentException якщо межі не задані, from пізніше за to або ліміт не є
+   *     додатним.
+   */
+  List<Journey> getJourneysWithin(LocalDate from, LocalDate to, int limit);
+
+  /**
+   * Фасетний пошук подорожей: довільна комбінація умов за тегами, початковою та кінцевою
+   * локаціями, власником і роком (див. {@link FacetQuery}). Разом зі сторінкою результатів
+   * повертаються лічильники значень кожного фасету серед усіх знайдених подорожей, тож інтерфейс
+   * може показувати, скільки подорожей залишиться після додавання ще однієї умови. Запит
+   * обчислюється в пам'яті на стиснутих бітових мапах; звернення до бази потрібне лише для
+   * завантаження сторінки знайдених подорожей.
+   *
+   * @param query логічний вираз над фасетами.
+   * @param limit максимальна кількість подорожей на сторінці (новіші першими).
+   * @return {@link JourneyFacetResult} зі сторінкою подорожей, загальною кількістю та лічильниками.
+   * @throws IllegalArgumentException якщо запит не задано або ліміт не є додатним.
+   */
+  JourneyFacetResult queryJourneys(FacetQuery query, int limit);
+
+  /**
+   * Знаходить подорожі, схожі на задану за тегами та локаціями ("подорожі, схожі на цю").
+   * Кандидати відбираються за MinHash-сигнатурами в LSH-кошиках індексу в пам'яті, тож запит не
+   * порівнює подорож з усіма іншими; звернення до бази потрібне лише для завантаження знайдених
+   * подорожей.
+   *
+   * <p>Повертаються лише подорожі, доступні користувачу: власні та ті, де він учасник.
+   *
+   * @param journeyId ID подорожі-зразка.
+   * @param limit максимальна кількість схожих подорожей.
+   * @param currentUser поточний автентифікований користувач.
+   * @return схожі подорожі з коефіцієнтом схожості, найсхожіші першими.
+   * @throws IllegalArgumentException якщо ID не задано або ліміт не є додатним.
+   * @throws SecurityException якщо подорож-зразок недоступна користувачу.
+   */
+  List<JourneySimilarity> getSimilarJourneys(Long journeyId, int limit, User currentUser);
+
+  /**
+   * Повертає подорожі, впорядковані за довжиною маршруту або тривалістю. Метрики заздалегідь
+   * обчислені фоновою задачею (див. {@link com.trailtales.service.RouteMetricsService}), тож
+   * сортування виконується за індексом без перерахунку маршрутів. Подорожі, метрику яких ще не
+   * обчислено або не можна визначити (немає координат чи дат), у результат не потрапляють.
+   *
+   * @param metric метрика для впорядкування.
+   * @param descending {@code true} — від більших значень до менших.
+   * @param limit максимальна кількість подорожей.
+   * @param currentUser поточний користувач; повертаються лише його власні подорожі та ті, де він
+   *     учасник.
+   * @return список {@link Journey} у порядку сортування.
+   * @throws IllegalArgumentException якщо метрику не задано або ліміт не є додатним.
+   */
+  List<Journey> getJourneysByRouteMetric(
+      RouteMetric metric, boolean descending, int limit, User currentUser);
 }
@@ -1,22 +1,44 @@
 package com.trailtales.service.impl;
 
 import com.trailtales.dto.JourneyCreationDto;
+import com.trailtales.dto.JourneyFacetResult;
+import com.trailtales.dto.JourneySimilarity;
+import com.trailtales.dto.JourneySummary;
 import com.trailtales.dto.JourneyUpdateDto;
+import com.trailtales.dto.RouteMetric;
 import com.trailtales.entity.Journey;
 import com.trailtales.entity.Location;
+import com.trailtales.entity.RoleName;
 import com.trailtales.entity.Tag;
 import com.trailtales.entity.User;
+import com.trailtales.index.FacetIndex;
+import com.trailtales.index.FacetQuery;
+import com.trailtales.index.JourneySimilarityIndex;
 import com.trailtales.repository.JourneyRepository;
 import com.trailtales.repository.LocationRepository;
+import com.trailtales.repository.RouteMetricsRepository;
 import com.trailtales.repository.TagRepository;
 import com.trailtales.repository.UserRepository;
+import com.trailtales.service.AutocompleteService;
+import com.trailtales.service.JourneyIndexService;
 import com.trailtales.service.JourneyService;
+import com.trailtales.service.MapClusterService;
+import com.trailtales.service.RouteMetricsService;
+import com.trailtales.service.SearchIndexService;
+import com.trailtales.service.TagService;
+import com.trailtales.util.SqlUtils;
+import com.trailtales.util.TransactionUtils;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -25,11 +47,21 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class JourneyServiceImpl implements JourneyService {
 
+  /** Максимальна кількість подорожей у результатах пошуку. */
+  private static final int MAX_SEARCH_RESULTS = 200;
+
   private final JourneyRepository journeyRepository;
   private final TagRepository tagRepository;
   private final LocationRepository locationRepository;
   private final UserRepository userRepository;
   private final Validator validator;
+  private final SearchIndexService searchIndexService;
+  private final AutocompleteService autocompleteService;
+  private final TagService tagService;
+  private final MapClusterService mapClusterService;
+  private final JourneyIndexService journeyIndexService;
+  private final RouteMetricsRepository routeMetricsRepository;
+  private final RouteMetricsService routeMetricsService;
 
   /**
    * Конструктор для впровадження залежностей.
@@ -39,6 +71,13 @@ public class JourneyServiceImpl implements JourneyService {
    * @param locationRepository Репозиторій для роботи з локаціями.
    * @param userRepository Репозиторій для роботи з користувачами.
    * @param validator Валідатор для перевірки DTO.
+   * @param searchIndexService Сервіс пошукового індексу в пам'яті.
+   * @param autocompleteService Сервіс автодоповнення назв локацій і тегів.
+   * @param tagService Сервіс тегів, що веде матрицю їх спільної появи.
+   * @param mapClusterService Сервіс кластерів оглядової карти.
+   * @param journeyIndexService Сервіс фасетного індексу та індексу схожості подорожей.
+   * @param routeMetricsRepository Репозиторій метрик маршруту подорожей.
+   * @param routeMetricsService Сервіс фонового перерахунку метрик маршруту.
    */
   @Autowired
   public JourneyServiceImpl(
@@ -46,12 +85,26 @@ public class JourneyServiceImpl implements JourneyService {
       TagRepository tagRepository,
       LocationRepository locationRepository,
       UserRepository userRepository,
-      Validator validator) {
+      Validator validator,
+      SearchIndexService searchIndexService,
+      AutocompleteService autocompleteService,
+      TagService tagService,
+      MapClusterService mapClusterService,
+      JourneyIndexService journeyIndexService,
+      RouteMetricsRepository routeMetricsRepository,
+      RouteMetricsService routeMetricsService) {
     this.journeyRepository = journeyRepository;
     this.tagRepository = tagRepository;
     this.locationRepository = locationRepository;
     this.userRepository = userRepository;
     this.validator = validator;
+    this.searchIndexService = searchIndexService;
+    this.autocompleteService = autocompleteService;
+    this.tagService = tagService;
+    this.mapClusterService = mapClusterService;
+    this.journeyIndexService = journeyIndexService;
+    this.routeMetricsRepository = routeMetricsRepository;
+    this.routeMetricsService = routeMetricsService;
   }
 
   /**
@@ -143,7 +196,7 @@ public class JourneyServiceImpl implements JourneyService {
     }
 
     // Збереження подорожі
-    return journeyRepository.save(journey);
+    return afterJourneyWrite(journeyRepository.save(journey));
   }
 
   /**
@@ -207,7 +260,7 @@ public class JourneyServiceImpl implements JourneyService {
                 });
 
     journey.getTags().add(tag);
-    return journeyRepository.save(journey);
+    return afterJourneyWrite(journeyRepository.save(journey));
   }
 
   /**
@@ -228,7 +281,7 @@ public class JourneyServiceImpl implements JourneyService {
     Optional<Tag> tagOpt = tagRepository.findByName(tagName);
     if (tagOpt.isPresent()) {
       journey.getTags().removeIf(t -> t.getName().equals(tagName));
-      return journeyRepository.save(journey);
+      return afterJourneyWrite(journeyRepository.save(journey));
     } else {
       throw new IllegalArgumentException("Тег з назвою '" + tagName + "' не знайдено.");
     }
@@ -281,7 +334,7 @@ public class JourneyServiceImpl implements JourneyService {
     journey.setOriginLocationId(location.getId());
     journey.setOriginLocation(location);
     journey.setUpdatedAt(LocalDateTime.now());
-    return journeyRepository.save(journey);
+    return afterJourneyWrite(journeyRepository.save(journey));
   }
 
   /**
@@ -318,7 +371,7 @@ public class JourneyServiceImpl implements JourneyService {
     journey.setDestinationLocationId(location.getId());
     journey.setDestinationLocation(location);
     journey.setUpdatedAt(LocalDateTime.now());
-    return journeyRepository.save(journey);
+    return afterJourneyWrite(journeyRepository.save(journey));
   }
 
   /**
@@ -336,7 +389,7 @@ public class JourneyServiceImpl implements JourneyService {
     Journey journey = getJourneyAndCheckOwnership(journeyId, currentUser);
     journey.setOriginLocationId(null);
     journey.setOriginLocation(null);
-    return journeyRepository.save(journey);
+    return afterJourneyWrite(journeyRepository.save(journey));
   }
 
   /**
@@ -354,7 +407,7 @@ public class JourneyServiceImpl implements JourneyService {
     Journey journey = getJourneyAndCheckOwnership(journeyId, currentUser);
     journey.setDestinationLocationId(null);
     journey.setDestinationLocation(null);
-    return journeyRepository.save(journey);
+    return afterJourneyWrite(journeyRepository.save(journey));
   }
 
   /**
@@ -394,7 +447,7 @@ public class JourneyServiceImpl implements JourneyService {
                         "Учасника з ідентифікатором '" + participantIdentifier + "' не знайдено."));
 
     journey.getParticipants().add(participant);
-    return journeyRepository.save(journey);
+    return afterJourneyWrite(journeyRepository.save(journey));
   }
 
   /**
@@ -418,7 +471,7 @@ public class JourneyServiceImpl implements JourneyService {
             participantIdentifier); // Виправлено: findByUsernameOrEmail
     if (participantOpt.isPresent()) {
       journey.getParticipants().removeIf(p -> p.getId().equals(participantOpt.get().getId()));
-      return journeyRepository.save(journey);
+      return afterJourneyWrite(journeyRepository.save(journey));
     } else {
       throw new IllegalArgumentException(
           "Учасника з ідентифікатором '" + participantIdentifier + "' не знайдено.");
@@ -438,16 +491,16 @@ public class JourneyServiceImpl implements JourneyService {
   }
 
   /**
-   * Здійснює пошук подорожей за ключовим словом.
+   * Здійснює повнотекстовий пошук подорожей за ключовим словом.
    *
    * @param keyword Ключове слово для пошуку.
    * @param currentUser Поточний автентифікований користувач.
-   * @return Список об'єктів Journey.
+   * @return Список об'єктів Journey, впорядкований за релевантністю.
    */
   @Override
   @Transactional(readOnly = true)
   public List<Journey> searchJourneys(String keyword, User currentUser) {
-    return journeyRepository.searchJourneys(keyword);
+    return journeyRepository.searchJourneys(keyword, MAX_SEARCH_RESULTS);
   }
 
   /**
@@ -565,7 +618,7 @@ public class JourneyServiceImpl implements JourneyService {
     }
 
     journey.setUpdatedAt(LocalDateTime.now());
-    return journeyRepository.save(journey);
+    return afterJourneyWrite(journeyRepository.save(journey));
   }
 
   /**
@@ -582,6 +635,227 @@ public class JourneyServiceImpl implements JourneyService {
   public void deleteJourney(Long id, User currentUser) {
     Journey journey = getJourneyAndCheckOwnership(id, currentUser);
     journeyRepository.deleteById(id);
+    TransactionUtils.afterCommit(
+        () -> {
+          journeyIndexService.onJourneyDeleted(id);
+          searchIndexService.onJourneyDeleted(id);
+          tagService.onJourneyDeleted(id);
+          mapClusterService.onJourneyDeleted(id);
+        });
+  }
+
+  /**
+   * Повертає лічильники подій, фотографій та учасників для набору подорожей.
+   *
+   * @param journeyIds ID подорожей.
+   * @param currentUser Поточний автентифікований користувач.
+   * @return Мапа ID подорожі → JourneySummary лише для доступних користувачу подорожей.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public Map<Long, JourneySummary> getJourneySummaries(
+      Collection<Long> journeyIds, User currentUser) {
+    if (journeyIds == null || journeyIds.isEmpty()) {
+      return Map.of();
+    }
+    // Адміністратор переглядає список усіх подорожей і бачить їхні лічильники
+    if (isAdmin(currentUser)) {
+      return journeyRepository.findSummariesByIds(journeyIds);
+    }
+    Set<Long> visibleIds = journeyRepository.findVisibleIds(currentUser.getId());
+    List<Long> allowedIds =
+        journeyIds.stream().filter(visibleIds::contains).collect(Collectors.toList());
+    return allowedIds.isEmpty() ? Map.of() : journeyRepository.findSummariesByIds(allowedIds);
+  }
+
+  private static boolean isAdmin(User user) {
+    return user.getRoles() != null
+        && user.getRoles().stream().anyMatch(role -> role.getName() == RoleName.ROLE_ADMIN);
+  }
+
+  /**
+   * Повертає подорожі, діапазон дат яких перетинається з періодом.
+   *
+   * @param from Перший день періоду.
+   * @param to Останній день періоду.
+   * @param limit Максимальна кількість подорожей.
+   * @return Список об'єктів Journey.
+   * @throws IllegalArgumentException якщо період задано некоректно або ліміт не є додатним.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public List<Journey> getJourneysOverlapping(LocalDate from, LocalDate to, int limit) {
+    validatePeriod(from, to);
+    SqlUtils.requirePositiveLimit(limit);
+    return journeyRepository.findOverlappingDateRange(from, to, limit);
+  }
+
+  /**
+   * Повертає подорожі, що тривають у вказаний день.
+   *
+   * @param date День.
+   * @param limit Максимальна кількість подорожей.
+   * @return Список об'єктів Journey.
+   * @throws IllegalArgumentException якщо дата не задана або ліміт не є додатним.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public List<Journey> getJourneysActiveOn(LocalDate date, int limit) {
+    if (date == null) {
+      throw new IllegalArgumentException("Дата не може бути порожньою.");
+    }
+    SqlUtils.requirePositiveLimit(limit);
+    return journeyRepository.findActiveOn(date, limit);
+  }
+
+  /**
+   * Повертає подорожі, що повністю вкладаються в період.
+   *
+   * @param from Перший день періоду.
+   * @param to Останній день періоду.
+   * @param limit Максимальна кількість подорожей.
+   * @return Список об'єктів Journey.
+   * @throws IllegalArgumentException якщо період задано некоректно або ліміт не є додатним.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public List<Journey> getJourneysWithin(LocalDate from, LocalDate to, int limit) {
+    validatePeriod(from, to);
+    SqlUtils.requirePositiveLimit(limit);
+    return journeyRepository.findWithinDateRange(from, to, limit);
+  }
+
+  private void validatePeriod(LocalDate from, LocalDate to) {
+    if (from == null || to == null) {
+      throw new IllegalArgumentException("Початкова та кінцева дати періоду обов'язкові.");
+    }
+    if (from.isAfter(to)) {
+      throw new IllegalArgumentException(
+          "Початкова дата періоду не може бути пізніше за кінцеву.");
+    }
+  }
+
+  /**
+   * Виконує фасетний запит над індексом у пам'яті та завантажує сторінку знайдених подорожей.
+   *
+   * @param query Логічний вираз над фасетами.
+   * @param limit Максимальна кількість подорожей на сторінці.
+   * @return Результат із подорожами, загальною кількістю та фасетними лічильниками.
+   * @throws IllegalArgumentException якщо запит не задано або ліміт не є додатним.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public JourneyFacetResult queryJourneys(FacetQuery query, int limit) {
+    if (query == null) {
+      throw new IllegalArgumentException("Фасетний запит не може бути порожнім.");
+    }
+    SqlUtils.requirePositiveLimit(limit);
+    FacetIndex.Result result = journeyIndexService.queryFacets(query, limit);
+    Map<Long, Journey> journeysById =
+        journeyRepository.findByIds(result.journeyIds()).stream()
+            .collect(Collectors.toMap(Journey::getId, Function.identity()));
+    List<Journey> journeys =
+        result.journeyIds().stream()
+            .map(journeysById::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    return new JourneyFacetResult(journeys, result.totalCount(), result.facetCounts());
+  }
+
+  /**
+   * Повертає подорожі, схожі на задану, за індексом MinHash/LSH у пам'яті.
+   *
+   * @param journeyId ID подорожі-зразка.
+   * @param limit Максимальна кількість схожих подорожей.
+   * @param currentUser Поточний автентифікований користувач.
+   * @return Схожі подорожі з коефіцієнтом схожості, найсхожіші першими.
+   * @throws IllegalArgumentException якщо ID не задано або ліміт не є додатним.
+   * @throws SecurityException якщо подорож-зразок недоступна користувачу.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public List<JourneySimilarity> getSimilarJourneys(Long journeyId, int limit, User currentUser) {
+    if (journeyId == null) {
+      throw new IllegalArgumentException("ID подорожі не може бути порожнім.");
+    }
+    SqlUtils.requirePositiveLimit(limit);
+    Set<Long> visibleIds = journeyRepository.findVisibleIds(currentUser.getId());
+    if (!visibleIds.contains(journeyId)) {
+      throw new SecurityException("Ви не маєте доступу до цієї подорожі.");
+    }
+    List<JourneySimilarityIndex.Match> matches =
+        journeyIndexService.findSimilar(journeyId, limit, visibleIds::contains);
+    if (matches.isEmpty()) {
+      return List.of();
+    }
+    Map<Long, Journey> journeysById =
+        journeyRepository
+            .findByIds(matches.stream().map(JourneySimilarityIndex.Match::journeyId).toList())
+            .stream()
+            .collect(Collectors.toMap(Journey::getId, Function.identity()));
+    return matches.stream()
+        .filter(match -> journeysById.containsKey(match.journeyId()))
+        .map(
+            match -> new JourneySimilarity(journeysById.get(match.journeyId()), match.similarity()))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Повертає подорожі, впорядковані за метрикою маршруту.
+   *
+   * @param metric Метрика для впорядкування.
+   * @param descending true — від більших значень до менших.
+   * @param limit Максимальна кількість подорожей.
+   * @param currentUser Поточний автентифікований користувач.
+   * @return Список об'єктів Journey у порядку сортування.
+   * @throws IllegalArgumentException якщо метрику не задано або ліміт не є додатним.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public List<Journey> getJourneysByRouteMetric(
+      RouteMetric metric, boolean descending, int limit, User currentUser) {
+    if (metric == null) {
+      throw new IllegalArgumentException("Метрика маршруту не може бути порожньою.");
+    }
+    SqlUtils.requirePositiveLimit(limit);
+    List<Long> journeyIds =
+        routeMetricsRepository.findJourneyIdsOrderedBy(
+            metric, descending, currentUser.getId(), limit);
+    Map<Long, Journey> journeysById =
+        journeyRepository.findByIds(journeyIds).stream()
+            .collect(Collectors.toMap(Journey::getId, Function.identity()));
+    return journeyIds.stream()
+        .map(journeysById::get)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Спільна точка після кожного запису подорожі: після фіксації транзакції оновлює фасетний,
+   * пошуковий індекси, індекс схожості та підказки автодоповнення збереженою подорожжю разом з
+   * локаціями й тегами, які могли бути створені попутно, і підганяє перерахунок метрик маршруту.
+   *
+   * @param journey Збережена подорож з локаціями та тегами.
+   * @return Та сама подорож.
+   */
+  private Journey afterJourneyWrite(Journey journey) {
+    TransactionUtils.afterCommit(
+        () -> {
+          journeyIndexService.onJourneySaved(journey);
+          tagService.onJourneyTagsChanged(journey.getId(), journey.getTags());
+          mapClusterService.onJourneySaved(journey);
+          searchIndexService.onJourneySaved(journey);
+          searchIndexService.onLocationSaved(journey.getOriginLocation());
+          searchIndexService.onLocationSaved(journey.getDestinationLocation());
+          autocompleteService.onLocationSaved(journey.getOriginLocation());
+          autocompleteService.onLocationSaved(journey.getDestinationLocation());
+          if (journey.getTags() != null) {
+            journey.getTags().forEach(searchIndexService::onTagSaved);
+            journey.getTags().forEach(autocompleteService::onTagSaved);
+          }
+        });
+    routeMetricsService.requestRefresh();
+    return journey;
   }
 
   /**
@@ -0,0 +1,15 @@
+package com.trailtales.dto;
+
+import com.trailtales.entity.Journey;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Подорож, схожа на задану, разом з коефіцієнтом схожості їх тегів і локацій (від 0 до 1). */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JourneySimilarity {
+  private Journey journey;
+  private double similarity;
+}
@@ -0,0 +1,251 @@
+package com.trailtales.index;
+
+import com.trailtales.dto.JourneyAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.LongPredicate;
+
+/**
+ * Індекс схожості подорожей на основі MinHash та LSH (locality-sensitive hashing). Ознаками
+ * подорожі є її теги та локації (початкова й кінцева). Для кожної подорожі зберігається MinHash-
+ * сигнатура, розбита на смуги; подорожі з однаковою смугою потрапляють в один кошик і стають
+ * кандидатами. Для кандидатів обчислюється точний коефіцієнт Жаккара, тож пошук схожих подорожей
+ * не перебирає всі подорожі.
+ *
+ * <p>Параметри ({@value #BANDS} смуг по {@value #ROWS_PER_BAND} рядки) підібрано під невеликі
+ * набори ознак: пара з коефіцієнтом Жаккара 0,3 стає кандидатами з імовірністю понад 94%.
+ */
+public class JourneySimilarityIndex {
+
+  private static final int BANDS = 32;
+  private static final int ROWS_PER_BAND = 2;
+  private static final int SIGNATURE_SIZE = BANDS * ROWS_PER_BAND;
+
+  /** Фіксоване зерно, щоб сигнатури були відтворюваними між запусками. */
+  private static final long HASH_SEED = 0x5eed_7a11_7a1e_5L;
+
+  private final long[] hashMultipliers = new long[SIGNATURE_SIZE];
+  private final long[] hashOffsets = new long[SIGNATURE_SIZE];
+
+  private final Map<Long, long[]> featuresByJourneyId = new HashMap<>();
+  private final Map<Long, long[]> bandKeysByJourneyId = new HashMap<>();
+  private final Map<Long, Set<Long>> buckets = new HashMap<>();
+
+  public JourneySimilarityIndex() {
+    Random random = new Random(HASH_SEED);
+    for (int i = 0; i < SIGNATURE_SIZE; i++) {
+      hashMultipliers[i] = random.nextLong() | 1L;
+      hashOffsets[i] = random.nextLong();
+    }
+  }
+
+  /**
+   * Додає подорож до індексу або перераховує її сигнатуру після зміни тегів чи локацій.
+   *
+   * @param attributes атрибути подорожі.
+   */
+  public synchronized void put(JourneyAttributes attributes) {
+    index(attributes.getJourneyId(), featuresOf(attributes));
+  }
+
+  /**
+   * Прибирає видалений тег з ознак усіх подорожей і перераховує їх сигнатури.
+   *
+   * @param tagId ID видаленого тегу.
+   */
+  public synchronized void removeTag(long tagId) {
+    removeFeature(tagId << 1);
+  }
+
+  /**
+   * Прибирає видалену локацію з ознак усіх подорожей і перераховує їх сигнатури.
+   *
+   * @param locationId ID видаленої локації.
+   */
+  public synchronized void removeLocation(long locationId) {
+    removeFeature((locationId << 1) | 1);
+  }
+
+  private void removeFeature(long feature) {
+    List<Long> affected = new ArrayList<>();
+    featuresByJourneyId.forEach(
+        (journeyId, features) -> {
+          if (Arrays.binarySearch(features, feature) >= 0) {
+            affected.add(journeyId);
+          }
+        });
+    for (Long journeyId : affected) {
+      long[] features =
+          Arrays.stream(featuresByJourneyId.get(journeyId)).filter(f -> f != feature).toArray();
+      index(journeyId, features);
+    }
+  }
+
+  private void index(Long journeyId, long[] features) {
+    removeFromBuckets(journeyId);
+    if (features.length == 0) {
+      featuresByJourneyId.remove(journeyId);
+      return;
+    }
+    long[] bandKeys = bandKeys(signature(features));
+    featuresByJourneyId.put(journeyId, features);
+    bandKeysByJourneyId.put(journeyId, bandKeys);
+    for (long bandKey : bandKeys) {
+      buckets.computeIfAbsent(bandKey, key -> new HashSet<>()).add(journeyId);
+    }
+  }
+
+  /**
+   * Видаляє подорож з індексу.
+   *
+   * @param journeyId ID подорожі.
+   */
+  public synchronized void remove(Long journeyId) {
+    removeFromBuckets(journeyId);
+    featuresByJourneyId.remove(journeyId);
+  }
+
+  /**
+   * Знаходить подорожі, найбільш схожі на задану.
+   *
+   * @param journeyId ID подорожі-зразка.
+   * @param limit максимальна кількість результатів.
+   * @param filter які з кандидатів можна повертати (наприклад, лише доступні користувачу).
+   * @return схожі подорожі з коефіцієнтом Жаккара, найсхожіші першими.
+   */
+  public synchronized List<Match> findSimilar(Long journeyId, int limit, LongPredicate filter) {
+    long[] features = featuresByJourneyId.get(journeyId);
+    long[] bandKeys = bandKeysByJourneyId.get(journeyId);
+    if (features == null || bandKeys == null) {
+      return List.of();
+    }
+    Set<Long> candidates = new HashSet<>();
+    for (long bandKey : bandKeys) {
+      candidates.addAll(buckets.getOrDefault(bandKey, Set.of()));
+    }
+    candidates.remove(journeyId);
+
+    List<Match> matches = new ArrayList<>(candidates.size());
+    for (Long candidateId : candidates) {
+      if (!filter.test(candidateId)) {
+        continue;
+      }
+      double similarity = jaccard(features, featuresByJourneyId.get(candidateId));
+      if (similarity > 0) {
+        matches.add(new Match(candidateId, similarity));
+      }
+    }
+    matches.sort(
+        Comparator.comparingDouble(Match::similarity).reversed().thenComparing(Match::journeyId));
+    return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+  }
+
+  /** Кількість подорожей з хоча б однією ознакою. */
+  public synchronized int size() {
+    return featuresByJourneyId.size();
+  }
+
+  private void removeFromBuckets(Long journeyId) {
+    long[] previous = bandKeysByJourneyId.remove(journeyId);
+    if (previous == null) {
+      return;
+    }
+    for (long bandKey : previous) {
+      Set<Long> bucket = buckets.get(bandKey);
+      if (bucket != null) {
+        bucket.remove(journeyId);
+        if (bucket.isEmpty()) {
+          buckets.remove(bandKey);
+        }
+      }
+    }
+  }
+
+  /**
+   * Кодує ознаки подорожі числами: молодший біт розрізняє теги та локації, тож тег і локація з
+   * однаковим ID не збігаються. Початкова й кінцева локації — одна ознака "локація", щоб подорожі
+   * тим самим маршрутом у зворотному напрямку вважались схожими.
+   */
+  private static long[] featuresOf(JourneyAttributes attributes) {
+    Set<Long> features = new HashSet<>();
+    if (attributes.getTagIds() != null) {
+      attributes.getTagIds().forEach(tagId -> features.add(tagId << 1));
+    }
+    if (attributes.getOriginLocationId() != null) {
+      features.add((attributes.getOriginLocationId() << 1) | 1);
+    }
+    if (attributes.getDestinationLocationId() != null) {
+      features.add((attributes.getDestinationLocationId() << 1) | 1);
+    }
+    long[] result = features.stream().mapToLong(Long::longValue).toArray();
+    Arrays.sort(result);
+    return result;
+  }
+
+  private long[] signature(long[] features) {
+    long[] signature = new long[SIGNATURE_SIZE];
+    Arrays.fill(signature, Long.MAX_VALUE);
+    for (long feature : features) {
+      for (int i = 0; i < SIGNATURE_SIZE; i++) {
+        long hash = mix(feature * hashMultipliers[i] + hashOffsets[i]);
+        if (hash < signature[i]) {
+          signature[i] = hash;
+        }
+      }
+    }
+    return signature;
+  }
+
+  private static long[] bandKeys(long[] signature) {
+    long[] keys = new long[BANDS];
+    for (int band = 0; band < BANDS; band++) {
+      long key = band;
+      for (int row = 0; row < ROWS_PER_BAND; row++) {
+        key = key * 31 + signature[band * ROWS_PER_BAND + row];
+      }
+      keys[band] = mix(key);
+    }
+    return keys;
+  }
+
+  /** Фіналізатор SplitMix64: рівномірно перемішує біти значення. */
+  private static long mix(long value) {
+    value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+    value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+    return value ^ (value >>> 31);
+  }
+
+  /** Точний коефіцієнт Жаккара двох відсортованих наборів ознак. */
+  private static double jaccard(long[] left, long[] right) {
+    int i = 0;
+    int j = 0;
+    int common = 0;
+    while (i < left.length && j < right.length) {
+      if (left[i] == right[j]) {
+        common++;
+        i++;
+        j++;
+      } else if (left[i] < right[j]) {
+        i++;
+      } else {
+        j++;
+      }
+    }
+    return (double) common / (left.length + right.length - common);
+  }
+
+  /**
+   * Схожа подорож.
+   *
+   * @param journeyId ID подорожі.
+   * @param similarity коефіцієнт Жаккара її ознак з ознаками зразка.
+   */
+  public record Match(Long journeyId, double similarity) {}
+}
@@ -0,0 +1,111 @@
+package com.trailtales.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.trailtales.dto.JourneyAttributes;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class JourneySimilarityIndexTest {
+
+  private JourneySimilarityIndex index;
+
+  @BeforeEach
+  void setUp() {
+    index = new JourneySimilarityIndex();
+    index.put(journey(1L, 10L, 20L, 1L, 2L, 3L));
+    index.put(journey(2L, 10L, 20L, 1L, 2L, 3L));
+    index.put(journey(3L, 10L, 20L, 1L, 2L, 4L));
+    index.put(journey(4L, 30L, 40L, 5L, 6L));
+  }
+
+  @Test
+  void findsCandidatesOrderedBySimilarity() {
+    List<JourneySimilarityIndex.Match> matches = index.findSimilar(1L, 10, id -> true);
+
+    assertEquals(List.of(2L, 3L), ids(matches));
+    assertEquals(1.0, matches.get(0).similarity(), 1e-9);
+    assertEquals(4.0 / 6, matches.get(1).similarity(), 1e-9);
+  }
+
+  @Test
+  void limitAndFilterApplyBeforeRanking() {
+    assertEquals(List.of(2L), ids(index.findSimilar(1L, 1, id -> true)));
+    assertEquals(List.of(3L), ids(index.findSimilar(1L, 10, id -> id != 2L)));
+  }
+
+  @Test
+  void reversedRouteIsIdentical() {
+    index.put(journey(5L, 20L, 10L, 1L, 2L, 3L));
+
+    List<JourneySimilarityIndex.Match> matches = index.findSimilar(1L, 1, id -> id == 5L);
+    assertEquals(List.of(5L), ids(matches));
+    assertEquals(1.0, matches.get(0).similarity(), 1e-9);
+  }
+
+  @Test
+  void tagAndLocationWithSameIdDoNotMatch() {
+    index.put(journey(5L, 7L, null));
+    index.put(journey(6L, null, null, 7L));
+
+    assertEquals(List.of(), ids(index.findSimilar(5L, 10, id -> true)));
+  }
+
+  @Test
+  void unknownOrFeaturelessJourneyHasNoMatches() {
+    index.put(journey(5L, null, null));
+
+    assertEquals(List.of(), ids(index.findSimilar(5L, 10, id -> true)));
+    assertEquals(List.of(), ids(index.findSimilar(42L, 10, id -> true)));
+    assertEquals(4, index.size());
+  }
+
+  @Test
+  void removedJourneyIsNoLongerACandidate() {
+    index.remove(2L);
+
+    assertEquals(List.of(3L), ids(index.findSimilar(1L, 10, id -> true)));
+    assertEquals(List.of(), ids(index.findSimilar(2L, 10, id -> true)));
+    assertEquals(3, index.size());
+  }
+
+  @Test
+  void putRecomputesSignatureOfChangedJourney() {
+    index.put(journey(2L, 30L, 40L, 5L, 6L));
+
+    assertEquals(List.of(3L), ids(index.findSimilar(1L, 10, id -> true)));
+    assertEquals(List.of(2L), ids(index.findSimilar(4L, 10, id -> true)));
+  }
+
+  @Test
+  void removeTagAndLocationRecomputeAffectedJourneys() {
+    index.removeTag(4L);
+    index.removeLocation(20L);
+
+    List<JourneySimilarityIndex.Match> matches = index.findSimilar(3L, 10, id -> true);
+    assertEquals(List.of(1L, 2L), ids(matches));
+    assertEquals(3.0 / 4, matches.get(0).similarity(), 1e-9);
+  }
+
+  @Test
+  void journeyLosingAllFeaturesLeavesIndex() {
+    index.removeTag(5L);
+    index.removeTag(6L);
+    index.removeLocation(30L);
+    index.removeLocation(40L);
+
+    assertEquals(3, index.size());
+    assertEquals(List.of(), ids(index.findSimilar(4L, 10, id -> true)));
+  }
+
+  private static List<Long> ids(List<JourneySimilarityIndex.Match> matches) {
+    return matches.stream().map(JourneySimilarityIndex.Match::journeyId).toList();
+  }
+
+  private static JourneyAttributes journey(
+      Long id, Long originId, Long destinationId, Long... tagIds) {
+    return new JourneyAttributes(id, 1L, originId, destinationId, null, null, Set.of(tagIds));
+  }
+}
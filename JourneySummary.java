@@ -0,0 +1,22 @@
+package com.trailtales.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Зведена інформація про подорож для відображення у списках: кількість пов'язаних подій,
+ * фотографій та учасників без завантаження самих об'єктів, а також заздалегідь обчислені довжина
+ * маршруту і тривалість у днях ({@code null}, доки їх не обчислено або якщо їх не визначити).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JourneySummary {
+  private Long journeyId;
+  private long eventCount;
+  private long photoCount;
+  private long participantCount;
+  private Double distanceKm;
+  private Integer spanDays;
+}
@@ -1,12 +1,17 @@
 package com.trailtales.ui.managers;
 
+import com.trailtales.dto.JourneySummary;
 import com.trailtales.entity.Journey;
 import com.trailtales.entity.RoleName;
 import com.trailtales.entity.User;
 import com.trailtales.service.JourneyService;
+import com.trailtales.service.SearchIndexService;
 import com.trailtales.ui.MainApplicationFrame;
 import com.trailtales.ui.util.UIConstants;
+import java.util.Comparator;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import javafx.collections.FXCollections;
@@ -20,7 +25,13 @@ import javafx.scene.text.Text;
 
 public class JourneyViewManager {
 
+  /** Варіанти впорядкування списку за заздалегідь обчисленими метриками маршруту. */
+  private static final String SORT_DEFAULT = "Без сортування";
+  private static final String SORT_BY_DISTANCE = "Найдовший маршрут";
+  private static final String SORT_BY_SPAN = "Найтриваліші";
+
   private final JourneyService journeyService;
+  private final SearchIndexService searchIndexService;
   private final User currentUser;
   private final MainApplicationFrame mainAppFrame;
   private final AtomicBoolean showingAllJourneys = new AtomicBoolean(false);
@@ -29,10 +40,17 @@ public class JourneyViewManager {
 
   private ListView<Journey> journeyListView;
   private TextField searchField;
+  private ComboBox<String> sortBox;
+  private ObservableList<Journey> loadedJourneys = FXCollections.observableArrayList();
+  private Map<Long, JourneySummary> summaries = Map.of();
 
   public JourneyViewManager(
-      JourneyService journeyService, User currentUser, MainApplicationFrame mainAppFrame) {
+      JourneyService journeyService,
+      SearchIndexService searchIndexService,
+      User currentUser,
+      MainApplicationFrame mainAppFrame) {
     this.journeyService = journeyService;
+    this.searchIndexService = searchIndexService;
     this.currentUser = currentUser;
     this.mainAppFrame = mainAppFrame;
   }
@@ -57,7 +75,7 @@ public class JourneyViewManager {
     journeyListView.setStyle(UIConstants.LIST_VIEW_STYLE);
 
     refreshJourneyList(searchField.getText());
-    searchField.textProperty().addListener((obs, oldVal, newVal) -> refreshJourneyList(newVal));
+    searchField.textProperty().addListener((obs, oldVal, newVal) -> applySearchFilter(newVal));
 
     Button createBtn = new Button("Створити");
     createBtn.setStyle(UIConstants.BUTTON_STYLE_PRIMARY);
@@ -147,7 +165,9 @@ public class JourneyViewManager {
         e -> { 
           Journey selectedJourney = journeyListView.getSelectionModel().getSelectedItem();
           if (selectedJourney != null) {
-            mainAppFrame.showJourneyDetailsDialog(selectedJourney);
+            // Результати пошуку не містять подій і фото — деталі беруться з повного запису
+            mainAppFrame.showJourneyDetailsDialog(
+                journeyService.getJourneyById(selectedJourney.getId()).orElse(selectedJourney));
           }
         });
 
@@ -170,10 +190,17 @@ public class JourneyViewManager {
           refreshJourneyList(searchField.getText());
         });
 
+    sortBox = new ComboBox<>();
+    sortBox.getItems().addAll(SORT_DEFAULT, SORT_BY_DISTANCE, SORT_BY_SPAN);
+    sortBox.setValue(SORT_DEFAULT);
+    sortBox.setStyle(UIConstants.INPUT_STYLE);
+    sortBox.setOnAction(e -> refreshJourneyList(searchField.getText()));
+
     HBox filterButtons = new HBox(10, myJourneysBtn, participatedJourneysBtn);
     if (viewAllBtn.isManaged()) { 
       filterButtons.getChildren().add(viewAllBtn);
     }
+    filterButtons.getChildren().add(sortBox);
     filterButtons.setAlignment(Pos.CENTER_LEFT);
 
     HBox crudButtonsBox =
@@ -201,7 +228,6 @@ public class JourneyViewManager {
   }
 
   public void refreshJourneyList(String searchText) {
-    String currentSearchText = searchText != null ? searchText.toLowerCase().trim() : "";
     ObservableList<Journey> sourceList;
     try {
       if (showingAllJourneys.get()) {
@@ -223,28 +249,10 @@ public class JourneyViewManager {
       e.printStackTrace();
     }
 
-    ObservableList<Journey> filteredList;
-    if (currentSearchText.isEmpty()) {
-      filteredList = sourceList;
-    } else {
-      filteredList =
-          sourceList.stream()
-              .filter(
-                  journey ->
-                      (journey.getName() != null
-                              && journey.getName().toLowerCase().contains(currentSearchText))
-                          || (journey.getDescription() != null
-                              && journey.getDescription().toLowerCase().contains(currentSearchText))
-                          || (journey.getUser() != null
-                              && journey
-                                  .getUser()
-                                  .getUsername()
-                                  .toLowerCase()
-                                  .contains(currentSearchText)) // Пошук за автором/власником
-                  )
-              .collect(Collectors.toCollection(FXCollections::observableArrayList));
-    }
-    journeyListView.setItems(filteredList);
+    summaries = loadSummaries(sourceList);
+    sortByRouteMetric(sourceList);
+    loadedJourneys = sourceList;
+    applySearchFilter(searchText);
 
     journeyListView.setCellFactory(
         lv ->
@@ -271,6 +279,23 @@ public class JourneyViewManager {
                     }
                   }
 
+                  JourneySummary summary = summaries.get(item.getId());
+                  if (summary != null) {
+                    displayText +=
+                        " — подій: "
+                            + summary.getEventCount()
+                            + ", фото: "
+                            + summary.getPhotoCount()
+                            + ", учасників: "
+                            + summary.getParticipantCount();
+                    if (summary.getDistanceKm() != null) {
+                      displayText += String.format(", маршрут: %.0f км", summary.getDistanceKm());
+                    }
+                    if (summary.getSpanDays() != null) {
+                      displayText += ", днів: " + summary.getSpanDays();
+                    }
+                  }
+
                   setText(displayText);
                   setTextFill(Color.WHITE);
                   if (isSelected()) {
@@ -283,6 +308,80 @@ public class JourneyViewManager {
             });
   }
 
+  /**
+   * Фільтрує вже завантажений список подорожей без звернення до бази даних. Для власних подорожей
+   * і подорожей, де користувач є учасником, використовується пошуковий індекс у пам'яті; режим
+   * перегляду всіх подорожей та період до побудови індексу обслуговує простий пошук підрядка.
+   */
+  private void applySearchFilter(String searchText) {
+    String currentSearchText = searchText != null ? searchText.toLowerCase().trim() : "";
+    ObservableList<Journey> filteredList;
+    if (currentSearchText.isEmpty()) {
+      filteredList = loadedJourneys;
+    } else if (!showingAllJourneys.get() && searchIndexService.isReady()) {
+      Set<Long> matchingIds =
+          searchIndexService.searchJourneys(currentSearchText, Integer.MAX_VALUE).stream()
+              .map(Journey::getId)
+              .collect(Collectors.toSet());
+      filteredList =
+          loadedJourneys.stream()
+              .filter(journey -> matchingIds.contains(journey.getId()))
+              .collect(Collectors.toCollection(FXCollections::observableArrayList));
+    } else {
+      filteredList =
+          loadedJourneys.stream()
+              .filter(
+                  journey ->
+                      (journey.getName() != null
+                              && journey.getName().toLowerCase().contains(currentSearchText))
+                          || (journey.getDescription() != null
+                              && journey.getDescription().toLowerCase().contains(currentSearchText))
+                          || (journey.getUser() != null
+                              && journey
+                                  .getUser()
+                                  .getUsername()
+                                  .toLowerCase()
+                                  .contains(currentSearchText)) // Пошук за автором/власником
+                  )
+              .collect(Collectors.toCollection(FXCollections::observableArrayList));
+    }
+    journeyListView.setItems(filteredList);
+  }
+
+  /**
+   * Упорядковує список за обраною метрикою маршруту з уже завантажених зведень, від більших
+   * значень до менших; подорожі без обчисленої метрики опиняються в кінці.
+   */
+  private void sortByRouteMetric(ObservableList<Journey> journeys) {
+    String sort = sortBox != null ? sortBox.getValue() : SORT_DEFAULT;
+    Comparator<JourneySummary> bySummary;
+    if (SORT_BY_DISTANCE.equals(sort)) {
+      bySummary =
+          Comparator.comparing(
+              JourneySummary::getDistanceKm, Comparator.nullsLast(Comparator.reverseOrder()));
+    } else if (SORT_BY_SPAN.equals(sort)) {
+      bySummary =
+          Comparator.comparing(
+              JourneySummary::getSpanDays, Comparator.nullsLast(Comparator.reverseOrder()));
+    } else {
+      return;
+    }
+    journeys.sort(
+        Comparator.comparing(
+            (Journey journey) -> summaries.get(journey.getId()),
+            Comparator.nullsLast(bySummary)));
+  }
+
+  private Map<Long, JourneySummary> loadSummaries(ObservableList<Journey> journeys) {
+    try {
+      return journeyService.getJourneySummaries(
+          journeys.stream().map(Journey::getId).collect(Collectors.toList()), currentUser);
+    } catch (Exception e) {
+      System.err.println("Не вдалося завантажити лічильники подорожей: " + e.getMessage());
+      return Map.of();
+    }
+  }
+
   public String getCurrentSearchText() {
     return searchField != null ? searchField.getText() : "";
   }
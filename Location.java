@@ -12,6 +12,8 @@ public class Location {
   private Long id;
   private String name;
   private String description; // Додано опис, якщо його ще немає
+  private Double latitude; // Широта в градусах, необов'язкова
+  private Double longitude; // Довгота в градусах, необов'язкова
   private LocalDateTime createdAt;
   private LocalDateTime updatedAt;
 }
@@ -1,5 +1,7 @@
 package com.trailtales.dto;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
@@ -17,4 +19,12 @@ public class LocationCreationDto {
 
   @Size(max = 255, message = "Опис локації не може перевищувати 255 символів")
   private String description; // Необов'язковий опис локації
+
+  @DecimalMin(value = "-90.0", message = "Широта повинна бути в межах від -90 до 90")
+  @DecimalMax(value = "90.0", message = "Широта повинна бути в межах від -90 до 90")
+  private Double latitude; // Необов'язкова широта
+
+  @DecimalMin(value = "-180.0", message = "Довгота повинна бути в межах від -180 до 180")
+  @DecimalMax(value = "180.0", message = "Довгота повинна бути в межах від -180 до 180")
+  private Double longitude; // Необов'язкова довгота
 }
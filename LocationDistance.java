@@ -0,0 +1,15 @@
+package com.trailtales.dto;
+
+import com.trailtales.entity.Location;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Локація, знайдена в радіусі від точки, разом з відстанню до неї. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationDistance {
+  private Location location;
+  private double distanceKm;
+}
@@ -1,13 +1,22 @@
 package com.trailtales.repository;
 
+import com.trailtales.dto.LocationDistance;
+import com.trailtales.dto.NameCompletion;
+import com.trailtales.dto.NameSuggestion;
 import com.trailtales.entity.Location;
+import com.trailtales.util.GeoUtils;
+import com.trailtales.util.SqlUtils;
 import java.sql.PreparedStatement;
 import java.sql.Statement;
 import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
@@ -19,6 +28,17 @@ import org.springframework.stereotype.Repository;
 @Repository
 public class LocationRepository {
 
+  private static final String SELECT_LOCATIONS =
+      "SELECT id, name, description, latitude, longitude, created_at, updated_at FROM locations ";
+
+  /** Точна відстань від точки (?, ?) за формулою гаверсинусів, у кілометрах. */
+  private static final String HAVERSINE_KM =
+      "2 * "
+          + GeoUtils.EARTH_RADIUS_KM
+          + " * asin(least(1, sqrt(power(sin(radians(latitude - ?) / 2), 2)"
+          + " + cos(radians(?)) * cos(radians(latitude))"
+          + " * power(sin(radians(longitude - ?) / 2), 2))))";
+
   private final JdbcTemplate jdbcTemplate;
 
   private final RowMapper<Location> locationRowMapper =
@@ -27,6 +47,8 @@ public class LocationRepository {
         location.setId(rs.getLong("id"));
         location.setName(rs.getString("name"));
         location.setDescription(rs.getString("description"));
+        location.setLatitude(rs.getObject("latitude", Double.class));
+        location.setLongitude(rs.getObject("longitude", Double.class));
         location.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
         location.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
         return location;
@@ -48,7 +70,7 @@ public class LocationRepository {
    * @return {@link Optional} з локацією, якщо знайдено, або порожній {@link Optional}, якщо ні.
    */
   public Optional<Location> findById(Long id) {
-    String sql = "SELECT id, name, description, created_at, updated_at FROM locations WHERE id = ?";
+    String sql = SELECT_LOCATIONS + "WHERE id = ?";
     try {
       return Optional.ofNullable(jdbcTemplate.queryForObject(sql, locationRowMapper, id));
     } catch (EmptyResultDataAccessException e) {
@@ -56,6 +78,26 @@ public class LocationRepository {
     }
   }
 
+  /**
+   * Знаходить локації за набором ID одним запитом.
+   *
+   * @param locationIds ID локацій.
+   * @return знайдені локації в довільному порядку.
+   */
+  public List<Location> findByIds(Collection<Long> locationIds) {
+    if (locationIds == null || locationIds.isEmpty()) {
+      return List.of();
+    }
+    String sql = SELECT_LOCATIONS + "WHERE id = ANY (?)";
+    return jdbcTemplate.query(
+        connection -> {
+          PreparedStatement ps = connection.prepareStatement(sql);
+          ps.setArray(1, connection.createArrayOf("bigint", locationIds.toArray()));
+          return ps;
+        },
+        locationRowMapper);
+  }
+
   /**
    * Знаходить локацію за її назвою.
    *
@@ -63,8 +105,7 @@ public class LocationRepository {
    * @return {@link Optional} з локацією, якщо знайдено, або порожній {@link Optional}, якщо ні.
    */
   public Optional<Location> findByName(String name) {
-    String sql =
-        "SELECT id, name, description, created_at, updated_at FROM locations WHERE name = ?";
+    String sql = SELECT_LOCATIONS + "WHERE name = ?";
     try {
       return Optional.ofNullable(jdbcTemplate.queryForObject(sql, locationRowMapper, name));
     } catch (EmptyResultDataAccessException e) {
@@ -78,8 +119,146 @@ public class LocationRepository {
    * @return список усіх локацій.
    */
   public List<Location> findAll() {
-    String sql = "SELECT id, name, description, created_at, updated_at FROM locations";
-    return jdbcTemplate.query(sql, locationRowMapper);
+    return jdbcTemplate.query(SELECT_LOCATIONS, locationRowMapper);
+  }
+
+  /**
+   * Шукає локації, назва або опис яких містить вказаний текст (без урахування регістру).
+   * Фільтрація, сортування та обмеження кількості виконуються на боці бази даних.
+   *
+   * @param query текст для пошуку; порожній або {@code null} повертає локації без фільтра.
+   * @param limit максимальна кількість локацій у результаті.
+   * @return список локацій, відсортований за назвою.
+   */
+  public List<Location> search(String query, int limit) {
+    if (query == null || query.isBlank()) {
+      return jdbcTemplate.query(
+          SELECT_LOCATIONS + "ORDER BY name LIMIT ?", locationRowMapper, limit);
+    }
+    String pattern = SqlUtils.containsPattern(query.trim());
+    return jdbcTemplate.query(
+        SELECT_LOCATIONS + "WHERE name ILIKE ? OR description ILIKE ? ORDER BY name LIMIT ?",
+        locationRowMapper,
+        pattern,
+        pattern,
+        limit);
+  }
+
+  /**
+   * Передає обробнику всі локації з координатами рядок за рядком, не тримаючи весь результат у
+   * пам'яті.
+   *
+   * @param consumer обробник локацій.
+   */
+  public void streamWithCoordinates(Consumer<Location> consumer) {
+    String sql = SELECT_LOCATIONS + "WHERE latitude IS NOT NULL AND longitude IS NOT NULL";
+    jdbcTemplate.query(
+        connection -> {
+          PreparedStatement ps = connection.prepareStatement(sql);
+          ps.setFetchSize(1000);
+          return ps;
+        },
+        rs -> {
+          consumer.accept(locationRowMapper.mapRow(rs, rs.getRow()));
+        });
+  }
+
+  /**
+   * Знаходить локації з координатами всередині прямокутника. Умова {@code <@ box} обслуговується
+   * GiST-індексом {@code idx_locations_point}; прямокутник, що перетинає антимеридіан, розбивається
+   * на дві частини.
+   *
+   * @param bounds прямокутник у координатах.
+   * @param limit максимальна кількість локацій.
+   * @return локації, відсортовані за назвою.
+   */
+  public List<Location> findInBoundingBox(GeoUtils.BoundingBox bounds, int limit) {
+    List<Object> params = new ArrayList<>();
+    String sql =
+        SELECT_LOCATIONS
+            + "WHERE latitude IS NOT NULL AND longitude IS NOT NULL AND "
+            + SqlUtils.pointInBoxCondition(bounds, params)
+            + " ORDER BY name LIMIT ?";
+    params.add(limit);
+    return jdbcTemplate.query(sql, locationRowMapper, params.toArray());
+  }
+
+  /**
+   * Знаходить локації в радіусі від точки. Спершу кандидати відбираються за індексом у
+   * прямокутнику, що охоплює коло, а потім для них перевіряється точна відстань.
+   *
+   * @param latitude широта центру.
+   * @param longitude довгота центру.
+   * @param radiusKm радіус у кілометрах.
+   * @param limit максимальна кількість локацій.
+   * @return локації з відстанню, найближчі першими.
+   */
+  public List<LocationDistance> findWithinRadius(
+      double latitude, double longitude, double radiusKm, int limit) {
+    List<Object> params = new ArrayList<>(List.of(latitude, latitude, longitude));
+    String candidates =
+        "SELECT id, name, description, latitude, longitude, created_at, updated_at, "
+            + HAVERSINE_KM
+            + " AS distance_km FROM locations "
+            + "WHERE latitude IS NOT NULL AND longitude IS NOT NULL AND "
+            + SqlUtils.pointInBoxCondition(
+                GeoUtils.boundingBox(latitude, longitude, radiusKm), params);
+    String sql =
+        "SELECT * FROM (" + candidates + ") c WHERE distance_km <= ? ORDER BY distance_km LIMIT ?";
+    params.add(radiusKm);
+    params.add(limit);
+    return jdbcTemplate.query(
+        sql,
+        (rs, rowNum) ->
+            new LocationDistance(
+                locationRowMapper.mapRow(rs, rowNum), rs.getDouble("distance_km")),
+        params.toArray());
+  }
+
+  /**
+   * Знаходить локації з назвами, схожими на введений текст, за допомогою триграм {@code pg_trgm}.
+   * Збіг рахується як для назви цілком ({@code %}), так і для її частини ({@code <%}), тож
+   * підходять і друкарські помилки, і недописане слово. Запит обслуговується GIN-індексом.
+   *
+   * @param text введена назва.
+   * @param limit максимальна кількість результатів.
+   * @return назви з оцінкою схожості, найближчі першими.
+   */
+  public List<NameSuggestion> findSimilarNames(String text, int limit) {
+    String sql =
+        "SELECT id, name, GREATEST(similarity(name, ?), word_similarity(?, name)) AS score "
+            + "FROM locations WHERE name % ? OR ? <% name "
+            + "ORDER BY score DESC, name LIMIT ?";
+    return jdbcTemplate.query(
+        sql,
+        (rs, rowNum) ->
+            new NameSuggestion(rs.getLong("id"), rs.getString("name"), rs.getDouble("score")),
+        text,
+        text,
+        text,
+        text,
+        limit);
+  }
+
+  /**
+   * Завантажує назви всіх локацій разом з їх популярністю — кількістю подорожей (як початкова чи
+   * кінцева точка) і подій, що на них посилаються. Використовується для побудови індексу
+   * автодоповнення одним запитом.
+   *
+   * @return назви локацій з вагами.
+   */
+  public List<NameCompletion> findNameWeights() {
+    String sql =
+        "SELECT l.id, l.name, COALESCE(u.uses, 0) AS weight FROM locations l "
+            + "LEFT JOIN (SELECT location_id, COUNT(*) AS uses FROM ("
+            + "SELECT origin_location_id AS location_id FROM journeys "
+            + "UNION ALL SELECT destination_location_id FROM journeys "
+            + "UNION ALL SELECT location_id FROM events) refs "
+            + "WHERE location_id IS NOT NULL GROUP BY location_id) u ON u.location_id = l.id";
+    return jdbcTemplate.query(
+        sql,
+        (rs, rowNum) ->
+            new NameCompletion(rs.getLong("id"), rs.getString("name"), rs.getLong("weight")));
   }
 
   /**
@@ -96,7 +275,9 @@ public class LocationRepository {
     String sql;
 
     if (location.getId() == null) {
-      sql = "INSERT INTO locations (name, description, created_at, updated_at) VALUES (?, ?, ?, ?)";
+      sql =
+          "INSERT INTO locations (name, description, latitude, longitude, created_at, updated_at) "
+              + "VALUES (?, ?, ?, ?, ?, ?)";
       LocalDateTime now = LocalDateTime.now();
       location.setCreatedAt(now);
       location.setUpdatedAt(now);
@@ -107,8 +288,10 @@ public class LocationRepository {
                 connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
             ps.setString(1, location.getName());
             ps.setString(2, location.getDescription());
-            ps.setTimestamp(3, Timestamp.valueOf(location.getCreatedAt()));
-            ps.setTimestamp(4, Timestamp.valueOf(location.getUpdatedAt()));
+            ps.setObject(3, location.getLatitude(), Types.DOUBLE);
+            ps.setObject(4, location.getLongitude(), Types.DOUBLE);
+            ps.setTimestamp(5, Timestamp.valueOf(location.getCreatedAt()));
+            ps.setTimestamp(6, Timestamp.valueOf(location.getUpdatedAt()));
             return ps;
           },
           keyHolder);
@@ -121,12 +304,16 @@ public class LocationRepository {
             "Не вдалося отримати згенерований ID після вставки локації.");
       }
     } else {
-      sql = "UPDATE locations SET name = ?, description = ?, updated_at = ? WHERE id = ?";
+      sql =
+          "UPDATE locations SET name = ?, description = ?, latitude = ?, longitude = ?, "
+              + "updated_at = ? WHERE id = ?";
       location.setUpdatedAt(LocalDateTime.now());
       jdbcTemplate.update(
           sql,
           location.getName(),
           location.getDescription(),
+          location.getLatitude(),
+          location.getLongitude(),
           Timestamp.valueOf(location.getUpdatedAt()),
           location.getId());
     }
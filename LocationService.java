@@ -1,5 +1,8 @@
 package com.trailtales.service;
 
+import com.trailtales.dto.LocationCreationDto;
+import com.trailtales.dto.LocationDistance;
+import com.trailtales.dto.NameSuggestion;
 import com.trailtales.entity.Location;
 import java.util.List;
 import java.util.Optional;
@@ -21,6 +24,16 @@ public interface LocationService {
    */
   Location createLocation(String name, String description);
 
+  /**
+   * Створює нову локацію з необов'язковими координатами.
+   *
+   * @param createDto дані нової локації.
+   * @return створений об'єкт {@link Location}.
+   * @throws IllegalArgumentException якщо назва порожня, локація з такою назвою вже існує або
+   *     координати задано не парою чи поза допустимими межами.
+   */
+  Location createLocation(LocationCreationDto createDto);
+
   /**
    * Знаходить локацію за її унікальним ідентифікатором.
    *
@@ -44,6 +57,29 @@ public interface LocationService {
    */
   List<Location> getAllLocations();
 
+  /**
+   * Шукає локації за текстом у назві або описі. Фільтрація, сортування та ліміт виконуються в базі
+   * даних.
+   *
+   * @param query текст для пошуку (порожній рядок повертає локації без фільтра).
+   * @param limit максимальна кількість локацій у результаті.
+   * @return список {@link Location}, відсортований за назвою.
+   * @throws IllegalArgumentException якщо ліміт не є додатним.
+   */
+  List<Location> searchLocations(String query, int limit);
+
+  /**
+   * Повертає існуючі локації, назви яких найбільше схожі на введений текст (нечіткий пошук з
+   * урахуванням друкарських помилок, зайвих пробілів і недописаних слів). Призначено для підказок
+   * у формах, щоб користувач обирав наявний запис замість створення майже-дубліката.
+   *
+   * @param text введена назва.
+   * @param limit максимальна кількість підказок.
+   * @return список {@link NameSuggestion}, найближчі першими; порожній для порожнього тексту.
+   * @throws IllegalArgumentException якщо ліміт не є додатним.
+   */
+  List<NameSuggestion> suggestLocations(String text, int limit);
+
   /**
    * Оновлює назву та/або опис існуючої локації.
    *
@@ -57,6 +93,48 @@ public interface LocationService {
    */
   Location updateLocation(Long id, String newName, String newDescription);
 
+  /**
+   * Оновлює назву, опис і координати існуючої локації. Порожні координати видаляють їх.
+   *
+   * @param id ID локації, яку потрібно оновити.
+   * @param updateDto нові дані локації.
+   * @return оновлений об'єкт {@link Location}.
+   * @throws IllegalArgumentException якщо локація не знайдена, назва зайнята іншою локацією або
+   *     координати задано не парою чи поза допустимими межами.
+   */
+  Location updateLocation(Long id, LocationCreationDto updateDto);
+
+  /**
+   * Знаходить локації в радіусі від точки. Кандидати відбираються просторовим індексом бази даних,
+   * тож запит не перебирає всі локації.
+   *
+   * @param latitude широта центру.
+   * @param longitude довгота центру.
+   * @param radiusKm радіус у кілометрах.
+   * @param limit максимальна кількість локацій.
+   * @return список {@link LocationDistance}, найближчі першими.
+   * @throws IllegalArgumentException якщо координати поза межами, радіус не є додатним або ліміт
+   *     не є додатним.
+   */
+  List<LocationDistance> findLocationsWithinRadius(
+      double latitude, double longitude, double radiusKm, int limit);
+
+  /**
+   * Знаходить локації всередині прямокутника карти. Якщо {@code minLongitude > maxLongitude},
+   * прямокутник вважається таким, що перетинає антимеридіан.
+   *
+   * @param minLatitude південна межа.
+   * @param minLongitude західна межа.
+   * @param maxLatitude північна межа.
+   * @param maxLongitude східна межа.
+   * @param limit максимальна кількість локацій.
+   * @return список {@link Location}, відсортований за назвою.
+   * @throws IllegalArgumentException якщо координати поза межами, південна межа більша за північну
+   *     або ліміт не є додатним.
+   */
+  List<Location> findLocationsInBoundingBox(
+      double minLatitude, double minLongitude, double maxLatitude, double maxLongitude, int limit);
+
   /**
    * Видаляє локацію за її унікальним ідентифікатором.
    *
@@ -1,8 +1,19 @@
 package com.trailtales.service.impl;
 
+import com.trailtales.dto.LocationCreationDto;
+import com.trailtales.dto.LocationDistance;
+import com.trailtales.dto.NameSuggestion;
 import com.trailtales.entity.Location;
 import com.trailtales.repository.LocationRepository;
+import com.trailtales.service.AutocompleteService;
+import com.trailtales.service.JourneyIndexService;
 import com.trailtales.service.LocationService;
+import com.trailtales.service.MapClusterService;
+import com.trailtales.service.RouteMetricsService;
+import com.trailtales.service.SearchIndexService;
+import com.trailtales.util.GeoUtils;
+import com.trailtales.util.SqlUtils;
+import com.trailtales.util.TransactionUtils;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -14,27 +25,55 @@ import org.springframework.transaction.annotation.Transactional;
 public class LocationServiceImpl implements LocationService {
 
   private final LocationRepository locationRepository;
+  private final SearchIndexService searchIndexService;
+  private final AutocompleteService autocompleteService;
+  private final MapClusterService mapClusterService;
+  private final JourneyIndexService journeyIndexService;
+  private final RouteMetricsService routeMetricsService;
 
   @Autowired
-  public LocationServiceImpl(LocationRepository locationRepository) {
+  public LocationServiceImpl(
+      LocationRepository locationRepository,
+      SearchIndexService searchIndexService,
+      AutocompleteService autocompleteService,
+      MapClusterService mapClusterService,
+      JourneyIndexService journeyIndexService,
+      RouteMetricsService routeMetricsService) {
     this.locationRepository = locationRepository;
+    this.searchIndexService = searchIndexService;
+    this.autocompleteService = autocompleteService;
+    this.mapClusterService = mapClusterService;
+    this.journeyIndexService = journeyIndexService;
+    this.routeMetricsService = routeMetricsService;
   }
 
   @Override
   @Transactional
   public Location createLocation(String name, String description) {
+    return createLocation(new LocationCreationDto(name, description, null, null));
+  }
+
+  @Override
+  @Transactional
+  public Location createLocation(LocationCreationDto createDto) {
+    String name = createDto.getName();
     if (name == null || name.trim().isEmpty()) {
       throw new IllegalArgumentException("Назва локації не може бути порожньою.");
     }
     if (locationRepository.findByName(name).isPresent()) {
       throw new IllegalArgumentException("Локація з назвою '" + name + "' вже існує.");
     }
+    GeoUtils.requireValidCoordinates(createDto.getLatitude(), createDto.getLongitude());
     Location newLocation = new Location();
     newLocation.setName(name);
-    newLocation.setDescription(description);
+    newLocation.setDescription(createDto.getDescription());
+    newLocation.setLatitude(createDto.getLatitude());
+    newLocation.setLongitude(createDto.getLongitude());
     newLocation.setCreatedAt(LocalDateTime.now());
     newLocation.setUpdatedAt(LocalDateTime.now());
-    return locationRepository.save(newLocation);
+    Location savedLocation = locationRepository.save(newLocation);
+    afterLocationSaved(savedLocation);
+    return savedLocation;
   }
 
   @Override
@@ -55,6 +94,23 @@ public class LocationServiceImpl implements LocationService {
     return locationRepository.findAll();
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public List<Location> searchLocations(String query, int limit) {
+    SqlUtils.requirePositiveLimit(limit);
+    return locationRepository.search(query, limit);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<NameSuggestion> suggestLocations(String text, int limit) {
+    SqlUtils.requirePositiveLimit(limit);
+    if (text == null || text.isBlank()) {
+      return List.of();
+    }
+    return locationRepository.findSimilarNames(text.trim(), limit);
+  }
+
   @Override
   @Transactional
   public Location updateLocation(Long id, String newName, String newDescription) {
@@ -77,7 +133,64 @@ public class LocationServiceImpl implements LocationService {
     }
 
     locationToUpdate.setUpdatedAt(LocalDateTime.now());
-    return locationRepository.save(locationToUpdate);
+    Location savedLocation = locationRepository.save(locationToUpdate);
+    afterLocationSaved(savedLocation);
+    return savedLocation;
+  }
+
+  @Override
+  @Transactional
+  public Location updateLocation(Long id, LocationCreationDto updateDto) {
+    GeoUtils.requireValidCoordinates(updateDto.getLatitude(), updateDto.getLongitude());
+    Location locationToUpdate =
+        locationRepository
+            .findById(id)
+            .orElseThrow(
+                () -> new IllegalArgumentException("Локація з ID " + id + " не знайдена."));
+    String newName = updateDto.getName();
+    if (newName != null && !newName.trim().isEmpty()) {
+      if (!locationToUpdate.getName().equalsIgnoreCase(newName)
+          && locationRepository.findByName(newName).isPresent()) {
+        throw new IllegalArgumentException("Локація з назвою '" + newName + "' вже існує.");
+      }
+      locationToUpdate.setName(newName);
+    }
+    String newDescription = updateDto.getDescription();
+    locationToUpdate.setDescription(
+        newDescription == null || newDescription.trim().isEmpty() ? null : newDescription);
+    locationToUpdate.setLatitude(updateDto.getLatitude());
+    locationToUpdate.setLongitude(updateDto.getLongitude());
+
+    Location savedLocation = locationRepository.save(locationToUpdate);
+    afterLocationSaved(savedLocation);
+    routeMetricsService.requestRefresh();
+    return savedLocation;
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<LocationDistance> findLocationsWithinRadius(
+      double latitude, double longitude, double radiusKm, int limit) {
+    GeoUtils.requireValidPoint(latitude, longitude);
+    if (!(radiusKm > 0)) {
+      throw new IllegalArgumentException("Радіус пошуку повинен бути додатним.");
+    }
+    SqlUtils.requirePositiveLimit(limit);
+    return locationRepository.findWithinRadius(latitude, longitude, radiusKm, limit);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<Location> findLocationsInBoundingBox(
+      double minLatitude, double minLongitude, double maxLatitude, double maxLongitude, int limit) {
+    GeoUtils.requireValidPoint(minLatitude, minLongitude);
+    GeoUtils.requireValidPoint(maxLatitude, maxLongitude);
+    if (minLatitude > maxLatitude) {
+      throw new IllegalArgumentException("Південна межа не може бути північніше за північну.");
+    }
+    SqlUtils.requirePositiveLimit(limit);
+    return locationRepository.findInBoundingBox(
+        new GeoUtils.BoundingBox(minLatitude, minLongitude, maxLatitude, maxLongitude), limit);
   }
 
   @Override
@@ -87,5 +200,22 @@ public class LocationServiceImpl implements LocationService {
       throw new IllegalArgumentException("Локація з ID " + id + " не знайдена для видалення.");
     }
     locationRepository.deleteById(id);
+    TransactionUtils.afterCommit(
+        () -> {
+          searchIndexService.onLocationDeleted(id);
+          autocompleteService.onLocationDeleted(id);
+          mapClusterService.onLocationDeleted(id);
+          journeyIndexService.onLocationDeleted(id);
+        });
+    routeMetricsService.requestRefresh();
+  }
+
+  private void afterLocationSaved(Location savedLocation) {
+    TransactionUtils.afterCommit(
+        () -> {
+          searchIndexService.onLocationSaved(savedLocation);
+          autocompleteService.onLocationSaved(savedLocation);
+          mapClusterService.onLocationSaved(savedLocation);
+        });
   }
 }
@@ -5,7 +5,7 @@ import com.trailtales.entity.User;
 import com.trailtales.service.LocationService;
 import com.trailtales.ui.MainApplicationFrame;
 import com.trailtales.ui.UIConstants;
-import java.util.stream.Collectors;
+import javafx.animation.PauseTransition;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
@@ -14,9 +14,16 @@ import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Text;
+import javafx.util.Duration;
 
 public class LocationViewManager {
 
+  /** Максимальна кількість рядків, яку список запитує з бази даних за один раз. */
+  private static final int MAX_VISIBLE_ITEMS = 200;
+
+  /** Затримка перед запитом пошуку, щоб не звертатися до бази на кожне натискання клавіші. */
+  private static final Duration SEARCH_DEBOUNCE = Duration.millis(250);
+
   private final LocationService locationService;
   private final User currentUser;
   private final MainApplicationFrame mainAppFrame;
@@ -70,7 +77,9 @@ public class LocationViewManager {
             });
 
     refreshLocationList(searchField.getText());
-    searchField.textProperty().addListener((obs, oldVal, newVal) -> refreshLocationList(newVal));
+    PauseTransition searchDebounce = new PauseTransition(SEARCH_DEBOUNCE);
+    searchDebounce.setOnFinished(e -> refreshLocationList(searchField.getText()));
+    searchField.textProperty().addListener((obs, oldVal, newVal) -> searchDebounce.playFromStart());
 
     Button createBtn = new Button("Створити");
     createBtn.setStyle(UIConstants.BUTTON_STYLE_PRIMARY);
@@ -114,21 +123,7 @@ public class LocationViewManager {
   }
 
   public void refreshLocationList(String searchText) {
-    String currentSearchText = searchText != null ? searchText.toLowerCase() : "";
-    ObservableList<Location> sourceList = loadLocations();
-    if (currentSearchText.isEmpty()) {
-      locationListView.setItems(sourceList);
-    } else {
-      locationListView.setItems(
-          sourceList.stream()
-              .filter(
-                  loc ->
-                      (loc.getName() != null
-                              && loc.getName().toLowerCase().contains(currentSearchText))
-                          || (loc.getDescription() != null
-                              && loc.getDescription().toLowerCase().contains(currentSearchText)))
-              .collect(Collectors.toCollection(FXCollections::observableArrayList)));
-    }
+    locationListView.setItems(loadLocations(searchText));
   }
 
   private String buildLocationDisplayText(Location item) {
@@ -139,9 +134,10 @@ public class LocationViewManager {
     return item.getName() + description;
   }
 
-  private ObservableList<Location> loadLocations() {
+  private ObservableList<Location> loadLocations(String searchText) {
     try {
-      return FXCollections.observableArrayList(locationService.getAllLocations());
+      return FXCollections.observableArrayList(
+          locationService.searchLocations(searchText, MAX_VISIBLE_ITEMS));
     } catch (Exception e) {
       mainAppFrame.showAlert(
           Alert.AlertType.ERROR, "Помилка", "Не вдалося оновити список локацій: " + e.getMessage());
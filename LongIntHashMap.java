@@ -0,0 +1,214 @@
+package com.trailtales.index;
+
+import java.util.Arrays;
+
+/**
+ * Компактна хеш-таблиця з ключами {@code long} і значеннями {@code int} без упаковки в об'єкти.
+ * Відкрита адресація з лінійним зондуванням; видалення зсуває наступні записи назад, тож таблиця
+ * не накопичує "надгробків". Ключ {@link Long#MIN_VALUE} зарезервовано під порожню комірку.
+ *
+ * <p>Клас не є потокобезпечним — синхронізацію забезпечує власник.
+ */
+public class LongIntHashMap {
+
+  private static final long EMPTY = Long.MIN_VALUE;
+  private static final float LOAD_FACTOR = 0.6f;
+
+  private long[] keys;
+  private int[] values;
+  private int size;
+  private int resizeThreshold;
+
+  public LongIntHashMap() {
+    this(8);
+  }
+
+  /**
+   * @param expectedSize очікувана кількість записів.
+   */
+  public LongIntHashMap(int expectedSize) {
+    int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+    allocate(capacity);
+  }
+
+  /**
+   * Повертає значення за ключем.
+   *
+   * @param key ключ.
+   * @param defaultValue значення, якщо ключа немає.
+   * @return збережене значення або {@code defaultValue}.
+   */
+  public int get(long key, int defaultValue) {
+    if (key == EMPTY) {
+      return defaultValue;
+    }
+    int slot = findSlot(key);
+    return keys[slot] == key ? values[slot] : defaultValue;
+  }
+
+  /**
+   * Чи є ключ у таблиці.
+   *
+   * @param key ключ.
+   * @return {@code true}, якщо запис існує.
+   */
+  public boolean containsKey(long key) {
+    return key != EMPTY && keys[findSlot(key)] == key;
+  }
+
+  /**
+   * Записує значення за ключем.
+   *
+   * @param key ключ (не {@link Long#MIN_VALUE}).
+   * @param value значення.
+   */
+  public void put(long key, int value) {
+    requireValidKey(key);
+    int slot = findSlot(key);
+    if (keys[slot] != key) {
+      keys[slot] = key;
+      size++;
+    }
+    values[slot] = value;
+    if (size > resizeThreshold) {
+      rehash(keys.length << 1);
+    }
+  }
+
+  /**
+   * Додає {@code delta} до значення за ключем (відсутній ключ вважається нулем). Якщо результат
+   * дорівнює нулю, запис видаляється, тож таблиця лишається розрідженою.
+   *
+   * @param key ключ (не {@link Long#MIN_VALUE}).
+   * @param delta приріст.
+   * @return нове значення.
+   */
+  public int addTo(long key, int delta) {
+    requireValidKey(key);
+    int slot = findSlot(key);
+    if (keys[slot] != key) {
+      if (delta == 0) {
+        return 0;
+      }
+      keys[slot] = key;
+      values[slot] = delta;
+      size++;
+      if (size > resizeThreshold) {
+        rehash(keys.length << 1);
+      }
+      return delta;
+    }
+    int updated = values[slot] + delta;
+    if (updated == 0) {
+      removeSlot(slot);
+    } else {
+      values[slot] = updated;
+    }
+    return updated;
+  }
+
+  /**
+   * Видаляє запис.
+   *
+   * @param key ключ.
+   * @return {@code true}, якщо запис існував.
+   */
+  public boolean remove(long key) {
+    if (key == EMPTY) {
+      return false;
+    }
+    int slot = findSlot(key);
+    if (keys[slot] != key) {
+      return false;
+    }
+    removeSlot(slot);
+    return true;
+  }
+
+  /**
+   * Обходить усі записи у довільному порядку. Змінювати таблицю під час обходу не можна.
+   *
+   * @param consumer обробник пари ключ-значення.
+   */
+  public void forEach(EntryConsumer consumer) {
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] != EMPTY) {
+        consumer.accept(keys[i], values[i]);
+      }
+    }
+  }
+
+  /** Кількість записів. */
+  public int size() {
+    return size;
+  }
+
+  /** Приблизний обсяг пам'яті масивів таблиці в байтах. */
+  public long estimateMemoryBytes() {
+    return (long) keys.length * (Long.BYTES + Integer.BYTES);
+  }
+
+  private int findSlot(long key) {
+    int mask = keys.length - 1;
+    int slot = hash(key) & mask;
+    while (keys[slot] != EMPTY && keys[slot] != key) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /** Видалення зі зсувом: переносить назад записи, що опинились за звільненою коміркою. */
+  private void removeSlot(int slot) {
+    int mask = keys.length - 1;
+    int gap = slot;
+    int next = (gap + 1) & mask;
+    while (keys[next] != EMPTY) {
+      int home = hash(keys[next]) & mask;
+      if (((next - home) & mask) >= ((next - gap) & mask)) {
+        keys[gap] = keys[next];
+        values[gap] = values[next];
+        gap = next;
+      }
+      next = (next + 1) & mask;
+    }
+    keys[gap] = EMPTY;
+    size--;
+  }
+
+  private void rehash(int capacity) {
+    long[] oldKeys = keys;
+    int[] oldValues = values;
+    allocate(capacity);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != EMPTY) {
+        int slot = findSlot(oldKeys[i]);
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    values = new int[capacity];
+    Arrays.fill(keys, EMPTY);
+    resizeThreshold = (int) (capacity * LOAD_FACTOR);
+  }
+
+  private static void requireValidKey(long key) {
+    if (key == EMPTY) {
+      throw new IllegalArgumentException("Ключ Long.MIN_VALUE зарезервовано.");
+    }
+  }
+
+  private static int hash(long key) {
+    long mixed = key * 0x9E3779B97F4A7C15L;
+    return (int) (mixed ^ (mixed >>> 32));
+  }
+
+  /** Обробник пари ключ-значення без упаковки. */
+  @FunctionalInterface
+  public interface EntryConsumer {
+    void accept(long key, int value);
+  }
+}
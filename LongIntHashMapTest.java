@@ -0,0 +1,89 @@
+package com.trailtales.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class LongIntHashMapTest {
+
+  @Test
+  void putGetAndOverwrite() {
+    LongIntHashMap map = new LongIntHashMap();
+    map.put(7, 1);
+    map.put(-7, 2);
+    map.put(7, 3);
+
+    assertEquals(3, map.get(7, -1));
+    assertEquals(2, map.get(-7, -1));
+    assertEquals(-1, map.get(8, -1));
+    assertEquals(2, map.size());
+  }
+
+  @Test
+  void addToCreatesUpdatesAndRemovesOnZero() {
+    LongIntHashMap map = new LongIntHashMap();
+
+    assertEquals(0, map.addTo(5, 0));
+    assertFalse(map.containsKey(5));
+    assertEquals(2, map.addTo(5, 2));
+    assertEquals(1, map.addTo(5, -1));
+    assertEquals(0, map.addTo(5, -1));
+    assertFalse(map.containsKey(5));
+    assertEquals(0, map.size());
+  }
+
+  @Test
+  void reservedKeyIsRejected() {
+    LongIntHashMap map = new LongIntHashMap();
+
+    assertThrows(IllegalArgumentException.class, () -> map.put(Long.MIN_VALUE, 1));
+    assertThrows(IllegalArgumentException.class, () -> map.addTo(Long.MIN_VALUE, 1));
+    assertFalse(map.containsKey(Long.MIN_VALUE));
+    assertEquals(-1, map.get(Long.MIN_VALUE, -1));
+    assertFalse(map.remove(Long.MIN_VALUE));
+    assertEquals(0, map.size());
+  }
+
+  @Test
+  void growsPastExpectedSize() {
+    LongIntHashMap map = new LongIntHashMap(2);
+    long initialBytes = map.estimateMemoryBytes();
+    for (int i = 0; i < 1000; i++) {
+      map.put(i * 1_000_003L, i);
+    }
+
+    assertEquals(1000, map.size());
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(i, map.get(i * 1_000_003L, -1));
+    }
+    assertTrue(map.estimateMemoryBytes() > initialBytes);
+  }
+
+  @Test
+  void removalKeepsCollidingKeysReachable() {
+    // Видалення зі зсувом не повинно загубити ключі, що зондувались через звільнену комірку
+    LongIntHashMap map = new LongIntHashMap(16);
+    Map<Long, Integer> expected = new HashMap<>();
+    Random random = new Random(42);
+    for (int step = 0; step < 20_000; step++) {
+      long key = random.nextInt(64) - 32;
+      if (random.nextBoolean()) {
+        map.put(key, step);
+        expected.put(key, step);
+      } else {
+        assertEquals(expected.remove(key) != null, map.remove(key));
+      }
+    }
+
+    assertEquals(expected.size(), map.size());
+    Map<Long, Integer> actual = new HashMap<>();
+    map.forEach(actual::put);
+    assertEquals(expected, actual);
+  }
+}
@@ -0,0 +1,221 @@
+package com.trailtales.index;
+
+import java.util.Arrays;
+import java.util.function.LongFunction;
+
+/**
+ * Хеш-таблиця з ключами {@code long} без упаковки ключів в об'єкти. Побудована так само, як {@link
+ * LongIntHashMap}: відкрита адресація з лінійним зондуванням і видалення зі зсувом. Ключ {@link
+ * Long#MIN_VALUE} зарезервовано під порожню комірку.
+ *
+ * <p>Клас не є потокобезпечним — синхронізацію забезпечує власник.
+ *
+ * @param <V> тип значень.
+ */
+public class LongObjectHashMap<V> {
+
+  private static final long EMPTY = Long.MIN_VALUE;
+  private static final float LOAD_FACTOR = 0.6f;
+
+  private long[] keys;
+  private Object[] values;
+  private int size;
+  private int resizeThreshold;
+
+  public LongObjectHashMap() {
+    this(8);
+  }
+
+  /**
+   * @param expectedSize очікувана кількість записів.
+   */
+  public LongObjectHashMap(int expectedSize) {
+    int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+    allocate(capacity);
+  }
+
+  /**
+   * Повертає значення за ключем.
+   *
+   * @param key ключ.
+   * @return збережене значення або {@code null}, якщо ключа немає.
+   */
+  public V get(long key) {
+    if (key == EMPTY) {
+      return null;
+    }
+    int slot = findSlot(key);
+    return keys[slot] == key ? valueAt(slot) : null;
+  }
+
+  /**
+   * Чи є ключ у таблиці.
+   *
+   * @param key ключ.
+   * @return {@code true}, якщо запис існує.
+   */
+  public boolean containsKey(long key) {
+    return key != EMPTY && keys[findSlot(key)] == key;
+  }
+
+  /**
+   * Записує значення за ключем.
+   *
+   * @param key ключ (не {@link Long#MIN_VALUE}).
+   * @param value значення (не {@code null}).
+   * @return попереднє значення або {@code null}.
+   */
+  public V put(long key, V value) {
+    requireValidKey(key);
+    if (value == null) {
+      throw new IllegalArgumentException("Значення не може бути null.");
+    }
+    int slot = findSlot(key);
+    if (keys[slot] == key) {
+      V previous = valueAt(slot);
+      values[slot] = value;
+      return previous;
+    }
+    keys[slot] = key;
+    values[slot] = value;
+    size++;
+    if (size > resizeThreshold) {
+      rehash(keys.length << 1);
+    }
+    return null;
+  }
+
+  /**
+   * Повертає значення за ключем, спершу створивши його, якщо ключа немає.
+   *
+   * @param key ключ (не {@link Long#MIN_VALUE}).
+   * @param factory створює значення (не {@code null}) для відсутнього ключа.
+   * @return наявне або створене значення.
+   */
+  public V computeIfAbsent(long key, LongFunction<V> factory) {
+    requireValidKey(key);
+    int slot = findSlot(key);
+    if (keys[slot] == key) {
+      return valueAt(slot);
+    }
+    V value = factory.apply(key);
+    put(key, value);
+    return value;
+  }
+
+  /**
+   * Видаляє запис.
+   *
+   * @param key ключ.
+   * @return видалене значення або {@code null}, якщо запису не було.
+   */
+  public V remove(long key) {
+    if (key == EMPTY) {
+      return null;
+    }
+    int slot = findSlot(key);
+    if (keys[slot] != key) {
+      return null;
+    }
+    V previous = valueAt(slot);
+    removeSlot(slot);
+    return previous;
+  }
+
+  /**
+   * Обходить усі записи у довільному порядку. Змінювати таблицю під час обходу не можна.
+   *
+   * @param consumer обробник пари ключ-значення.
+   */
+  public void forEach(EntryConsumer<? super V> consumer) {
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] != EMPTY) {
+        consumer.accept(keys[i], valueAt(i));
+      }
+    }
+  }
+
+  /** Кількість записів. */
+  public int size() {
+    return size;
+  }
+
+  /** Приблизний обсяг пам'яті масивів таблиці в байтах (без самих значень). */
+  public long estimateMemoryBytes() {
+    return (long) keys.length * (Long.BYTES + 8);
+  }
+
+  @SuppressWarnings("unchecked")
+  private V valueAt(int slot) {
+    return (V) values[slot];
+  }
+
+  private int findSlot(long key) {
+    int mask = keys.length - 1;
+    int slot = hash(key) & mask;
+    while (keys[slot] != EMPTY && keys[slot] != key) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /** Видалення зі зсувом: переносить назад записи, що опинились за звільненою коміркою. */
+  private void removeSlot(int slot) {
+    int mask = keys.length - 1;
+    int gap = slot;
+    int next = (gap + 1) & mask;
+    while (keys[next] != EMPTY) {
+      int home = hash(keys[next]) & mask;
+      if (((next - home) & mask) >= ((next - gap) & mask)) {
+        keys[gap] = keys[next];
+        values[gap] = values[next];
+        gap = next;
+      }
+      next = (next + 1) & mask;
+    }
+    keys[gap] = EMPTY;
+    values[gap] = null;
+    size--;
+  }
+
+  private void rehash(int capacity) {
+    long[] oldKeys = keys;
+    Object[] oldValues = values;
+    allocate(capacity);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != EMPTY) {
+        int slot = findSlot(oldKeys[i]);
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    values = new Object[capacity];
+    Arrays.fill(keys, EMPTY);
+    resizeThreshold = (int) (capacity * LOAD_FACTOR);
+  }
+
+  private static void requireValidKey(long key) {
+    if (key == EMPTY) {
+      throw new IllegalArgumentException("Ключ Long.MIN_VALUE зарезервовано.");
+    }
+  }
+
+  private static int hash(long key) {
+    long mixed = key * 0x9E3779B97F4A7C15L;
+    return (int) (mixed ^ (mixed >>> 32));
+  }
+
+  /**
+   * Обробник пари ключ-значення без упаковки ключа.
+   *
+   * @param <V> тип значень.
+   */
+  @FunctionalInterface
+  public interface EntryConsumer<V> {
+    void accept(long key, V value);
+  }
+}
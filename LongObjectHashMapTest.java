@@ -0,0 +1,91 @@
+package com.trailtales.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class LongObjectHashMapTest {
+
+  @Test
+  void putGetAndOverwrite() {
+    LongObjectHashMap<String> map = new LongObjectHashMap<>();
+
+    assertNull(map.put(7, "a"));
+    assertNull(map.put(-7, "b"));
+    assertEquals("a", map.put(7, "c"));
+
+    assertEquals("c", map.get(7));
+    assertEquals("b", map.get(-7));
+    assertNull(map.get(8));
+    assertEquals(2, map.size());
+  }
+
+  @Test
+  void computeIfAbsentCreatesOnlyMissingValues() {
+    LongObjectHashMap<StringBuilder> map = new LongObjectHashMap<>();
+
+    StringBuilder created = map.computeIfAbsent(5, key -> new StringBuilder("x" + key));
+    assertEquals("x5", created.toString());
+    assertSame(created, map.computeIfAbsent(5, key -> new StringBuilder()));
+    assertEquals(1, map.size());
+  }
+
+  @Test
+  void reservedKeyAndNullValueAreRejected() {
+    LongObjectHashMap<String> map = new LongObjectHashMap<>();
+
+    assertThrows(IllegalArgumentException.class, () -> map.put(Long.MIN_VALUE, "a"));
+    assertThrows(
+        IllegalArgumentException.class, () -> map.computeIfAbsent(Long.MIN_VALUE, key -> ""));
+    assertThrows(IllegalArgumentException.class, () -> map.put(1, null));
+    assertFalse(map.containsKey(Long.MIN_VALUE));
+    assertNull(map.get(Long.MIN_VALUE));
+    assertNull(map.remove(Long.MIN_VALUE));
+    assertEquals(0, map.size());
+  }
+
+  @Test
+  void growsPastExpectedSize() {
+    LongObjectHashMap<Integer> map = new LongObjectHashMap<>(2);
+    long initialBytes = map.estimateMemoryBytes();
+    for (int i = 0; i < 1000; i++) {
+      map.put(i * 1_000_003L, i);
+    }
+
+    assertEquals(1000, map.size());
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(i, map.get(i * 1_000_003L));
+    }
+    assertTrue(map.estimateMemoryBytes() > initialBytes);
+  }
+
+  @Test
+  void removalKeepsCollidingKeysReachable() {
+    // Видалення зі зсувом не повинно загубити ключі, що зондувались через звільнену комірку
+    LongObjectHashMap<Integer> map = new LongObjectHashMap<>(16);
+    Map<Long, Integer> expected = new HashMap<>();
+    Random random = new Random(42);
+    for (int step = 0; step < 20_000; step++) {
+      long key = random.nextInt(64) - 32;
+      if (random.nextBoolean()) {
+        map.put(key, step);
+        expected.put(key, step);
+      } else {
+        assertEquals(expected.remove(key), map.remove(key));
+      }
+    }
+
+    assertEquals(expected.size(), map.size());
+    Map<Long, Integer> actual = new HashMap<>();
+    map.forEach(actual::put);
+    assertEquals(expected, actual);
+  }
+}
@@ -5,7 +5,10 @@ import com.trailtales.dto.EventCreationDto;
 import com.trailtales.dto.JourneyCreationDto;
 import com.trailtales.dto.JourneyUpdateDto;
 import com.trailtales.dto.LocationCreationDto;
+import com.trailtales.dto.PhotoImportDto;
+import com.trailtales.dto.PhotoImportResult;
 import com.trailtales.dto.PhotoUploadDto;
+import com.trailtales.dto.RelatedTag;
 import com.trailtales.dto.TagCreationDto;
 import com.trailtales.entity.Event;
 import com.trailtales.entity.Journey;
@@ -13,10 +16,14 @@ import com.trailtales.entity.Location;
 import com.trailtales.entity.Photo;
 import com.trailtales.entity.Tag;
 import com.trailtales.entity.User;
+import com.trailtales.service.AutocompleteService;
 import com.trailtales.service.EventService;
 import com.trailtales.service.JourneyService;
 import com.trailtales.service.LocationService;
 import com.trailtales.service.PhotoService;
+import com.trailtales.service.RouteMetricsService;
+import com.trailtales.service.SearchIndexService;
+import com.trailtales.service.StorageReconciliationService;
 import com.trailtales.service.TagService;
 import com.trailtales.service.UserService;
 import com.trailtales.ui.managers.EventViewManager;
@@ -32,13 +39,16 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List; // Потрібно для Function<List<String>...
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiFunction; // Потрібно для createDetailRow
 import java.util.function.Function; // Потрібно для createListViewForDetails
 import java.util.stream.Collectors;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.geometry.HPos;
 import javafx.geometry.Insets;
@@ -52,6 +62,7 @@ import javafx.scene.control.DatePicker;
 import javafx.scene.control.DialogPane;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
@@ -67,6 +78,7 @@ import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.scene.text.Text;
+import javafx.stage.DirectoryChooser;
 import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
@@ -80,6 +92,8 @@ public class MainApplicationFrame {
   private final TagService tagService;
   private final LocationService locationService;
   private final PhotoService photoService;
+  private final SearchIndexService searchIndexService;
+  private final AutocompleteService autocompleteService;
   private final Validator validator;
 
   private User currentUser;
@@ -96,6 +110,12 @@ public class MainApplicationFrame {
   public static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy");
   public static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
 
+  /** Кількість схожих подорожей у вікні деталей подорожі. */
+  private static final int SIMILAR_JOURNEYS_LIMIT = 5;
+
+  /** Кількість пов'язаних тегів, що пропонуються у формі подорожі. */
+  private static final int RELATED_TAGS_LIMIT = 5;
+
   public MainApplicationFrame(
       ApplicationContext context, User currentUser, Runnable logoutCallback, Stage primaryStage) {
     this.userService = context.getBean(UserService.class);
@@ -104,19 +124,39 @@ public class MainApplicationFrame {
     this.tagService = context.getBean(TagService.class);
     this.locationService = context.getBean(LocationService.class);
     this.photoService = context.getBean(PhotoService.class);
+    this.searchIndexService = context.getBean(SearchIndexService.class);
+    this.autocompleteService = context.getBean(AutocompleteService.class);
     this.validator = context.getBean(Validator.class);
     this.currentUser = currentUser;
     this.logoutCallback = logoutCallback;
     this.primaryStage = primaryStage;
 
-    this.journeyViewManager = new JourneyViewManager(this.journeyService, this.currentUser, this);
+    this.journeyViewManager =
+        new JourneyViewManager(
+            this.journeyService, this.searchIndexService, this.currentUser, this);
     this.eventViewManager =
-        new EventViewManager(this.eventService, this.journeyService, this.currentUser, this);
+        new EventViewManager(
+            this.eventService,
+            this.journeyService,
+            this.searchIndexService,
+            this.currentUser,
+            this);
     this.tagViewManager = new TagViewManager(this.tagService, this.currentUser, this);
     this.locationViewManager =
         new LocationViewManager(this.locationService, this.currentUser, this);
     this.photoViewManager =
         new PhotoViewManager(this.photoService, this.journeyService, this.currentUser, this);
+
+    // Пошуковий індекс будується у фоні; до його готовності списки шукають у базі даних.
+    this.searchIndexService.buildAsync(currentUser);
+    // Підказки назв локацій і тегів завантажуються один раз за сесію.
+    this.autocompleteService.loadAsync();
+    // Метрики маршруту, позначені застарілими, перераховуються у фоні.
+    context.getBean(RouteMetricsService.class).startBackgroundRefresh();
+    // Фото без зменшених копій отримують їх у фоні; вміст без посилань періодично прибирається.
+    this.photoService.startBackgroundMaintenance();
+    // Каталог завантажень поступово звіряється з базою: зайві файли йдуть у карантин.
+    context.getBean(StorageReconciliationService.class).startBackgroundReconciliation();
   }
 
   public Scene createMainScene() {
@@ -208,6 +248,7 @@ public class MainApplicationFrame {
     logoutBtn.setOnAction(
         e -> {
           currentUser = null;
+          searchIndexService.clear();
           logoutCallback.run();
         });
 
@@ -281,6 +322,7 @@ public class MainApplicationFrame {
     grid.add(originLocLabel, 0, rowIndex);
     TextField originLocationField = new TextField();
     originLocationField.setStyle(UIConstants.INPUT_STYLE);
+    AutocompleteFieldSupport.attach(originLocationField, autocompleteService::completeLocations);
     grid.add(originLocationField, 1, rowIndex++);
 
     Label originLocDescLabel = new Label("Опис початкової локації:");
@@ -295,6 +337,7 @@ public class MainApplicationFrame {
     grid.add(destLocLabel, 0, rowIndex);
     TextField destLocationField = new TextField();
     destLocationField.setStyle(UIConstants.INPUT_STYLE);
+    AutocompleteFieldSupport.attach(destLocationField, autocompleteService::completeLocations);
     grid.add(destLocationField, 1, rowIndex++);
 
     Label destLocDescLabel = new Label("Опис кінцевої локації:");
@@ -309,8 +352,71 @@ public class MainApplicationFrame {
     grid.add(tagsLabel, 0, rowIndex);
     TextField tagsField = new TextField();
     tagsField.setStyle(UIConstants.INPUT_STYLE);
+    AutocompleteFieldSupport.attachToList(tagsField, autocompleteService::completeTags);
     grid.add(tagsField, 1, rowIndex++);
 
+    // Пропозиції тегів, що часто трапляються разом з уже введеними; оновлюються після
+    // завершення кожного тегу (кома) або виходу з поля.
+    HBox relatedTagsBox = new HBox(5);
+    relatedTagsBox.setAlignment(Pos.CENTER_LEFT);
+    grid.add(relatedTagsBox, 1, rowIndex++);
+    Runnable refreshRelatedTags =
+        () -> {
+          List<String> enteredTags =
+              Arrays.stream(tagsField.getText().split(","))
+                  .map(String::trim)
+                  .filter(name -> !name.isEmpty())
+                  .collect(Collectors.toList());
+          relatedTagsBox.getChildren().clear();
+          if (enteredTags.isEmpty()) {
+            return;
+          }
+          try {
+            List<RelatedTag> relatedTags =
+                tagService.getRelatedTags(enteredTags, RELATED_TAGS_LIMIT);
+            if (relatedTags.isEmpty()) {
+              return;
+            }
+            Label relatedLabel = new Label("Часто разом:");
+            relatedLabel.setStyle(UIConstants.DETAILED_LABEL_STYLE);
+            relatedTagsBox.getChildren().add(relatedLabel);
+            for (RelatedTag relatedTag : relatedTags) {
+              String tagName = relatedTag.getTag().getName();
+              Button addTagButton = new Button(tagName + " (" + relatedTag.getCount() + ")");
+              addTagButton.setStyle(
+                  UIConstants.BUTTON_STYLE_SECONDARY.replace(
+                      "-fx-padding: 8 15;", "-fx-padding: 2 8;"));
+              addTagButton.setOnAction(
+                  e -> {
+                    String text = tagsField.getText().trim();
+                    if (!text.isEmpty() && !text.endsWith(",")) {
+                      text += ",";
+                    }
+                    tagsField.setText(text.isEmpty() ? tagName : text + " " + tagName);
+                  });
+              relatedTagsBox.getChildren().add(addTagButton);
+            }
+          } catch (Exception e) {
+            System.err.println("Помилка пошуку пов'язаних тегів: " + e.getMessage());
+          }
+        };
+    tagsField
+        .textProperty()
+        .addListener(
+            (obs, oldText, newText) -> {
+              if ((newText != null && newText.trim().endsWith(",")) || !tagsField.isFocused()) {
+                refreshRelatedTags.run();
+              }
+            });
+    tagsField
+        .focusedProperty()
+        .addListener(
+            (obs, wasFocused, isFocused) -> {
+              if (!isFocused) {
+                refreshRelatedTags.run();
+              }
+            });
+
     VBox participantsContainer = new VBox(5);
     participantsContainer.setPadding(new Insets(5));
 
@@ -723,6 +829,31 @@ public class MainApplicationFrame {
       layout.getChildren().add(new Text("Немає фотографій"));
     }
 
+    Label similarLabel = new Label("Схожі подорожі:");
+    similarLabel.setStyle(
+        UIConstants.LABEL_STYLE.replace(
+            "-fx-min-width: 150px;", "-fx-font-weight: bold; -fx-text-fill: #b0b0b0;"));
+    layout.getChildren().add(similarLabel);
+    try {
+      layout
+          .getChildren()
+          .add(
+              createListViewForDetails.apply(
+                  journeyService
+                      .getSimilarJourneys(journey.getId(), SIMILAR_JOURNEYS_LIMIT, currentUser)
+                      .stream()
+                      .map(
+                          similar ->
+                              similar.getJourney().getName()
+                                  + " ("
+                                  + Math.round(similar.getSimilarity() * 100)
+                                  + "% збігу)")
+                      .collect(Collectors.toList())));
+    } catch (Exception e) {
+      System.err.println("Помилка пошуку схожих подорожей: " + e.getMessage());
+      layout.getChildren().add(new Text("Не вдалося знайти схожі подорожі"));
+    }
+
     layout
         .getChildren()
         .add(
@@ -794,6 +925,7 @@ public class MainApplicationFrame {
     grid.add(locNameLabel, 0, rowIndex);
     TextField locationNameField = new TextField();
     locationNameField.setStyle(UIConstants.INPUT_STYLE);
+    AutocompleteFieldSupport.attach(locationNameField, autocompleteService::completeLocations);
     grid.add(locationNameField, 1, rowIndex++);
 
     Label locDescLabel = new Label("Опис локації:");
@@ -948,6 +1080,30 @@ public class MainApplicationFrame {
     descriptionArea.setPrefRowCount(3);
     grid.add(descriptionArea, 1, rowIndex++);
 
+    Label latitudeLabel = new Label("Широта:");
+    latitudeLabel.setStyle(UIConstants.LABEL_STYLE);
+    grid.add(latitudeLabel, 0, rowIndex);
+    TextField latitudeField =
+        new TextField(
+            locationToEdit != null && locationToEdit.getLatitude() != null
+                ? locationToEdit.getLatitude().toString()
+                : "");
+    latitudeField.setPromptText("Напр., 50.4501");
+    latitudeField.setStyle(UIConstants.INPUT_STYLE);
+    grid.add(latitudeField, 1, rowIndex++);
+
+    Label longitudeLabel = new Label("Довгота:");
+    longitudeLabel.setStyle(UIConstants.LABEL_STYLE);
+    grid.add(longitudeLabel, 0, rowIndex);
+    TextField longitudeField =
+        new TextField(
+            locationToEdit != null && locationToEdit.getLongitude() != null
+                ? locationToEdit.getLongitude().toString()
+                : "");
+    longitudeField.setPromptText("Напр., 30.5234");
+    longitudeField.setStyle(UIConstants.INPUT_STYLE);
+    grid.add(longitudeField, 1, rowIndex++);
+
     Button saveBtn = new Button("Зберегти");
     saveBtn.setStyle(UIConstants.BUTTON_STYLE_PRIMARY);
     Button cancelBtn = new Button("Скасувати");
@@ -960,7 +1116,19 @@ public class MainApplicationFrame {
         e -> {
           String name = nameField.getText();
           String description = descriptionArea.getText();
-          LocationCreationDto dto = new LocationCreationDto(name, description);
+          Double latitude;
+          Double longitude;
+          try {
+            latitude = parseCoordinate(latitudeField.getText());
+            longitude = parseCoordinate(longitudeField.getText());
+          } catch (NumberFormatException ex) {
+            showAlert(
+                Alert.AlertType.ERROR,
+                "Помилка валідації",
+                "Координати повинні бути числами у градусах, напр. 50.4501.");
+            return;
+          }
+          LocationCreationDto dto = new LocationCreationDto(name, description, latitude, longitude);
           Set<ConstraintViolation<LocationCreationDto>> violations = validator.validate(dto);
           if (!violations.isEmpty()) {
             showAlert(
@@ -973,16 +1141,14 @@ public class MainApplicationFrame {
           }
           try {
             if (locationToEdit == null) {
-              Location newLocation =
-                  locationService.createLocation(dto.getName(), dto.getDescription());
+              Location newLocation = locationService.createLocation(dto);
               showAlert(
                   Alert.AlertType.INFORMATION,
                   "Успіх",
                   "Локацію '" + newLocation.getName() + "' створено.");
             } else {
               Location updatedLocation =
-                  locationService.updateLocation(
-                      locationToEdit.getId(), dto.getName(), dto.getDescription());
+                  locationService.updateLocation(locationToEdit.getId(), dto);
               showAlert(
                   Alert.AlertType.INFORMATION,
                   "Успіх",
@@ -1000,13 +1166,21 @@ public class MainApplicationFrame {
     scrollPane.setFitToWidth(true);
     scrollPane.setFitToHeight(true);
     scrollPane.setStyle(UIConstants.SCROLL_PANE_STYLE);
-    Scene scene = new Scene(scrollPane, 450, 300);
+    Scene scene = new Scene(scrollPane, 450, 380);
     scene.setFill(Color.web("#2b2b2b"));
     scene.getStylesheets().add(new PrimerDark().getUserAgentStylesheet());
     formStage.setScene(scene);
     formStage.showAndWait();
   }
 
+  /** Розбирає координату з поля форми; порожнє поле означає відсутність координати. */
+  private static Double parseCoordinate(String text) {
+    if (text == null || text.isBlank()) {
+      return null;
+    }
+    return Double.parseDouble(text.trim().replace(',', '.'));
+  }
+
   public void showPhotoUploadFormScene(long journeyId, PhotoViewManager manager) {
     Stage formStage = new Stage();
     formStage.initModality(Modality.WINDOW_MODAL);
@@ -1110,6 +1284,211 @@ public class MainApplicationFrame {
     formStage.showAndWait();
   }
 
+  /**
+   * Форма масового імпорту: користувач обирає теку або кілька файлів, імпорт виконується у
+   * фоновому потоці з індикатором перебігу, швидкістю та можливістю скасування.
+   */
+  public void showPhotoImportFormScene(long journeyId, PhotoViewManager manager) {
+    Stage formStage = new Stage();
+    formStage.initModality(Modality.WINDOW_MODAL);
+    formStage.initOwner(primaryStage);
+    formStage.setTitle("Імпорт фото до подорожі ID: " + journeyId);
+
+    GridPane grid = createGridPane();
+    int rowIndex = 0;
+
+    Label sourceLabel = new Label("Джерело:");
+    sourceLabel.setStyle(UIConstants.LABEL_STYLE);
+    grid.add(sourceLabel, 0, rowIndex);
+    TextField sourceField = new TextField();
+    sourceField.setEditable(false);
+    sourceField.setStyle(UIConstants.INPUT_STYLE);
+
+    List<String> selectedPaths = new ArrayList<>();
+    Button chooseDirBtn = new Button("Тека...");
+    chooseDirBtn.setStyle(UIConstants.BUTTON_STYLE_SECONDARY);
+    chooseDirBtn.setOnAction(
+        e -> {
+          DirectoryChooser directoryChooser = new DirectoryChooser();
+          directoryChooser.setTitle("Оберіть теку з фотографіями");
+          File directory = directoryChooser.showDialog(formStage);
+          if (directory != null) {
+            selectedPaths.clear();
+            selectedPaths.add(directory.getAbsolutePath());
+            sourceField.setText(directory.getAbsolutePath());
+          }
+        });
+    Button chooseFilesBtn = new Button("Файли...");
+    chooseFilesBtn.setStyle(UIConstants.BUTTON_STYLE_SECONDARY);
+    chooseFilesBtn.setOnAction(
+        e -> {
+          FileChooser fileChooser = new FileChooser();
+          fileChooser.setTitle("Оберіть фото для імпорту");
+          fileChooser
+              .getExtensionFilters()
+              .add(
+                  new FileChooser.ExtensionFilter(
+                      "Зображення", "*.png", "*.jpg", "*.jpeg", "*.gif", "*.bmp"));
+          List<File> files = fileChooser.showOpenMultipleDialog(formStage);
+          if (files != null && !files.isEmpty()) {
+            selectedPaths.clear();
+            files.forEach(file -> selectedPaths.add(file.getAbsolutePath()));
+            sourceField.setText("Обрано файлів: " + files.size());
+          }
+        });
+
+    HBox sourceBox = new HBox(5, sourceField, chooseDirBtn, chooseFilesBtn);
+    GridPane.setHgrow(sourceField, Priority.ALWAYS);
+    grid.add(sourceBox, 1, rowIndex++);
+
+    Label descLabel = new Label("Опис:");
+    descLabel.setStyle(UIConstants.LABEL_STYLE);
+    grid.add(descLabel, 0, rowIndex);
+    TextArea descriptionArea = new TextArea();
+    descriptionArea.setStyle(UIConstants.INPUT_STYLE);
+    descriptionArea.setWrapText(true);
+    descriptionArea.setPrefRowCount(2);
+    grid.add(descriptionArea, 1, rowIndex++);
+
+    ProgressBar progressBar = new ProgressBar(0);
+    progressBar.setMaxWidth(Double.MAX_VALUE);
+    Label progressLabel = new Label();
+    progressLabel.setStyle(UIConstants.LABEL_STYLE);
+    VBox progressBox = new VBox(5, progressBar, progressLabel);
+    progressBox.setVisible(false);
+    grid.add(progressBox, 1, rowIndex++);
+
+    Button importBtn = new Button("Імпортувати");
+    importBtn.setStyle(UIConstants.BUTTON_STYLE_PRIMARY);
+    Button cancelBtn = new Button("Скасувати");
+    cancelBtn.setStyle(UIConstants.BUTTON_STYLE_SECONDARY);
+    HBox importButtons = new HBox(10, cancelBtn, importBtn);
+    importButtons.setAlignment(Pos.CENTER_RIGHT);
+    grid.add(importButtons, 1, rowIndex);
+
+    AtomicBoolean cancelled = new AtomicBoolean();
+    AtomicBoolean running = new AtomicBoolean();
+    importBtn.setOnAction(
+        e -> {
+          PhotoImportDto dto =
+              new PhotoImportDto(
+                  journeyId, new ArrayList<>(selectedPaths), descriptionArea.getText());
+          Set<ConstraintViolation<PhotoImportDto>> violations = validator.validate(dto);
+          if (!violations.isEmpty()) {
+            showAlert(
+                Alert.AlertType.ERROR,
+                "Помилка валідації",
+                violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .collect(Collectors.joining("\n")));
+            return;
+          }
+
+          running.set(true);
+          importBtn.setDisable(true);
+          chooseDirBtn.setDisable(true);
+          chooseFilesBtn.setDisable(true);
+          progressBox.setVisible(true);
+          progressLabel.setText("Підготовка...");
+          Thread worker =
+              new Thread(
+                  () -> runPhotoImport(dto, progressBar, progressLabel, cancelled, formStage),
+                  "photo-import-coordinator");
+          worker.setDaemon(true);
+          worker.start();
+          // Оновлюємо галерею після завершення, навіть якщо імпорт скасовано
+          formStage.setOnHidden(event -> manager.refreshPhotoTilePane());
+        });
+    cancelBtn.setOnAction(
+        e -> {
+          if (running.get()) {
+            cancelled.set(true);
+            cancelBtn.setDisable(true);
+            progressLabel.setText("Скасування...");
+          } else {
+            formStage.close();
+          }
+        });
+    formStage.setOnCloseRequest(event -> cancelled.set(true));
+
+    ScrollPane scrollPane = new ScrollPane(grid);
+    scrollPane.setFitToWidth(true);
+    scrollPane.setFitToHeight(true);
+    scrollPane.setStyle(UIConstants.SCROLL_PANE_STYLE);
+    Scene scene = new Scene(scrollPane, 600, 320);
+    scene.setFill(Color.web("#2b2b2b"));
+    scene.getStylesheets().add(new PrimerDark().getUserAgentStylesheet());
+    formStage.setScene(scene);
+    formStage.showAndWait();
+  }
+
+  /** Виконується у фоновому потоці: імпортує фото і передає перебіг та підсумок у потік UI. */
+  private void runPhotoImport(
+      PhotoImportDto dto,
+      ProgressBar progressBar,
+      Label progressLabel,
+      AtomicBoolean cancelled,
+      Stage formStage) {
+    try {
+      PhotoImportResult result =
+          photoService.importPhotos(
+              dto,
+              currentUser,
+              progress ->
+                  Platform.runLater(
+                      () -> {
+                        progressBar.setProgress(
+                            progress.getTotalFiles() == 0
+                                ? 1
+                                : (double) progress.getProcessedFiles()
+                                    / progress.getTotalFiles());
+                        progressLabel.setText(
+                            String.format(
+                                "%d з %d (помилок: %d), %.1f фото/с, %.1f МБ/с",
+                                progress.getProcessedFiles(),
+                                progress.getTotalFiles(),
+                                progress.getFailedFiles(),
+                                progress.getPhotosPerSecond(),
+                                progress.getMegabytesPerSecond()));
+                      }),
+              cancelled::get);
+      Platform.runLater(
+          () -> {
+            StringBuilder message =
+                new StringBuilder(
+                    String.format(
+                        "Імпортовано фото: %d, помилок: %d, час: %.1f с.",
+                        result.getImportedCount(),
+                        result.getFailedCount(),
+                        result.getElapsedMillis() / 1000.0));
+            if (result.isCancelled()) {
+              message.append("\nІмпорт скасовано.");
+            }
+            result.getErrors().forEach(error -> message.append("\n").append(error));
+            showAlert(
+                result.getFailedCount() > 0
+                    ? Alert.AlertType.WARNING
+                    : Alert.AlertType.INFORMATION,
+                "Імпорт фото",
+                message.toString());
+            formStage.close();
+          });
+    } catch (SecurityException secEx) {
+      Platform.runLater(
+          () -> {
+            showAlert(Alert.AlertType.ERROR, "Помилка доступу", secEx.getMessage());
+            formStage.close();
+          });
+    } catch (Exception ex) {
+      ex.printStackTrace();
+      Platform.runLater(
+          () -> {
+            showAlert(Alert.AlertType.ERROR, "Помилка імпорту", ex.getMessage());
+            formStage.close();
+          });
+    }
+  }
+
   public void showTagFormScene(Tag tagToEdit, TagViewManager manager) {
     Stage formStage = new Stage();
     formStage.initModality(Modality.WINDOW_MODAL);
@@ -1124,6 +1503,8 @@ public class MainApplicationFrame {
     grid.add(nameLabel, 0, rowIndex);
     TextField nameField = new TextField(tagToEdit != null ? tagToEdit.getName() : "");
     nameField.setStyle(UIConstants.INPUT_STYLE);
+    // Підказки показують наявні теги, щоб не створювати дублікати з іншим написанням
+    AutocompleteFieldSupport.attach(nameField, autocompleteService::completeTags);
     grid.add(nameField, 1, rowIndex++);
 
     Button saveBtn = new Button("Зберегти");
@@ -0,0 +1,21 @@
+package com.trailtales.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Кластер локацій на оглядовій карті: центр мас, кількість локацій і подорожей та представник —
+ * найпопулярніша локація кластера. Кластер з однією локацією відповідає самій локації.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MapCluster {
+  private double latitude;
+  private double longitude;
+  private int locationCount;
+  private long journeyCount;
+  private Long representativeLocationId;
+  private String representativeLocationName;
+}
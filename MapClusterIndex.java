@@ -0,0 +1,398 @@
+package com.trailtales.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Ієрархічна сітка кластерів локацій для оглядової карти. Для кожного рівня масштабу від 0 до
+ * {@value #MAX_ZOOM} світ у проєкції Web Mercator ділиться на {@code 2^(zoom + 3)} клітинок по
+ * кожній осі (8×8 клітинок на тайл 256 пікселів, тобто близько 32 пікселів на клітинку). Клітинка
+ * зберігає кількість локацій, суму подорожей, що через них проходять, центр мас і представника —
+ * найпопулярнішу локацію. Клітинки сусідніх рівнів утворюють дерево квадрантів: кожна клітинка
+ * має чотири дочірні на наступному рівні.
+ *
+ * <p>Додавання, переміщення чи видалення локації, а також зміна лічильника подорожей оновлюють по
+ * одній клітинці на кожному рівні. Запит видимої області перебирає лише клітинки, що в неї
+ * потрапляють, тож його вартість залежить від розміру вікна, а не від загальної кількості
+ * локацій. Клітинки, локації та подорожі зберігаються в таблицях з примітивними ключами {@code
+ * long}, тож на мільйоні локацій не створюються мільйони упакованих ключів. Усі методи
+ * синхронізовані.
+ */
+public class MapClusterIndex {
+
+  public static final int MAX_ZOOM = 18;
+
+  /** Кожен тайл ділиться на {@code 2^CELL_BITS} клітинок по осі. */
+  private static final int CELL_BITS = 3;
+
+  private static final double MAX_MERCATOR_LATITUDE = 85.05112878;
+
+  private final List<LongObjectHashMap<Cell>> levels = new ArrayList<>();
+  private final LongObjectHashMap<Point> points = new LongObjectHashMap<>();
+
+  /** ID локації → кількість подорожей, для яких вона є початковою чи кінцевою точкою. */
+  private final LongIntHashMap journeyCounts = new LongIntHashMap();
+
+  /** ID подорожі → ID її (різних) початкової та кінцевої локацій. */
+  private final LongObjectHashMap<long[]> journeyEndpoints = new LongObjectHashMap<>();
+
+  public MapClusterIndex() {
+    for (int zoom = 0; zoom <= MAX_ZOOM; zoom++) {
+      levels.add(new LongObjectHashMap<>());
+    }
+  }
+
+  /**
+   * Додає локацію або оновлює її назву чи координати.
+   *
+   * @param locationId ID локації.
+   * @param name назва локації.
+   * @param latitude широта.
+   * @param longitude довгота.
+   */
+  public synchronized void putLocation(
+      long locationId, String name, double latitude, double longitude) {
+    Point existing = points.get(locationId);
+    if (existing != null) {
+      if (existing.latitude == latitude && existing.longitude == longitude) {
+        existing.name = name;
+        return;
+      }
+      removePoint(existing);
+    }
+    Point point = new Point(locationId, name, latitude, longitude);
+    points.put(locationId, point);
+    addPoint(point);
+  }
+
+  /**
+   * Видаляє локацію з сітки (наприклад, після видалення локації або її координат).
+   *
+   * @param locationId ID локації.
+   */
+  public synchronized void removeLocation(long locationId) {
+    Point point = points.remove(locationId);
+    if (point != null) {
+      removePoint(point);
+    }
+  }
+
+  /**
+   * Встановлює початкову та кінцеву локації подорожі, оновлюючи лічильники подорожей у клітинках.
+   *
+   * @param journeyId ID подорожі.
+   * @param originLocationId ID початкової локації або {@code null}.
+   * @param destinationLocationId ID кінцевої локації або {@code null}.
+   */
+  public synchronized void setJourneyLocations(
+      long journeyId, Long originLocationId, Long destinationLocationId) {
+    long[] updated =
+        Arrays.stream(new Long[] {originLocationId, destinationLocationId})
+            .filter(id -> id != null)
+            .mapToLong(Long::longValue)
+            .distinct()
+            .sorted()
+            .toArray();
+    long[] previous = journeyEndpoints.get(journeyId);
+    if (previous != null && Arrays.equals(previous, updated)) {
+      return;
+    }
+    if (previous != null) {
+      for (long locationId : previous) {
+        changeJourneyCount(locationId, -1);
+      }
+    }
+    for (long locationId : updated) {
+      changeJourneyCount(locationId, 1);
+    }
+    if (updated.length == 0) {
+      journeyEndpoints.remove(journeyId);
+    } else {
+      journeyEndpoints.put(journeyId, updated);
+    }
+  }
+
+  /**
+   * Видаляє подорож з лічильників.
+   *
+   * @param journeyId ID видаленої подорожі.
+   */
+  public synchronized void removeJourney(long journeyId) {
+    setJourneyLocations(journeyId, null, null);
+  }
+
+  /**
+   * Повертає кластери у видимій області карти. Якщо {@code minLongitude > maxLongitude}, область
+   * перетинає антимеридіан.
+   *
+   * @param minLatitude південна межа.
+   * @param minLongitude західна межа.
+   * @param maxLatitude північна межа.
+   * @param maxLongitude східна межа.
+   * @param zoom рівень масштабу (обмежується діапазоном 0..{@value #MAX_ZOOM}).
+   * @return кластери; кластер з однією локацією відповідає самій локації.
+   */
+  public synchronized List<Cluster> query(
+      double minLatitude, double minLongitude, double maxLatitude, double maxLongitude, int zoom) {
+    int level = Math.max(0, Math.min(MAX_ZOOM, zoom));
+    LongObjectHashMap<Cell> cells = levels.get(level);
+    int resolution = 1 << (level + CELL_BITS);
+    int minY = cellIndex(mercatorY(maxLatitude), resolution);
+    int maxY = cellIndex(mercatorY(minLatitude), resolution);
+    int minX = cellIndex(mercatorX(minLongitude), resolution);
+    int maxX = cellIndex(mercatorX(maxLongitude), resolution);
+    int[][] xRanges =
+        minLongitude <= maxLongitude
+            ? new int[][] {{minX, maxX}}
+            : new int[][] {{minX, resolution - 1}, {0, maxX}};
+
+    long visibleCells = 0;
+    for (int[] range : xRanges) {
+      visibleCells += (long) (range[1] - range[0] + 1) * (maxY - minY + 1);
+    }
+
+    List<Cluster> clusters = new ArrayList<>();
+    if (visibleCells > cells.size()) {
+      // Область більша за кількість зайнятих клітинок (дрібний масштаб) — дешевше обійти їх.
+      cells.forEach(
+          (key, cell) -> {
+            int x = (int) (key >>> 32);
+            int y = (int) key;
+            if (y >= minY && y <= maxY && inRanges(x, xRanges)) {
+              clusters.add(toCluster(cell));
+            }
+          });
+      return clusters;
+    }
+    for (int[] range : xRanges) {
+      for (int x = range[0]; x <= range[1]; x++) {
+        for (int y = minY; y <= maxY; y++) {
+          Cell cell = cells.get(cellKey(x, y));
+          if (cell != null) {
+            clusters.add(toCluster(cell));
+          }
+        }
+      }
+    }
+    return clusters;
+  }
+
+  /** Кількість локацій із координатами. */
+  public synchronized int size() {
+    return points.size();
+  }
+
+  private void addPoint(Point point) {
+    int weight = journeyCounts.get(point.id, 0);
+    for (int level = 0; level <= MAX_ZOOM; level++) {
+      Cell cell = levels.get(level).computeIfAbsent(cellKey(point, level), key -> new Cell());
+      cell.count++;
+      cell.journeyCount += weight;
+      cell.sumLatitude += point.latitude;
+      cell.sumLongitude += point.longitude;
+      if (level == MAX_ZOOM) {
+        cell.addMember(point.id);
+      }
+    }
+    refreshRepresentatives(point);
+  }
+
+  private void removePoint(Point point) {
+    int weight = journeyCounts.get(point.id, 0);
+    for (int level = 0; level <= MAX_ZOOM; level++) {
+      long key = cellKey(point, level);
+      Cell cell = levels.get(level).get(key);
+      if (cell == null) {
+        continue;
+      }
+      cell.count--;
+      cell.journeyCount -= weight;
+      cell.sumLatitude -= point.latitude;
+      cell.sumLongitude -= point.longitude;
+      if (level == MAX_ZOOM) {
+        cell.removeMember(point.id);
+      }
+      if (cell.count == 0) {
+        levels.get(level).remove(key);
+      }
+    }
+    refreshRepresentatives(point);
+  }
+
+  private void changeJourneyCount(long locationId, int delta) {
+    journeyCounts.addTo(locationId, delta);
+    Point point = points.get(locationId);
+    if (point == null) {
+      return;
+    }
+    for (int level = 0; level <= MAX_ZOOM; level++) {
+      Cell cell = levels.get(level).get(cellKey(point, level));
+      if (cell != null) {
+        cell.journeyCount += delta;
+      }
+    }
+    refreshRepresentatives(point);
+  }
+
+  /**
+   * Переобирає представників клітинок, що містять точку, знизу вгору: на найдрібнішому рівні — з
+   * локацій клітинки, вище — з представників чотирьох дочірніх клітинок.
+   */
+  private void refreshRepresentatives(Point point) {
+    for (int level = MAX_ZOOM; level >= 0; level--) {
+      Cell cell = levels.get(level).get(cellKey(point, level));
+      if (cell == null) {
+        continue;
+      }
+      cell.representativeId = -1;
+      cell.representativeWeight = -1;
+      if (level == MAX_ZOOM) {
+        for (int i = 0; i < cell.memberCount; i++) {
+          offerRepresentative(cell, cell.members[i], journeyCounts.get(cell.members[i], 0));
+        }
+      } else {
+        int x = cellX(point, level);
+        int y = cellY(point, level);
+        LongObjectHashMap<Cell> children = levels.get(level + 1);
+        for (int dx = 0; dx < 2; dx++) {
+          for (int dy = 0; dy < 2; dy++) {
+            Cell child = children.get(cellKey(2 * x + dx, 2 * y + dy));
+            if (child != null) {
+              offerRepresentative(cell, child.representativeId, child.representativeWeight);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  private static void offerRepresentative(Cell cell, long locationId, int weight) {
+    if (weight > cell.representativeWeight
+        || (weight == cell.representativeWeight && locationId < cell.representativeId)) {
+      cell.representativeId = locationId;
+      cell.representativeWeight = weight;
+    }
+  }
+
+  private Cluster toCluster(Cell cell) {
+    Point representative = points.get(cell.representativeId);
+    return new Cluster(
+        cell.sumLatitude / cell.count,
+        cell.sumLongitude / cell.count,
+        cell.count,
+        cell.journeyCount,
+        cell.representativeId,
+        representative != null ? representative.name : null);
+  }
+
+  private static boolean inRanges(int x, int[][] ranges) {
+    for (int[] range : ranges) {
+      if (x >= range[0] && x <= range[1]) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static long cellKey(Point point, int level) {
+    return cellKey(cellX(point, level), cellY(point, level));
+  }
+
+  private static int cellX(Point point, int level) {
+    return cellIndex(point.mercatorX, 1 << (level + CELL_BITS));
+  }
+
+  private static int cellY(Point point, int level) {
+    return cellIndex(point.mercatorY, 1 << (level + CELL_BITS));
+  }
+
+  private static long cellKey(int x, int y) {
+    return ((long) x << 32) | (y & 0xffffffffL);
+  }
+
+  private static int cellIndex(double projected, int resolution) {
+    return (int) Math.max(0, Math.min(resolution - 1, Math.floor(projected * resolution)));
+  }
+
+  /** Довгота → координата X проєкції Web Mercator у діапазоні [0, 1]. */
+  private static double mercatorX(double longitude) {
+    return (longitude + 180) / 360;
+  }
+
+  /** Широта → координата Y проєкції Web Mercator у діапазоні [0, 1] (північ угорі). */
+  private static double mercatorY(double latitude) {
+    double clamped = Math.max(-MAX_MERCATOR_LATITUDE, Math.min(MAX_MERCATOR_LATITUDE, latitude));
+    double sin = Math.sin(Math.toRadians(clamped));
+    return 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+  }
+
+  private static final class Point {
+    private final long id;
+    private String name;
+    private final double latitude;
+    private final double longitude;
+    private final double mercatorX;
+    private final double mercatorY;
+
+    private Point(long id, String name, double latitude, double longitude) {
+      this.id = id;
+      this.name = name;
+      this.latitude = latitude;
+      this.longitude = longitude;
+      this.mercatorX = mercatorX(longitude);
+      this.mercatorY = mercatorY(latitude);
+    }
+  }
+
+  private static final class Cell {
+    private int count;
+    private long journeyCount;
+    private double sumLatitude;
+    private double sumLongitude;
+    private long representativeId = -1;
+    private int representativeWeight = -1;
+
+    /** ID локацій клітинки; заповнюється лише на найдрібнішому рівні. */
+    private long[] members;
+
+    private int memberCount;
+
+    private void addMember(long locationId) {
+      if (members == null) {
+        members = new long[2];
+      } else if (memberCount == members.length) {
+        members = Arrays.copyOf(members, memberCount * 2);
+      }
+      members[memberCount++] = locationId;
+    }
+
+    private void removeMember(long locationId) {
+      for (int i = 0; i < memberCount; i++) {
+        if (members[i] == locationId) {
+          members[i] = members[--memberCount];
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Кластер локацій у клітинці сітки.
+   *
+   * @param latitude широта центру мас локацій кластера.
+   * @param longitude довгота центру мас локацій кластера.
+   * @param locationCount кількість локацій.
+   * @param journeyCount кількість звернень подорожей до локацій кластера (початкова та кінцева
+   *     точки).
+   * @param representativeId ID найпопулярнішої локації кластера.
+   * @param representativeName назва найпопулярнішої локації кластера.
+   */
+  public record Cluster(
+      double latitude,
+      double longitude,
+      int locationCount,
+      long journeyCount,
+      long representativeId,
+      String representativeName) {}
+}
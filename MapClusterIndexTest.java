@@ -0,0 +1,121 @@
+package com.trailtales.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MapClusterIndexTest {
+
+  private MapClusterIndex index;
+
+  @BeforeEach
+  void setUp() {
+    index = new MapClusterIndex();
+    index.putLocation(1, "Київ", 50.45, 30.52);
+    index.putLocation(2, "Львів", 49.84, 24.03);
+    index.putLocation(3, "Токіо", 35.68, 139.69);
+  }
+
+  @Test
+  void nearbyLocationsMergeAtSmallZoomAndSplitAtLargeZoom() {
+    List<MapClusterIndex.Cluster> world = worldClusters(0);
+    assertEquals(2, world.size());
+    MapClusterIndex.Cluster ukraine = world.get(0);
+    assertEquals(2, ukraine.locationCount());
+    assertEquals((50.45 + 49.84) / 2, ukraine.latitude(), 1e-9);
+    assertEquals((30.52 + 24.03) / 2, ukraine.longitude(), 1e-9);
+
+    assertEquals(3, worldClusters(MapClusterIndex.MAX_ZOOM).size());
+  }
+
+  @Test
+  void representativeIsMostVisitedLocationWithLowestIdOnTies() {
+    assertEquals(1, worldClusters(0).get(0).representativeId());
+
+    index.setJourneyLocations(10, 2L, 3L);
+    MapClusterIndex.Cluster ukraine = worldClusters(0).get(0);
+    assertEquals(2, ukraine.representativeId());
+    assertEquals("Львів", ukraine.representativeName());
+    assertEquals(1, ukraine.journeyCount());
+  }
+
+  @Test
+  void sameOriginAndDestinationCountOnce() {
+    index.setJourneyLocations(10, 1L, 1L);
+
+    assertEquals(1, worldClusters(0).get(0).journeyCount());
+  }
+
+  @Test
+  void changingAndRemovingJourneyMovesCounts() {
+    index.setJourneyLocations(10, 1L, 2L);
+    index.setJourneyLocations(10, 1L, 3L);
+    assertEquals(1, worldClusters(0).get(1).journeyCount());
+    assertEquals(1, worldClusters(0).get(0).journeyCount());
+
+    index.removeJourney(10);
+    assertEquals(0, worldClusters(0).get(1).journeyCount());
+    assertEquals(0, worldClusters(0).get(0).journeyCount());
+  }
+
+  @Test
+  void locationAddedAfterJourneyKeepsItsCount() {
+    index.setJourneyLocations(10, 4L, null);
+    index.putLocation(4, "Ужгород", 48.62, 22.29);
+
+    MapClusterIndex.Cluster ukraine = worldClusters(0).get(0);
+    assertEquals(3, ukraine.locationCount());
+    assertEquals(1, ukraine.journeyCount());
+    assertEquals(4, ukraine.representativeId());
+  }
+
+  @Test
+  void movingLocationUpdatesCellsAndRenameKeepsThem() {
+    index.putLocation(3, "Токіо", 35.68, 139.69);
+    index.putLocation(2, "Lviv", 49.84, 24.03);
+    index.setJourneyLocations(10, 2L, null);
+    assertEquals("Lviv", worldClusters(0).get(0).representativeName());
+
+    index.putLocation(3, "Токіо", 50.40, 30.60);
+    List<MapClusterIndex.Cluster> world = worldClusters(0);
+    assertEquals(1, world.size());
+    assertEquals(3, world.get(0).locationCount());
+  }
+
+  @Test
+  void removedLocationLeavesNoEmptyCells() {
+    index.removeLocation(3);
+    index.removeLocation(42);
+
+    assertEquals(1, worldClusters(0).size());
+    assertEquals(2, worldClusters(MapClusterIndex.MAX_ZOOM).size());
+    assertEquals(2, index.size());
+  }
+
+  @Test
+  void viewportCrossingAntimeridianCoversBothSides() {
+    index.putLocation(4, "Гонолулу", 21.31, -157.86);
+
+    List<MapClusterIndex.Cluster> pacific = index.query(0, 120, 60, -120, 3);
+    assertEquals(2, pacific.size());
+    assertEquals(List.of(), index.query(0, -120, 60, 0, 3));
+  }
+
+  @Test
+  void smallViewportAtLargeZoomSeesOnlyNearbyLocations() {
+    List<MapClusterIndex.Cluster> kyiv = index.query(50.4, 30.4, 50.5, 30.6, 12);
+
+    assertEquals(1, kyiv.size());
+    assertEquals(1, kyiv.get(0).representativeId());
+  }
+
+  /** Кластери всього світу, від заходу на схід. */
+  private List<MapClusterIndex.Cluster> worldClusters(int zoom) {
+    return index.query(-85, -180, 85, 180, zoom).stream()
+        .sorted(Comparator.comparingDouble(MapClusterIndex.Cluster::longitude))
+        .toList();
+  }
+}
@@ -0,0 +1,59 @@
+package com.trailtales.service;
+
+import com.trailtales.dto.MapCluster;
+import com.trailtales.entity.Journey;
+import com.trailtales.entity.Location;
+import java.util.List;
+
+/**
+ * Сервіс кластеризації локацій і подорожей для оглядової карти. Замість усіх локацій клієнт
+ * отримує кластери видимої області для поточного масштабу. Кластери беруться з ієрархічної сітки
+ * в пам'яті, яка будується під час першого запиту і далі оновлюється поштучно з методів запису
+ * локацій і подорожей.
+ */
+public interface MapClusterService {
+
+  /**
+   * Повертає кластери локацій у видимій області карти. Якщо {@code minLongitude > maxLongitude},
+   * область вважається такою, що перетинає антимеридіан.
+   *
+   * @param minLatitude південна межа.
+   * @param minLongitude західна межа.
+   * @param maxLatitude північна межа.
+   * @param maxLongitude східна межа.
+   * @param zoom рівень масштабу карти (0 — увесь світ).
+   * @return кластери видимої області.
+   * @throws IllegalArgumentException якщо координати поза межами, південна межа більша за північну
+   *     або масштаб від'ємний.
+   */
+  List<MapCluster> getClusters(
+      double minLatitude, double minLongitude, double maxLatitude, double maxLongitude, int zoom);
+
+  /**
+   * Додає, переміщує або прибирає (якщо координати видалено) збережену локацію.
+   *
+   * @param location збережена локація.
+   */
+  void onLocationSaved(Location location);
+
+  /**
+   * Прибирає видалену локацію.
+   *
+   * @param locationId ID видаленої локації.
+   */
+  void onLocationDeleted(Long locationId);
+
+  /**
+   * Оновлює лічильники подорожей після зміни початкової чи кінцевої локації подорожі.
+   *
+   * @param journey збережена подорож.
+   */
+  void onJourneySaved(Journey journey);
+
+  /**
+   * Прибирає видалену подорож з лічильників.
+   *
+   * @param journeyId ID видаленої подорожі.
+   */
+  void onJourneyDeleted(Long journeyId);
+}
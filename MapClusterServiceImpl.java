@@ -0,0 +1,128 @@
+package com.trailtales.service.impl;
+
+import com.trailtales.dto.MapCluster;
+import com.trailtales.entity.Journey;
+import com.trailtales.entity.Location;
+import com.trailtales.index.MapClusterIndex;
+import com.trailtales.repository.JourneyRepository;
+import com.trailtales.repository.LocationRepository;
+import com.trailtales.service.MapClusterService;
+import com.trailtales.util.GeoUtils;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class MapClusterServiceImpl implements MapClusterService {
+
+  private final LocationRepository locationRepository;
+  private final JourneyRepository journeyRepository;
+
+  /** Сітка кластерів; будується під час першого запиту карти. */
+  private MapClusterIndex clusterIndex;
+
+  /**
+   * Конструктор для впровадження залежностей.
+   *
+   * @param locationRepository Репозиторій для роботи з локаціями.
+   * @param journeyRepository Репозиторій для роботи з подорожами.
+   */
+  @Autowired
+  public MapClusterServiceImpl(
+      LocationRepository locationRepository, JourneyRepository journeyRepository) {
+    this.locationRepository = locationRepository;
+    this.journeyRepository = journeyRepository;
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<MapCluster> getClusters(
+      double minLatitude, double minLongitude, double maxLatitude, double maxLongitude, int zoom) {
+    GeoUtils.requireValidPoint(minLatitude, minLongitude);
+    GeoUtils.requireValidPoint(maxLatitude, maxLongitude);
+    if (minLatitude > maxLatitude) {
+      throw new IllegalArgumentException("Південна межа не може бути північніше за північну.");
+    }
+    if (zoom < 0) {
+      throw new IllegalArgumentException("Рівень масштабу не може бути від'ємним.");
+    }
+    return getClusterIndex()
+        .query(minLatitude, minLongitude, maxLatitude, maxLongitude, zoom)
+        .stream()
+        .map(
+            cluster ->
+                new MapCluster(
+                    cluster.latitude(),
+                    cluster.longitude(),
+                    cluster.locationCount(),
+                    cluster.journeyCount(),
+                    cluster.representativeId(),
+                    cluster.representativeName()))
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public synchronized void onLocationSaved(Location location) {
+    if (clusterIndex == null || location == null || location.getId() == null) {
+      return;
+    }
+    if (location.getLatitude() != null && location.getLongitude() != null) {
+      clusterIndex.putLocation(
+          location.getId(), location.getName(), location.getLatitude(), location.getLongitude());
+    } else {
+      clusterIndex.removeLocation(location.getId());
+    }
+  }
+
+  @Override
+  public synchronized void onLocationDeleted(Long locationId) {
+    if (clusterIndex != null) {
+      clusterIndex.removeLocation(locationId);
+    }
+  }
+
+  @Override
+  public synchronized void onJourneySaved(Journey journey) {
+    if (clusterIndex != null && journey != null && journey.getId() != null) {
+      clusterIndex.setJourneyLocations(
+          journey.getId(), journey.getOriginLocationId(), journey.getDestinationLocationId());
+    }
+  }
+
+  @Override
+  public synchronized void onJourneyDeleted(Long journeyId) {
+    if (clusterIndex != null) {
+      clusterIndex.removeJourney(journeyId);
+    }
+  }
+
+  private synchronized MapClusterIndex getClusterIndex() {
+    if (clusterIndex == null) {
+      long startedAt = System.currentTimeMillis();
+      MapClusterIndex index = new MapClusterIndex();
+      locationRepository.streamWithCoordinates(
+          location ->
+              index.putLocation(
+                  location.getId(),
+                  location.getName(),
+                  location.getLatitude(),
+                  location.getLongitude()));
+      journeyRepository.streamAttributes(
+          attributes ->
+              index.setJourneyLocations(
+                  attributes.getJourneyId(),
+                  attributes.getOriginLocationId(),
+                  attributes.getDestinationLocationId()));
+      clusterIndex = index;
+      System.out.println(
+          "Сітку кластерів карти побудовано за "
+              + (System.currentTimeMillis() - startedAt)
+              + " мс: локацій з координатами "
+              + index.size()
+              + ".");
+    }
+    return clusterIndex;
+  }
+}
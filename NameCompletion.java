@@ -0,0 +1,18 @@
+package com.trailtales.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Варіант автодоповнення назви локації або тегу з вагою популярності (кількістю використань у
+ * подорожах і подіях).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NameCompletion {
+  private Long id;
+  private String name;
+  private long weight;
+}
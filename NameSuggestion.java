@@ -0,0 +1,18 @@
+package com.trailtales.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Існуючий запис довідника (локація або тег), схожий на введену користувачем назву, разом з
+ * оцінкою схожості від 0 до 1.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NameSuggestion {
+  private Long id;
+  private String name;
+  private double score;
+}
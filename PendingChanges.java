@@ -0,0 +1,56 @@
+package com.trailtales.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Журнал змін індексу, що завантажується у фоні. Поки знімок читається з бази, кожна зміна
+ * застосовується одразу і запам'ятовується, а після завантаження знімка застосовується повторно
+ * поверх нього, тож зміни, внесені під час читання, не губляться.
+ *
+ * <p>Клас не синхронізований: власник викликає його методи під тим самим монітором, що й методи
+ * зміни індексу.
+ *
+ * @param <T> власник індексу, до якого застосовуються зміни.
+ */
+public class PendingChanges<T> {
+
+  private final List<Consumer<T>> changes = new ArrayList<>();
+  private boolean recording;
+
+  /** Починає запам'ятовувати зміни; попередні забуваються. */
+  public void begin() {
+    changes.clear();
+    recording = true;
+  }
+
+  /**
+   * Застосовує зміну і, якщо знімок саме завантажується, запам'ятовує її.
+   *
+   * @param target власник індексу.
+   * @param change зміна.
+   */
+  public void apply(T target, Consumer<T> change) {
+    change.accept(target);
+    if (recording) {
+      changes.add(change);
+    }
+  }
+
+  /**
+   * Повторно застосовує запам'ятовані зміни до завантаженого знімка і припиняє запам'ятовування.
+   *
+   * @param target власник індексу.
+   */
+  public void replay(T target) {
+    changes.forEach(change -> change.accept(target));
+    discard();
+  }
+
+  /** Забуває запам'ятовані зміни і припиняє запам'ятовування, наприклад після збою завантаження. */
+  public void discard() {
+    changes.clear();
+    recording = false;
+  }
+}
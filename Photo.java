@@ -13,7 +13,19 @@ public class Photo {
   private Long journeyId; // ID подорожі, до якої належить фото
   private Long userId; // ID користувача, який завантажив фото (для дозволів)
   private String filePath; // Шлях до файлу на сервері (або в локальній файловій системі)
+  private String contentHash; // SHA-256 вмісту (NULL для фото, збережених до сховища за вмістом)
   private String description; // Опис фотографії (необов'язково)
+  private String thumbnailSmallPath; // Мала копія для плиток галереї (NULL, якщо ще не створена)
+  private String thumbnailMediumPath; // Середня копія для перегляду (NULL, якщо ще не створена)
+  // Метадані EXIF; NULL, якщо тегу у файлі немає або файл ще не прочитано
+  private LocalDateTime takenAt; // Час зйомки (за годинником камери, без часового поясу)
+  private String cameraMake;
+  private String cameraModel;
+  private Integer orientation; // Орієнтація EXIF (1–8), 1 — без повороту
+  private Integer width;
+  private Integer height;
+  private Double latitude;
+  private Double longitude;
   private LocalDateTime createdAt;
   private LocalDateTime updatedAt;
 }
@@ -0,0 +1,17 @@
+package com.trailtales.entity;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoBlob {
+  private String contentHash; // SHA-256 вмісту файлу у шістнадцятковому вигляді
+  private String filePath; // Шлях до єдиної копії вмісту у сховищі
+  private long sizeBytes;
+  private int refCount; // Кількість фото, що посилаються на вміст
+  private LocalDateTime createdAt;
+}
@@ -0,0 +1,95 @@
+package com.trailtales.repository;
+
+import com.trailtales.entity.PhotoBlob;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Репозиторій вмісту фотографій, адресованого хешем (таблиця {@code photo_blobs}). Лічильник
+ * посилань ведуть тригери на {@code photos}; тут вміст лише реєструється та прибирається.
+ */
+@Repository
+public class PhotoBlobRepository {
+
+  private final JdbcTemplate jdbcTemplate;
+
+  private final RowMapper<PhotoBlob> blobRowMapper =
+      (rs, rowNum) -> {
+        PhotoBlob blob = new PhotoBlob();
+        blob.setContentHash(rs.getString("content_hash"));
+        blob.setFilePath(rs.getString("file_path"));
+        blob.setSizeBytes(rs.getLong("size_bytes"));
+        blob.setRefCount(rs.getInt("ref_count"));
+        blob.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        return blob;
+      };
+
+  /**
+   * Конструктор для впровадження залежності {@link JdbcTemplate}.
+   *
+   * @param jdbcTemplate об'єкт для взаємодії з базою даних.
+   */
+  public PhotoBlobRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Реєструє вміст або знаходить уже зареєстрований і блокує його рядок до кінця транзакції, тож
+   * збирання невикористаного вмісту не видалить файл, поки на нього не з'явиться посилання.
+   *
+   * @param contentHash хеш вмісту.
+   * @param filePath шлях, за яким слід зберегти новий вміст.
+   * @param sizeBytes розмір вмісту.
+   * @return шлях, за яким вміст зберігається насправді (для вже відомого вмісту — попередній).
+   */
+  public String register(String contentHash, String filePath, long sizeBytes) {
+    return jdbcTemplate.queryForObject(
+        "INSERT INTO photo_blobs (content_hash, file_path, size_bytes) VALUES (?, ?, ?)"
+            + " ON CONFLICT (content_hash) DO UPDATE SET size_bytes = EXCLUDED.size_bytes"
+            + " RETURNING file_path",
+        String.class,
+        contentHash,
+        filePath,
+        sizeBytes);
+  }
+
+  /**
+   * Вибирає і блокує вміст без посилань. Рядки, заблоковані транзакціями завантаження,
+   * пропускаються. Викликається в транзакції, що потім видаляє вибрані рядки.
+   *
+   * @param limit максимальна кількість рядків.
+   * @return вміст без посилань.
+   */
+  public List<PhotoBlob> lockUnreferenced(int limit) {
+    return jdbcTemplate.query(
+        "SELECT content_hash, file_path, size_bytes, ref_count, created_at FROM photo_blobs"
+            + " WHERE ref_count = 0 ORDER BY created_at LIMIT ? FOR UPDATE SKIP LOCKED",
+        blobRowMapper,
+        limit);
+  }
+
+  /**
+   * Видаляє рядки вмісту за хешами.
+   *
+   * @param contentHashes хеші вмісту.
+   */
+  public void deleteByHashes(Collection<String> contentHashes) {
+    if (contentHashes.isEmpty()) {
+      return;
+    }
+    jdbcTemplate.update(
+        connection -> {
+          PreparedStatement ps =
+              connection.prepareStatement(
+                  "DELETE FROM photo_blobs WHERE content_hash = ANY (?) AND ref_count = 0");
+          Array hashes = connection.createArrayOf("bpchar", contentHashes.toArray());
+          ps.setArray(1, hashes);
+          return ps;
+        });
+  }
+}
@@ -0,0 +1,229 @@
+package com.trailtales.ui;
+
+import com.trailtales.entity.Photo;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import javafx.collections.FXCollections;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.OverrunStyle;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
+
+/**
+ * Віртуалізована сітка фотографій. Фото групуються в рядки за шириною вікна, а рядки показує
+ * {@link ListView}, який створює клітинки лише для видимих рядків і перевикористовує їх під час
+ * прокручування. Тож кількість вузлів сцени не залежить від кількості фото, а зображення плиток
+ * завантажує {@link GalleryImageLoader} лише для того, що зараз на екрані.
+ */
+public class PhotoGrid {
+
+  /** Відстань між плитками по горизонталі та вертикалі. */
+  private static final double GAP = 10;
+
+  /** Ширина рамки плитки разом з внутрішнім відступом (стиль {@code PHOTO_BOX_STYLE}). */
+  private static final double TILE_BOX_WIDTH = 160;
+
+  /** Висота плитки: зображення, один рядок опису, кнопка і відступи. */
+  private static final double TILE_BOX_HEIGHT_EXTRA = 75;
+
+  /** Запас ширини під вертикальну смугу прокручування. */
+  private static final double SCROLL_BAR_WIDTH = 20;
+
+  private final GalleryImageLoader imageLoader;
+  private final double tileSize;
+  private final Consumer<Photo> onOpen;
+  private final Consumer<Photo> onDelete;
+  private final ListView<List<Photo>> listView = new ListView<>();
+
+  private List<Photo> photos = List.of();
+  private boolean canDelete;
+  private int columns = 1;
+
+  /**
+   * Створює сітку.
+   *
+   * @param imageLoader завантажувач зображень плиток.
+   * @param tileSize розмір зображення плитки.
+   * @param onOpen викликається при натисканні на зображення.
+   * @param onDelete викликається кнопкою видалення плитки.
+   */
+  public PhotoGrid(
+      GalleryImageLoader imageLoader,
+      double tileSize,
+      Consumer<Photo> onOpen,
+      Consumer<Photo> onDelete) {
+    this.imageLoader = imageLoader;
+    this.tileSize = tileSize;
+    this.onOpen = onOpen;
+    this.onDelete = onDelete;
+
+    listView.setStyle(UIConstants.TILE_PANE_STYLE);
+    listView.setFocusTraversable(false);
+    // Фіксована висота рядка позбавляє ListView вимірювання кожної клітинки під час прокручування
+    listView.setFixedCellSize(tileSize + TILE_BOX_HEIGHT_EXTRA + GAP);
+    listView.setCellFactory(lv -> new PhotoRowCell());
+    listView
+        .widthProperty()
+        .addListener((obs, oldWidth, newWidth) -> updateColumns(newWidth.doubleValue()));
+  }
+
+  /** Вузол сітки для розміщення у формі. */
+  public ListView<List<Photo>> getView() {
+    return listView;
+  }
+
+  /**
+   * Показує нові фото, повертаючи прокручування на початок.
+   *
+   * @param photos фото для показу.
+   * @param canDelete чи доступна кнопка видалення.
+   */
+  public void setPhotos(List<Photo> photos, boolean canDelete) {
+    this.photos = photos;
+    this.canDelete = canDelete;
+    rebuildRows();
+    listView.scrollTo(0);
+  }
+
+  public void clear() {
+    setPhotos(List.of(), false);
+  }
+
+  private void updateColumns(double width) {
+    int fitting = (int) ((width - SCROLL_BAR_WIDTH + GAP) / (TILE_BOX_WIDTH + GAP));
+    int newColumns = Math.max(1, fitting);
+    if (newColumns != columns) {
+      columns = newColumns;
+      rebuildRows();
+    }
+  }
+
+  /** Розбиває фото на рядки; рядки — подання списку фото, тож копіювання не відбувається. */
+  private void rebuildRows() {
+    List<List<Photo>> rows = new ArrayList<>((photos.size() + columns - 1) / columns);
+    for (int from = 0; from < photos.size(); from += columns) {
+      rows.add(photos.subList(from, Math.min(from + columns, photos.size())));
+    }
+    listView.setItems(FXCollections.observableList(rows));
+  }
+
+  /** Рядок сітки. Плитки створюються один раз і перепризначаються іншим фото. */
+  private class PhotoRowCell extends ListCell<List<Photo>> {
+    private final HBox row = new HBox(GAP);
+    private final List<PhotoTile> tiles = new ArrayList<>();
+
+    PhotoRowCell() {
+      row.setPadding(new Insets(0, 0, GAP, GAP));
+      setStyle("-fx-background-color: transparent; -fx-padding: 0;");
+      setText(null);
+    }
+
+    @Override
+    protected void updateItem(List<Photo> rowPhotos, boolean empty) {
+      super.updateItem(rowPhotos, empty);
+      if (empty || rowPhotos == null) {
+        tiles.forEach(PhotoTile::unbind);
+        setGraphic(null);
+        return;
+      }
+      while (tiles.size() < rowPhotos.size()) {
+        PhotoTile tile = new PhotoTile();
+        tiles.add(tile);
+        row.getChildren().add(tile.box);
+      }
+      for (int i = 0; i < tiles.size(); i++) {
+        if (i < rowPhotos.size()) {
+          tiles.get(i).bind(rowPhotos.get(i));
+        } else {
+          tiles.get(i).unbind();
+        }
+      }
+      setGraphic(row);
+    }
+  }
+
+  /** Плитка фото: зображення із заповнювачем, опис і кнопка видалення. */
+  private class PhotoTile {
+    private final ImageView imageView = new ImageView();
+    private final ProgressIndicator placeholder = new ProgressIndicator();
+    private final Label missingLabel = new Label("Файл не знайдено");
+    private final Label descLabel = new Label();
+    private final Button deleteButton = new Button("Видалити");
+    private final VBox box;
+    private Photo photo;
+
+    PhotoTile() {
+      placeholder.setMaxSize(40, 40);
+      placeholder
+          .visibleProperty()
+          .bind(imageView.imageProperty().isNull().and(missingLabel.visibleProperty().not()));
+      missingLabel.setStyle("-fx-text-fill: #c0c0c0;");
+      StackPane imagePane = new StackPane(placeholder, missingLabel, imageView);
+      imagePane.setPrefSize(tileSize, tileSize);
+      imagePane.setMinSize(tileSize, tileSize);
+      imagePane.setOnMouseClicked(click -> onOpen.accept(photo));
+
+      // Один рядок опису, щоб усі рядки сітки мали однакову висоту
+      descLabel.setStyle("-fx-text-fill: white;");
+      descLabel.setMaxWidth(140);
+      descLabel.setTextOverrun(OverrunStyle.ELLIPSIS);
+      descLabel.setAlignment(Pos.CENTER);
+
+      deleteButton.setStyle(UIConstants.BUTTON_STYLE_DANGER);
+      deleteButton.setOnAction(e -> onDelete.accept(photo));
+
+      box = new VBox(5, imagePane, descLabel, deleteButton);
+      box.setAlignment(Pos.CENTER);
+      box.setPadding(new Insets(5));
+      box.setStyle(UIConstants.PHOTO_BOX_STYLE);
+    }
+
+    void bind(Photo newPhoto) {
+      photo = newPhoto;
+      box.setVisible(true);
+      descLabel.setText(
+          photo.getDescription() != null && !photo.getDescription().isEmpty()
+              ? photo.getDescription()
+              : "Без опису");
+      deleteButton.setDisable(!canDelete);
+
+      // Оригінал декодується лише для фото, копії яких ще не створено; наявність файлів
+      // перевіряє фоновий потік завантажувача
+      missingLabel.setVisible(false);
+      imageLoader.load(
+          photo.getId(),
+          photo.getUpdatedAt(),
+          tileFiles(photo),
+          tileSize,
+          imageView,
+          () -> missingLabel.setVisible(true));
+    }
+
+    void unbind() {
+      photo = null;
+      imageLoader.cancel(imageView);
+      imageView.setImage(null);
+      box.setVisible(false);
+    }
+  }
+
+  private static List<File> tileFiles(Photo photo) {
+    List<File> files = new ArrayList<>(2);
+    for (String path : new String[] {photo.getThumbnailSmallPath(), photo.getFilePath()}) {
+      if (path != null) {
+        files.add(new File(path));
+      }
+    }
+    return files;
+  }
+}
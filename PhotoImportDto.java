@@ -0,0 +1,28 @@
+package com.trailtales.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Запит на масовий імпорт фотографій до подорожі. Джерелами можуть бути окремі файли та теки —
+ * з тек імпортуються всі зображення верхнього рівня.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoImportDto {
+
+  @NotNull(message = "ID подорожі не може бути порожнім")
+  private Long journeyId;
+
+  @NotEmpty(message = "Оберіть хоча б один файл або теку для імпорту")
+  private List<String> sourcePaths;
+
+  @Size(max = 500, message = "Опис фотографії не може перевищувати 500 символів")
+  private String description; // Спільний опис для всіх імпортованих фото
+}
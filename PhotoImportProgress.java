@@ -0,0 +1,25 @@
+package com.trailtales.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Поточний стан масового імпорту фотографій, який сервіс періодично повідомляє слухачеві. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoImportProgress {
+  private int totalFiles;
+  private int processedFiles; // Збережені та пропущені через помилку
+  private int failedFiles;
+  private long processedBytes;
+  private long elapsedMillis;
+
+  public double getPhotosPerSecond() {
+    return elapsedMillis > 0 ? processedFiles * 1000.0 / elapsedMillis : 0;
+  }
+
+  public double getMegabytesPerSecond() {
+    return elapsedMillis > 0 ? processedBytes / 1048.576 / elapsedMillis : 0;
+  }
+}
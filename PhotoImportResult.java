@@ -0,0 +1,23 @@
+package com.trailtales.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Підсумок масового імпорту фотографій. Після скасування {@code importedCount} містить фото, які
+ * вже встигли зберегтися.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoImportResult {
+  private int importedCount;
+  private int failedCount;
+  private boolean cancelled;
+  private long elapsedMillis;
+
+  /** Повідомлення про файли, які не вдалося імпортувати (перші кілька). */
+  private List<String> errors;
+}
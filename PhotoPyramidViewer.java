@@ -0,0 +1,313 @@
+package com.trailtales.ui;
+
+import com.trailtales.util.ImagePyramid;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Group;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Region;
+import javafx.scene.shape.Rectangle;
+
+/**
+ * Перегляд фото в повній роздільності з масштабуванням колесом миші та перетягуванням. Показуються
+ * лише плитки {@link ImagePyramid}, що перетинають видиму область, з рівня, роздільність якого
+ * найближча до поточного масштабу. Тож на екрані не більше кількох десятків плиток 256x256 за
+ * будь-якого розміру знімка, а решта декодується у фоні лише під час наближення до неї. Поки
+ * плитки завантажуються, під ними видно розтягнутий найвищий рівень піраміди.
+ *
+ * <p>Методи викликаються з потоку JavaFX; після закриття вікна слід викликати {@link #dispose()}.
+ */
+public class PhotoPyramidViewer {
+
+  /** Кількість потоків, що створюють і декодують плитки. */
+  private static final int LOADER_THREADS = 2;
+
+  /** Найбільше наближення: екранних пікселів на піксель оригіналу. */
+  private static final double MAX_ZOOM = 4;
+
+  /** Множник масштабу для кнопок і одного кроку колеса миші. */
+  private static final double ZOOM_STEP = 1.25;
+
+  private final ImagePyramid pyramid;
+  private final BorderPane root = new BorderPane();
+  private final Pane viewport = new Pane();
+  private final ImageView overview = new ImageView();
+  private final Group tileLayer = new Group();
+  private final Label zoomLabel = new Label();
+  private final Map<TileKey, Tile> tiles = new HashMap<>();
+  private final ExecutorService executor;
+
+  /** Масштаб: екранних пікселів на піксель оригіналу. */
+  private double zoom;
+
+  /** Точка оригіналу в центрі видимої області. */
+  private double centerX;
+
+  private double centerY;
+
+  /** Поки користувач не змінював масштаб, зміна розміру вікна знову вміщує все фото. */
+  private boolean fitted = true;
+
+  private double dragX;
+  private double dragY;
+
+  /**
+   * Створює перегляд.
+   *
+   * @param pyramid піраміда плиток фото.
+   */
+  public PhotoPyramidViewer(ImagePyramid pyramid) {
+    this.pyramid = pyramid;
+    AtomicInteger threadNumber = new AtomicInteger();
+    this.executor =
+        Executors.newFixedThreadPool(
+            LOADER_THREADS,
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "photo-tile-loader-" + threadNumber.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.centerX = pyramid.getWidth() / 2.0;
+    this.centerY = pyramid.getHeight() / 2.0;
+
+    Rectangle clip = new Rectangle();
+    clip.widthProperty().bind(viewport.widthProperty());
+    clip.heightProperty().bind(viewport.heightProperty());
+    viewport.setClip(clip);
+    viewport.setMinSize(0, 0);
+    viewport.setStyle("-fx-background-color: #202020;");
+    overview.setSmooth(true);
+    viewport.getChildren().addAll(overview, tileLayer);
+
+    viewport.widthProperty().addListener((obs, oldVal, newVal) -> onResize());
+    viewport.heightProperty().addListener((obs, oldVal, newVal) -> onResize());
+    viewport.setOnScroll(
+        e -> {
+          if (e.getDeltaY() != 0) {
+            zoomAt(e.getDeltaY() > 0 ? ZOOM_STEP : 1 / ZOOM_STEP, e.getX(), e.getY());
+          }
+        });
+    viewport.setOnMousePressed(
+        e -> {
+          dragX = e.getX();
+          dragY = e.getY();
+        });
+    viewport.setOnMouseDragged(
+        e -> {
+          centerX -= (e.getX() - dragX) / zoom;
+          centerY -= (e.getY() - dragY) / zoom;
+          dragX = e.getX();
+          dragY = e.getY();
+          update();
+        });
+
+    Button zoomOutBtn = new Button("−");
+    zoomOutBtn.setStyle(UIConstants.BUTTON_STYLE_SECONDARY);
+    zoomOutBtn.setOnAction(e -> zoomAtCenter(1 / ZOOM_STEP));
+    Button zoomInBtn = new Button("+");
+    zoomInBtn.setStyle(UIConstants.BUTTON_STYLE_SECONDARY);
+    zoomInBtn.setOnAction(e -> zoomAtCenter(ZOOM_STEP));
+    Button fitBtn = new Button("Вмістити");
+    fitBtn.setStyle(UIConstants.BUTTON_STYLE_SECONDARY);
+    fitBtn.setOnAction(
+        e -> {
+          fitted = true;
+          fit();
+        });
+    Button actualSizeBtn = new Button("100%");
+    actualSizeBtn.setStyle(UIConstants.BUTTON_STYLE_SECONDARY);
+    actualSizeBtn.setOnAction(e -> zoomAtCenter(1 / zoom));
+    zoomLabel.setStyle(UIConstants.LABEL_STYLE);
+    Label sizeLabel = new Label(pyramid.getWidth() + " x " + pyramid.getHeight());
+    sizeLabel.setStyle(UIConstants.LABEL_STYLE);
+
+    HBox toolbar = new HBox(10, zoomOutBtn, zoomInBtn, fitBtn, actualSizeBtn, zoomLabel, sizeLabel);
+    toolbar.setAlignment(Pos.CENTER_LEFT);
+    toolbar.setPadding(new Insets(10, 0, 0, 0));
+    root.setCenter(viewport);
+    root.setBottom(toolbar);
+
+    // Найвищий рівень — одна плитка на все фото — служить тлом для решти плиток
+    int topLevel = pyramid.getLevelCount() - 1;
+    submit(new TileKey(topLevel, 0, 0), overview);
+  }
+
+  public Region getView() {
+    return root;
+  }
+
+  /** Зупиняє завантаження плиток і звільняє їх зображення. */
+  public void dispose() {
+    executor.shutdownNow();
+    tiles.clear();
+    tileLayer.getChildren().clear();
+    overview.setImage(null);
+  }
+
+  private void onResize() {
+    if (fitted) {
+      fit();
+    } else {
+      update();
+    }
+  }
+
+  private void fit() {
+    zoom = fitZoom();
+    centerX = pyramid.getWidth() / 2.0;
+    centerY = pyramid.getHeight() / 2.0;
+    update();
+  }
+
+  /** Масштаб, за якого все фото вміщується у видиму область (але не більший за 100%). */
+  private double fitZoom() {
+    double fit =
+        Math.min(
+            viewport.getWidth() / pyramid.getWidth(), viewport.getHeight() / pyramid.getHeight());
+    return fit > 0 ? Math.min(1, fit) : 1;
+  }
+
+  private void zoomAtCenter(double factor) {
+    zoomAt(factor, viewport.getWidth() / 2, viewport.getHeight() / 2);
+  }
+
+  /** Змінює масштаб так, щоб точка фото під ({@code x}, {@code y}) залишилася на місці. */
+  private void zoomAt(double factor, double x, double y) {
+    if (zoom <= 0) {
+      return;
+    }
+    double newZoom = Math.max(fitZoom(), Math.min(MAX_ZOOM, zoom * factor));
+    double halfWidth = viewport.getWidth() / 2;
+    double halfHeight = viewport.getHeight() / 2;
+    double sourceX = centerX + (x - halfWidth) / zoom;
+    double sourceY = centerY + (y - halfHeight) / zoom;
+    zoom = newZoom;
+    centerX = sourceX - (x - halfWidth) / zoom;
+    centerY = sourceY - (y - halfHeight) / zoom;
+    fitted = false;
+    update();
+  }
+
+  /** Розміщує тло і видимі плитки, завантажує нові та прибирає ті, що вийшли з видимої області. */
+  private void update() {
+    double viewWidth = viewport.getWidth();
+    double viewHeight = viewport.getHeight();
+    if (viewWidth <= 0 || viewHeight <= 0 || zoom <= 0) {
+      return;
+    }
+    centerX = clampCenter(centerX, pyramid.getWidth(), viewWidth);
+    centerY = clampCenter(centerY, pyramid.getHeight(), viewHeight);
+    double left = centerX - viewWidth / 2 / zoom;
+    double top = centerY - viewHeight / 2 / zoom;
+    zoomLabel.setText(Math.round(zoom * 100) + "%");
+
+    overview.setX(-left * zoom);
+    overview.setY(-top * zoom);
+    overview.setFitWidth(pyramid.getWidth() * zoom);
+    overview.setFitHeight(pyramid.getHeight() * zoom);
+
+    // Рівень, плитки якого на екрані не менші за половину своєї роздільності
+    int level = 0;
+    while (level < pyramid.getLevelCount() - 1 && (1 << (level + 1)) <= 1 / zoom) {
+      level++;
+    }
+    int scale = 1 << level;
+    double span = (double) ImagePyramid.TILE_SIZE * scale;
+    int firstColumn = Math.max(0, (int) Math.floor(left / span));
+    int lastColumn =
+        Math.min(pyramid.columns(level) - 1, (int) Math.floor((left + viewWidth / zoom) / span));
+    int firstRow = Math.max(0, (int) Math.floor(top / span));
+    int lastRow =
+        Math.min(pyramid.rows(level) - 1, (int) Math.floor((top + viewHeight / zoom) / span));
+
+    Set<TileKey> visible = new HashSet<>();
+    for (int row = firstRow; row <= lastRow; row++) {
+      for (int column = firstColumn; column <= lastColumn; column++) {
+        TileKey key = new TileKey(level, column, row);
+        visible.add(key);
+        Tile tile = tiles.computeIfAbsent(key, this::createTile);
+        // Межі округлюються до цілих пікселів, щоб між сусідніми плитками не було щілин
+        double x0 = Math.floor((column * span - left) * zoom);
+        double y0 = Math.floor((row * span - top) * zoom);
+        double x1 = Math.ceil((Math.min((column + 1) * span, pyramid.getWidth()) - left) * zoom);
+        double y1 = Math.ceil((Math.min((row + 1) * span, pyramid.getHeight()) - top) * zoom);
+        tile.view().setX(x0);
+        tile.view().setY(y0);
+        tile.view().setFitWidth(x1 - x0);
+        tile.view().setFitHeight(y1 - y0);
+      }
+    }
+    Iterator<Map.Entry<TileKey, Tile>> iterator = tiles.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<TileKey, Tile> entry = iterator.next();
+      if (!visible.contains(entry.getKey())) {
+        entry.getValue().task().cancel(false);
+        tileLayer.getChildren().remove(entry.getValue().view());
+        iterator.remove();
+      }
+    }
+  }
+
+  /** Якщо фото вужче за видиму область, воно центрується, інакше край не відходить від межі. */
+  private double clampCenter(double center, int size, double viewSize) {
+    double half = viewSize / 2 / zoom;
+    if (size <= 2 * half) {
+      return size / 2.0;
+    }
+    return Math.max(half, Math.min(size - half, center));
+  }
+
+  private Tile createTile(TileKey key) {
+    ImageView view = new ImageView();
+    view.setSmooth(true);
+    tileLayer.getChildren().add(view);
+    return new Tile(view, submit(key, view));
+  }
+
+  /** Створює (або бере з дискового кешу) і декодує плитку у фоні. */
+  private Future<?> submit(TileKey key, ImageView target) {
+    return executor.submit(
+        () -> {
+          try {
+            Path file = pyramid.tile(key.level(), key.column(), key.row());
+            Image image = new Image(file.toUri().toString());
+            if (image.isError()) {
+              throw new IOException(String.valueOf(image.getException()));
+            }
+            // Плитка могла вийти з видимої області, поки завантажувалася
+            Platform.runLater(
+                () -> {
+                  Tile tile = tiles.get(key);
+                  if (target == overview || (tile != null && tile.view() == target)) {
+                    target.setImage(image);
+                  }
+                });
+          } catch (IOException | RuntimeException e) {
+            System.err.println("Не вдалося завантажити плитку фото: " + e.getMessage());
+          }
+        });
+  }
+
+  private record TileKey(int level, int column, int row) {}
+
+  private record Tile(ImageView view, Future<?> task) {}
+}
@@ -1,15 +1,20 @@
 package com.trailtales.repository;
 
 import com.trailtales.entity.Photo;
+import com.trailtales.util.GeoUtils;
+import com.trailtales.util.SqlUtils;
 import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
 import java.sql.Types; // Додано для setNull
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
@@ -19,6 +24,14 @@ import org.springframework.stereotype.Repository;
 @Repository
 public class PhotoRepository {
 
+  private static final String SELECT_PHOTOS =
+      "SELECT id, journey_id, user_id, file_path, content_hash, description,"
+          + " thumbnail_small_path, thumbnail_medium_path, taken_at, camera_make, camera_model,"
+          + " orientation, width, height, latitude, longitude, created_at, updated_at FROM photos ";
+
+  private static final String INSERT_PHOTO =
+      "INSERT INTO photos (journey_id, user_id, file_path, content_hash, description, thumbnail_small_path, thumbnail_medium_path, taken_at, camera_make, camera_model, orientation, width, height, latitude, longitude, metadata_extracted, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, TRUE, ?, ?)";
+
   private final JdbcTemplate jdbcTemplate;
 
   private final RowMapper<Photo> photoRowMapper =
@@ -35,7 +48,19 @@ public class PhotoRepository {
           photo.setUserId(null); // Явно встановлюємо null, якщо значення відсутнє
         }
         photo.setFilePath(rs.getString("file_path"));
+        photo.setContentHash(rs.getString("content_hash"));
         photo.setDescription(rs.getString("description"));
+        photo.setThumbnailSmallPath(rs.getString("thumbnail_small_path"));
+        photo.setThumbnailMediumPath(rs.getString("thumbnail_medium_path"));
+        Timestamp takenAt = rs.getTimestamp("taken_at");
+        photo.setTakenAt(takenAt != null ? takenAt.toLocalDateTime() : null);
+        photo.setCameraMake(rs.getString("camera_make"));
+        photo.setCameraModel(rs.getString("camera_model"));
+        photo.setOrientation(rs.getObject("orientation", Integer.class));
+        photo.setWidth(rs.getObject("width", Integer.class));
+        photo.setHeight(rs.getObject("height", Integer.class));
+        photo.setLatitude(rs.getObject("latitude", Double.class));
+        photo.setLongitude(rs.getObject("longitude", Double.class));
         photo.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
         photo.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
         return photo;
@@ -46,8 +71,7 @@ public class PhotoRepository {
   }
 
   public Optional<Photo> findById(Long id) {
-    String sql =
-        "SELECT id, journey_id, user_id, file_path, description, created_at, updated_at FROM photos WHERE id = ?";
+    String sql = SELECT_PHOTOS + "WHERE id = ?";
     try {
       return Optional.ofNullable(jdbcTemplate.queryForObject(sql, photoRowMapper, id));
     } catch (EmptyResultDataAccessException e) {
@@ -56,34 +80,133 @@ public class PhotoRepository {
   }
 
   public List<Photo> findByJourneyId(Long journeyId) {
+    String sql = SELECT_PHOTOS + "WHERE journey_id = ?";
+    return jdbcTemplate.query(sql, photoRowMapper, journeyId);
+  }
+
+  /**
+   * Повертає наступну порцію фотографій без зменшених копій, упорядковану за ID. Курсор за ID
+   * дозволяє пропускати фото, копії яких створити не вдалося, не зациклюючись на них.
+   *
+   * @param afterId ID, після якого почати (0 — з початку).
+   * @param limit розмір порції.
+   * @return фотографії без зменшених копій.
+   */
+  public List<Photo> findMissingThumbnails(long afterId, int limit) {
+    String sql =
+        SELECT_PHOTOS + "WHERE thumbnail_small_path IS NULL AND id > ? ORDER BY id LIMIT ?";
+    return jdbcTemplate.query(sql, photoRowMapper, afterId, limit);
+  }
+
+  /**
+   * Повертає фото подорожі в хронологічному порядку зйомки; фото без часу зйомки йдуть в кінці.
+   *
+   * @param journeyId ID подорожі.
+   * @param descending {@code true} — спочатку найновіші.
+   * @return фото подорожі.
+   */
+  public List<Photo> findByJourneyIdOrderByTakenAt(Long journeyId, boolean descending) {
     String sql =
-        "SELECT id, journey_id, user_id, file_path, description, created_at, updated_at FROM photos WHERE journey_id = ?";
+        SELECT_PHOTOS
+            + "WHERE journey_id = ? ORDER BY taken_at "
+            + (descending ? "DESC NULLS LAST, id DESC" : "ASC NULLS LAST, id");
     return jdbcTemplate.query(sql, photoRowMapper, journeyId);
   }
 
+  /**
+   * Повертає фото подорожі, зняті в заданому проміжку часу, у хронологічному порядку.
+   *
+   * @param journeyId ID подорожі.
+   * @param from початок проміжку (включно).
+   * @param to кінець проміжку (не включно).
+   * @return фото, зняті в проміжку.
+   */
+  public List<Photo> findByJourneyIdTakenBetween(
+      Long journeyId, LocalDateTime from, LocalDateTime to) {
+    String sql =
+        SELECT_PHOTOS
+            + "WHERE journey_id = ? AND taken_at >= ? AND taken_at < ? ORDER BY taken_at, id";
+    return jdbcTemplate.query(
+        sql, photoRowMapper, journeyId, Timestamp.valueOf(from), Timestamp.valueOf(to));
+  }
+
+  /**
+   * Повертає фото подорожі з координатами зйомки в межах прямокутника карти, у хронологічному
+   * порядку.
+   *
+   * @param journeyId ID подорожі.
+   * @param bounds прямокутник карти.
+   * @return фото, зняті в межах прямокутника.
+   */
+  public List<Photo> findByJourneyIdWithinBounds(Long journeyId, GeoUtils.BoundingBox bounds) {
+    List<Object> params = new ArrayList<>();
+    params.add(journeyId);
+    String sql =
+        SELECT_PHOTOS
+            + "WHERE journey_id = ? AND latitude IS NOT NULL AND longitude IS NOT NULL AND "
+            + SqlUtils.pointInBoxCondition(bounds, params)
+            + " ORDER BY taken_at NULLS LAST, id";
+    return jdbcTemplate.query(sql, photoRowMapper, params.toArray());
+  }
+
+  /**
+   * Повертає наступну порцію фотографій, метадані яких ще не читалися, упорядковану за ID.
+   *
+   * @param afterId ID, після якого почати (0 — з початку).
+   * @param limit розмір порції.
+   * @return фотографії без прочитаних метаданих.
+   */
+  public List<Photo> findMissingMetadata(long afterId, int limit) {
+    String sql = SELECT_PHOTOS + "WHERE NOT metadata_extracted AND id > ? ORDER BY id LIMIT ?";
+    return jdbcTemplate.query(sql, photoRowMapper, afterId, limit);
+  }
+
+  /**
+   * Записує метадані EXIF фотографії і позначає, що файл прочитано.
+   *
+   * @param photo фотографія із заповненими полями метаданих.
+   */
+  public void updateMetadata(Photo photo) {
+    jdbcTemplate.update(
+        "UPDATE photos SET taken_at = ?, camera_make = ?, camera_model = ?, orientation = ?, width = ?, height = ?, latitude = ?, longitude = ?, metadata_extracted = TRUE WHERE id = ?",
+        photo.getTakenAt() != null ? Timestamp.valueOf(photo.getTakenAt()) : null,
+        photo.getCameraMake(),
+        photo.getCameraModel(),
+        photo.getOrientation(),
+        photo.getWidth(),
+        photo.getHeight(),
+        photo.getLatitude(),
+        photo.getLongitude(),
+        photo.getId());
+  }
+
+  /**
+   * Записує шляхи до зменшених копій фотографії, не змінюючи {@code updated_at}.
+   *
+   * @param id ID фотографії.
+   * @param smallPath шлях до малої копії.
+   * @param mediumPath шлях до середньої копії.
+   */
+  public void updateThumbnails(Long id, String smallPath, String mediumPath) {
+    jdbcTemplate.update(
+        "UPDATE photos SET thumbnail_small_path = ?, thumbnail_medium_path = ? WHERE id = ?",
+        smallPath,
+        mediumPath,
+        id);
+  }
+
   public Photo save(Photo photo) {
     KeyHolder keyHolder = new GeneratedKeyHolder();
     String sql;
 
     if (photo.getId() == null) {
       // ВИПРАВЛЕНО: Додано user_id до списку стовпців і значень
-      sql =
-          "INSERT INTO photos (journey_id, user_id, file_path, description, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
+      Timestamp now = Timestamp.valueOf(LocalDateTime.now());
       jdbcTemplate.update(
           connection -> {
             PreparedStatement ps =
-                connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            ps.setLong(1, photo.getJourneyId());
-            // Встановлюємо user_id, якщо він не null
-            if (photo.getUserId() != null) {
-              ps.setLong(2, photo.getUserId());
-            } else {
-              ps.setNull(2, Types.BIGINT); // Встановлюємо NULL, якщо user_id відсутній
-            }
-            ps.setString(3, photo.getFilePath());
-            ps.setString(4, photo.getDescription());
-            ps.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
-            ps.setTimestamp(6, Timestamp.valueOf(LocalDateTime.now()));
+                connection.prepareStatement(INSERT_PHOTO, Statement.RETURN_GENERATED_KEYS);
+            setInsertParameters(ps, photo, now);
             return ps;
           },
           keyHolder);
@@ -98,19 +221,96 @@ public class PhotoRepository {
     } else {
       // ВИПРАВЛЕНО: Додано user_id до UPDATE операції
       sql =
-          "UPDATE photos SET journey_id = ?, user_id = ?, file_path = ?, description = ?, updated_at = ? WHERE id = ?";
+          "UPDATE photos SET journey_id = ?, user_id = ?, file_path = ?, content_hash = ?, description = ?, thumbnail_small_path = ?, thumbnail_medium_path = ?, taken_at = ?, camera_make = ?, camera_model = ?, orientation = ?, width = ?, height = ?, latitude = ?, longitude = ?, updated_at = ? WHERE id = ?";
       jdbcTemplate.update(
           sql,
           photo.getJourneyId(),
           photo.getUserId(), // Передаємо user_id
           photo.getFilePath(),
+          photo.getContentHash(),
           photo.getDescription(),
+          photo.getThumbnailSmallPath(),
+          photo.getThumbnailMediumPath(),
+          photo.getTakenAt() != null ? Timestamp.valueOf(photo.getTakenAt()) : null,
+          photo.getCameraMake(),
+          photo.getCameraModel(),
+          photo.getOrientation(),
+          photo.getWidth(),
+          photo.getHeight(),
+          photo.getLatitude(),
+          photo.getLongitude(),
           Timestamp.valueOf(LocalDateTime.now()),
           photo.getId());
     }
     return photo;
   }
 
+  /**
+   * Вставляє нові фотографії одним пакетом JDBC і записує згенеровані ID у передані об'єкти.
+   *
+   * @param photos фотографії без ID.
+   */
+  public void insertAll(List<Photo> photos) {
+    if (photos.isEmpty()) {
+      return;
+    }
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    KeyHolder keyHolder = new GeneratedKeyHolder();
+    jdbcTemplate.batchUpdate(
+        connection -> connection.prepareStatement(INSERT_PHOTO, new String[] {"id"}),
+        new BatchPreparedStatementSetter() {
+          @Override
+          public void setValues(PreparedStatement ps, int i) throws SQLException {
+            setInsertParameters(ps, photos.get(i), now);
+          }
+
+          @Override
+          public int getBatchSize() {
+            return photos.size();
+          }
+        },
+        keyHolder);
+
+    List<Map<String, Object>> keys = keyHolder.getKeyList();
+    if (keys.size() != photos.size()) {
+      throw new IllegalStateException(
+          "Не вдалося отримати згенеровані ID після пакетної вставки фотографій.");
+    }
+    for (int i = 0; i < photos.size(); i++) {
+      Photo photo = photos.get(i);
+      photo.setId(((Number) keys.get(i).get("id")).longValue());
+      photo.setCreatedAt(now.toLocalDateTime());
+      photo.setUpdatedAt(now.toLocalDateTime());
+    }
+  }
+
+  /** Заповнює параметри {@link #INSERT_PHOTO}; нове фото вважається вже прочитаним. */
+  private static void setInsertParameters(PreparedStatement ps, Photo photo, Timestamp now)
+      throws SQLException {
+    ps.setLong(1, photo.getJourneyId());
+    // Встановлюємо user_id, якщо він не null
+    if (photo.getUserId() != null) {
+      ps.setLong(2, photo.getUserId());
+    } else {
+      ps.setNull(2, Types.BIGINT); // Встановлюємо NULL, якщо user_id відсутній
+    }
+    ps.setString(3, photo.getFilePath());
+    ps.setString(4, photo.getContentHash());
+    ps.setString(5, photo.getDescription());
+    ps.setString(6, photo.getThumbnailSmallPath());
+    ps.setString(7, photo.getThumbnailMediumPath());
+    ps.setTimestamp(8, photo.getTakenAt() != null ? Timestamp.valueOf(photo.getTakenAt()) : null);
+    ps.setString(9, photo.getCameraMake());
+    ps.setString(10, photo.getCameraModel());
+    ps.setObject(11, photo.getOrientation(), Types.SMALLINT);
+    ps.setObject(12, photo.getWidth(), Types.INTEGER);
+    ps.setObject(13, photo.getHeight(), Types.INTEGER);
+    ps.setObject(14, photo.getLatitude(), Types.DOUBLE);
+    ps.setObject(15, photo.getLongitude(), Types.DOUBLE);
+    ps.setTimestamp(16, now);
+    ps.setTimestamp(17, now);
+  }
+
   public void deleteById(Long id) {
     jdbcTemplate.update("DELETE FROM photos WHERE id = ?", id);
   }
@@ -1,20 +1,32 @@
 package com.trailtales.service;
 
+import com.trailtales.dto.PhotoImportDto;
+import com.trailtales.dto.PhotoImportProgress;
+import com.trailtales.dto.PhotoImportResult;
 import com.trailtales.dto.PhotoUploadDto;
+import com.trailtales.dto.PhotoUploadSessionDto;
 import com.trailtales.entity.Photo;
+import com.trailtales.entity.UploadSession;
 import com.trailtales.entity.User;
+import com.trailtales.util.ImagePyramid;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
 /**
  * Сервіс для управління фотографіями, пов'язаними з подорожами. Надає функціонал для завантаження,
- * отримання, оновлення та видалення фотографій.
+ * отримання, оновлення та видалення фотографій. Разом з оригіналом зберігаються мала та середня
+ * зменшені копії, тож галерея не декодує повнорозмірні знімки.
  */
 public interface PhotoService {
 
   /**
-   * Завантажує нову фотографію та пов'язує її з подорожжю. Передбачає збереження файлу фотографії у
-   * визначене сховище.
+   * Завантажує нову фотографію та пов'язує її з подорожжю. Файл зберігається у сховищі за хешем
+   * вмісту, тож той самий знімок, завантажений повторно, не займає додаткового місця. Разом з ним
+   * зберігаються мала та середня зменшені копії; якщо формат не підтримується для створення копій,
+   * фото зберігається без них. Метадані EXIF зчитуються з файлу під час завантаження.
    *
    * @param uploadDto об'єкт {@link PhotoUploadDto}, що містить дані для завантаження фото,
    *     включаючи ID подорожі та шлях до файлу.
@@ -28,6 +40,92 @@ public interface PhotoService {
    */
   Photo uploadPhoto(PhotoUploadDto uploadDto, User currentUser);
 
+  /**
+   * Імпортує до подорожі багато фотографій одразу: обрані файли та зображення з обраних тек.
+   * Права перевіряються один раз, файли копіюються, хешуються та зменшуються паралельно
+   * обмеженим пулом потоків, а рядки фото вставляються порціями в окремих транзакціях. Файли, які
+   * не вдалося прочитати, пропускаються і потрапляють до помилок у підсумку. Метод блокує
+   * викликаючий потік до завершення, тож з інтерфейсу його слід викликати у фоновому потоці.
+   *
+   * @param importDto подорож, джерела імпорту та спільний опис фото.
+   * @param currentUser поточний автентифікований користувач, який імпортує фото.
+   * @param progressListener отримує стан імпорту (не частіше ніж кілька разів на секунду) у потоці
+   *     виклику; може бути {@code null}.
+   * @param cancelled повертає {@code true}, коли імпорт слід зупинити. Уже збережені порції
+   *     залишаються, решта файлів не імпортується.
+   * @return підсумок імпорту.
+   * @throws IllegalArgumentException якщо дані в DTO недійсні, подорож не знайдена або теку не
+   *     вдалося прочитати.
+   * @throws SecurityException якщо поточний користувач не є власником подорожі.
+   */
+  PhotoImportResult importPhotos(
+      PhotoImportDto importDto,
+      User currentUser,
+      Consumer<PhotoImportProgress> progressListener,
+      BooleanSupplier cancelled);
+
+  /**
+   * Починає поступове завантаження великого файлу. Файл передається частинами через {@link
+   * #writeUploadChunk}, а фотографія з'являється лише після {@link #commitUpload}. Стан сесії
+   * зберігається в базі даних, тож перервану передачу можна продовжити з останньої підтвердженої
+   * частини, зокрема після перезапуску застосунку.
+   *
+   * @param sessionDto подорож, ім'я та розмір файлу, опис.
+   * @param currentUser поточний користувач; подорож має належати йому.
+   * @return нова сесія без отриманих байтів.
+   * @throws IllegalArgumentException якщо дані не пройшли валідацію або подорож не знайдено.
+   * @throws SecurityException якщо подорож належить іншому користувачу.
+   */
+  UploadSession beginUpload(PhotoUploadSessionDto sessionDto, User currentUser);
+
+  /**
+   * Повертає сесію завантаження користувача, щоб продовжити передачу з {@link
+   * UploadSession#getReceivedBytes()}.
+   *
+   * @param sessionId ID сесії.
+   * @param currentUser поточний користувач.
+   * @return {@link Optional} із сесією або порожній, якщо сесії немає чи вона чужа.
+   */
+  Optional<UploadSession> getUploadSession(Long sessionId, User currentUser);
+
+  /**
+   * Записує чергову частину файлу. Частина приймається лише від кінця вже підтверджених байтів і
+   * з правильною SHA-256; повтор уже підтвердженої частини нічого не змінює. Запис виконується
+   * без транзакції, а межа підтверджених байтів зберігається після того, як частину записано.
+   *
+   * @param sessionId ID сесії.
+   * @param offset зміщення частини від початку файлу.
+   * @param data вміст частини.
+   * @param checksum SHA-256 частини у шістнадцятковому вигляді.
+   * @param currentUser поточний користувач.
+   * @return сесія з оновленою кількістю отриманих байтів.
+   * @throws IllegalArgumentException якщо частина завелика, виходить за межі файлу або
+   *     контрольна сума не збігається.
+   * @throws IllegalStateException якщо частина не продовжує підтверджені байти.
+   */
+  UploadSession writeUploadChunk(
+      Long sessionId, long offset, byte[] data, String checksum, User currentUser);
+
+  /**
+   * Завершує сесію: зберігає отриманий файл у сховищі та створює фотографію. Хеш, метадані й
+   * зменшені копії рахуються до транзакції, яка лише реєструє вміст, вставляє фото і видаляє
+   * сесію.
+   *
+   * @param sessionId ID сесії.
+   * @param currentUser поточний користувач.
+   * @return збережена фотографія.
+   * @throws IllegalStateException якщо отримано ще не всі байти файлу.
+   */
+  Photo commitUpload(Long sessionId, User currentUser);
+
+  /**
+   * Скасовує сесію і видаляє отримані частини файлу.
+   *
+   * @param sessionId ID сесії.
+   * @param currentUser поточний користувач.
+   */
+  void cancelUpload(Long sessionId, User currentUser);
+
   /**
    * Знаходить фотографію за її унікальним ідентифікатором.
    *
@@ -36,6 +134,16 @@ public interface PhotoService {
    */
   Optional<Photo> getPhotoById(Long id);
 
+  /**
+   * Відкриває піраміду плиток фото для перегляду в повній роздільності. Плитки створюються під час
+   * першого перегляду і кешуються на диску.
+   *
+   * @param photo фотографія.
+   * @return {@link Optional} з пірамідою або порожній {@link Optional}, якщо файл відсутній чи його
+   *     формат не підтримується.
+   */
+  Optional<ImagePyramid> getImagePyramid(Photo photo);
+
   /**
    * Повертає список усіх фотографій, пов'язаних з певною подорожжю.
    *
@@ -44,6 +152,46 @@ public interface PhotoService {
    */
   List<Photo> getPhotosByJourneyId(Long journeyId);
 
+  /**
+   * Повертає фотографії подорожі в порядку зйомки (за часом EXIF); фото без часу зйомки — в кінці.
+   *
+   * @param journeyId ID подорожі.
+   * @param descending {@code true} — спочатку найновіші.
+   * @return список {@link Photo}, упорядкований за часом зйомки.
+   */
+  List<Photo> getPhotosByJourneyIdOrderedByTakenAt(Long journeyId, boolean descending);
+
+  /**
+   * Повертає фотографії подорожі, зняті у період [from, to].
+   *
+   * @param journeyId ID подорожі.
+   * @param from перший день періоду (включно).
+   * @param to останній день періоду (включно).
+   * @return список {@link Photo}, упорядкований за часом зйомки.
+   * @throws IllegalArgumentException якщо межі не задані або from пізніше за to.
+   */
+  List<Photo> getPhotosByJourneyIdTakenWithin(Long journeyId, LocalDate from, LocalDate to);
+
+  /**
+   * Повертає фотографії подорожі, координати зйомки яких лежать у прямокутнику карти. Якщо {@code
+   * minLongitude > maxLongitude}, прямокутник вважається таким, що перетинає антимеридіан.
+   *
+   * @param journeyId ID подорожі.
+   * @param minLatitude південна межа.
+   * @param minLongitude західна межа.
+   * @param maxLatitude північна межа.
+   * @param maxLongitude східна межа.
+   * @return список {@link Photo}, упорядкований за часом зйомки.
+   * @throws IllegalArgumentException якщо координати поза межами або південна межа більша за
+   *     північну.
+   */
+  List<Photo> getPhotosByJourneyIdInBoundingBox(
+      Long journeyId,
+      double minLatitude,
+      double minLongitude,
+      double maxLatitude,
+      double maxLongitude);
+
   /**
    * Оновлює опис існуючої фотографії.
    *
@@ -68,4 +216,42 @@ public interface PhotoService {
    * @throws SecurityException якщо поточний користувач не має дозволу видаляти цю фотографію.
    */
   void deletePhoto(Long id, User currentUser);
+
+  /**
+   * Створює зменшені копії для фотографій, завантажених без них (до появи копій або коли їх не
+   * вдалося створити). Фото, для яких копії створити не вдалося, пропускаються.
+   *
+   * @return кількість фотографій, для яких створено копії.
+   */
+  int backfillThumbnails();
+
+  /**
+   * Читає метадані EXIF (час зйомки, камера, орієнтація, розміри, координати) для фотографій,
+   * збережених до появи цих полів. Фото, файлу яких немає, пропускаються.
+   *
+   * @return кількість фотографій, для яких прочитано метадані.
+   */
+  int backfillMetadata();
+
+  /**
+   * Видаляє збережений вміст, на який більше не посилається жодна фотографія (після видалення фото
+   * чи подорожі), разом з його зменшеними копіями.
+   *
+   * @return кількість видалених файлів.
+   */
+  int collectUnusedContent();
+
+  /**
+   * Видаляє сесії, в які тривалий час нічого не записувалося, разом з їх файлами.
+   *
+   * @return кількість видалених сесій.
+   */
+  int purgeAbandonedUploads();
+
+  /**
+   * Запускає у фоновому потоці {@link #backfillMetadata()} і періодичні {@link
+   * #backfillThumbnails()}, {@link #collectUnusedContent()} та {@link #purgeAbandonedUploads()}.
+   * Повторні виклики нічого не роблять.
+   */
+  void startBackgroundMaintenance();
 }
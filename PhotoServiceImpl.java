@@ -1,116 +1,461 @@
 package com.trailtales.service.impl;
 
+import com.trailtales.dto.PhotoImportDto;
+import com.trailtales.dto.PhotoImportProgress;
+import com.trailtales.dto.PhotoImportResult;
 import com.trailtales.dto.PhotoUploadDto;
+import com.trailtales.dto.PhotoUploadSessionDto;
 import com.trailtales.entity.Journey;
 import com.trailtales.entity.Photo;
+import com.trailtales.entity.PhotoBlob;
+import com.trailtales.entity.UploadSession;
 import com.trailtales.entity.User;
 import com.trailtales.repository.JourneyRepository;
+import com.trailtales.repository.PhotoBlobRepository;
 import com.trailtales.repository.PhotoRepository;
+import com.trailtales.repository.UploadSessionRepository;
 import com.trailtales.service.PhotoService;
+import com.trailtales.util.ExifReader;
+import com.trailtales.util.GeoUtils;
+import com.trailtales.util.ImagePyramid;
+import com.trailtales.util.PhotoStorage;
+import com.trailtales.util.ThumbnailGenerator;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class PhotoServiceImpl implements PhotoService {
 
+  /** Кількість фотографій, що завантажуються з бази за один крок заповнення копій. */
+  private static final int BACKFILL_BATCH_SIZE = 50;
+
+  /** Кількість записів вмісту, що прибираються однією транзакцією. */
+  private static final int COLLECT_BATCH_SIZE = 100;
+
+  /** Інтервал фонового прибирання вмісту, на який більше немає посилань. */
+  private static final long COLLECT_INTERVAL_MS = 10 * 60_000;
+
+  /** Кількість фото, що зберігаються в базі однією транзакцією та одним пакетом INSERT. */
+  private static final int IMPORT_BATCH_SIZE = 100;
+
+  /** Кількість потоків, що паралельно копіюють, хешують і зменшують файли під час імпорту. */
+  private static final int IMPORT_THREADS =
+      Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+  /**
+   * Скільки файлів на потік може одночасно очікувати збереження. Обмежує кількість проміжних копій
+   * і дозволяє швидко зупинити імпорт після скасування.
+   */
+  private static final int IMPORT_FILES_PER_THREAD = 4;
+
+  /** Мінімальний інтервал між повідомленнями про перебіг імпорту. */
+  private static final long IMPORT_PROGRESS_INTERVAL_MS = 200;
+
+  /** Скільки повідомлень про помилки окремих файлів повертається в підсумку імпорту. */
+  private static final int MAX_IMPORT_ERRORS = 20;
+
+  /** Найбільша частина поступового завантаження, що приймається одним викликом. */
+  private static final int MAX_UPLOAD_CHUNK_SIZE = 16 * 1024 * 1024;
+
+  /** Сесія завантаження без нових частин протягом цього часу вважається покинутою. */
+  private static final Duration UPLOAD_SESSION_TIMEOUT = Duration.ofDays(7);
+
+  /** Кількість моніторів, між якими розподіляються сесії завантаження. */
+  private static final int UPLOAD_LOCK_STRIPES = 64;
+
+  /** Кількість покинутих сесій, що вибираються одним запитом. */
+  private static final int UPLOAD_PURGE_BATCH_SIZE = 100;
+
+  /** Розширення файлів, які імпортуються з обраних тек. */
+  private static final Set<String> IMPORTABLE_EXTENSIONS =
+      Set.of("png", "jpg", "jpeg", "gif", "bmp");
+
   private final PhotoRepository photoRepository;
   private final JourneyRepository journeyRepository;
-  private final String uploadDir;
+  private final PhotoBlobRepository photoBlobRepository;
+  private final UploadSessionRepository uploadSessionRepository;
+  private final PhotoStorage photoStorage;
+  private final TransactionTemplate transactionTemplate;
   private final Validator validator;
 
+  /**
+   * Монітори файлів сесій завантаження. Сесії розподіляються між ними за ID, тож набір не росте з
+   * кількістю сесій, а сесії з різними моніторами пишуться паралельно.
+   */
+  private final Object[] uploadLocks = new Object[UPLOAD_LOCK_STRIPES];
+
+  private boolean maintenanceStarted;
+
   @Autowired
   public PhotoServiceImpl(
       PhotoRepository photoRepository,
       JourneyRepository journeyRepository,
-      @Value("${trailtales.upload.dir}") String uploadDir,
+      PhotoBlobRepository photoBlobRepository,
+      UploadSessionRepository uploadSessionRepository,
+      PhotoStorage photoStorage,
+      PlatformTransactionManager transactionManager,
       Validator validator) {
     this.photoRepository = photoRepository;
     this.journeyRepository = journeyRepository;
-    this.uploadDir = uploadDir;
+    this.photoBlobRepository = photoBlobRepository;
+    this.uploadSessionRepository = uploadSessionRepository;
+    this.photoStorage = photoStorage;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
     this.validator = validator;
+    Arrays.setAll(uploadLocks, i -> new Object());
+  }
+
+  @Override
+  public Photo uploadPhoto(PhotoUploadDto uploadDto, User currentUser) {
+    Set<ConstraintViolation<PhotoUploadDto>> violations = validator.validate(uploadDto);
+    if (!violations.isEmpty()) {
+      String errors =
+          violations.stream()
+              .map(ConstraintViolation::getMessage)
+              .collect(Collectors.joining("; "));
+      throw new IllegalArgumentException("Помилки валідації при завантаженні фото: " + errors);
+    }
+    requireOwnJourney(uploadDto.getJourneyId(), currentUser);
+
+    // Копіювання, метадані та зменшені копії — до транзакції, щоб не тримати з'єднання під час
+    // роботи з файлами
+    PhotoStorage.StagedFile staged;
     try {
-      Files.createDirectories(Paths.get(this.uploadDir));
+      staged = photoStorage.stage(Paths.get(uploadDto.getSourceFilePath()));
     } catch (IOException e) {
-      throw new RuntimeException(
-          "Не вдалося створити директорію для завантажень: " + this.uploadDir, e);
+      throw new RuntimeException("Не вдалося скопіювати файл фотографії: " + e.getMessage(), e);
     }
+    ExifReader.Metadata metadata = readMetadata(staged.path());
+    prepareThumbnails(staged, uploadDto.getSourceFilePath());
+
+    return inPublishingTransaction(
+        published -> {
+          Path storedPath = storeContent(staged, published);
+          Photo photo =
+              newPhoto(
+                  uploadDto.getJourneyId(),
+                  currentUser,
+                  storedPath,
+                  staged.contentHash(),
+                  uploadDto.getDescription(),
+                  metadata);
+          photo.setCreatedAt(LocalDateTime.now());
+          photo.setUpdatedAt(LocalDateTime.now());
+          return photoRepository.save(photo);
+        });
   }
 
   @Override
   @Transactional
-  public Photo uploadPhoto(PhotoUploadDto uploadDto, User currentUser) {
-    Set<ConstraintViolation<PhotoUploadDto>> violations = validator.validate(uploadDto);
+  public UploadSession beginUpload(PhotoUploadSessionDto sessionDto, User currentUser) {
+    Set<ConstraintViolation<PhotoUploadSessionDto>> violations = validator.validate(sessionDto);
     if (!violations.isEmpty()) {
       String errors =
           violations.stream()
               .map(ConstraintViolation::getMessage)
               .collect(Collectors.joining("; "));
-      throw new IllegalArgumentException("Помилки валідації при завантаженні фото: " + errors);
+      throw new IllegalArgumentException(
+          "Помилки валідації при створенні сесії завантаження: " + errors);
     }
+    requireOwnJourney(sessionDto.getJourneyId(), currentUser);
 
-    Journey journey =
-        journeyRepository
-            .findById(uploadDto.getJourneyId())
-            .orElseThrow(
-                () ->
-                    new IllegalArgumentException( // Можна використовувати JourneyNotFoundException
-                        "Подорож з ID " + uploadDto.getJourneyId() + " не знайдено."));
+    // Клієнт може передати ім'я разом зі шляхом; потрібне лише саме ім'я
+    String fileName = sessionDto.getFileName();
+    int separatorIndex = Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf('\\'));
+    fileName = fileName.substring(separatorIndex + 1);
 
-    if (!journey.getUserId().equals(currentUser.getId())) {
-      throw new SecurityException(
-          "Ви не маєте дозволу на завантаження фотографій до цієї подорожі.");
+    UploadSession session = new UploadSession();
+    session.setUserId(currentUser.getId());
+    session.setJourneyId(sessionDto.getJourneyId());
+    session.setFileName(fileName);
+    session.setDescription(sessionDto.getDescription());
+    session.setTotalSize(sessionDto.getTotalSize());
+    // Файл створюється першою частиною
+    session.setTempPath(photoStorage.newUploadSessionPath().toString());
+    return uploadSessionRepository.save(session);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public Optional<UploadSession> getUploadSession(Long sessionId, User currentUser) {
+    return uploadSessionRepository
+        .findById(sessionId)
+        .filter(session -> session.getUserId().equals(currentUser.getId()));
+  }
+
+  @Override
+  public UploadSession writeUploadChunk(
+      Long sessionId, long offset, byte[] data, String checksum, User currentUser) {
+    UploadSession session = requireOwnSession(sessionId, currentUser);
+    if (data.length > MAX_UPLOAD_CHUNK_SIZE) {
+      throw new IllegalArgumentException(
+          "Частина завантаження не може перевищувати " + MAX_UPLOAD_CHUNK_SIZE + " байтів.");
+    }
+    long end = offset + data.length;
+    if (offset < 0 || end > session.getTotalSize()) {
+      throw new IllegalArgumentException(
+          "Частина ["
+              + offset
+              + ", "
+              + end
+              + ") виходить за межі файлу розміром "
+              + session.getTotalSize()
+              + " байтів.");
+    }
+    if (checksum == null || !PhotoStorage.sha256Hex(data).equalsIgnoreCase(checksum)) {
+      throw new IllegalArgumentException(
+          "Контрольна сума частини від байта " + offset + " не збігається; надішліть її повторно.");
     }
 
-    Path sourcePath = Paths.get(uploadDto.getSourceFilePath());
-    String originalFileName = sourcePath.getFileName().toString();
-    String fileName = originalFileName;
-    Path destinationPath = Paths.get(uploadDir, fileName);
-    int count = 0;
-
-    while (Files.exists(destinationPath)) {
-      count++;
-      String baseName = "";
-      String extension = "";
-      int dotIndex = originalFileName.lastIndexOf('.');
-      if (dotIndex > 0 && dotIndex < originalFileName.length() - 1) {
-        baseName = originalFileName.substring(0, dotIndex);
-        extension = "." + originalFileName.substring(dotIndex + 1);
-      } else {
-        baseName = originalFileName;
+    // Частини однієї сесії пишуться по черзі: запис обрізає файл від свого зміщення, тож
+    // паралельна спроба з тим самим зміщенням інакше затерла б уже записані байти ще до того, як
+    // перевірка межі в базі відхилить її. Межа перечитується вже під монітором.
+    synchronized (uploadLock(sessionId)) {
+      session = requireOwnSession(sessionId, currentUser);
+      if (end <= session.getReceivedBytes()) {
+        // Повтор уже підтвердженої частини: відповідь на попередню спробу могла загубитися
+        return session;
+      }
+      if (offset != session.getReceivedBytes()) {
+        throw new IllegalStateException(
+            "Очікується частина від байта "
+                + session.getReceivedBytes()
+                + ", отримано від "
+                + offset
+                + ".");
+      }
+
+      // Запис на диск відбувається поза транзакцією; межа в базі пересувається лише після нього,
+      // тож після збою завантаження продовжується з останньої підтвердженої частини
+      try {
+        photoStorage.writeChunk(Paths.get(session.getTempPath()), offset, data);
+      } catch (IOException e) {
+        throw new RuntimeException("Не вдалося записати частину файлу: " + e.getMessage(), e);
       }
-      fileName = baseName + "_" + count + extension;
-      destinationPath = Paths.get(uploadDir, fileName);
+      if (!uploadSessionRepository.advanceReceivedBytes(sessionId, offset, end)) {
+        throw new IllegalStateException(
+            "Сесію завантаження змінив інший запис; продовжіть з її актуального стану.");
+      }
+      session.setReceivedBytes(end);
+      return session;
     }
+  }
 
+  @Override
+  public Photo commitUpload(Long sessionId, User currentUser) {
+    UploadSession session = requireOwnSession(sessionId, currentUser);
+    if (!session.isComplete()) {
+      throw new IllegalStateException(
+          "Отримано "
+              + session.getReceivedBytes()
+              + " з "
+              + session.getTotalSize()
+              + " байтів файлу; завантаження ще не завершено.");
+    }
+    // Хеш, метадані та зменшені копії великого файлу рахуються до транзакції
+    PhotoStorage.StagedFile staged;
     try {
-      Files.copy(sourcePath, destinationPath, StandardCopyOption.REPLACE_EXISTING);
+      staged =
+          photoStorage.adoptUpload(
+              Paths.get(session.getTempPath()), session.getTotalSize(), session.getFileName());
     } catch (IOException e) {
-      throw new RuntimeException("Не вдалося скопіювати файл фотографії: " + e.getMessage(), e);
+      throw new RuntimeException("Не вдалося прочитати завантажений файл: " + e.getMessage(), e);
     }
+    ExifReader.Metadata metadata = readMetadata(staged.path());
+    prepareThumbnails(staged, session.getFileName());
 
-    Photo photo = new Photo();
-    photo.setJourneyId(uploadDto.getJourneyId());
-    photo.setUserId(currentUser.getId());
-    photo.setFilePath(destinationPath.toString());
-    photo.setDescription(uploadDto.getDescription());
-    photo.setCreatedAt(LocalDateTime.now());
-    photo.setUpdatedAt(LocalDateTime.now());
+    return transactionTemplate.execute(
+        status -> {
+          // Повторне завершення тієї самої сесії вже не знайде її рядка
+          if (!uploadSessionRepository.deleteById(sessionId)) {
+            throw new IllegalStateException("Сесію завантаження вже завершено або скасовано.");
+          }
+          String storedPath =
+              photoBlobRepository.register(
+                  staged.contentHash(),
+                  photoStorage.objectPath(staged).toString(),
+                  staged.sizeBytes());
+          Photo photo =
+              newPhoto(
+                  session.getJourneyId(),
+                  currentUser,
+                  Paths.get(storedPath),
+                  staged.contentHash(),
+                  session.getDescription(),
+                  metadata);
+          photo = photoRepository.save(photo);
+          // Файл переноситься останнім: якщо це не вдасться, транзакція відкотиться, а файл
+          // сесії залишиться на місці для повторного завершення
+          try {
+            photoStorage.publish(staged, Paths.get(storedPath));
+          } catch (IOException e) {
+            throw new RuntimeException(
+                "Не вдалося зберегти файл фотографії: " + e.getMessage(), e);
+          }
+          return photo;
+        });
+  }
 
-    return photoRepository.save(photo);
+  @Override
+  public void cancelUpload(Long sessionId, User currentUser) {
+    UploadSession session = requireOwnSession(sessionId, currentUser);
+    deleteUploadSession(session);
+  }
+
+  @Override
+  public int purgeAbandonedUploads() {
+    LocalDateTime inactiveSince = LocalDateTime.now().minus(UPLOAD_SESSION_TIMEOUT);
+    int purged = 0;
+    List<UploadSession> sessions;
+    do {
+      sessions = uploadSessionRepository.findInactiveSince(inactiveSince, UPLOAD_PURGE_BATCH_SIZE);
+      for (UploadSession session : sessions) {
+        deleteUploadSession(session);
+        purged++;
+      }
+    } while (sessions.size() == UPLOAD_PURGE_BATCH_SIZE);
+    if (purged > 0) {
+      System.out.println("Видалено покинутих сесій завантаження: " + purged);
+    }
+    return purged;
+  }
+
+  @Override
+  public PhotoImportResult importPhotos(
+      PhotoImportDto importDto,
+      User currentUser,
+      Consumer<PhotoImportProgress> progressListener,
+      BooleanSupplier cancelled) {
+    Set<ConstraintViolation<PhotoImportDto>> violations = validator.validate(importDto);
+    if (!violations.isEmpty()) {
+      String errors =
+          violations.stream()
+              .map(ConstraintViolation::getMessage)
+              .collect(Collectors.joining("; "));
+      throw new IllegalArgumentException("Помилки валідації при імпорті фото: " + errors);
+    }
+
+    requireOwnJourney(importDto.getJourneyId(), currentUser);
+
+    List<Path> sources = collectImportFiles(importDto.getSourcePaths());
+    long startedAt = System.currentTimeMillis();
+    long lastReportAt = 0;
+    int submitted = 0;
+    int processed = 0;
+    int imported = 0;
+    int failed = 0;
+    long processedBytes = 0;
+    List<String> errors = new ArrayList<>();
+    List<ImportedFile> pending = new ArrayList<>();
+    Set<String> thumbnailHashes = ConcurrentHashMap.newKeySet();
+
+    ExecutorService workers =
+        Executors.newFixedThreadPool(
+            IMPORT_THREADS,
+            runnable -> {
+              Thread thread = new Thread(runnable, "photo-import");
+              thread.setDaemon(true);
+              return thread;
+            });
+    CompletionService<ImportedFile> completion = new ExecutorCompletionService<>(workers);
+    try {
+      int maxInFlight = IMPORT_THREADS * IMPORT_FILES_PER_THREAD;
+      while (true) {
+        while (!cancelled.getAsBoolean()
+            && submitted < sources.size()
+            && submitted - processed < maxInFlight) {
+          Path source = sources.get(submitted++);
+          completion.submit(() -> prepareImportFile(source, thumbnailHashes));
+        }
+        if (processed == submitted) {
+          break; // Усі файли оброблено або імпорт скасовано і черга порожня
+        }
+
+        ImportedFile file = takeImportedFile(completion);
+        processed++;
+        if (file.error() != null) {
+          failed++;
+          addImportError(errors, file.source() + ": " + file.error());
+        } else {
+          processedBytes += file.staged().sizeBytes();
+          pending.add(file);
+        }
+
+        if (pending.size() >= IMPORT_BATCH_SIZE && !cancelled.getAsBoolean()) {
+          int saved = saveImportBatch(pending, importDto, currentUser, errors);
+          imported += saved;
+          failed += pending.size() - saved;
+          pending.clear();
+        }
+
+        long now = System.currentTimeMillis();
+        if (progressListener != null && now - lastReportAt >= IMPORT_PROGRESS_INTERVAL_MS) {
+          lastReportAt = now;
+          progressListener.accept(
+              new PhotoImportProgress(
+                  sources.size(), processed, failed, processedBytes, now - startedAt));
+        }
+      }
+
+      if (!cancelled.getAsBoolean() && !pending.isEmpty()) {
+        int saved = saveImportBatch(pending, importDto, currentUser, errors);
+        imported += saved;
+        failed += pending.size() - saved;
+        pending.clear();
+      }
+    } finally {
+      workers.shutdownNow();
+      pending.forEach(file -> photoStorage.discard(file.staged()));
+    }
+
+    long elapsed = System.currentTimeMillis() - startedAt;
+    if (progressListener != null) {
+      progressListener.accept(
+          new PhotoImportProgress(sources.size(), processed, failed, processedBytes, elapsed));
+    }
+    boolean wasCancelled = cancelled.getAsBoolean() && processed < sources.size();
+    System.out.println(
+        "Імпортовано фотографій: "
+            + imported
+            + " з "
+            + sources.size()
+            + " (помилок: "
+            + failed
+            + (wasCancelled ? ", скасовано" : "")
+            + ") за "
+            + elapsed
+            + " мс.");
+    return new PhotoImportResult(imported, failed, wasCancelled, elapsed, errors);
   }
 
   @Override
@@ -119,12 +464,66 @@ public class PhotoServiceImpl implements PhotoService {
     return photoRepository.findById(id);
   }
 
+  @Override
+  public Optional<ImagePyramid> getImagePyramid(Photo photo) {
+    Path original = Paths.get(photo.getFilePath());
+    if (!Files.isRegularFile(original)) {
+      System.err.println("Файл фото не знайдено: " + photo.getFilePath());
+      return Optional.empty();
+    }
+    try {
+      return Optional.ofNullable(
+          ImagePyramid.open(original, photoStorage.tilePyramidDir(storageStem(photo))));
+    } catch (IOException e) {
+      System.err.println("Не вдалося відкрити фото " + original + ": " + e.getMessage());
+      return Optional.empty();
+    }
+  }
+
   @Override
   @Transactional(readOnly = true)
   public List<Photo> getPhotosByJourneyId(Long journeyId) {
     return photoRepository.findByJourneyId(journeyId);
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public List<Photo> getPhotosByJourneyIdOrderedByTakenAt(Long journeyId, boolean descending) {
+    return photoRepository.findByJourneyIdOrderByTakenAt(journeyId, descending);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<Photo> getPhotosByJourneyIdTakenWithin(
+      Long journeyId, LocalDate from, LocalDate to) {
+    if (from == null || to == null) {
+      throw new IllegalArgumentException("Початкова та кінцева дати періоду обов'язкові.");
+    }
+    if (from.isAfter(to)) {
+      throw new IllegalArgumentException(
+          "Початкова дата періоду не може бути пізніше за кінцеву.");
+    }
+    return photoRepository.findByJourneyIdTakenBetween(
+        journeyId, from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<Photo> getPhotosByJourneyIdInBoundingBox(
+      Long journeyId,
+      double minLatitude,
+      double minLongitude,
+      double maxLatitude,
+      double maxLongitude) {
+    GeoUtils.requireValidPoint(minLatitude, minLongitude);
+    GeoUtils.requireValidPoint(maxLatitude, maxLongitude);
+    if (minLatitude > maxLatitude) {
+      throw new IllegalArgumentException("Південна межа не може бути північніше за північну.");
+    }
+    return photoRepository.findByJourneyIdWithinBounds(
+        journeyId, new GeoUtils.BoundingBox(minLatitude, minLongitude, maxLatitude, maxLongitude));
+  }
+
   @Override
   @Transactional
   public Photo updatePhotoDescription(Long photoId, String newDescription, User currentUser) {
@@ -186,16 +585,482 @@ public class PhotoServiceImpl implements PhotoService {
       throw new SecurityException("Ви не маєте дозволу на видалення цієї фотографії.");
     }
 
+    photoRepository.deleteById(id);
+    // Вміст з хешем може бути спільним з іншими фото; його прибирає collectUnusedContent(), коли
+    // посилань не залишиться
+    if (photoToDelete.getContentHash() == null) {
+      deleteFileQuietly(photoToDelete.getFilePath());
+      deleteFileQuietly(photoToDelete.getThumbnailSmallPath());
+      deleteFileQuietly(photoToDelete.getThumbnailMediumPath());
+      photoStorage.deleteTilePyramid(storageStem(photoToDelete));
+    }
+  }
+
+  @Override
+  public int backfillThumbnails() {
+    long startedAt = System.currentTimeMillis();
+    int created = 0;
+    long afterId = 0;
+    List<Photo> batch;
+    do {
+      batch = photoRepository.findMissingThumbnails(afterId, BACKFILL_BATCH_SIZE);
+      for (Photo photo : batch) {
+        afterId = photo.getId();
+        if (createThumbnails(photo)) {
+          photoRepository.updateThumbnails(
+              photo.getId(), photo.getThumbnailSmallPath(), photo.getThumbnailMediumPath());
+          created++;
+        }
+      }
+    } while (batch.size() == BACKFILL_BATCH_SIZE);
+    if (created > 0) {
+      System.out.println(
+          "Зменшені копії створено для "
+              + created
+              + " фотографій за "
+              + (System.currentTimeMillis() - startedAt)
+              + " мс.");
+    }
+    return created;
+  }
+
+  @Override
+  public int backfillMetadata() {
+    long startedAt = System.currentTimeMillis();
+    int extracted = 0;
+    long afterId = 0;
+    List<Photo> batch;
+    do {
+      batch = photoRepository.findMissingMetadata(afterId, BACKFILL_BATCH_SIZE);
+      for (Photo photo : batch) {
+        afterId = photo.getId();
+        Path file = Paths.get(photo.getFilePath());
+        if (!Files.isRegularFile(file)) {
+          System.err.println("Файл фото не знайдено: " + photo.getFilePath());
+          continue;
+        }
+        applyMetadata(photo, readMetadata(file));
+        photoRepository.updateMetadata(photo);
+        extracted++;
+      }
+    } while (batch.size() == BACKFILL_BATCH_SIZE);
+    if (extracted > 0) {
+      System.out.println(
+          "Метадані EXIF прочитано для "
+              + extracted
+              + " фотографій за "
+              + (System.currentTimeMillis() - startedAt)
+              + " мс.");
+    }
+    return extracted;
+  }
+
+  @Override
+  public int collectUnusedContent() {
+    int collected = 0;
+    int batchSize;
+    do {
+      batchSize = transactionTemplate.execute(status -> collectUnusedBatch());
+      collected += batchSize;
+    } while (batchSize == COLLECT_BATCH_SIZE);
+    if (collected > 0) {
+      System.out.println("Видалено невикористаних файлів фотографій: " + collected + ".");
+    }
+    return collected;
+  }
+
+  /**
+   * Видаляє файли та рядки вмісту без посилань. Рядки заблоковані до кінця транзакції, тож
+   * паралельне завантаження того самого вмісту чекає на неї і потім збереже файл заново.
+   */
+  private int collectUnusedBatch() {
+    List<PhotoBlob> blobs = photoBlobRepository.lockUnreferenced(COLLECT_BATCH_SIZE);
+    List<String> removed = new ArrayList<>();
+    for (PhotoBlob blob : blobs) {
+      String stem = PhotoStorage.shardedStem(blob.getContentHash());
+      if (photoStorage.deleteQuietly(Paths.get(blob.getFilePath()))) {
+        photoStorage.deleteQuietly(
+            photoStorage.thumbnailPath(stem, ThumbnailGenerator.SMALL_MAX_SIZE));
+        photoStorage.deleteQuietly(
+            photoStorage.thumbnailPath(stem, ThumbnailGenerator.MEDIUM_MAX_SIZE));
+        photoStorage.deleteTilePyramid(stem);
+        removed.add(blob.getContentHash());
+      }
+    }
+    photoBlobRepository.deleteByHashes(removed);
+    return removed.size();
+  }
+
+  @Override
+  public synchronized void startBackgroundMaintenance() {
+    if (maintenanceStarted) {
+      return;
+    }
+    maintenanceStarted = true;
+    Thread worker = new Thread(this::runMaintenance, "photo-maintenance");
+    worker.setDaemon(true);
+    worker.start();
+  }
+
+  private void runMaintenance() {
     try {
-      Files.deleteIfExists(Paths.get(photoToDelete.getFilePath()));
-    } catch (IOException e) {
+      backfillMetadata();
+    } catch (RuntimeException e) {
+      System.err.println("Помилка читання метаданих фото: " + e.getMessage());
+    }
+    while (true) {
+      // Повторюється, щоб фото, копії якого не вдалося створити під час збереження, не лишилося
+      // без них назавжди
+      try {
+        backfillThumbnails();
+      } catch (RuntimeException e) {
+        System.err.println("Помилка створення зменшених копій фото: " + e.getMessage());
+      }
+      try {
+        collectUnusedContent();
+      } catch (RuntimeException e) {
+        System.err.println("Помилка прибирання файлів фотографій: " + e.getMessage());
+      }
+      try {
+        purgeAbandonedUploads();
+      } catch (RuntimeException e) {
+        System.err.println("Помилка прибирання сесій завантаження: " + e.getMessage());
+      }
+      try {
+        Thread.sleep(COLLECT_INTERVAL_MS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Розгортає обрані джерела імпорту у список файлів: теки замінюються зображеннями, що лежать у
+   * них безпосередньо, дублікати шляхів відкидаються.
+   */
+  private List<Path> collectImportFiles(List<String> sourcePaths) {
+    Set<Path> files = new LinkedHashSet<>();
+    for (String sourcePath : sourcePaths) {
+      Path source = Paths.get(sourcePath).toAbsolutePath().normalize();
+      if (Files.isDirectory(source)) {
+        try (Stream<Path> entries = Files.list(source)) {
+          entries
+              .filter(Files::isRegularFile)
+              .filter(PhotoServiceImpl::isImportable)
+              .sorted()
+              .forEach(files::add);
+        } catch (IOException e) {
+          throw new IllegalArgumentException(
+              "Не вдалося прочитати теку " + source + ": " + e.getMessage(), e);
+        }
+      } else {
+        files.add(source);
+      }
+    }
+    return new ArrayList<>(files);
+  }
+
+  private static boolean isImportable(Path file) {
+    String name = file.getFileName().toString();
+    int dot = name.lastIndexOf('.');
+    return dot > 0
+        && IMPORTABLE_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+  }
+
+  /**
+   * Виконується у потоці імпорту: копіює та хешує файл, читає його метадані і створює зменшені
+   * копії для його вмісту.
+   * Копії кожного вмісту створює лише перший потік, що його отримав, тож дублікати у виборі не
+   * пишуть той самий файл одночасно. Помилки повертаються в результаті, а не кидаються.
+   */
+  private ImportedFile prepareImportFile(Path source, Set<String> thumbnailHashes) {
+    PhotoStorage.StagedFile staged;
+    try {
+      staged = photoStorage.stage(source);
+    } catch (IOException | RuntimeException e) {
+      return new ImportedFile(source, null, null, e.getMessage());
+    }
+    ExifReader.Metadata metadata = readMetadata(staged.path());
+    if (thumbnailHashes.add(staged.contentHash())) {
+      prepareThumbnails(staged, source);
+    }
+    return new ImportedFile(source, staged, metadata, null);
+  }
+
+  /**
+   * Створює зменшені копії скопійованого файлу за його хешем, якщо їх ще немає. Помилка лише
+   * повідомляється: фото без копій підхопить періодичний {@link #backfillThumbnails()}.
+   *
+   * @param staged скопійований файл.
+   * @param source джерело для повідомлень.
+   */
+  private void prepareThumbnails(PhotoStorage.StagedFile staged, Object source) {
+    String stem = PhotoStorage.shardedStem(staged.contentHash());
+    Path small = photoStorage.thumbnailPath(stem, ThumbnailGenerator.SMALL_MAX_SIZE);
+    Path medium = photoStorage.thumbnailPath(stem, ThumbnailGenerator.MEDIUM_MAX_SIZE);
+    if (Files.isRegularFile(small) && Files.isRegularFile(medium)) {
+      return;
+    }
+    try {
+      if (!ThumbnailGenerator.generate(staged.path(), small, medium)) {
+        System.err.println("Формат фото не підтримується для зменшених копій: " + source);
+      }
+    } catch (IOException | RuntimeException e) {
       System.err.println(
-          "Помилка при видаленні файлу фотографії: "
-              + photoToDelete.getFilePath()
-              + " - "
-              + e.getMessage());
+          "Не вдалося створити зменшені копії фото " + source + ": " + e.getMessage());
     }
+  }
 
-    photoRepository.deleteById(id);
+  private ImportedFile takeImportedFile(CompletionService<ImportedFile> completion) {
+    try {
+      return completion.take().get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Імпорт фотографій перервано.", e);
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Помилка імпорту фотографій: " + e.getCause().getMessage(), e);
+    }
   }
+
+  /**
+   * Зберігає порцію підготовлених файлів однією транзакцією: реєструє вміст, переносить файли на
+   * постійне місце і вставляє рядки фото одним пакетом. Якщо транзакція не вдалася, фото порції
+   * вважаються неімпортованими, а їх проміжні та вперше перенесені файли видаляються.
+   *
+   * @return кількість збережених фото.
+   */
+  private int saveImportBatch(
+      List<ImportedFile> files, PhotoImportDto importDto, User currentUser, List<String> errors) {
+    try {
+      return inPublishingTransaction(
+          published -> {
+            List<Photo> photos = new ArrayList<>(files.size());
+            for (ImportedFile file : files) {
+              Path storedPath = storeContent(file.staged(), published);
+              photos.add(
+                  newPhoto(
+                      importDto.getJourneyId(),
+                      currentUser,
+                      storedPath,
+                      file.staged().contentHash(),
+                      importDto.getDescription(),
+                      file.metadata()));
+            }
+            photoRepository.insertAll(photos);
+            return photos.size();
+          });
+    } catch (RuntimeException e) {
+      System.err.println("Не вдалося зберегти порцію імпортованих фото: " + e.getMessage());
+      addImportError(errors, "Порцію з " + files.size() + " фото не збережено: " + e.getMessage());
+      files.forEach(file -> photoStorage.discard(file.staged()));
+      return 0;
+    }
+  }
+
+  private static void addImportError(List<String> errors, String message) {
+    if (errors.size() < MAX_IMPORT_ERRORS) {
+      errors.add(message);
+    }
+  }
+
+  /**
+   * Створює фото для збереженого вмісту. Зменшені копії, готові за хешем вмісту, підключаються
+   * одразу. Метод викликається всередині транзакції, тож копії тут не генеруються: якщо їх немає
+   * (не вдалося створити заздалегідь або їх прибрали разом з невикористаним вмістом до
+   * реєстрації), фото підхопить періодичний {@link #backfillThumbnails()}.
+   */
+  private Photo newPhoto(
+      Long journeyId,
+      User currentUser,
+      Path storedPath,
+      String contentHash,
+      String description,
+      ExifReader.Metadata metadata) {
+    Photo photo = new Photo();
+    photo.setJourneyId(journeyId);
+    photo.setUserId(currentUser.getId());
+    photo.setFilePath(storedPath.toString());
+    photo.setContentHash(contentHash);
+    photo.setDescription(description);
+    applyMetadata(photo, metadata);
+    String stem = PhotoStorage.shardedStem(contentHash);
+    Path small = photoStorage.thumbnailPath(stem, ThumbnailGenerator.SMALL_MAX_SIZE);
+    Path medium = photoStorage.thumbnailPath(stem, ThumbnailGenerator.MEDIUM_MAX_SIZE);
+    if (Files.isRegularFile(small) && Files.isRegularFile(medium)) {
+      photo.setThumbnailSmallPath(small.toString());
+      photo.setThumbnailMediumPath(medium.toString());
+    }
+    return photo;
+  }
+
+  /**
+   * Перевіряє, що подорож існує і належить користувачу.
+   *
+   * @throws IllegalArgumentException якщо подорож не знайдено.
+   * @throws SecurityException якщо подорож належить іншому користувачу.
+   */
+  private void requireOwnJourney(Long journeyId, User currentUser) {
+    Long ownerId =
+        journeyRepository
+            .findOwnerId(journeyId)
+            .orElseThrow(
+                () -> new IllegalArgumentException("Подорож з ID " + journeyId + " не знайдено."));
+    if (!ownerId.equals(currentUser.getId())) {
+      throw new SecurityException(
+          "Ви не маєте дозволу на завантаження фотографій до цієї подорожі.");
+    }
+  }
+
+  private UploadSession requireOwnSession(Long sessionId, User currentUser) {
+    UploadSession session =
+        uploadSessionRepository
+            .findById(sessionId)
+            .orElseThrow(
+                () ->
+                    new IllegalArgumentException(
+                        "Сесію завантаження з ID " + sessionId + " не знайдено."));
+    if (!session.getUserId().equals(currentUser.getId())) {
+      throw new SecurityException("Ви не маєте доступу до цієї сесії завантаження.");
+    }
+    return session;
+  }
+
+  /** Видаляє спершу файл сесії, а потім її рядок, тож файлів без сесії не залишається. */
+  private void deleteUploadSession(UploadSession session) {
+    synchronized (uploadLock(session.getId())) {
+      if (photoStorage.deleteQuietly(Paths.get(session.getTempPath()))) {
+        uploadSessionRepository.deleteById(session.getId());
+      }
+    }
+  }
+
+  /** Монітор, що впорядковує роботу з файлом сесії завантаження. */
+  private Object uploadLock(Long sessionId) {
+    return uploadLocks[Math.floorMod(sessionId.hashCode(), uploadLocks.length)];
+  }
+
+  /**
+   * Реєструє вміст і переносить скопійований файл на постійне місце, якщо такого вмісту ще немає.
+   * Реєстрація блокує рядок вмісту до кінця транзакції завантаження, тож збирання невикористаного
+   * вмісту не видалить файл між перевіркою і появою посилання на нього.
+   *
+   * @param published сюди додається шлях, якщо файл перенесено саме зараз.
+   */
+  private Path storeContent(PhotoStorage.StagedFile staged, List<Path> published) {
+    try {
+      Path storedPath =
+          Paths.get(
+              photoBlobRepository.register(
+                  staged.contentHash(),
+                  photoStorage.objectPath(staged).toString(),
+                  staged.sizeBytes()));
+      if (photoStorage.publish(staged, storedPath)) {
+        published.add(storedPath);
+      }
+      return storedPath;
+    } catch (IOException | RuntimeException e) {
+      photoStorage.discard(staged);
+      throw new RuntimeException("Не вдалося зберегти файл фотографії: " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Виконує збереження фото в транзакції. Якщо воно не вдалося, файли, вперше перенесені в сховище
+   * цією транзакцією, видаляються ще до відкату: рядки їхнього вмісту поки заблоковані, тож
+   * паралельне завантаження того самого вмісту не встигне на них покластися, а без рядків ці
+   * файли не прибрало б і збирання невикористаного вмісту.
+   *
+   * @param work збереження; отримує список для шляхів перенесених файлів.
+   * @return результат збереження.
+   */
+  private <T> T inPublishingTransaction(Function<List<Path>, T> work) {
+    return transactionTemplate.execute(
+        status -> {
+          List<Path> published = new ArrayList<>();
+          try {
+            return work.apply(published);
+          } catch (RuntimeException e) {
+            published.forEach(photoStorage::deleteQuietly);
+            throw e;
+          }
+        });
+  }
+
+  /**
+   * Створює малу та середню копії оригіналу фотографії і записує їх шляхи у фото.
+   *
+   * @return {@code false}, якщо оригінал відсутній, його формат не підтримується або копії не
+   *     вдалося записати.
+   */
+  private boolean createThumbnails(Photo photo) {
+    Path original = Paths.get(photo.getFilePath());
+    if (!Files.isRegularFile(original)) {
+      System.err.println("Файл фото не знайдено: " + photo.getFilePath());
+      return false;
+    }
+    String fileName = original.getFileName().toString();
+    String stem = storageStem(photo);
+    Path small = photoStorage.thumbnailPath(stem, ThumbnailGenerator.SMALL_MAX_SIZE);
+    Path medium = photoStorage.thumbnailPath(stem, ThumbnailGenerator.MEDIUM_MAX_SIZE);
+    try {
+      // Копії спільного вмісту вже могли бути створені для іншого фото
+      boolean reused = Files.isRegularFile(small) && Files.isRegularFile(medium);
+      if (!reused && !ThumbnailGenerator.generate(original, small, medium)) {
+        System.err.println("Формат фото не підтримується для зменшених копій: " + fileName);
+        return false;
+      }
+    } catch (IOException | RuntimeException e) {
+      System.err.println(
+          "Не вдалося створити зменшені копії фото " + fileName + ": " + e.getMessage());
+      return false;
+    }
+    photo.setThumbnailSmallPath(small.toString());
+    photo.setThumbnailMediumPath(medium.toString());
+    return true;
+  }
+
+  /**
+   * Основа імені похідних файлів фото (зменшених копій і плиток): розбитий хеш вмісту або ім'я
+   * файлу для фото, збережених до появи сховища за вмістом.
+   */
+  private static String storageStem(Photo photo) {
+    return photo.getContentHash() != null
+        ? PhotoStorage.shardedStem(photo.getContentHash())
+        : Paths.get(photo.getFilePath()).getFileName().toString();
+  }
+
+  /** Читає метадані файлу; помилка читання не заважає збереженню фото без них. */
+  private static ExifReader.Metadata readMetadata(Path file) {
+    try {
+      return ExifReader.read(file);
+    } catch (IOException | RuntimeException e) {
+      System.err.println("Не вдалося прочитати метадані фото " + file + ": " + e.getMessage());
+      return ExifReader.Metadata.EMPTY;
+    }
+  }
+
+  private static void applyMetadata(Photo photo, ExifReader.Metadata metadata) {
+    photo.setTakenAt(metadata.takenAt());
+    photo.setCameraMake(metadata.cameraMake());
+    photo.setCameraModel(metadata.cameraModel());
+    photo.setOrientation(metadata.orientation());
+    photo.setWidth(metadata.width());
+    photo.setHeight(metadata.height());
+    photo.setLatitude(metadata.latitude());
+    photo.setLongitude(metadata.longitude());
+  }
+
+  private void deleteFileQuietly(String filePath) {
+    if (filePath != null) {
+      photoStorage.deleteQuietly(Paths.get(filePath));
+    }
+  }
+
+  /**
+   * Файл, підготовлений потоком імпорту: скопійований і захешований ({@code staged}) разом з
+   * метаданими або з описом помилки ({@code error}).
+   */
+  private record ImportedFile(
+      Path source, PhotoStorage.StagedFile staged, ExifReader.Metadata metadata, String error) {}
 }
@@ -0,0 +1,442 @@
+package com.trailtales.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Файлове сховище фотографій, адресоване вмістом. Файл потрапляє у тимчасовий каталог з
+ * одночасним підрахунком SHA-256, а потім атомарно переміщується за шляхом, що залежить лише від
+ * хешу: {@code objects/ab/cd/<хеш>.<розширення>}. Дворівневе розбиття тримає каталоги малими, а
+ * однаковий вміст потрапляє за той самий шлях і зберігається один раз. Зменшені копії лежать
+ * поруч у {@code thumbnails/} з тим самим розбиттям.
+ *
+ * <p>Джерело на тому самому томі, якщо дозволено, не копіюється, а отримує жорстке посилання:
+ * тоді файл лише читається для хешу, і імпорт обмежується операціями з метаданими. З іншого тому
+ * дані за один прохід читаються у буфер поза купою, з якого оновлюється хеш і пишеться копія.
+ *
+ * <p>Облік посилань на вміст веде база даних (таблиця {@code photo_blobs}); сховище лише
+ * працює з файлами. Файли без посилань звірка спершу переносить у {@code quarantine/}. Плитки
+ * перегляду в повній роздільності кешуються в {@code tiles/} і можуть бути створені заново.
+ * Незавершені поступові завантаження накопичуються в {@code sessions/}.
+ */
+public class PhotoStorage {
+
+  private static final int COPY_BUFFER_SIZE = 1024 * 1024;
+
+  private final Path rootDir;
+  private final Path objectsDir;
+  private final Path thumbnailsDir;
+  private final Path stagingDir;
+  private final Path quarantineDir;
+  private final Path tilesDir;
+  private final Path sessionsDir;
+  private final boolean hardLinks;
+  private final boolean fsync;
+
+  /**
+   * Створює сховище в каталозі завантажень.
+   *
+   * @param uploadDir кореневий каталог завантажень.
+   * @param hardLinks чи створювати жорсткі посилання на джерела з того самого тому замість копій.
+   *     Посилання ділить дані з джерелом, тож зміна джерела на місці змінить і збережене фото.
+   * @param fsync чи скидати дані та записи каталогів на диск перед завершенням збереження.
+   */
+  public PhotoStorage(String uploadDir, boolean hardLinks, boolean fsync) {
+    this.hardLinks = hardLinks;
+    this.fsync = fsync;
+    this.rootDir = Paths.get(uploadDir);
+    this.objectsDir = rootDir.resolve("objects");
+    this.thumbnailsDir = rootDir.resolve("thumbnails");
+    this.stagingDir = rootDir.resolve("staging");
+    this.quarantineDir = rootDir.resolve("quarantine");
+    this.tilesDir = rootDir.resolve("tiles");
+    this.sessionsDir = rootDir.resolve("sessions");
+    try {
+      Files.createDirectories(objectsDir);
+      Files.createDirectories(thumbnailsDir);
+      Files.createDirectories(stagingDir);
+      Files.createDirectories(quarantineDir);
+      Files.createDirectories(tilesDir);
+      Files.createDirectories(sessionsDir);
+    } catch (IOException e) {
+      throw new RuntimeException("Не вдалося створити директорію для завантажень: " + uploadDir, e);
+    }
+  }
+
+  /**
+   * Переносить файл у тимчасовий каталог сховища (посиланням або копією), рахуючи хеш за той самий
+   * прохід.
+   *
+   * @param source файл-джерело.
+   * @return тимчасовий файл з хешем і розміром.
+   * @throws IOException якщо файл не вдалося прочитати або записати.
+   */
+  public StagedFile stage(Path source) throws IOException {
+    Path temp = stagingDir.resolve("upload-" + UUID.randomUUID() + ".tmp");
+    MessageDigest digest = sha256();
+    long size;
+    try {
+      size = hardLinks && tryLink(source, temp) ? hash(temp, digest) : copy(source, temp, digest);
+    } catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(temp);
+      throw e;
+    }
+    return new StagedFile(
+        temp,
+        HexFormat.of().formatHex(digest.digest()),
+        size,
+        extensionOf(source.getFileName().toString()));
+  }
+
+  /**
+   * Повертає новий шлях для файлу сесії поступового завантаження.
+   *
+   * @return шлях у каталозі {@code sessions}; файл ще не створено.
+   */
+  public Path newUploadSessionPath() {
+    return sessionsDir.resolve("upload-" + UUID.randomUUID() + ".part");
+  }
+
+  /**
+   * Записує частину файлу сесії. Усе, що лежить за {@code offset}, спершу відкидається: після збою
+   * там може залишитися недописана частина, яку ще не було підтверджено.
+   *
+   * @param file файл сесії.
+   * @param offset зміщення частини від початку файлу.
+   * @param data вміст частини.
+   * @throws IOException якщо частину не вдалося записати.
+   */
+  public void writeChunk(Path file, long offset, byte[] data) throws IOException {
+    try (FileChannel out =
+        FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+      if (out.size() < offset) {
+        throw new IOException(
+            "Файл сесії коротший (" + out.size() + " байтів) за зміщення частини " + offset);
+      }
+      out.truncate(offset);
+      ByteBuffer buffer = ByteBuffer.wrap(data);
+      long position = offset;
+      while (buffer.hasRemaining()) {
+        position += out.write(buffer, position);
+      }
+      if (fsync) {
+        out.force(true);
+      }
+    }
+  }
+
+  /**
+   * Готує до збереження повністю отриманий файл сесії: обрізає його до очікуваного розміру і
+   * рахує хеш. Далі файл зберігається так само, як скопійований {@link #stage(Path)}.
+   *
+   * @param file файл сесії.
+   * @param size очікуваний розмір файлу.
+   * @param fileName ім'я вихідного файлу (для розширення).
+   * @return файл з хешем і розміром.
+   * @throws IOException якщо файл не вдалося прочитати або він коротший за очікуваний.
+   */
+  public StagedFile adoptUpload(Path file, long size, String fileName) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      if (channel.size() < size) {
+        throw new IOException("Файл сесії коротший за очікуваний розмір " + size + " байтів");
+      }
+      channel.truncate(size);
+    }
+    MessageDigest digest = sha256();
+    long hashed = hash(file, digest);
+    return new StagedFile(
+        file, HexFormat.of().formatHex(digest.digest()), hashed, extensionOf(fileName));
+  }
+
+  /**
+   * Створює жорстке посилання на джерело.
+   *
+   * @return {@code false}, якщо джерело на іншому томі або файлова система не підтримує посилань.
+   */
+  private static boolean tryLink(Path source, Path target) {
+    try {
+      Files.createLink(target, source);
+      return true;
+    } catch (IOException | UnsupportedOperationException e) {
+      return false;
+    }
+  }
+
+  /** Читає файл у буфер поза купою, оновлюючи хеш. */
+  private static long hash(Path file, MessageDigest digest) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(COPY_BUFFER_SIZE);
+    long size = 0;
+    try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+      while (in.read(buffer) != -1) {
+        buffer.flip();
+        size += buffer.remaining();
+        digest.update(buffer);
+        buffer.clear();
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Копіює файл за один прохід: кожен прочитаний блок спершу оновлює хеш, а потім записується.
+   * {@link FileChannel#transferTo} тут не підходить — дані оминали б хеш і їх довелося б читати
+   * вдруге.
+   */
+  private long copy(Path source, Path target, MessageDigest digest) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(COPY_BUFFER_SIZE);
+    long size = 0;
+    try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+        FileChannel out =
+            FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+      while (in.read(buffer) != -1) {
+        buffer.flip();
+        size += buffer.remaining();
+        digest.update(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+          out.write(buffer);
+        }
+        buffer.clear();
+      }
+      if (fsync) {
+        out.force(true);
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Переміщує скопійований файл на постійне місце. Якщо такий вміст уже збережено, копія просто
+   * видаляється.
+   *
+   * @param staged скопійований файл.
+   * @param target постійний шлях вмісту (див. {@link #objectPath(StagedFile)}).
+   * @return {@code true}, якщо файл перенесено; {@code false}, якщо такий вміст уже був.
+   * @throws IOException якщо файл не вдалося перемістити.
+   */
+  public boolean publish(StagedFile staged, Path target) throws IOException {
+    if (Files.exists(target)) {
+      discard(staged);
+      return false;
+    }
+    Files.createDirectories(target.getParent());
+    // Перейменування в межах однієї файлової системи атомарне: інші читачі не побачать
+    // недописаний файл
+    Files.move(staged.path(), target, StandardCopyOption.ATOMIC_MOVE);
+    if (fsync) {
+      syncDirectory(target.getParent());
+    }
+    return true;
+  }
+
+  /**
+   * Скидає на диск запис каталогу, щоб перейменування пережило збій живлення. Не всі платформи
+   * дозволяють відкрити каталог як канал; там достатньо скидання самого файлу.
+   */
+  private static void syncDirectory(Path directory) {
+    try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+      channel.force(true);
+    } catch (IOException e) {
+      // Каталог не можна відкрити як файл (наприклад, у Windows)
+    }
+  }
+
+  /**
+   * Видаляє тимчасову копію, що не знадобилася.
+   *
+   * @param staged скопійований файл.
+   */
+  public void discard(StagedFile staged) {
+    deleteQuietly(staged.path());
+  }
+
+  /**
+   * Повертає постійний шлях для вмісту.
+   *
+   * @param staged скопійований файл.
+   * @return шлях у каталозі {@code objects}.
+   */
+  public Path objectPath(StagedFile staged) {
+    return objectsDir.resolve(shardedStem(staged.contentHash()) + staged.extension());
+  }
+
+  /**
+   * Повертає шлях зменшеної копії.
+   *
+   * @param stem відносна основа імені: {@link #shardedStem(String)} для вмісту з хешем або ім'я
+   *     файлу для фото, збережених до появи сховища за вмістом.
+   * @param maxSize найбільша сторона копії.
+   * @return шлях у каталозі {@code thumbnails}.
+   */
+  public Path thumbnailPath(String stem, int maxSize) {
+    return thumbnailsDir.resolve(stem + "." + maxSize + ".jpg");
+  }
+
+  /** Кореневий каталог завантажень; шляхи в базі даних записано відносно нього ж. */
+  public Path getRootDir() {
+    return rootDir;
+  }
+
+  /** Каталог тимчасових файлів, що ще не збережені або не були прибрані після збою. */
+  public Path getStagingDir() {
+    return stagingDir;
+  }
+
+  /** Каталог файлів без посилань, що чекають на видалення. */
+  public Path getQuarantineDir() {
+    return quarantineDir;
+  }
+
+  /** Каталог файлів незавершених сесій завантаження; на них посилаються лише сесії. */
+  public Path getSessionsDir() {
+    return sessionsDir;
+  }
+
+  /** Каталог кешу плиток; база даних на його файли не посилається. */
+  public Path getTilesDir() {
+    return tilesDir;
+  }
+
+  /**
+   * Повертає каталог плиток піраміди зображення.
+   *
+   * @param stem відносна основа імені, як для {@link #thumbnailPath(String, int)}.
+   * @return каталог у {@code tiles}.
+   */
+  public Path tilePyramidDir(String stem) {
+    return tilesDir.resolve(stem);
+  }
+
+  /**
+   * Видаляє плитки піраміди зображення, лише повідомляючи про помилки.
+   *
+   * @param stem відносна основа імені, як для {@link #thumbnailPath(String, int)}.
+   */
+  public void deleteTilePyramid(String stem) {
+    Path directory = tilePyramidDir(stem);
+    if (!Files.isDirectory(directory, LinkOption.NOFOLLOW_LINKS)) {
+      return;
+    }
+    try (Stream<Path> paths = Files.walk(directory)) {
+      // Вміст каталогу видаляється раніше за сам каталог
+      paths.sorted(Comparator.reverseOrder()).forEach(this::deleteQuietly);
+    } catch (IOException e) {
+      System.err.println("Помилка при видаленні плиток: " + directory + " - " + e.getMessage());
+    }
+  }
+
+  /**
+   * Повертає шлях у карантині для файлу сховища, зберігаючи його відносне розташування.
+   *
+   * @param file файл у каталозі завантажень.
+   * @return шлях у каталозі {@code quarantine}.
+   */
+  public Path quarantinePath(Path file) {
+    return quarantineDir.resolve(rootDir.relativize(file));
+  }
+
+  /**
+   * Повертає час останньої зміни файлу або його запису в каталозі. Жорстке посилання та
+   * перейменування не змінюють час зміни вмісту, тож там, де файлова система його надає,
+   * враховується й час зміни inode.
+   *
+   * @param file файл.
+   * @return пізніший з двох часів.
+   * @throws IOException якщо атрибути не вдалося прочитати.
+   */
+  public static Instant lastChangedAt(Path file) throws IOException {
+    Instant modified = Files.getLastModifiedTime(file, LinkOption.NOFOLLOW_LINKS).toInstant();
+    try {
+      FileTime changed =
+          (FileTime) Files.getAttribute(file, "unix:ctime", LinkOption.NOFOLLOW_LINKS);
+      return changed.toInstant().isAfter(modified) ? changed.toInstant() : modified;
+    } catch (UnsupportedOperationException | IllegalArgumentException e) {
+      return modified; // Немає подання "unix" (наприклад, у Windows)
+    }
+  }
+
+  /**
+   * Видаляє файл, лише повідомляючи про помилку.
+   *
+   * @param path шлях до файлу або {@code null}.
+   * @return {@code true}, якщо файлу після виклику немає.
+   */
+  public boolean deleteQuietly(Path path) {
+    if (path == null) {
+      return true;
+    }
+    try {
+      Files.deleteIfExists(path);
+      return true;
+    } catch (IOException e) {
+      System.err.println("Помилка при видаленні файлу: " + path + " - " + e.getMessage());
+      return false;
+    }
+  }
+
+  /**
+   * Рахує SHA-256 даних у шістнадцятковому вигляді, як контрольну суму частини завантаження.
+   *
+   * @param data дані.
+   * @return хеш у нижньому регістрі.
+   */
+  public static String sha256Hex(byte[] data) {
+    return HexFormat.of().formatHex(sha256().digest(data));
+  }
+
+  /**
+   * Розбиває хеш на дворівневий шлях: {@code ab/cd/abcd...}.
+   *
+   * @param contentHash хеш вмісту.
+   * @return відносний шлях без розширення.
+   */
+  public static String shardedStem(String contentHash) {
+    return contentHash.substring(0, 2) + "/" + contentHash.substring(2, 4) + "/" + contentHash;
+  }
+
+  /**
+   * Розширення імені файлу в нижньому регістрі. Ім'я від клієнта сесії може містити будь-що, тож
+   * розширення з іншими символами, ніж латинські літери та цифри, відкидається.
+   */
+  private static String extensionOf(String fileName) {
+    int dotIndex = fileName.lastIndexOf('.');
+    if (dotIndex <= 0 || dotIndex == fileName.length() - 1) {
+      return "";
+    }
+    String extension = fileName.substring(dotIndex).toLowerCase(Locale.ROOT);
+    return extension.matches("\\.[a-z0-9]{1,10}") ? extension : "";
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("Алгоритм SHA-256 недоступний", e);
+    }
+  }
+
+  /**
+   * Файл, скопійований у тимчасовий каталог сховища.
+   *
+   * @param path тимчасовий шлях.
+   * @param contentHash SHA-256 вмісту у шістнадцятковому вигляді.
+   * @param sizeBytes розмір у байтах.
+   * @param extension розширення оригіналу в нижньому регістрі (з крапкою) або порожній рядок.
+   */
+  public record StagedFile(Path path, String contentHash, long sizeBytes, String extension) {}
+}
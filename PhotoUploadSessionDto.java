@@ -0,0 +1,29 @@
+package com.trailtales.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoUploadSessionDto {
+
+  @NotNull(message = "ID подорожі не може бути порожнім")
+  private Long journeyId;
+
+  @NotBlank(message = "Ім'я файлу не може бути порожнім")
+  @Size(max = 255, message = "Ім'я файлу не може перевищувати 255 символів")
+  private String fileName; // Ім'я файлу на локальній системі користувача (без шляху)
+
+  @NotNull(message = "Розмір файлу не може бути порожнім")
+  @PositiveOrZero(message = "Розмір файлу не може бути від'ємним")
+  private Long totalSize;
+
+  @Size(max = 500, message = "Опис фотографії не може перевищувати 500 символів")
+  private String description;
+}
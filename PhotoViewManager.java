@@ -1,32 +1,45 @@
 package com.trailtales.ui.managers;
 
 import com.trailtales.entity.Journey;
+import com.trailtales.entity.Photo;
 import com.trailtales.entity.User;
 import com.trailtales.service.JourneyService;
 import com.trailtales.service.PhotoService;
+import com.trailtales.ui.GalleryImageLoader;
 import com.trailtales.ui.MainApplicationFrame;
+import com.trailtales.ui.PhotoGrid;
+import com.trailtales.ui.PhotoPyramidViewer;
 import com.trailtales.ui.UIConstants;
+import com.trailtales.util.ImagePyramid;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.util.Optional;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.*;
-import javafx.scene.paint.Color;
 import javafx.scene.text.Text;
 
 public class PhotoViewManager {
 
+  /** Розмір плитки галереї; мала копія фото має близький розмір і не потребує зменшення. */
+  private static final double TILE_SIZE = 150;
+
+  /** Найбільша сторона вікна перегляду фото, що відповідає середній копії. */
+  private static final double PREVIEW_SIZE = 1024;
+
+  /** Найбільший обсяг декодованих плиток у кеші галереї (~2700 плиток 150x150). */
+  private static final long IMAGE_CACHE_BYTES = 64L * 1024 * 1024;
+
   private final PhotoService photoService;
   private final JourneyService journeyService;
   private final User currentUser;
   private final MainApplicationFrame mainAppFrame;
+  private final GalleryImageLoader imageLoader = new GalleryImageLoader(IMAGE_CACHE_BYTES);
 
-  private TilePane photoTilePane;
+  private PhotoGrid photoGrid;
   private TextField journeyIdField;
 
   public PhotoViewManager(
@@ -61,148 +74,102 @@ public class PhotoViewManager {
     HBox journeyInputBox = new HBox(10, journeyIdLabel, journeyIdField, loadPhotosBtn);
     journeyInputBox.setAlignment(Pos.CENTER_LEFT);
 
-    photoTilePane = new TilePane();
-    photoTilePane.setPadding(new Insets(10));
-    photoTilePane.setHgap(10);
-    photoTilePane.setVgap(10);
-    photoTilePane.setStyle(UIConstants.TILE_PANE_STYLE);
-
-    ScrollPane scrollPane = new ScrollPane(photoTilePane);
-    scrollPane.setFitToWidth(true);
-    scrollPane.setFitToHeight(true);
-    scrollPane.setStyle(UIConstants.SCROLL_PANE_STYLE);
-    VBox.setVgrow(scrollPane, Priority.ALWAYS);
+    photoGrid = new PhotoGrid(imageLoader, TILE_SIZE, this::showPhotoPreview, this::confirmDelete);
+    VBox.setVgrow(photoGrid.getView(), Priority.ALWAYS);
 
     Button uploadBtn = new Button("Завантажити нове фото");
     uploadBtn.setStyle(UIConstants.BUTTON_STYLE_PRIMARY);
     uploadBtn.setDisable(true); // Initially disabled
+    Button importBtn = new Button("Імпортувати кілька фото");
+    importBtn.setStyle(UIConstants.BUTTON_STYLE_SECONDARY);
+    importBtn.setDisable(true);
 
     journeyIdField
         .textProperty()
         .addListener(
             (obs, oldVal, newVal) -> {
               uploadBtn.setDisable(newVal == null || newVal.trim().isEmpty());
+              importBtn.setDisable(uploadBtn.isDisable());
+              // Плитки іншої подорожі вже не знадобляться
+              imageLoader.cancelPending();
             });
 
     loadPhotosBtn.setOnAction(e -> refreshPhotoTilePane());
     uploadBtn.setOnAction(
         e -> {
-          String journeyIdText = journeyIdField.getText();
-          try {
-            long journeyId = Long.parseLong(journeyIdText);
-            Optional<Journey> journeyOpt = journeyService.getJourneyById(journeyId);
-            if (journeyOpt.isEmpty()) {
-              mainAppFrame.showAlert(
-                  Alert.AlertType.ERROR, "Помилка", "Подорож з ID " + journeyId + " не знайдено.");
-              return;
-            }
-            if (!journeyOpt.get().getUserId().equals(currentUser.getId())) {
-              mainAppFrame.showAlert(
-                  Alert.AlertType.ERROR,
-                  "Помилка доступу",
-                  "Ви можете завантажувати фото тільки до своїх подорожей.");
-              return;
-            }
+          Long journeyId = findOwnJourneyIdForUpload();
+          if (journeyId != null) {
             mainAppFrame.showPhotoUploadFormScene(journeyId, this);
-          } catch (NumberFormatException ex) {
-            mainAppFrame.showAlert(
-                Alert.AlertType.ERROR, "Помилка", "ID подорожі має бути числом.");
+          }
+        });
+    importBtn.setOnAction(
+        e -> {
+          Long journeyId = findOwnJourneyIdForUpload();
+          if (journeyId != null) {
+            mainAppFrame.showPhotoImportFormScene(journeyId, this);
           }
         });
 
-    layout.getChildren().addAll(title, journeyInputBox, scrollPane, uploadBtn);
+    HBox uploadButtons = new HBox(10, uploadBtn, importBtn);
+    layout.getChildren().addAll(title, journeyInputBox, photoGrid.getView(), uploadButtons);
     return layout;
   }
 
+  /**
+   * Перевіряє, що введена подорож існує і належить поточному користувачу.
+   *
+   * @return ID подорожі або {@code null}, якщо користувачу вже показано помилку.
+   */
+  private Long findOwnJourneyIdForUpload() {
+    try {
+      long journeyId = Long.parseLong(journeyIdField.getText());
+      Optional<Journey> journeyOpt = journeyService.getJourneyById(journeyId);
+      if (journeyOpt.isEmpty()) {
+        mainAppFrame.showAlert(
+            Alert.AlertType.ERROR, "Помилка", "Подорож з ID " + journeyId + " не знайдено.");
+        return null;
+      }
+      if (!journeyOpt.get().getUserId().equals(currentUser.getId())) {
+        mainAppFrame.showAlert(
+            Alert.AlertType.ERROR,
+            "Помилка доступу",
+            "Ви можете завантажувати фото тільки до своїх подорожей.");
+        return null;
+      }
+      return journeyId;
+    } catch (NumberFormatException ex) {
+      mainAppFrame.showAlert(Alert.AlertType.ERROR, "Помилка", "ID подорожі має бути числом.");
+      return null;
+    }
+  }
+
+  /**
+   * Показує фото введеної подорожі у віртуалізованій сітці. Плитки створюються лише для видимих
+   * рядків, а зображення декодуються у фоні (або беруться з кешу), тож ні кількість фото, ні
+   * завантаження зображень не блокують інтерфейс.
+   */
   public void refreshPhotoTilePane() {
+    imageLoader.cancelPending();
     String journeyIdText = journeyIdField.getText();
     if (journeyIdText == null || journeyIdText.trim().isEmpty()) {
-      photoTilePane.getChildren().clear();
+      photoGrid.clear();
       return;
     }
 
     try {
       long journeyId = Long.parseLong(journeyIdText);
-      photoTilePane.getChildren().clear();
-
-      photoService
-          .getPhotosByJourneyId(journeyId)
-          .forEach(
-              photo -> {
-                try {
-                  File imgFile = new File(photo.getFilePath());
-                  if (imgFile.exists() && !imgFile.isDirectory()) {
-                    Image image =
-                        new Image(new FileInputStream(photo.getFilePath()), 150, 150, true, true);
-                    ImageView imageView = new ImageView(image);
-
-                    Label descLabel =
-                        new Label(
-                            photo.getDescription() != null && !photo.getDescription().isEmpty()
-                                ? photo.getDescription()
-                                : "Без опису");
-                    descLabel.setTextFill(Color.WHITE);
-                    descLabel.setMaxWidth(140);
-                    descLabel.setWrapText(true);
-                    descLabel.setAlignment(Pos.CENTER);
-
-                    Button deletePhotoButton = new Button("Видалити");
-                    deletePhotoButton.setStyle(UIConstants.BUTTON_STYLE_DANGER);
-                    deletePhotoButton.setOnAction(
-                        delEvent -> {
-                          Alert confirm =
-                              new Alert(
-                                  Alert.AlertType.CONFIRMATION,
-                                  "Видалити цю фотографію?",
-                                  ButtonType.YES,
-                                  ButtonType.NO);
-                          mainAppFrame.applyDialogStyles(confirm.getDialogPane());
-                          Optional<ButtonType> result = confirm.showAndWait();
-                          if (result.isPresent() && result.get() == ButtonType.YES) {
-                            try {
-                              photoService.deletePhoto(photo.getId(), currentUser);
-                              refreshPhotoTilePane(); // Refresh after delete
-                              mainAppFrame.showAlert(
-                                  Alert.AlertType.INFORMATION, "Успіх", "Фотографію видалено.");
-                            } catch (SecurityException secEx) {
-                              mainAppFrame.showAlert(
-                                  Alert.AlertType.ERROR, "Помилка доступу", secEx.getMessage());
-                            } catch (Exception ex) {
-                              mainAppFrame.showAlert(
-                                  Alert.AlertType.ERROR, "Помилка видалення", ex.getMessage());
-                            }
-                          }
-                        });
-                    Optional<Journey> journeyOpt =
-                        journeyService.getJourneyById(photo.getJourneyId());
-                    deletePhotoButton.setDisable(
-                        !journeyOpt
-                            .map(j -> j.getUserId().equals(currentUser.getId()))
-                            .orElse(true));
-
-                    VBox photoBox = new VBox(5, imageView, descLabel, deletePhotoButton);
-                    photoBox.setAlignment(Pos.CENTER);
-                    photoBox.setPadding(new Insets(5));
-                    photoBox.setStyle(UIConstants.PHOTO_BOX_STYLE);
-                    photoTilePane.getChildren().add(photoBox);
-                  } else {
-                    System.err.println(
-                        "Файл фото не знайдено або є директорією: " + photo.getFilePath());
-                  }
-                } catch (FileNotFoundException fnfEx) {
-                  System.err.println("Файл фото не знайдено: " + photo.getFilePath());
-                } catch (Exception ex) {
-                  System.err.println(
-                      "Помилка завантаження зображення: "
-                          + photo.getFilePath()
-                          + " - "
-                          + ex.getMessage());
-                }
-              });
+      boolean canDeletePhotos =
+          journeyService
+              .getJourneyById(journeyId)
+              .map(j -> j.getUserId().equals(currentUser.getId()))
+              .orElse(true);
+      photoGrid.setPhotos(photoService.getPhotosByJourneyId(journeyId), canDeletePhotos);
     } catch (NumberFormatException ex) {
+      photoGrid.clear();
       mainAppFrame.showAlert(
           Alert.AlertType.ERROR, "Помилка", "ID подорожі має бути числовим значенням.");
     } catch (Exception ex) {
+      photoGrid.clear();
       mainAppFrame.showAlert(
           Alert.AlertType.ERROR,
           "Помилка завантаження",
@@ -211,6 +178,74 @@ public class PhotoViewManager {
     }
   }
 
+  private void confirmDelete(Photo photo) {
+    Alert confirm =
+        new Alert(
+            Alert.AlertType.CONFIRMATION, "Видалити цю фотографію?", ButtonType.YES, ButtonType.NO);
+    mainAppFrame.applyDialogStyles(confirm.getDialogPane());
+    Optional<ButtonType> result = confirm.showAndWait();
+    if (result.isPresent() && result.get() == ButtonType.YES) {
+      try {
+        photoService.deletePhoto(photo.getId(), currentUser);
+        refreshPhotoTilePane(); // Refresh after delete
+        mainAppFrame.showAlert(Alert.AlertType.INFORMATION, "Успіх", "Фотографію видалено.");
+      } catch (SecurityException secEx) {
+        mainAppFrame.showAlert(Alert.AlertType.ERROR, "Помилка доступу", secEx.getMessage());
+      } catch (Exception ex) {
+        mainAppFrame.showAlert(Alert.AlertType.ERROR, "Помилка видалення", ex.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Показує фото у вікні перегляду. Підтримувані формати відкриваються в повній роздільності з
+   * масштабуванням; інші — середньою копією або оригіналом, зменшеним до розміру вікна.
+   */
+  private void showPhotoPreview(Photo photo) {
+    Optional<ImagePyramid> pyramid = photoService.getImagePyramid(photo);
+    PhotoPyramidViewer viewer = pyramid.map(PhotoPyramidViewer::new).orElse(null);
+    Node content;
+    if (viewer != null) {
+      viewer.getView().setPrefSize(PREVIEW_SIZE, PREVIEW_SIZE * 3 / 4);
+      content = viewer.getView();
+    } else {
+      File previewFile = existingFile(photo.getThumbnailMediumPath(), photo.getFilePath());
+      if (previewFile == null) {
+        return;
+      }
+      content =
+          new ImageView(
+              new Image(
+                  previewFile.toURI().toString(), PREVIEW_SIZE, PREVIEW_SIZE, true, true, true));
+    }
+    Alert preview = new Alert(Alert.AlertType.NONE, null, ButtonType.CLOSE);
+    preview.setTitle(
+        photo.getDescription() != null && !photo.getDescription().isEmpty()
+            ? photo.getDescription()
+            : "Без опису");
+    preview.setHeaderText(null);
+    preview.setResizable(true);
+    preview.getDialogPane().setContent(content);
+    mainAppFrame.applyDialogStyles(preview.getDialogPane());
+    preview.showAndWait();
+    if (viewer != null) {
+      viewer.dispose();
+    }
+  }
+
+  /** Повертає перший з файлів, що існує; {@code null}, якщо жодного немає. */
+  private static File existingFile(String... paths) {
+    for (String path : paths) {
+      if (path != null) {
+        File file = new File(path);
+        if (file.isFile()) {
+          return file;
+        }
+      }
+    }
+    return null;
+  }
+
   public String getCurrentJourneyIdText() {
     return journeyIdField != null ? journeyIdField.getText() : "";
   }
@@ -0,0 +1,15 @@
+package com.trailtales.entity;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuarantinedFile {
+  private String filePath; // Початковий шлях файлу в каталозі завантажень
+  private String quarantinePath; // Де файл зберігається до видалення
+  private LocalDateTime quarantinedAt;
+}
@@ -0,0 +1,15 @@
+package com.trailtales.dto;
+
+import com.trailtales.entity.Tag;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Тег, що часто трапляється разом із заданими, і кількість подорожей, де вони зустрілись разом. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelatedTag {
+  private Tag tag;
+  private int count;
+}
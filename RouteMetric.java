@@ -0,0 +1,20 @@
+package com.trailtales.dto;
+
+/** Метрика маршруту, за якою можна впорядкувати подорожі. */
+public enum RouteMetric {
+  /** Довжина маршруту в кілометрах. */
+  DISTANCE("distance_km"),
+  /** Тривалість подорожі в днях. */
+  SPAN_DAYS("span_days");
+
+  private final String column;
+
+  RouteMetric(String column) {
+    this.column = column;
+  }
+
+  /** Стовпець таблиці {@code journey_route_metrics}, що зберігає метрику. */
+  public String getColumn() {
+    return column;
+  }
+}
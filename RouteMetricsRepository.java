@@ -0,0 +1,198 @@
+package com.trailtales.repository;
+
+import com.trailtales.dto.JourneyRouteMetrics;
+import com.trailtales.dto.RouteMetric;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Репозиторій похідних метрик маршруту подорожей (таблиця {@code journey_route_metrics}). Рядки
+ * позначаються застарілими тригерами бази даних; цей репозиторій читає застарілі подорожі разом
+ * з точками їх маршрутів і записує обчислені метрики.
+ */
+@Repository
+public class RouteMetricsRepository {
+
+  /**
+   * Точки маршруту з координатами: початкова локація, локації подій у хронологічному порядку та
+   * кінцева локація.
+   */
+  private static final String SELECT_ROUTE_POINTS =
+      "SELECT journey_id, latitude, longitude FROM ("
+          + "SELECT j.id AS journey_id, 0 AS part, NULL::DATE AS event_date,"
+          + " NULL::TIME AS event_time, 0::BIGINT AS event_id, l.latitude, l.longitude"
+          + " FROM journeys j JOIN locations l ON l.id = j.origin_location_id"
+          + " WHERE j.id = ANY (?)"
+          + " UNION ALL "
+          + "SELECT e.journey_id, 1, e.event_date, e.event_time, e.id, l.latitude, l.longitude"
+          + " FROM events e JOIN locations l ON l.id = e.location_id"
+          + " WHERE e.journey_id = ANY (?)"
+          + " UNION ALL "
+          + "SELECT j.id, 2, NULL, NULL, 0, l.latitude, l.longitude"
+          + " FROM journeys j JOIN locations l ON l.id = j.destination_location_id"
+          + " WHERE j.id = ANY (?)"
+          + ") p WHERE latitude IS NOT NULL AND longitude IS NOT NULL "
+          + "ORDER BY journey_id, part, event_date, COALESCE(event_time, TIME '00:00'), event_id";
+
+  /** Тривалість у днях між найранішою та найпізнішою з дат подорожі та її подій (включно). */
+  private static final String SELECT_SPAN_DAYS =
+      "SELECT j.id, GREATEST(j.start_date, j.end_date, e.last_date)"
+          + " - LEAST(j.start_date, j.end_date, e.first_date) + 1 AS span_days"
+          + " FROM journeys j LEFT JOIN (SELECT journey_id, MIN(event_date) AS first_date,"
+          + " MAX(event_date) AS last_date FROM events WHERE journey_id = ANY (?)"
+          + " GROUP BY journey_id) e ON e.journey_id = j.id"
+          + " WHERE j.id = ANY (?)";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Конструктор для впровадження залежності {@link JdbcTemplate}.
+   *
+   * @param jdbcTemplate об'єкт для взаємодії з базою даних.
+   */
+  public RouteMetricsRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Повертає подорожі, метрики яких застаріли, разом з поточною версією позначки.
+   *
+   * @param limit максимальна кількість подорожей.
+   * @return мапа ID подорожі → версія позначки застарілості.
+   */
+  public Map<Long, Long> findDirty(int limit) {
+    Map<Long, Long> revisions = new LinkedHashMap<>();
+    jdbcTemplate.query(
+        "SELECT journey_id, revision FROM journey_route_metrics WHERE dirty"
+            + " ORDER BY journey_id LIMIT ?",
+        rs -> {
+          revisions.put(rs.getLong("journey_id"), rs.getLong("revision"));
+        },
+        limit);
+    return revisions;
+  }
+
+  /**
+   * Завантажує точки маршрутів подорожей одним запитом.
+   *
+   * @param journeyIds ID подорожей.
+   * @return мапа ID подорожі → точки маршруту у вигляді пар {широта, довгота} у порядку
+   *     проходження. Подорожі без жодної точки з координатами відсутні в мапі.
+   */
+  public Map<Long, List<double[]>> findRoutePoints(Collection<Long> journeyIds) {
+    Map<Long, List<double[]>> points = new HashMap<>();
+    if (journeyIds == null || journeyIds.isEmpty()) {
+      return points;
+    }
+    jdbcTemplate.query(
+        connection -> {
+          PreparedStatement ps = connection.prepareStatement(SELECT_ROUTE_POINTS);
+          Array ids = connection.createArrayOf("bigint", journeyIds.toArray());
+          for (int i = 1; i <= 3; i++) {
+            ps.setArray(i, ids);
+          }
+          return ps;
+        },
+        rs -> {
+          points
+              .computeIfAbsent(rs.getLong("journey_id"), id -> new ArrayList<>())
+              .add(new double[] {rs.getDouble("latitude"), rs.getDouble("longitude")});
+        });
+    return points;
+  }
+
+  /**
+   * Обчислює тривалість подорожей у днях за датами самих подорожей та їх подій.
+   *
+   * @param journeyIds ID подорожей.
+   * @return мапа ID подорожі → кількість днів. Подорожі без жодної дати відсутні в мапі.
+   */
+  public Map<Long, Integer> findSpanDays(Collection<Long> journeyIds) {
+    Map<Long, Integer> spans = new HashMap<>();
+    if (journeyIds == null || journeyIds.isEmpty()) {
+      return spans;
+    }
+    jdbcTemplate.query(
+        connection -> {
+          PreparedStatement ps = connection.prepareStatement(SELECT_SPAN_DAYS);
+          Array ids = connection.createArrayOf("bigint", journeyIds.toArray());
+          ps.setArray(1, ids);
+          ps.setArray(2, ids);
+          return ps;
+        },
+        rs -> {
+          Integer span = rs.getObject("span_days", Integer.class);
+          if (span != null) {
+            spans.put(rs.getLong("id"), span);
+          }
+        });
+    return spans;
+  }
+
+  /**
+   * Зберігає обчислені метрики пакетом. Рядок лишається застарілим, якщо за час обчислення його
+   * позначку оновив тригер (версія змінилася), — тоді подорож буде переобчислено наступним
+   * проходом.
+   *
+   * @param metrics обчислені метрики з версією позначки, для якої їх отримано.
+   */
+  public void saveAll(List<JourneyRouteMetrics> metrics) {
+    if (metrics.isEmpty()) {
+      return;
+    }
+    jdbcTemplate.batchUpdate(
+        "UPDATE journey_route_metrics SET distance_km = ?, min_latitude = ?, min_longitude = ?,"
+            + " max_latitude = ?, max_longitude = ?, span_days = ?, point_count = ?,"
+            + " dirty = (revision <> ?), computed_at = CURRENT_TIMESTAMP WHERE journey_id = ?",
+        metrics,
+        metrics.size(),
+        (ps, m) -> {
+          ps.setObject(1, m.getDistanceKm(), Types.DOUBLE);
+          ps.setObject(2, m.getMinLatitude(), Types.DOUBLE);
+          ps.setObject(3, m.getMinLongitude(), Types.DOUBLE);
+          ps.setObject(4, m.getMaxLatitude(), Types.DOUBLE);
+          ps.setObject(5, m.getMaxLongitude(), Types.DOUBLE);
+          ps.setObject(6, m.getSpanDays(), Types.INTEGER);
+          ps.setInt(7, m.getPointCount());
+          ps.setLong(8, m.getRevision());
+          ps.setLong(9, m.getJourneyId());
+        });
+  }
+
+  /**
+   * Повертає ID подорожей користувача (власних і тих, де він учасник), упорядковані за метрикою
+   * маршруту. Подорожі, для яких метрику ще не обчислено або не можна обчислити, не повертаються.
+   *
+   * @param metric метрика для впорядкування.
+   * @param descending {@code true} — від більших значень до менших.
+   * @param userId ID користувача.
+   * @param limit максимальна кількість подорожей.
+   * @return ID подорожей у порядку сортування.
+   */
+  public List<Long> findJourneyIdsOrderedBy(
+      RouteMetric metric, boolean descending, Long userId, int limit) {
+    String column = "m." + metric.getColumn();
+    return jdbcTemplate.queryForList(
+        "SELECT m.journey_id FROM journey_route_metrics m JOIN journeys j ON j.id = m.journey_id "
+            + "WHERE "
+            + column
+            + " IS NOT NULL AND (j.user_id = ? OR EXISTS (SELECT 1 FROM journey_participants jp "
+            + "WHERE jp.journey_id = j.id AND jp.user_id = ?)) ORDER BY "
+            + column
+            + (descending ? " DESC" : " ASC")
+            + ", m.journey_id LIMIT ?",
+        Long.class,
+        userId,
+        userId,
+        limit);
+  }
+}
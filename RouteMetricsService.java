@@ -0,0 +1,28 @@
+package com.trailtales.service;
+
+/**
+ * Сервіс похідних метрик маршруту подорожей: довжини шляху по великому колу, прямокутника меж і
+ * тривалості в днях. Метрики зберігаються в базі даних і перераховуються фоновою задачею лише для
+ * подорожей, які тригери бази позначили застарілими після зміни подорожі, її подій або координат
+ * локацій, тож запис і читання списків не чекають на обчислення.
+ */
+public interface RouteMetricsService {
+
+  /**
+   * Запускає фонову задачу перерахунку застарілих метрик. Повторні виклики нічого не роблять.
+   */
+  void startBackgroundRefresh();
+
+  /**
+   * Повідомляє фонову задачу, що з'явилися застарілі метрики, щоб вона не чекала наступного
+   * планового проходу. Метод не блокує виклик і безпечний до запуску задачі.
+   */
+  void requestRefresh();
+
+  /**
+   * Синхронно перераховує всі застарілі метрики.
+   *
+   * @return кількість перерахованих подорожей.
+   */
+  int refreshDirty();
+}
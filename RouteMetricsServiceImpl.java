@@ -0,0 +1,160 @@
+package com.trailtales.service.impl;
+
+import com.trailtales.dto.JourneyRouteMetrics;
+import com.trailtales.repository.RouteMetricsRepository;
+import com.trailtales.service.RouteMetricsService;
+import com.trailtales.util.GeoUtils;
+import com.trailtales.util.TransactionUtils;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class RouteMetricsServiceImpl implements RouteMetricsService {
+
+  /** Кількість подорожей, що перераховуються за один запит до бази. */
+  private static final int BATCH_SIZE = 200;
+
+  /**
+   * Інтервал планового проходу. Зміни, внесені з цього застосунку, обробляються одразу після
+   * {@link #requestRefresh()}; плановий прохід підбирає зміни інших клієнтів.
+   */
+  private static final long REFRESH_INTERVAL_MS = 60_000;
+
+  private final RouteMetricsRepository routeMetricsRepository;
+
+  private final Object refreshSignal = new Object();
+
+  private boolean refreshRequested;
+  private boolean started;
+
+  /**
+   * Конструктор для впровадження залежностей.
+   *
+   * @param routeMetricsRepository Репозиторій метрик маршруту.
+   */
+  @Autowired
+  public RouteMetricsServiceImpl(RouteMetricsRepository routeMetricsRepository) {
+    this.routeMetricsRepository = routeMetricsRepository;
+  }
+
+  @Override
+  public synchronized void startBackgroundRefresh() {
+    if (started) {
+      return;
+    }
+    started = true;
+    Thread worker = new Thread(this::runWorker, "route-metrics-worker");
+    worker.setDaemon(true);
+    worker.start();
+  }
+
+  @Override
+  public void requestRefresh() {
+    // Позначки тригерів стають видимими задачі лише після фіксації транзакції, що їх поставила.
+    TransactionUtils.afterCommit(this::signalWorker);
+  }
+
+  private void signalWorker() {
+    synchronized (refreshSignal) {
+      refreshRequested = true;
+      refreshSignal.notifyAll();
+    }
+  }
+
+  @Override
+  public synchronized int refreshDirty() {
+    long startedAt = System.currentTimeMillis();
+    int refreshed = 0;
+    Map<Long, Long> revisions;
+    do {
+      revisions = routeMetricsRepository.findDirty(BATCH_SIZE);
+      if (revisions.isEmpty()) {
+        break;
+      }
+      routeMetricsRepository.saveAll(computeMetrics(revisions));
+      refreshed += revisions.size();
+    } while (revisions.size() == BATCH_SIZE);
+    if (refreshed > 0) {
+      System.out.println(
+          "Метрики маршруту перераховано для "
+              + refreshed
+              + " подорожей за "
+              + (System.currentTimeMillis() - startedAt)
+              + " мс.");
+    }
+    return refreshed;
+  }
+
+  private void runWorker() {
+    while (true) {
+      try {
+        refreshDirty();
+      } catch (RuntimeException e) {
+        System.err.println("Помилка перерахунку метрик маршруту: " + e.getMessage());
+      }
+      try {
+        synchronized (refreshSignal) {
+          if (!refreshRequested) {
+            refreshSignal.wait(REFRESH_INTERVAL_MS);
+          }
+          refreshRequested = false;
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  private List<JourneyRouteMetrics> computeMetrics(Map<Long, Long> revisions) {
+    Map<Long, List<double[]>> routePoints =
+        routeMetricsRepository.findRoutePoints(revisions.keySet());
+    Map<Long, Integer> spans = routeMetricsRepository.findSpanDays(revisions.keySet());
+    List<JourneyRouteMetrics> metrics = new ArrayList<>(revisions.size());
+    for (Map.Entry<Long, Long> entry : revisions.entrySet()) {
+      Long journeyId = entry.getKey();
+      JourneyRouteMetrics journeyMetrics = new JourneyRouteMetrics();
+      journeyMetrics.setJourneyId(journeyId);
+      journeyMetrics.setRevision(entry.getValue());
+      journeyMetrics.setSpanDays(spans.get(journeyId));
+      applyRoute(journeyMetrics, routePoints.getOrDefault(journeyId, List.of()));
+      metrics.add(journeyMetrics);
+    }
+    return metrics;
+  }
+
+  /**
+   * Рахує довжину ламаної через точки маршруту та її межі. Довжина не визначена, якщо точок менше
+   * двох.
+   */
+  private void applyRoute(JourneyRouteMetrics metrics, List<double[]> points) {
+    metrics.setPointCount(points.size());
+    if (points.isEmpty()) {
+      return;
+    }
+    double distanceKm = 0;
+    double minLatitude = Double.MAX_VALUE;
+    double minLongitude = Double.MAX_VALUE;
+    double maxLatitude = -Double.MAX_VALUE;
+    double maxLongitude = -Double.MAX_VALUE;
+    double[] previous = null;
+    for (double[] point : points) {
+      if (previous != null) {
+        distanceKm += GeoUtils.haversineKm(previous[0], previous[1], point[0], point[1]);
+      }
+      minLatitude = Math.min(minLatitude, point[0]);
+      minLongitude = Math.min(minLongitude, point[1]);
+      maxLatitude = Math.max(maxLatitude, point[0]);
+      maxLongitude = Math.max(maxLongitude, point[1]);
+      previous = point;
+    }
+    metrics.setDistanceKm(points.size() > 1 ? distanceKm : null);
+    metrics.setMinLatitude(minLatitude);
+    metrics.setMinLongitude(minLongitude);
+    metrics.setMaxLatitude(maxLatitude);
+    metrics.setMaxLongitude(maxLongitude);
+  }
+}
@@ -0,0 +1,103 @@
+package com.trailtales.service;
+
+import com.trailtales.entity.Event;
+import com.trailtales.entity.Journey;
+import com.trailtales.entity.Location;
+import com.trailtales.entity.Tag;
+import com.trailtales.entity.User;
+import java.util.List;
+
+/**
+ * Сервіс миттєвого пошуку під час набору тексту. Тримає в пам'яті інвертовані індекси подорожей і
+ * подій поточного користувача, а також тих локацій і тегів, на які вони посилаються; довідники
+ * повністю не завантажуються. Індекс будується один раз після входу і далі оновлюється поштучно з
+ * методів запису інших сервісів, тож пошук не звертається до бази даних.
+ */
+public interface SearchIndexService {
+
+  /**
+   * Запускає побудову індексу для користувача у фоновому потоці. Поки індекс будується, {@link
+   * #isReady()} повертає {@code false}, а екрани використовують пошук у базі даних.
+   *
+   * @param user користувач, який щойно увійшов.
+   */
+  void buildAsync(User user);
+
+  /** Очищає індекс, наприклад при виході користувача. */
+  void clear();
+
+  /**
+   * Чи побудовано індекс для поточного користувача.
+   *
+   * @return {@code true}, якщо результатам пошуку можна довіряти.
+   */
+  boolean isReady();
+
+  /**
+   * Шукає подорожі поточного користувача (власні та ті, де він учасник) за назвою, описом,
+   * автором, тегами та локаціями.
+   *
+   * @param query текст запиту; кожне слово шукається як префікс.
+   * @param limit максимальна кількість результатів.
+   * @return знайдені подорожі.
+   */
+  List<Journey> searchJourneys(String query, int limit);
+
+  /**
+   * Шукає події подорожей поточного користувача за назвою та описом.
+   *
+   * @param query текст запиту; кожне слово шукається як префікс.
+   * @param limit максимальна кількість результатів.
+   * @return знайдені події.
+   */
+  List<Event> searchEvents(String query, int limit);
+
+  /**
+   * Шукає серед локацій подорожей і подій поточного користувача за назвою та описом.
+   *
+   * @param query текст запиту; кожне слово шукається як префікс.
+   * @param limit максимальна кількість результатів.
+   * @return знайдені локації.
+   */
+  List<Location> searchLocations(String query, int limit);
+
+  /**
+   * Шукає серед тегів подорожей поточного користувача за назвою.
+   *
+   * @param query текст запиту; кожне слово шукається як префікс.
+   * @param limit максимальна кількість результатів.
+   * @return знайдені теги.
+   */
+  List<Tag> searchTags(String query, int limit);
+
+  /** Оновлює подорож в індексі після створення або зміни. */
+  void onJourneySaved(Journey journey);
+
+  /** Видаляє подорож та її події з індексу. */
+  void onJourneyDeleted(Long journeyId);
+
+  /** Оновлює подію в індексі після створення або зміни. */
+  void onEventSaved(Event event);
+
+  /** Видаляє подію з індексу. */
+  void onEventDeleted(Long eventId);
+
+  /** Оновлює локацію в індексі після створення або зміни. */
+  void onLocationSaved(Location location);
+
+  /** Видаляє локацію з індексу. */
+  void onLocationDeleted(Long locationId);
+
+  /** Оновлює тег в індексі після створення або зміни. */
+  void onTagSaved(Tag tag);
+
+  /** Видаляє тег з індексу. */
+  void onTagDeleted(Long tagId);
+
+  /**
+   * Оцінює обсяг пам'яті, який займають структури всіх індексів.
+   *
+   * @return приблизний розмір у байтах.
+   */
+  long estimateMemoryBytes();
+}
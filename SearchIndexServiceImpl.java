@@ -0,0 +1,427 @@
+package com.trailtales.service.impl;
+
+import com.trailtales.entity.Event;
+import com.trailtales.entity.Journey;
+import com.trailtales.entity.Location;
+import com.trailtales.entity.Tag;
+import com.trailtales.entity.User;
+import com.trailtales.index.InvertedIndex;
+import com.trailtales.index.PendingChanges;
+import com.trailtales.repository.EventRepository;
+import com.trailtales.repository.JourneyRepository;
+import com.trailtales.repository.LocationRepository;
+import com.trailtales.service.SearchIndexService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class SearchIndexServiceImpl implements SearchIndexService {
+
+  private final JourneyRepository journeyRepository;
+  private final EventRepository eventRepository;
+  private final LocationRepository locationRepository;
+
+  private final InvertedIndex<Journey> journeyIndex = new InvertedIndex<>();
+  private final InvertedIndex<Event> eventIndex = new InvertedIndex<>();
+  private final InvertedIndex<Location> locationIndex = new InvertedIndex<>();
+  private final InvertedIndex<Tag> tagIndex = new InvertedIndex<>();
+
+  /** Зміни, що надійшли під час фонової побудови; застосовуються після її завершення. */
+  private final PendingChanges<SearchIndexServiceImpl> pendingChanges = new PendingChanges<>();
+
+  private Long currentUserId;
+  private volatile boolean ready;
+  private long generation;
+
+  /**
+   * Конструктор для впровадження залежностей.
+   *
+   * @param journeyRepository Репозиторій для роботи з подорожами.
+   * @param eventRepository Репозиторій для роботи з подіями.
+   * @param locationRepository Репозиторій для роботи з локаціями.
+   */
+  @Autowired
+  public SearchIndexServiceImpl(
+      JourneyRepository journeyRepository,
+      EventRepository eventRepository,
+      LocationRepository locationRepository) {
+    this.journeyRepository = journeyRepository;
+    this.eventRepository = eventRepository;
+    this.locationRepository = locationRepository;
+  }
+
+  @Override
+  public void buildAsync(User user) {
+    long buildGeneration;
+    synchronized (this) {
+      clearIndexes();
+      currentUserId = user.getId();
+      pendingChanges.begin();
+      buildGeneration = ++generation;
+    }
+    Thread builder = new Thread(() -> build(user, buildGeneration), "search-index-builder");
+    builder.setDaemon(true);
+    builder.start();
+  }
+
+  @Override
+  public synchronized void clear() {
+    clearIndexes();
+    currentUserId = null;
+    generation++;
+  }
+
+  @Override
+  public boolean isReady() {
+    return ready;
+  }
+
+  @Override
+  public List<Journey> searchJourneys(String query, int limit) {
+    return journeyIndex.search(query, limit);
+  }
+
+  @Override
+  public List<Event> searchEvents(String query, int limit) {
+    return eventIndex.search(query, limit);
+  }
+
+  @Override
+  public List<Location> searchLocations(String query, int limit) {
+    return locationIndex.search(query, limit);
+  }
+
+  @Override
+  public List<Tag> searchTags(String query, int limit) {
+    return tagIndex.search(query, limit);
+  }
+
+  @Override
+  public void onJourneySaved(Journey journey) {
+    if (journey == null || journey.getId() == null) {
+      return;
+    }
+    // Знімок робиться одразу: під час побудови зміна застосовується пізніше, а сутність тим часом
+    // може змінити її власник
+    Journey indexed = snapshot(journey);
+    List<Event> events = journey.getEvents() != null ? List.copyOf(journey.getEvents()) : List.of();
+    apply(
+        service -> {
+          if (!service.belongsToCurrentUser(indexed)) {
+            service.removeJourney(indexed.getId());
+            return;
+          }
+          service.indexJourney(indexed);
+          service.indexRelations(indexed);
+          events.forEach(service::indexEvent);
+        });
+  }
+
+  @Override
+  public void onJourneyDeleted(Long journeyId) {
+    if (journeyId != null) {
+      apply(service -> service.removeJourney(journeyId));
+    }
+  }
+
+  @Override
+  public void onEventSaved(Event event) {
+    if (event == null || event.getId() == null) {
+      return;
+    }
+    apply(
+        service -> {
+          Long journeyId = event.getJourneyId();
+          if (journeyId != null && service.journeyIndex.get(journeyId) != null) {
+            service.indexEvent(event);
+          } else {
+            service.eventIndex.remove(event.getId());
+          }
+        });
+  }
+
+  @Override
+  public void onEventDeleted(Long eventId) {
+    if (eventId != null) {
+      apply(service -> service.eventIndex.remove(eventId));
+    }
+  }
+
+  @Override
+  public void onLocationSaved(Location location) {
+    if (location != null && location.getId() != null) {
+      apply(
+          service -> {
+            boolean known = service.locationIndex.get(location.getId()) != null;
+            if (service.refreshJourneysWithLocation(location) || known) {
+              service.indexLocation(location);
+            }
+          });
+    }
+  }
+
+  @Override
+  public void onLocationDeleted(Long locationId) {
+    if (locationId != null) {
+      apply(service -> service.locationIndex.remove(locationId));
+    }
+  }
+
+  @Override
+  public void onTagSaved(Tag tag) {
+    if (tag != null && tag.getId() != null) {
+      apply(
+          service -> {
+            boolean known = service.tagIndex.get(tag.getId()) != null;
+            if (service.refreshJourneysWithTag(tag) || known) {
+              service.indexTag(tag);
+            }
+          });
+    }
+  }
+
+  @Override
+  public void onTagDeleted(Long tagId) {
+    if (tagId != null) {
+      apply(service -> service.tagIndex.remove(tagId));
+    }
+  }
+
+  @Override
+  public long estimateMemoryBytes() {
+    return journeyIndex.estimateMemoryBytes()
+        + eventIndex.estimateMemoryBytes()
+        + locationIndex.estimateMemoryBytes()
+        + tagIndex.estimateMemoryBytes();
+  }
+
+  private void build(User user, long buildGeneration) {
+    long startedAt = System.currentTimeMillis();
+    try {
+      // Лише дані користувача: подорожі зі зв'язками та події пакетними запитами, а з довідників —
+      // локації й теги, на які ці подорожі та події посилаються.
+      List<Journey> journeys = journeyRepository.findVisibleToUser(user.getId());
+      List<Event> events =
+          eventRepository.findByJourneyIds(
+              journeys.stream().map(Journey::getId).collect(Collectors.toList()));
+      Map<Long, Location> locations = new HashMap<>();
+      Map<Long, Tag> tags = new HashMap<>();
+      for (Journey journey : journeys) {
+        relatedLocations(journey).forEach(l -> locations.put(l.getId(), l));
+        if (journey.getTags() != null) {
+          journey.getTags().forEach(t -> tags.put(t.getId(), t));
+        }
+      }
+      Set<Long> eventLocationIds =
+          events.stream()
+              .map(Event::getLocationId)
+              .filter(Objects::nonNull)
+              .filter(id -> !locations.containsKey(id))
+              .collect(Collectors.toSet());
+      locationRepository.findByIds(eventLocationIds).forEach(l -> locations.put(l.getId(), l));
+      List<Journey> snapshots =
+          journeys.stream().map(SearchIndexServiceImpl::snapshot).collect(Collectors.toList());
+
+      synchronized (this) {
+        if (buildGeneration != generation) {
+          return; // користувач вийшов або почалася нова побудова
+        }
+        snapshots.forEach(this::indexJourney);
+        events.forEach(this::indexEvent);
+        locations.values().forEach(this::indexLocation);
+        tags.values().forEach(this::indexTag);
+
+        pendingChanges.replay(this);
+        ready = true;
+      }
+      System.out.println(
+          "Пошуковий індекс побудовано за "
+              + (System.currentTimeMillis() - startedAt)
+              + " мс: подорожей "
+              + journeyIndex.size()
+              + ", подій "
+              + eventIndex.size()
+              + ", локацій "
+              + locationIndex.size()
+              + ", тегів "
+              + tagIndex.size()
+              + "; ~"
+              + estimateMemoryBytes() / 1024
+              + " КБ.");
+    } catch (Exception e) {
+      System.err.println("Помилка побудови пошукового індексу: " + e.getMessage());
+      e.printStackTrace();
+      synchronized (this) {
+        if (buildGeneration == generation) {
+          pendingChanges.discard();
+        }
+      }
+    }
+  }
+
+  /**
+   * Застосовує зміну до індексу. Якщо індекс саме будується, зміна також запам'ятовується, щоб
+   * бути застосованою після завершення побудови поверх даних, прочитаних з бази раніше.
+   */
+  private synchronized void apply(Consumer<SearchIndexServiceImpl> change) {
+    if (currentUserId == null) {
+      return;
+    }
+    pendingChanges.apply(this, change);
+  }
+
+  private void clearIndexes() {
+    ready = false;
+    pendingChanges.discard();
+    journeyIndex.clear();
+    eventIndex.clear();
+    locationIndex.clear();
+    tagIndex.clear();
+  }
+
+  private boolean belongsToCurrentUser(Journey journey) {
+    if (currentUserId.equals(journey.getUserId())) {
+      return true;
+    }
+    return journey.getParticipants() != null
+        && journey.getParticipants().stream().anyMatch(u -> currentUserId.equals(u.getId()));
+  }
+
+  private void indexJourney(Journey journey) {
+    String tagNames =
+        journey.getTags() == null
+            ? null
+            : InvertedIndex.join(
+                journey.getTags().stream().map(Tag::getName).collect(Collectors.toList()));
+    journeyIndex.put(
+        journey.getId(),
+        journey,
+        journey.getName(),
+        journey.getDescription(),
+        journey.getUser() != null ? journey.getUser().getUsername() : null,
+        tagNames,
+        journey.getOriginLocation() != null ? journey.getOriginLocation().getName() : null,
+        journey.getDestinationLocation() != null
+            ? journey.getDestinationLocation().getName()
+            : null);
+  }
+
+  private void removeJourney(Long journeyId) {
+    journeyIndex.remove(journeyId);
+    eventIndex.values().stream()
+        .filter(event -> journeyId.equals(event.getJourneyId()))
+        .map(Event::getId)
+        .collect(Collectors.toList())
+        .forEach(eventIndex::remove);
+  }
+
+  /**
+   * Перейменування локації має знаходити подорожі за новою назвою. Знімки в індексі не
+   * змінюються: подорож замінюється новим знімком із новою локацією.
+   *
+   * @return чи використовує локацію хоча б одна подорож з індексу.
+   */
+  private boolean refreshJourneysWithLocation(Location location) {
+    boolean used = false;
+    for (Journey journey : journeyIndex.values()) {
+      boolean origin = location.getId().equals(journey.getOriginLocationId());
+      boolean destination = location.getId().equals(journey.getDestinationLocationId());
+      if (origin || destination) {
+        Journey refreshed = snapshot(journey);
+        if (origin) {
+          refreshed.setOriginLocation(location);
+        }
+        if (destination) {
+          refreshed.setDestinationLocation(location);
+        }
+        indexJourney(refreshed);
+        used = true;
+      }
+    }
+    return used;
+  }
+
+  /**
+   * Перейменування тегу має знаходити подорожі за новою назвою. Знімки в індексі не змінюються:
+   * подорож замінюється новим знімком із новим набором тегів.
+   *
+   * @return чи використовує тег хоча б одна подорож з індексу.
+   */
+  private boolean refreshJourneysWithTag(Tag tag) {
+    boolean used = false;
+    for (Journey journey : journeyIndex.values()) {
+      if (journey.getTags() != null
+          && journey.getTags().stream().anyMatch(t -> tag.getId().equals(t.getId()))) {
+        Set<Tag> tags = new HashSet<>();
+        journey.getTags().stream().filter(t -> !tag.getId().equals(t.getId())).forEach(tags::add);
+        tags.add(tag);
+        Journey refreshed = snapshot(journey);
+        refreshed.setTags(Set.copyOf(tags));
+        indexJourney(refreshed);
+        used = true;
+      }
+    }
+    return used;
+  }
+
+  /** Локації й теги збереженої подорожі мають знаходитися пошуком по довідниках. */
+  private void indexRelations(Journey journey) {
+    relatedLocations(journey).forEach(this::indexLocation);
+    if (journey.getTags() != null) {
+      journey.getTags().forEach(this::indexTag);
+    }
+  }
+
+  private static List<Location> relatedLocations(Journey journey) {
+    return Stream.of(journey.getOriginLocation(), journey.getDestinationLocation())
+        .filter(l -> l != null && l.getId() != null)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Незмінна копія подорожі для індексу. Сутності, отримані від інших сервісів, можуть далі
+   * змінюватися їхніми власниками, тому індекс не тримає посилань на їхні колекції. Події та фото
+   * не копіюються — результати пошуку використовуються лише для відбору подорожей.
+   */
+  private static Journey snapshot(Journey journey) {
+    Journey copy = new Journey();
+    copy.setId(journey.getId());
+    copy.setUserId(journey.getUserId());
+    copy.setUser(journey.getUser());
+    copy.setName(journey.getName());
+    copy.setDescription(journey.getDescription());
+    copy.setStartDate(journey.getStartDate());
+    copy.setEndDate(journey.getEndDate());
+    copy.setOriginLocationId(journey.getOriginLocationId());
+    copy.setOriginLocation(journey.getOriginLocation());
+    copy.setDestinationLocationId(journey.getDestinationLocationId());
+    copy.setDestinationLocation(journey.getDestinationLocation());
+    copy.setParticipants(
+        journey.getParticipants() != null ? Set.copyOf(journey.getParticipants()) : Set.of());
+    copy.setTags(journey.getTags() != null ? Set.copyOf(journey.getTags()) : Set.of());
+    copy.setCreatedAt(journey.getCreatedAt());
+    copy.setUpdatedAt(journey.getUpdatedAt());
+    return copy;
+  }
+
+  private void indexEvent(Event event) {
+    eventIndex.put(event.getId(), event, event.getName(), event.getDescription());
+  }
+
+  private void indexLocation(Location location) {
+    locationIndex.put(location.getId(), location, location.getName(), location.getDescription());
+  }
+
+  private void indexTag(Tag tag) {
+    tagIndex.put(tag.getId(), tag, tag.getName());
+  }
+}
@@ -0,0 +1,162 @@
+package com.trailtales.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Обходить звичайні файли дерева каталогів у порядку рядків їх шляхів за кодовими точками — тому
+ * самому, що дає {@code COLLATE "C"} у PostgreSQL для UTF-8. Це дозволяє звіряти каталог з
+ * відсортованими шляхами з бази злиттям двох потоків, не тримаючи жодного з них у пам'яті.
+ *
+ * <p>У пам'яті одночасно перебувають лише списки вмісту каталогів на шляху від кореня до поточного
+ * файлу. Щоб обхід у глибину збігався з порядком повних шляхів, каталоги впорядковуються за ім'ям
+ * із завершальним роздільником: {@code "a-b/"} іде перед {@code "a/"}, як {@code "a-b/x"} перед
+ * {@code "a/x"}. Символьні посилання не відвідуються.
+ */
+public final class SortedFileWalker implements Iterator<Path> {
+
+  private final String after;
+  private final Set<Path> excludedDirectories;
+  private final Deque<Iterator<Entry>> stack = new ArrayDeque<>();
+  private Path next;
+
+  /**
+   * Створює обхід.
+   *
+   * @param root кореневий каталог.
+   * @param after шлях, після якого почати (контрольна точка попереднього обходу), або {@code
+   *     null}, щоб почати з початку. Піддерева, що повністю передують йому, не читаються.
+   * @param excludedDirectories каталоги, які слід пропустити разом із вмістом.
+   */
+  public SortedFileWalker(Path root, String after, Set<Path> excludedDirectories) {
+    this.after = after;
+    this.excludedDirectories = excludedDirectories;
+    stack.push(list(root).iterator());
+    advance();
+  }
+
+  @Override
+  public boolean hasNext() {
+    return next != null;
+  }
+
+  @Override
+  public Path next() {
+    if (next == null) {
+      throw new NoSuchElementException();
+    }
+    Path current = next;
+    advance();
+    return current;
+  }
+
+  private void advance() {
+    next = null;
+    while (!stack.isEmpty()) {
+      Iterator<Entry> level = stack.peek();
+      if (!level.hasNext()) {
+        stack.pop();
+        continue;
+      }
+      Entry entry = level.next();
+      if (entry.directory()) {
+        // Каталог, що повністю передує контрольній точці, вже оброблено
+        boolean processed =
+            after != null
+                && compareCodePoints(entry.key(), after) <= 0
+                && !after.startsWith(entry.key());
+        if (!processed && !excludedDirectories.contains(entry.path())) {
+          stack.push(list(entry.path()).iterator());
+        }
+      } else if (after == null || compareCodePoints(entry.key(), after) > 0) {
+        next = entry.path();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Читає вміст каталогу, впорядкований за ключем; помилку читання лише повідомляє. Елементи, що
+   * передують контрольній точці, відкидаються до читання їх атрибутів, тож продовження обходу не
+   * звертається до кожного вже обробленого файлу каталогу.
+   */
+  private List<Entry> list(Path directory) {
+    List<Entry> entries = new ArrayList<>();
+    try (Stream<Path> children = Files.list(directory)) {
+      children.forEach(
+          child -> {
+            if (precedesCheckpoint(child)) {
+              return;
+            }
+            try {
+              BasicFileAttributes attributes =
+                  Files.readAttributes(
+                      child, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+              if (attributes.isDirectory()) {
+                entries.add(new Entry(child, child + File.separator, true));
+              } else if (attributes.isRegularFile()) {
+                entries.add(new Entry(child, child.toString(), false));
+              }
+            } catch (IOException e) {
+              // Файл зник між читанням каталогу та його атрибутів
+            }
+          });
+    } catch (IOException e) {
+      System.err.println("Не вдалося прочитати каталог " + directory + ": " + e.getMessage());
+      return List.of();
+    }
+    entries.sort((a, b) -> compareCodePoints(a.key(), b.key()));
+    return entries;
+  }
+
+  /**
+   * Чи оброблено елемент до контрольної точки, хоч би яким він був: ключ каталогу (з роздільником)
+   * не менший за ключ файлу, тож якщо і він не більший за точку і не лежить на шляху до неї, то
+   * елемент передує їй в обох випадках.
+   */
+  private boolean precedesCheckpoint(Path child) {
+    if (after == null) {
+      return false;
+    }
+    String directoryKey = child + File.separator;
+    return compareCodePoints(directoryKey, after) <= 0 && !after.startsWith(directoryKey);
+  }
+
+  /**
+   * Порівнює рядки за кодовими точками Unicode. На відміну від {@link String#compareTo}, що
+   * порівнює UTF-16 одиниці, цей порядок збігається з побайтовим порядком UTF-8.
+   */
+  public static int compareCodePoints(String a, String b) {
+    int i = 0;
+    int j = 0;
+    while (i < a.length() && j < b.length()) {
+      int ca = a.codePointAt(i);
+      int cb = b.codePointAt(j);
+      if (ca != cb) {
+        return Integer.compare(ca, cb);
+      }
+      i += Character.charCount(ca);
+      j += Character.charCount(cb);
+    }
+    return Integer.compare(a.length() - i, b.length() - j);
+  }
+
+  /**
+   * Елемент каталогу.
+   *
+   * @param key шлях, до якого для каталогу додано роздільник.
+   */
+  private record Entry(Path path, String key, boolean directory) {}
+}
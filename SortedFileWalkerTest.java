@@ -0,0 +1,99 @@
+package com.trailtales.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SortedFileWalkerTest {
+
+  @TempDir Path root;
+
+  @Test
+  void compareCodePointsMatchesUtf8ByteOrder() {
+    // U+1F600 у UTF-16 — сурогатна пара, менша за U+FF5E, але в UTF-8 і за кодовими точками більша
+    String emoji = "😀";
+    String fullwidthTilde = "～";
+    assertTrue(emoji.compareTo(fullwidthTilde) < 0);
+    assertTrue(SortedFileWalker.compareCodePoints(emoji, fullwidthTilde) > 0);
+
+    List<String> values = new ArrayList<>(List.of("b", emoji, "a/", "a-b/", fullwidthTilde, "a"));
+    values.sort(SortedFileWalker::compareCodePoints);
+    List<String> bytewise = new ArrayList<>(values);
+    bytewise.sort((x, y) -> Arrays.compareUnsigned(utf8(x), utf8(y)));
+    assertEquals(bytewise, values);
+    assertEquals(List.of("a", "a-b/", "a/", "b", fullwidthTilde, emoji), values);
+  }
+
+  @Test
+  void compareCodePointsOrdersPrefixFirst() {
+    assertEquals(0, SortedFileWalker.compareCodePoints("abc", "abc"));
+    assertTrue(SortedFileWalker.compareCodePoints("ab", "abc") < 0);
+    assertTrue(SortedFileWalker.compareCodePoints("abc", "ab") > 0);
+  }
+
+  @Test
+  void walksFilesInOrderOfFullPaths() throws IOException {
+    create("a/x", "a-b/x", "a/y/z", "b", "😀/q", "～/q");
+
+    assertEquals(List.of("a-b/x", "a/x", "a/y/z", "b", "～/q", "😀/q"), walk(null, Set.of()));
+  }
+
+  @Test
+  void resumesAfterCheckpoint() throws IOException {
+    create("a/x", "a-b/x", "a/y/z", "a0", "b");
+    List<String> all = walk(null, Set.of());
+
+    for (int i = 0; i < all.size(); i++) {
+      String checkpoint = root.resolve(all.get(i)).toString();
+      assertEquals(all.subList(i + 1, all.size()), walk(checkpoint, Set.of()));
+    }
+  }
+
+  @Test
+  void checkpointBetweenFilesStartsAtNextOne() throws IOException {
+    create("a/x", "a/z", "c");
+
+    assertEquals(List.of("a/z", "c"), walk(root.resolve("a/y").toString(), Set.of()));
+    assertEquals(List.of("c"), walk(root + File.separator + "b", Set.of()));
+  }
+
+  @Test
+  void skipsExcludedDirectoriesAndReturnsOnlyFiles() throws IOException {
+    create("keep/x", "staging/y");
+    Files.createDirectories(root.resolve("empty"));
+
+    assertEquals(List.of("keep/x"), walk(null, Set.of(root.resolve("staging"))));
+  }
+
+  private void create(String... paths) throws IOException {
+    for (String path : paths) {
+      Path file = root.resolve(path);
+      Files.createDirectories(file.getParent());
+      Files.createFile(file);
+    }
+  }
+
+  /** Шляхи обійдених файлів відносно кореня з роздільником {@code /}. */
+  private List<String> walk(String after, Set<Path> excluded) {
+    List<String> files = new ArrayList<>();
+    new SortedFileWalker(root, after, excluded)
+        .forEachRemaining(
+            file -> files.add(root.relativize(file).toString().replace(File.separatorChar, '/')));
+    return files;
+  }
+
+  private static byte[] utf8(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+}
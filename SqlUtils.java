@@ -0,0 +1,84 @@
+package com.trailtales.util;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/** Допоміжні методи для побудови параметрів SQL-запитів. */
+public final class SqlUtils {
+
+  private SqlUtils() {}
+
+  /**
+   * Формує шаблон для {@code LIKE}/{@code ILIKE} пошуку підрядка. Символи {@code %}, {@code _} та
+   * {@code \} з введеного тексту екрануються, щоб користувацький ввід не перетворювався на шаблон.
+   *
+   * @param text текст для пошуку.
+   * @return шаблон вигляду {@code %text%}.
+   */
+  public static String containsPattern(String text) {
+    String escaped = text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    return "%" + escaped + "%";
+  }
+
+  /**
+   * Перетворює введений користувачем текст на запит {@code to_tsquery}, де кожне слово шукається
+   * як префікс, а всі слова мають бути присутні: {@code "кар гор"} → {@code "кар:* & гор:*"}.
+   * Залишаються лише літери та цифри, тож службові символи синтаксису tsquery не потрапляють у
+   * запит.
+   *
+   * @param text текст для пошуку.
+   * @return рядок запиту або {@code null}, якщо в тексті немає жодного слова.
+   */
+  public static String toPrefixTsQuery(String text) {
+    if (text == null) {
+      return null;
+    }
+    String query =
+        Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+            .filter(word -> !word.isEmpty())
+            .map(word -> word + ":*")
+            .collect(Collectors.joining(" & "));
+    return query.isEmpty() ? null : query;
+  }
+
+  /**
+   * Формує умову потрапляння точки {@code point(longitude, latitude)} у прямокутник, яку
+   * обслуговує GiST-індекс над цим виразом. Прямокутник, що перетинає антимеридіан, розбивається
+   * на дві частини.
+   *
+   * @param bounds прямокутник.
+   * @param params список параметрів запиту, до якого додаються координати прямокутника.
+   * @return SQL-умова з параметрами.
+   */
+  public static String pointInBoxCondition(GeoUtils.BoundingBox bounds, List<Object> params) {
+    String box = "point(longitude, latitude) <@ box(point(?, ?), point(?, ?))";
+    if (!bounds.crossesAntimeridian()) {
+      params.addAll(
+          List.of(
+              bounds.minLongitude(),
+              bounds.minLatitude(),
+              bounds.maxLongitude(),
+              bounds.maxLatitude()));
+      return box;
+    }
+    params.addAll(
+        List.of(bounds.minLongitude(), bounds.minLatitude(), 180.0, bounds.maxLatitude()));
+    params.addAll(
+        List.of(-180.0, bounds.minLatitude(), bounds.maxLongitude(), bounds.maxLatitude()));
+    return "(" + box + " OR " + box + ")";
+  }
+
+  /**
+   * Перевіряє допустимість ліміту вибірки.
+   *
+   * @param limit максимальна кількість рядків.
+   * @throws IllegalArgumentException якщо ліміт не є додатним.
+   */
+  public static void requirePositiveLimit(int limit) {
+    if (limit <= 0) {
+      throw new IllegalArgumentException("Ліміт вибірки має бути додатним числом.");
+    }
+  }
+}
@@ -0,0 +1,200 @@
+package com.trailtales.repository;
+
+import com.trailtales.entity.QuarantinedFile;
+import com.trailtales.entity.StorageReconciliationState;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Репозиторій звірки каталогу завантажень: шляхи файлів, на які посилається база даних, контрольна
+ * точка проходу та файли в карантині.
+ */
+@Repository
+public class StorageReconciliationRepository {
+
+  /**
+   * Ключ рекомендаційного блокування PostgreSQL, яке не дає кільком клієнтам звіряти каталог
+   * одночасно.
+   */
+  private static final long RECONCILIATION_LOCK_KEY = 0x7472_6169_6c72_6563L;
+
+  /** Стовпці з шляхами файлів сховища; кожен має індекс у порядку {@code COLLATE "C"}. */
+  private static final String[][] PATH_COLUMNS = {
+    {"photos", "file_path"},
+    {"photos", "thumbnail_small_path"},
+    {"photos", "thumbnail_medium_path"},
+    {"photo_blobs", "file_path"}
+  };
+
+  private final JdbcTemplate jdbcTemplate;
+
+  private final RowMapper<QuarantinedFile> quarantinedFileRowMapper =
+      (rs, rowNum) ->
+          new QuarantinedFile(
+              rs.getString("file_path"),
+              rs.getString("quarantine_path"),
+              rs.getTimestamp("quarantined_at").toLocalDateTime());
+
+  /**
+   * Конструктор для впровадження залежності {@link JdbcTemplate}.
+   *
+   * @param jdbcTemplate об'єкт для взаємодії з базою даних.
+   */
+  public StorageReconciliationRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Намагається взяти блокування звірки до кінця поточної транзакції.
+   *
+   * @return {@code false}, якщо звірку вже виконує інший клієнт.
+   */
+  public boolean tryLock() {
+    return Boolean.TRUE.equals(
+        jdbcTemplate.queryForObject(
+            "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, RECONCILIATION_LOCK_KEY));
+  }
+
+  /**
+   * Повертає наступну порцію шляхів, на які посилаються фото та вміст, у побайтовому порядку.
+   * Кожен стовпець читається діапазоном свого індексу, тож порція не залежить від розміру таблиць.
+   * Шлях, на який посилаються кілька рядків, може повторюватися.
+   *
+   * @param after шлях, після якого почати (не включно).
+   * @param before верхня межа (не включно).
+   * @param limit розмір порції.
+   * @return відсортовані шляхи.
+   */
+  public List<String> findReferencedPaths(String after, String before, int limit) {
+    List<String> branches = new ArrayList<>();
+    List<Object> params = new ArrayList<>();
+    for (String[] column : PATH_COLUMNS) {
+      String path = column[1] + " COLLATE \"C\"";
+      branches.add(
+          "(SELECT "
+              + path
+              + " AS path FROM "
+              + column[0]
+              + " WHERE "
+              + path
+              + " > ? AND "
+              + path
+              + " < ? ORDER BY 1 LIMIT ?)");
+      params.add(after);
+      params.add(before);
+      params.add(limit);
+    }
+    params.add(limit);
+    String sql =
+        "SELECT path FROM (" + String.join(" UNION ALL ", branches) + ") p ORDER BY path LIMIT ?";
+    return jdbcTemplate.queryForList(sql, String.class, params.toArray());
+  }
+
+  /**
+   * Перевіряє, чи посилається на файл хоча б одне фото або запис вмісту.
+   *
+   * @param path шлях файлу.
+   * @return {@code true}, якщо посилання є.
+   */
+  public boolean isReferenced(String path) {
+    List<String> conditions = new ArrayList<>();
+    for (String[] column : PATH_COLUMNS) {
+      conditions.add(
+          "EXISTS (SELECT 1 FROM " + column[0] + " WHERE " + column[1] + " COLLATE \"C\" = ?)");
+    }
+    return Boolean.TRUE.equals(
+        jdbcTemplate.queryForObject(
+            "SELECT " + String.join(" OR ", conditions),
+            Boolean.class,
+            path,
+            path,
+            path,
+            path));
+  }
+
+  /** Чи є в базі хоча б одне фото (для перевірки, що шляхи записано відносно того ж каталогу). */
+  public boolean hasPhotos() {
+    return Boolean.TRUE.equals(
+        jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM photos)", Boolean.class));
+  }
+
+  public StorageReconciliationState loadState() {
+    return jdbcTemplate.queryForObject(
+        "SELECT * FROM storage_reconciliation_state WHERE id = 1",
+        (rs, rowNum) -> {
+          Timestamp passStartedAt = rs.getTimestamp("pass_started_at");
+          Timestamp lastPassFinishedAt = rs.getTimestamp("last_pass_finished_at");
+          return new StorageReconciliationState(
+              rs.getString("last_path"),
+              passStartedAt != null ? passStartedAt.toLocalDateTime() : null,
+              lastPassFinishedAt != null ? lastPassFinishedAt.toLocalDateTime() : null,
+              rs.getLong("files_checked"),
+              rs.getLong("orphans_quarantined"),
+              rs.getLong("missing_files"));
+        });
+  }
+
+  public void saveState(StorageReconciliationState state) {
+    jdbcTemplate.update(
+        "UPDATE storage_reconciliation_state SET last_path = ?, pass_started_at = ?, last_pass_finished_at = ?, files_checked = ?, orphans_quarantined = ?, missing_files = ? WHERE id = 1",
+        state.getLastPath(),
+        state.getPassStartedAt() != null ? Timestamp.valueOf(state.getPassStartedAt()) : null,
+        state.getLastPassFinishedAt() != null
+            ? Timestamp.valueOf(state.getLastPassFinishedAt())
+            : null,
+        state.getFilesChecked(),
+        state.getOrphansQuarantined(),
+        state.getMissingFiles());
+  }
+
+  /**
+   * Записує файл у карантин; повторний карантин того самого шляху оновлює запис.
+   *
+   * @param filePath початковий шлях файлу.
+   * @param quarantinePath шлях у карантині.
+   */
+  public void addToQuarantine(String filePath, String quarantinePath) {
+    jdbcTemplate.update(
+        "INSERT INTO storage_quarantine (file_path, quarantine_path) VALUES (?, ?)"
+            + " ON CONFLICT (file_path) DO UPDATE SET quarantine_path = EXCLUDED.quarantine_path,"
+            + " quarantined_at = CURRENT_TIMESTAMP",
+        filePath,
+        quarantinePath);
+  }
+
+  public Optional<QuarantinedFile> findQuarantined(String filePath) {
+    return jdbcTemplate
+        .query(
+            "SELECT * FROM storage_quarantine WHERE file_path = ?",
+            quarantinedFileRowMapper,
+            filePath)
+        .stream()
+        .findFirst();
+  }
+
+  /**
+   * Повертає файли, що перебувають у карантині довше заданого часу.
+   *
+   * @param before межа часу переміщення в карантин (не включно).
+   * @param limit розмір порції.
+   * @return найдавніші файли в карантині.
+   */
+  public List<QuarantinedFile> findQuarantinedBefore(LocalDateTime before, int limit) {
+    return jdbcTemplate.query(
+        "SELECT * FROM storage_quarantine WHERE quarantined_at < ?"
+            + " ORDER BY quarantined_at LIMIT ?",
+        quarantinedFileRowMapper,
+        Timestamp.valueOf(before),
+        limit);
+  }
+
+  public void removeFromQuarantine(String filePath) {
+    jdbcTemplate.update("DELETE FROM storage_quarantine WHERE file_path = ?", filePath);
+  }
+}
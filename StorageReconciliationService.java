@@ -0,0 +1,35 @@
+package com.trailtales.service;
+
+/**
+ * Сервіс звірки каталогу завантажень з базою даних. Файли, на які не посилається жодне фото чи
+ * запис вмісту (наприклад, залишені після видалення подорожі або збою посеред завантаження),
+ * спершу переносяться в карантин і видаляються лише після строку зберігання. Шляхи з бази, файлів
+ * яких немає на диску, повідомляються. Звірка йде невеликими порціями від контрольної точки, що
+ * зберігається в базі, тож великий каталог обробляється поступово і після перезапуску
+ * продовжується з того ж місця.
+ */
+public interface StorageReconciliationService {
+
+  /**
+   * Звіряє наступну порцію файлів. Після останньої порції проходу прибирає карантин, строк
+   * зберігання якого минув.
+   *
+   * @return {@code true}, якщо прохід ще не завершено і наступну порцію варто звірити одразу;
+   *     {@code false}, якщо прохід завершено або звірку зараз виконує інший клієнт.
+   */
+  boolean reconcileNextSlice();
+
+  /**
+   * Видаляє файли, строк карантину яких минув. Файл, на який тим часом з'явилося посилання,
+   * повертається на місце.
+   *
+   * @return кількість видалених файлів.
+   */
+  int purgeExpiredQuarantine();
+
+  /**
+   * Запускає фонову звірку: порції йдуть з невеликою паузою, а між проходами задача чекає кілька
+   * годин. Повторні виклики нічого не роблять.
+   */
+  void startBackgroundReconciliation();
+}
@@ -0,0 +1,392 @@
+package com.trailtales.service.impl;
+
+import com.trailtales.entity.QuarantinedFile;
+import com.trailtales.entity.StorageReconciliationState;
+import com.trailtales.repository.StorageReconciliationRepository;
+import com.trailtales.service.StorageReconciliationService;
+import com.trailtales.util.PhotoStorage;
+import com.trailtales.util.SortedFileWalker;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class StorageReconciliationServiceImpl implements StorageReconciliationService {
+
+  /** Кількість файлів каталогу, що звіряються однією порцією (і однією транзакцією). */
+  private static final int SLICE_SIZE = 2000;
+
+  /** Кількість шляхів з бази, що читаються за один запит. */
+  private static final int REFERENCE_PAGE_SIZE = 1000;
+
+  /** Кількість записів карантину, що обробляються за один запит. */
+  private static final int PURGE_BATCH_SIZE = 100;
+
+  /** Пауза між порціями, щоб звірка не займала диск і базу безперервно. */
+  private static final long SLICE_PAUSE_MS = 100;
+
+  /** Інтервал між проходами звірки. */
+  private static final long PASS_INTERVAL_MS = 6 * 60 * 60_000;
+
+  /**
+   * Файли, змінені нещодавно, не вважаються зайвими: посилання на щойно збережений файл з'являється
+   * лише після фіксації транзакції завантаження.
+   */
+  private static final Duration ORPHAN_GRACE_PERIOD = Duration.ofHours(1);
+
+  /** Скільки файл без посилань зберігається в карантині до видалення. */
+  private static final Duration QUARANTINE_RETENTION = Duration.ofDays(7);
+
+  /** Скільки відсутніх файлів за прохід виводиться в журнал поіменно. */
+  private static final int MAX_REPORTED_MISSING = 20;
+
+  private final StorageReconciliationRepository reconciliationRepository;
+  private final PhotoStorage photoStorage;
+  private final TransactionTemplate transactionTemplate;
+
+  /**
+   * Обхід, що продовжується з порції в порцію, разом з контрольною точкою, на якій він зупинився.
+   * Без нього кожна порція заново читала б каталоги на шляху до точки.
+   */
+  private final AtomicReference<WalkerPosition> currentWalk = new AtomicReference<>();
+
+  private boolean started;
+
+  @Autowired
+  public StorageReconciliationServiceImpl(
+      StorageReconciliationRepository reconciliationRepository,
+      PhotoStorage photoStorage,
+      PlatformTransactionManager transactionManager) {
+    this.reconciliationRepository = reconciliationRepository;
+    this.photoStorage = photoStorage;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  @Override
+  public boolean reconcileNextSlice() {
+    return Boolean.TRUE.equals(
+        transactionTemplate.execute(
+            status -> reconciliationRepository.tryLock() && reconcileSlice()));
+  }
+
+  @Override
+  public int purgeExpiredQuarantine() {
+    Integer purged =
+        transactionTemplate.execute(
+            status -> reconciliationRepository.tryLock() ? purgeExpired() : 0);
+    return purged != null ? purged : 0;
+  }
+
+  @Override
+  public synchronized void startBackgroundReconciliation() {
+    if (started) {
+      return;
+    }
+    started = true;
+    Thread worker = new Thread(this::runWorker, "storage-reconciler");
+    worker.setDaemon(true);
+    worker.start();
+  }
+
+  private void runWorker() {
+    while (true) {
+      boolean moreWork;
+      try {
+        moreWork = reconcileNextSlice();
+      } catch (RuntimeException e) {
+        System.err.println("Помилка звірки сховища фотографій: " + e.getMessage());
+        moreWork = false;
+      }
+      try {
+        Thread.sleep(moreWork ? SLICE_PAUSE_MS : PASS_INTERVAL_MS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Звіряє порцію злиттям двох відсортованих потоків: файлів каталогу та шляхів з бази, обидва від
+   * контрольної точки. Файл без шляху в базі — зайвий, шлях без файлу — відсутній файл.
+   *
+   * @return {@code true}, якщо прохід ще не завершено.
+   */
+  private boolean reconcileSlice() {
+    StorageReconciliationState state = reconciliationRepository.loadState();
+    Path root = photoStorage.getRootDir();
+    // Шляхи в базі записано так само, як їх будує обхід: від кореня з роздільником
+    String lowerBound = root + File.separator;
+    String upperBound = root.toString() + (char) (File.separatorChar + 1);
+
+    if (state.getLastPath() == null) {
+      if (!startPass(state, lowerBound, upperBound)) {
+        return false;
+      }
+    }
+
+    SortedFileWalker files = resumeWalk(root, state.getLastPath());
+    ReferencedPaths references = new ReferencedPaths(state.getLastPath(), upperBound);
+    int checked = 0;
+    String lastPath = state.getLastPath();
+    while (checked < SLICE_SIZE && files.hasNext()) {
+      Path file = files.next();
+      String path = file.toString();
+      while (references.hasNext()
+          && SortedFileWalker.compareCodePoints(references.peek(), path) < 0) {
+        handleMissing(references.next(), state);
+      }
+      if (references.hasNext() && references.peek().equals(path)) {
+        references.next();
+      } else {
+        handleOrphan(file, state);
+      }
+      checked++;
+      lastPath = path;
+    }
+    state.setFilesChecked(state.getFilesChecked() + checked);
+
+    if (files.hasNext()) {
+      state.setLastPath(lastPath);
+      reconciliationRepository.saveState(state);
+      currentWalk.set(new WalkerPosition(files, lastPath));
+      return true;
+    }
+    // Каталог пройдено: решта шляхів з бази вказує на відсутні файли
+    while (references.hasNext()) {
+      handleMissing(references.next(), state);
+    }
+    finishPass(state);
+    return false;
+  }
+
+  /**
+   * Повертає обхід, що зупинився на контрольній точці попередньої порції, або створює новий, якщо
+   * точка інша (порцію не зафіксовано, звірку продовжив інший клієнт або програму перезапущено).
+   * Обхід забирається на час порції, тож після помилки всередині неї він не використовується.
+   */
+  private SortedFileWalker resumeWalk(Path root, String lastPath) {
+    WalkerPosition position = currentWalk.getAndSet(null);
+    if (position != null && position.lastPath().equals(lastPath)) {
+      return position.walker();
+    }
+    return new SortedFileWalker(
+        root,
+        lastPath,
+        Set.of(
+            photoStorage.getStagingDir(),
+            photoStorage.getQuarantineDir(),
+            photoStorage.getTilesDir(),
+            photoStorage.getSessionsDir()));
+  }
+
+  /**
+   * Починає новий прохід: скидає лічильники і прибирає тимчасові файли, що залишилися після збоїв.
+   *
+   * @return {@code false}, якщо прохід не можна починати, бо шляхи в базі записано відносно
+   *     іншого каталогу.
+   */
+  private boolean startPass(
+      StorageReconciliationState state, String lowerBound, String upperBound) {
+    if (reconciliationRepository.hasPhotos()
+        && reconciliationRepository.findReferencedPaths(lowerBound, upperBound, 1).isEmpty()) {
+      // Інакше всі файли виглядали б зайвими після зміни trailtales.upload.dir
+      System.err.println(
+          "Звірку сховища пропущено: жоден шлях у базі не починається з "
+              + lowerBound
+              + ". Перевірте параметр trailtales.upload.dir.");
+      return false;
+    }
+    state.setLastPath(lowerBound);
+    state.setPassStartedAt(LocalDateTime.now());
+    state.setFilesChecked(0);
+    state.setOrphansQuarantined(0);
+    state.setMissingFiles(0);
+    sweepStaging();
+    return true;
+  }
+
+  private void finishPass(StorageReconciliationState state) {
+    int purged = purgeExpired();
+    System.out.println(
+        "Звірку сховища фотографій завершено: перевірено файлів "
+            + state.getFilesChecked()
+            + ", перенесено в карантин "
+            + state.getOrphansQuarantined()
+            + ", відсутніх файлів "
+            + state.getMissingFiles()
+            + ", видалено з карантину "
+            + purged
+            + ".");
+    state.setLastPath(null);
+    state.setLastPassFinishedAt(LocalDateTime.now());
+    reconciliationRepository.saveState(state);
+  }
+
+  /** Файл без посилань переноситься в карантин, якщо він не змінювався протягом пільгового часу. */
+  private void handleOrphan(Path file, StorageReconciliationState state) {
+    try {
+      if (isRecentlyChanged(file)) {
+        return;
+      }
+      Path target = photoStorage.quarantinePath(file);
+      Files.createDirectories(target.getParent());
+      Files.move(file, target, StandardCopyOption.REPLACE_EXISTING);
+      reconciliationRepository.addToQuarantine(file.toString(), target.toString());
+      state.setOrphansQuarantined(state.getOrphansQuarantined() + 1);
+    } catch (IOException e) {
+      System.err.println(
+          "Не вдалося перенести в карантин файл " + file + ": " + e.getMessage());
+    }
+  }
+
+  /**
+   * Шлях з бази без файлу на диску. Якщо файл потрапив у карантин, а посилання на нього з'явилося
+   * пізніше (завантаження зафіксовано вже після звірки), файл повертається на місце.
+   */
+  private void handleMissing(String path, StorageReconciliationState state) {
+    QuarantinedFile quarantined = reconciliationRepository.findQuarantined(path).orElse(null);
+    if (quarantined != null && restore(quarantined)) {
+      System.out.println("Файл повернуто з карантину: " + path);
+      return;
+    }
+    state.setMissingFiles(state.getMissingFiles() + 1);
+    if (state.getMissingFiles() <= MAX_REPORTED_MISSING) {
+      System.err.println("Файл фото відсутній у сховищі: " + path);
+    } else if (state.getMissingFiles() == MAX_REPORTED_MISSING + 1) {
+      System.err.println("Решту відсутніх файлів цього проходу не виводимо поіменно.");
+    }
+  }
+
+  private boolean restore(QuarantinedFile quarantined) {
+    Path original = Paths.get(quarantined.getFilePath());
+    try {
+      Files.createDirectories(original.getParent());
+      Files.move(Paths.get(quarantined.getQuarantinePath()), original);
+      reconciliationRepository.removeFromQuarantine(quarantined.getFilePath());
+      return true;
+    } catch (IOException e) {
+      System.err.println(
+          "Не вдалося повернути файл з карантину " + original + ": " + e.getMessage());
+      return false;
+    }
+  }
+
+  private int purgeExpired() {
+    LocalDateTime expiredBefore = LocalDateTime.now().minus(QUARANTINE_RETENTION);
+    int purged = 0;
+    int handled;
+    List<QuarantinedFile> batch;
+    do {
+      batch = reconciliationRepository.findQuarantinedBefore(expiredBefore, PURGE_BATCH_SIZE);
+      handled = 0;
+      for (QuarantinedFile quarantined : batch) {
+        Path quarantinePath = Paths.get(quarantined.getQuarantinePath());
+        if (reconciliationRepository.isReferenced(quarantined.getFilePath())) {
+          // Файл могли створити заново (наприклад, зменшену копію); тоді копія з карантину зайва
+          if (Files.exists(Paths.get(quarantined.getFilePath()))) {
+            if (photoStorage.deleteQuietly(quarantinePath)) {
+              reconciliationRepository.removeFromQuarantine(quarantined.getFilePath());
+              handled++;
+            }
+          } else if (restore(quarantined)) {
+            handled++;
+          }
+        } else if (photoStorage.deleteQuietly(quarantinePath)) {
+          reconciliationRepository.removeFromQuarantine(quarantined.getFilePath());
+          purged++;
+          handled++;
+        }
+      }
+      // Записи, файли яких не вдалося прибрати, залишаються до наступного проходу
+    } while (batch.size() == PURGE_BATCH_SIZE && handled > 0);
+    return purged;
+  }
+
+  /** Видаляє тимчасові файли збережень, перерваних збоєм або закриттям застосунку. */
+  private void sweepStaging() {
+    try (Stream<Path> staged = Files.list(photoStorage.getStagingDir())) {
+      staged
+          .filter(Files::isRegularFile)
+          .filter(file -> !isRecentlyChangedQuietly(file))
+          .forEach(photoStorage::deleteQuietly);
+    } catch (IOException e) {
+      System.err.println("Не вдалося прибрати тимчасові файли фото: " + e.getMessage());
+    }
+  }
+
+  private static boolean isRecentlyChanged(Path file) throws IOException {
+    return PhotoStorage.lastChangedAt(file).isAfter(Instant.now().minus(ORPHAN_GRACE_PERIOD));
+  }
+
+  private static boolean isRecentlyChangedQuietly(Path file) {
+    try {
+      return isRecentlyChanged(file);
+    } catch (IOException e) {
+      return true; // Файл зник або недоступний — не чіпаємо
+    }
+  }
+
+  /**
+   * Відсортовані шляхи з бази без повторів, що читаються порціями по мірі просування злиття.
+   */
+  private class ReferencedPaths {
+    private final String upperBound;
+    private final List<String> page = new ArrayList<>();
+    private int position;
+    private String lastRead;
+    private boolean exhausted;
+
+    ReferencedPaths(String after, String upperBound) {
+      this.lastRead = after;
+      this.upperBound = upperBound;
+    }
+
+    boolean hasNext() {
+      if (position < page.size()) {
+        return true;
+      }
+      if (exhausted) {
+        return false;
+      }
+      page.clear();
+      position = 0;
+      for (String path :
+          reconciliationRepository.findReferencedPaths(lastRead, upperBound, REFERENCE_PAGE_SIZE)) {
+        if (page.isEmpty() || !page.get(page.size() - 1).equals(path)) {
+          page.add(path);
+        }
+      }
+      exhausted = page.isEmpty();
+      if (!exhausted) {
+        lastRead = page.get(page.size() - 1);
+      }
+      return !exhausted;
+    }
+
+    String peek() {
+      return page.get(position);
+    }
+
+    String next() {
+      return page.get(position++);
+    }
+  }
+
+  private record WalkerPosition(SortedFileWalker walker, String lastPath) {}
+}
@@ -0,0 +1,18 @@
+package com.trailtales.entity;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StorageReconciliationState {
+  private String lastPath; // Останній звірений шлях (NULL — наступна порція почне новий прохід)
+  private LocalDateTime passStartedAt;
+  private LocalDateTime lastPassFinishedAt;
+  private long filesChecked; // Лічильники поточного проходу
+  private long orphansQuarantined;
+  private long missingFiles;
+}
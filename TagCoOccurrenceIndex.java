@@ -0,0 +1,177 @@
+package com.trailtales.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Розріджена матриця спільної появи тегів: для кожної пари тегів — кількість подорожей, позначених
+ * обома. Рядок матриці кожного тегу зберігається як {@link LongIntHashMap} (ID сусіднього тегу →
+ * лічильник), а теги й подорожі адресуються щільними порядковими номерами, тож жодна структура не
+ * упаковує ключі в {@code Long}.
+ *
+ * <p>Індекс будується одним потоковим проходом по {@code journey_tags} і далі оновлюється при
+ * зміні тегів окремої подорожі: віднімаються пари старого набору і додаються пари нового. Усі
+ * методи синхронізовані.
+ */
+public class TagCoOccurrenceIndex {
+
+  private static final int ABSENT = -1;
+
+  private final LongIntHashMap tagOrdinals = new LongIntHashMap();
+  private final List<LongIntHashMap> rows = new ArrayList<>();
+  private final LongIntHashMap tagUsage = new LongIntHashMap();
+
+  private final LongIntHashMap journeyOrdinals = new LongIntHashMap();
+  private final List<long[]> tagsByJourneyOrdinal = new ArrayList<>();
+
+  /**
+   * Встановлює поточний набір тегів подорожі, оновлюючи лічильники всіх зачеплених пар.
+   *
+   * @param journeyId ID подорожі.
+   * @param tagIds ID тегів подорожі (порожній масив — подорож без тегів).
+   */
+  public synchronized void setJourneyTags(long journeyId, long[] tagIds) {
+    long[] updated = Arrays.stream(tagIds).distinct().sorted().toArray();
+    int journeyOrdinal = journeyOrdinals.get(journeyId, ABSENT);
+    long[] previous = journeyOrdinal == ABSENT ? null : tagsByJourneyOrdinal.get(journeyOrdinal);
+    if (previous != null && Arrays.equals(previous, updated)) {
+      return;
+    }
+    if (previous != null) {
+      count(previous, -1);
+    }
+    count(updated, 1);
+
+    if (journeyOrdinal == ABSENT) {
+      if (updated.length == 0) {
+        return;
+      }
+      journeyOrdinal = tagsByJourneyOrdinal.size();
+      journeyOrdinals.put(journeyId, journeyOrdinal);
+      tagsByJourneyOrdinal.add(updated);
+    } else {
+      tagsByJourneyOrdinal.set(journeyOrdinal, updated.length == 0 ? null : updated);
+    }
+  }
+
+  /**
+   * Видаляє подорож з матриці.
+   *
+   * @param journeyId ID видаленої подорожі.
+   */
+  public synchronized void removeJourney(long journeyId) {
+    setJourneyTags(journeyId, new long[0]);
+  }
+
+  /**
+   * Видаляє тег з усіх подорожей у матриці (після видалення тегу каскадно зникають і його зв'язки
+   * з подорожами). Операція рідкісна, тож прохід по всіх подорожах прийнятний.
+   *
+   * @param tagId ID видаленого тегу.
+   */
+  public synchronized void removeTag(long tagId) {
+    for (int ordinal = 0; ordinal < tagsByJourneyOrdinal.size(); ordinal++) {
+      long[] tags = tagsByJourneyOrdinal.get(ordinal);
+      if (tags != null && Arrays.binarySearch(tags, tagId) >= 0) {
+        count(tags, -1);
+        long[] remaining = Arrays.stream(tags).filter(id -> id != tagId).toArray();
+        count(remaining, 1);
+        tagsByJourneyOrdinal.set(ordinal, remaining.length == 0 ? null : remaining);
+      }
+    }
+  }
+
+  /**
+   * Повертає теги, що найчастіше трапляються разом із заданими. Для кількох заданих тегів
+   * лічильники сумуються; самі задані теги до результату не входять.
+   *
+   * @param tagIds ID тегів, для яких шукаються пов'язані.
+   * @param limit максимальна кількість результатів.
+   * @return пов'язані теги з кількістю спільних подорожей, найчастіші першими.
+   */
+  public synchronized List<Related> findRelated(long[] tagIds, int limit) {
+    LongIntHashMap totals = new LongIntHashMap();
+    for (long tagId : tagIds) {
+      int ordinal = tagOrdinals.get(tagId, ABSENT);
+      if (ordinal != ABSENT) {
+        rows.get(ordinal).forEach(totals::addTo);
+      }
+    }
+    for (long tagId : tagIds) {
+      totals.remove(tagId);
+    }
+
+    Comparator<Related> byCount =
+        Comparator.comparingInt(Related::count)
+            .thenComparing(Related::tagId, Comparator.reverseOrder());
+    PriorityQueue<Related> best = new PriorityQueue<>(byCount);
+    totals.forEach(
+        (tagId, count) -> {
+          Related candidate = new Related(tagId, count);
+          if (best.size() < limit) {
+            best.add(candidate);
+          } else if (byCount.compare(candidate, best.peek()) > 0) {
+            best.poll();
+            best.add(candidate);
+          }
+        });
+    List<Related> result = new ArrayList<>(best);
+    result.sort(byCount.reversed());
+    return result;
+  }
+
+  /**
+   * Кількість подорожей, позначених тегом.
+   *
+   * @param tagId ID тегу.
+   * @return кількість подорожей.
+   */
+  public synchronized int usageCount(long tagId) {
+    return tagUsage.get(tagId, 0);
+  }
+
+  /** Приблизний обсяг пам'яті матриці в байтах. */
+  public synchronized long estimateMemoryBytes() {
+    long bytes = tagOrdinals.estimateMemoryBytes() + tagUsage.estimateMemoryBytes();
+    bytes += journeyOrdinals.estimateMemoryBytes();
+    for (LongIntHashMap row : rows) {
+      bytes += row.estimateMemoryBytes();
+    }
+    for (long[] tags : tagsByJourneyOrdinal) {
+      bytes += tags != null ? (long) tags.length * Long.BYTES : 0;
+    }
+    return bytes;
+  }
+
+  private void count(long[] tags, int delta) {
+    for (int i = 0; i < tags.length; i++) {
+      tagUsage.addTo(tags[i], delta);
+      for (int j = 0; j < tags.length; j++) {
+        if (i != j) {
+          row(tags[i]).addTo(tags[j], delta);
+        }
+      }
+    }
+  }
+
+  private LongIntHashMap row(long tagId) {
+    int ordinal = tagOrdinals.get(tagId, ABSENT);
+    if (ordinal == ABSENT) {
+      ordinal = rows.size();
+      tagOrdinals.put(tagId, ordinal);
+      rows.add(new LongIntHashMap());
+    }
+    return rows.get(ordinal);
+  }
+
+  /**
+   * Пов'язаний тег.
+   *
+   * @param tagId ID тегу.
+   * @param count кількість подорожей, де він трапляється разом із заданими тегами.
+   */
+  public record Related(long tagId, int count) {}
+}
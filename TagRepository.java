@@ -1,15 +1,20 @@
 package com.trailtales.repository;
 
+import com.trailtales.dto.NameCompletion;
+import com.trailtales.dto.NameSuggestion;
 import com.trailtales.entity.Tag;
+import com.trailtales.util.SqlUtils;
 import java.sql.PreparedStatement;
 import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.BiConsumer;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
@@ -57,6 +62,26 @@ public class TagRepository {
     }
   }
 
+  /**
+   * Знаходить теги за набором ID одним запитом.
+   *
+   * @param tagIds ID тегів.
+   * @return знайдені теги в довільному порядку.
+   */
+  public List<Tag> findByIds(Collection<Long> tagIds) {
+    if (tagIds == null || tagIds.isEmpty()) {
+      return List.of();
+    }
+    String sql = "SELECT id, name, created_at, updated_at FROM tags WHERE id = ANY (?)";
+    return jdbcTemplate.query(
+        connection -> {
+          PreparedStatement ps = connection.prepareStatement(sql);
+          ps.setArray(1, connection.createArrayOf("bigint", tagIds.toArray()));
+          return ps;
+        },
+        tagRowMapper);
+  }
+
   /**
    * Знаходить тег за його назвою.
    *
@@ -72,6 +97,26 @@ public class TagRepository {
     }
   }
 
+  /**
+   * Знаходить теги за набором назв одним запитом.
+   *
+   * @param names назви тегів.
+   * @return знайдені теги в довільному порядку; невідомі назви пропускаються.
+   */
+  public List<Tag> findByNames(Collection<String> names) {
+    if (names == null || names.isEmpty()) {
+      return List.of();
+    }
+    String sql = "SELECT id, name, created_at, updated_at FROM tags WHERE name = ANY (?)";
+    return jdbcTemplate.query(
+        connection -> {
+          PreparedStatement ps = connection.prepareStatement(sql);
+          ps.setArray(1, connection.createArrayOf("text", names.toArray()));
+          return ps;
+        },
+        tagRowMapper);
+  }
+
   /**
    * Повертає список усіх тегів з бази даних.
    *
@@ -82,6 +127,93 @@ public class TagRepository {
     return jdbcTemplate.query(sql, tagRowMapper);
   }
 
+  /**
+   * Шукає теги, назва яких містить вказаний текст (без урахування регістру). Фільтрація,
+   * сортування та обмеження кількості виконуються на боці бази даних.
+   *
+   * @param query текст для пошуку; порожній або {@code null} повертає теги без фільтра.
+   * @param limit максимальна кількість тегів у результаті.
+   * @return список тегів, відсортований за назвою.
+   */
+  public List<Tag> search(String query, int limit) {
+    String select = "SELECT id, name, created_at, updated_at FROM tags ";
+    if (query == null || query.isBlank()) {
+      return jdbcTemplate.query(select + "ORDER BY name LIMIT ?", tagRowMapper, limit);
+    }
+    return jdbcTemplate.query(
+        select + "WHERE name ILIKE ? ORDER BY name LIMIT ?",
+        tagRowMapper,
+        SqlUtils.containsPattern(query.trim()),
+        limit);
+  }
+
+  /**
+   * Знаходить теги з назвами, схожими на введений текст, за допомогою триграм {@code pg_trgm}.
+   * Збіг рахується як для назви цілком ({@code %}), так і для її частини ({@code <%}), тож
+   * підходять і друкарські помилки, і недописане слово. Запит обслуговується GIN-індексом.
+   *
+   * @param text введена назва.
+   * @param limit максимальна кількість результатів.
+   * @return назви з оцінкою схожості, найближчі першими.
+   */
+  public List<NameSuggestion> findSimilarNames(String text, int limit) {
+    String sql =
+        "SELECT id, name, GREATEST(similarity(name, ?), word_similarity(?, name)) AS score "
+            + "FROM tags WHERE name % ? OR ? <% name "
+            + "ORDER BY score DESC, name LIMIT ?";
+    return jdbcTemplate.query(
+        sql,
+        (rs, rowNum) ->
+            new NameSuggestion(rs.getLong("id"), rs.getString("name"), rs.getDouble("score")),
+        text,
+        text,
+        text,
+        text,
+        limit);
+  }
+
+  /**
+   * Завантажує назви всіх тегів разом з їх популярністю — кількістю подорожей, позначених тегом.
+   * Використовується для побудови індексу автодоповнення одним запитом.
+   *
+   * @return назви тегів з вагами.
+   */
+  public List<NameCompletion> findNameWeights() {
+    String sql =
+        "SELECT t.id, t.name, COALESCE(u.uses, 0) AS weight FROM tags t "
+            + "LEFT JOIN (SELECT tag_id, COUNT(*) AS uses FROM journey_tags GROUP BY tag_id) u "
+            + "ON u.tag_id = t.id";
+    return jdbcTemplate.query(
+        sql,
+        (rs, rowNum) ->
+            new NameCompletion(rs.getLong("id"), rs.getString("name"), rs.getLong("weight")));
+  }
+
+  /**
+   * Передає ID тегів кожної подорожі обробнику рядок за рядком, не тримаючи весь результат у
+   * пам'яті. Подорожі без тегів пропускаються.
+   *
+   * @param consumer обробник пари (ID подорожі, ID її тегів).
+   */
+  public void streamJourneyTagIds(BiConsumer<Long, long[]> consumer) {
+    String sql =
+        "SELECT journey_id, array_agg(tag_id) AS tag_ids FROM journey_tags GROUP BY journey_id";
+    jdbcTemplate.query(
+        connection -> {
+          PreparedStatement ps = connection.prepareStatement(sql);
+          ps.setFetchSize(1000);
+          return ps;
+        },
+        rs -> {
+          Long[] tagIds = (Long[]) rs.getArray("tag_ids").getArray();
+          long[] primitiveTagIds = new long[tagIds.length];
+          for (int i = 0; i < tagIds.length; i++) {
+            primitiveTagIds[i] = tagIds[i];
+          }
+          consumer.accept(rs.getLong("journey_id"), primitiveTagIds);
+        });
+  }
+
   /**
    * Знаходить набір тегів, пов'язаних з певною подорожжю.
    *
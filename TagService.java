@@ -1,6 +1,9 @@
 package com.trailtales.service;
 
+import com.trailtales.dto.NameSuggestion;
+import com.trailtales.dto.RelatedTag;
 import com.trailtales.entity.Tag;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -43,6 +46,57 @@ public interface TagService {
    */
   List<Tag> getAllTags();
 
+  /**
+   * Шукає теги за текстом у назві. Фільтрація, сортування та ліміт виконуються в базі даних.
+   *
+   * @param query текст для пошуку (порожній рядок повертає теги без фільтра).
+   * @param limit максимальна кількість тегів у результаті.
+   * @return список {@link Tag}, відсортований за назвою.
+   * @throws IllegalArgumentException якщо ліміт не є додатним.
+   */
+  List<Tag> searchTags(String query, int limit);
+
+  /**
+   * Повертає існуючі теги, назви яких найбільше схожі на введений текст (нечіткий пошук з
+   * урахуванням друкарських помилок, зайвих пробілів і недописаних слів). Призначено для підказок
+   * у формах, щоб користувач обирав наявний запис замість створення майже-дубліката.
+   *
+   * @param text введена назва.
+   * @param limit максимальна кількість підказок.
+   * @return список {@link NameSuggestion}, найближчі першими; порожній для порожнього тексту.
+   * @throws IllegalArgumentException якщо ліміт не є додатним.
+   */
+  List<NameSuggestion> suggestTags(String text, int limit);
+
+  /**
+   * Повертає теги, що найчастіше трапляються в подорожах разом із заданими ("Гори" → "Пригоди").
+   * Лічильники беруться з розрідженої матриці спільної появи тегів у пам'яті, яка будується одним
+   * проходом по зв'язках подорожей з тегами і далі оновлюється при зміні тегів подорожей. Перший
+   * виклик лише запускає побудову у фоновому потоці; доки вона триває, повертається порожній
+   * список.
+   *
+   * @param tagNames назви вже обраних тегів; невідомі назви ігноруються.
+   * @param limit максимальна кількість пов'язаних тегів.
+   * @return список {@link RelatedTag} з кількістю спільних подорожей, найчастіші першими.
+   * @throws IllegalArgumentException якщо ліміт не є додатним.
+   */
+  List<RelatedTag> getRelatedTags(Collection<String> tagNames, int limit);
+
+  /**
+   * Оновлює матрицю спільної появи тегів після зміни набору тегів подорожі.
+   *
+   * @param journeyId ID подорожі.
+   * @param tags поточні теги подорожі.
+   */
+  void onJourneyTagsChanged(Long journeyId, Set<Tag> tags);
+
+  /**
+   * Прибирає видалену подорож з матриці спільної появи тегів.
+   *
+   * @param journeyId ID видаленої подорожі.
+   */
+  void onJourneyDeleted(Long journeyId);
+
   /**
    * Оновлює назву існуючого тегу.
    *
@@ -1,24 +1,66 @@
 package com.trailtales.service.impl;
 
+import com.trailtales.dto.NameSuggestion;
+import com.trailtales.dto.RelatedTag;
 import com.trailtales.entity.Tag;
+import com.trailtales.index.PendingChanges;
+import com.trailtales.index.TagCoOccurrenceIndex;
 import com.trailtales.repository.TagRepository;
+import com.trailtales.service.AutocompleteService;
+import com.trailtales.service.JourneyIndexService;
+import com.trailtales.service.SearchIndexService;
 import com.trailtales.service.TagService;
+import com.trailtales.util.SqlUtils;
+import com.trailtales.util.TransactionUtils;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class TagServiceImpl implements TagService {
 
   private final TagRepository tagRepository;
+  private final SearchIndexService searchIndexService;
+  private final AutocompleteService autocompleteService;
+  private final JourneyIndexService journeyIndexService;
+  private final TransactionTemplate readOnlyTransaction;
+
+  /**
+   * Матриця спільної появи тегів; будується у фоні після першого запиту пов'язаних тегів і до
+   * того залишається {@code null}.
+   */
+  private volatile TagCoOccurrenceIndex coOccurrenceIndex;
+
+  /** Зміни тегів подорожей, що надійшли під час побудови матриці; застосовуються після неї. */
+  private final PendingChanges<TagServiceImpl> pendingChanges = new PendingChanges<>();
+
+  private boolean coOccurrenceLoading;
 
   @Autowired
-  public TagServiceImpl(TagRepository tagRepository) {
+  public TagServiceImpl(
+      TagRepository tagRepository,
+      SearchIndexService searchIndexService,
+      AutocompleteService autocompleteService,
+      JourneyIndexService journeyIndexService,
+      PlatformTransactionManager transactionManager) {
     this.tagRepository = tagRepository;
+    this.searchIndexService = searchIndexService;
+    this.autocompleteService = autocompleteService;
+    this.journeyIndexService = journeyIndexService;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
   }
 
   @Override
@@ -33,7 +75,13 @@ public class TagServiceImpl implements TagService {
     tag.setName(name);
     tag.setCreatedAt(LocalDateTime.now());
     tag.setUpdatedAt(LocalDateTime.now());
-    return tagRepository.save(tag);
+    Tag savedTag = tagRepository.save(tag);
+    TransactionUtils.afterCommit(
+        () -> {
+          searchIndexService.onTagSaved(savedTag);
+          autocompleteService.onTagSaved(savedTag);
+        });
+    return savedTag;
   }
 
   @Override
@@ -54,6 +102,23 @@ public class TagServiceImpl implements TagService {
     return tagRepository.findAll();
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public List<Tag> searchTags(String query, int limit) {
+    SqlUtils.requirePositiveLimit(limit);
+    return tagRepository.search(query, limit);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<NameSuggestion> suggestTags(String text, int limit) {
+    SqlUtils.requirePositiveLimit(limit);
+    if (text == null || text.isBlank()) {
+      return List.of();
+    }
+    return tagRepository.findSimilarNames(text.trim(), limit);
+  }
+
   @Override
   @Transactional
   public Tag updateTag(Long id, String newName) {
@@ -72,7 +137,13 @@ public class TagServiceImpl implements TagService {
 
     tag.setName(newName);
     tag.setUpdatedAt(LocalDateTime.now());
-    return tagRepository.save(tag);
+    Tag savedTag = tagRepository.save(tag);
+    TransactionUtils.afterCommit(
+        () -> {
+          searchIndexService.onTagSaved(savedTag);
+          autocompleteService.onTagSaved(savedTag);
+        });
+    return savedTag;
   }
 
   @Override
@@ -82,6 +153,119 @@ public class TagServiceImpl implements TagService {
       throw new IllegalArgumentException("Тег з ID " + id + " не знайдено для видалення.");
     }
     tagRepository.deleteById(id);
+    TransactionUtils.afterCommit(
+        () -> {
+          searchIndexService.onTagDeleted(id);
+          autocompleteService.onTagDeleted(id);
+          journeyIndexService.onTagDeleted(id);
+          applyCoOccurrence(index -> index.removeTag(id));
+        });
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<RelatedTag> getRelatedTags(Collection<String> tagNames, int limit) {
+    SqlUtils.requirePositiveLimit(limit);
+    if (tagNames == null || tagNames.isEmpty()) {
+      return List.of();
+    }
+    TagCoOccurrenceIndex index = coOccurrenceIndex;
+    if (index == null) {
+      // Підказки з'являться, щойно матрицю буде побудовано у фоні
+      buildCoOccurrenceIndexAsync();
+      return List.of();
+    }
+    List<String> names =
+        tagNames.stream()
+            .filter(name -> name != null && !name.isBlank())
+            .map(String::trim)
+            .distinct()
+            .collect(Collectors.toList());
+    long[] tagIds = tagRepository.findByNames(names).stream().mapToLong(Tag::getId).toArray();
+    if (tagIds.length == 0) {
+      return List.of();
+    }
+    List<TagCoOccurrenceIndex.Related> related = index.findRelated(tagIds, limit);
+    Map<Long, Tag> tagsById =
+        tagRepository
+            .findByIds(related.stream().map(TagCoOccurrenceIndex.Related::tagId).toList())
+            .stream()
+            .collect(Collectors.toMap(Tag::getId, Function.identity()));
+    return related.stream()
+        .map(entry -> new RelatedTag(tagsById.get(entry.tagId()), entry.count()))
+        .filter(relatedTag -> Objects.nonNull(relatedTag.getTag()))
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public void onJourneyTagsChanged(Long journeyId, Set<Tag> tags) {
+    long[] tagIds =
+        tags == null
+            ? new long[0]
+            : tags.stream()
+                .map(Tag::getId)
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .toArray();
+    applyCoOccurrence(index -> index.setJourneyTags(journeyId, tagIds));
+  }
+
+  @Override
+  public void onJourneyDeleted(Long journeyId) {
+    applyCoOccurrence(index -> index.removeJourney(journeyId));
+  }
+
+  /**
+   * Застосовує зміну до матриці, якщо її вже побудовано. Під час побудови зміна запам'ятовується і
+   * застосовується до нової матриці поверх даних, прочитаних з бази раніше; до початку побудови
+   * зміни не потрібні — їх прочитає сама побудова.
+   */
+  private synchronized void applyCoOccurrence(Consumer<TagCoOccurrenceIndex> change) {
+    pendingChanges.apply(
+        this,
+        service -> {
+          if (service.coOccurrenceIndex != null) {
+            change.accept(service.coOccurrenceIndex);
+          }
+        });
+  }
+
+  private synchronized void buildCoOccurrenceIndexAsync() {
+    if (coOccurrenceLoading || coOccurrenceIndex != null) {
+      return;
+    }
+    coOccurrenceLoading = true;
+    pendingChanges.begin();
+    Thread builder = new Thread(this::buildCoOccurrenceIndex, "tag-co-occurrence-builder");
+    builder.setDaemon(true);
+    builder.start();
+  }
+
+  private void buildCoOccurrenceIndex() {
+    long startedAt = System.currentTimeMillis();
+    try {
+      TagCoOccurrenceIndex index = new TagCoOccurrenceIndex();
+      // Потокове читання з fetch size працює лише всередині транзакції
+      readOnlyTransaction.executeWithoutResult(
+          status -> tagRepository.streamJourneyTagIds(index::setJourneyTags));
+      synchronized (this) {
+        coOccurrenceIndex = index;
+        pendingChanges.replay(this);
+      }
+      System.out.println(
+          "Матрицю спільної появи тегів побудовано за "
+              + (System.currentTimeMillis() - startedAt)
+              + " мс, ~"
+              + index.estimateMemoryBytes() / 1024
+              + " КБ.");
+    } catch (RuntimeException e) {
+      System.err.println("Помилка побудови матриці спільної появи тегів: " + e.getMessage());
+    } finally {
+      synchronized (this) {
+        pendingChanges.discard();
+        coOccurrenceLoading = false;
+      }
+    }
   }
 
   @Override
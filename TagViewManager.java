@@ -5,7 +5,7 @@ import com.trailtales.entity.User;
 import com.trailtales.service.TagService;
 import com.trailtales.ui.MainApplicationFrame;
 import com.trailtales.ui.UIConstants;
-import java.util.stream.Collectors;
+import javafx.animation.PauseTransition;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
@@ -14,9 +14,16 @@ import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Text;
+import javafx.util.Duration;
 
 public class TagViewManager {
 
+  /** Максимальна кількість рядків, яку список запитує з бази даних за один раз. */
+  private static final int MAX_VISIBLE_ITEMS = 200;
+
+  /** Затримка перед запитом пошуку, щоб не звертатися до бази на кожне натискання клавіші. */
+  private static final Duration SEARCH_DEBOUNCE = Duration.millis(250);
+
   private final TagService tagService;
   private final User currentUser;
   private final MainApplicationFrame mainAppFrame;
@@ -71,7 +78,9 @@ public class TagViewManager {
             });
 
     refreshTagList(searchField.getText());
-    searchField.textProperty().addListener((obs, oldVal, newVal) -> refreshTagList(newVal));
+    PauseTransition searchDebounce = new PauseTransition(SEARCH_DEBOUNCE);
+    searchDebounce.setOnFinished(e -> refreshTagList(searchField.getText()));
+    searchField.textProperty().addListener((obs, oldVal, newVal) -> searchDebounce.playFromStart());
 
     Button createBtn = new Button("Створити");
     createBtn.setStyle(UIConstants.BUTTON_STYLE_PRIMARY);
@@ -150,28 +159,17 @@ public class TagViewManager {
   }
 
   public void refreshTagList(String searchText) {
-    String currentSearchText = searchText != null ? searchText.toLowerCase() : "";
     ObservableList<Tag> sourceList;
     try {
-      sourceList = FXCollections.observableArrayList(tagService.getAllTags());
+      sourceList =
+          FXCollections.observableArrayList(tagService.searchTags(searchText, MAX_VISIBLE_ITEMS));
     } catch (Exception e) {
       mainAppFrame.showAlert(
           Alert.AlertType.ERROR, "Помилка", "Не вдалося оновити список тегів: " + e.getMessage());
       sourceList = FXCollections.observableArrayList();
       e.printStackTrace();
     }
-
-    if (currentSearchText.isEmpty()) {
-      tagListView.setItems(sourceList);
-    } else {
-      tagListView.setItems(
-          sourceList.stream()
-              .filter(
-                  tag ->
-                      tag.getName() != null
-                          && tag.getName().toLowerCase().contains(currentSearchText))
-              .collect(Collectors.toCollection(FXCollections::observableArrayList)));
-    }
+    tagListView.setItems(sourceList);
   }
 
   public String getCurrentSearchText() {
@@ -0,0 +1,133 @@
+package com.trailtales.util;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+/**
+ * Створює зменшені копії фотографій у форматі JPEG. Оригінал декодується один раз і одразу з
+ * проріджуванням рядків і стовпців до розміру, не меншого за найбільшу копію, тож навіть
+ * багатомегапіксельні знімки не розгортаються в пам'яті повністю.
+ */
+public final class ThumbnailGenerator {
+
+  /** Найбільша сторона малої копії для плиток галереї, у пікселях. */
+  public static final int SMALL_MAX_SIZE = 160;
+
+  /** Найбільша сторона середньої копії для перегляду, у пікселях. */
+  public static final int MEDIUM_MAX_SIZE = 1024;
+
+  private static final float JPEG_QUALITY = 0.85f;
+
+  private ThumbnailGenerator() {}
+
+  /**
+   * Записує малу та середню копії зображення.
+   *
+   * @param source файл оригіналу.
+   * @param smallTarget файл для малої копії.
+   * @param mediumTarget файл для середньої копії.
+   * @return {@code false}, якщо формат оригіналу не підтримується і копії не створено.
+   * @throws IOException якщо оригінал не вдалося прочитати або копію записати.
+   */
+  public static boolean generate(Path source, Path smallTarget, Path mediumTarget)
+      throws IOException {
+    BufferedImage decoded = decodeSubsampled(source, MEDIUM_MAX_SIZE);
+    if (decoded == null) {
+      return false;
+    }
+    BufferedImage medium = scaleToFit(decoded, MEDIUM_MAX_SIZE);
+    writeJpeg(medium, mediumTarget);
+    writeJpeg(scaleToFit(medium, SMALL_MAX_SIZE), smallTarget);
+    return true;
+  }
+
+  /**
+   * Декодує зображення з цілим кроком проріджування, за якого більша сторона лишається не меншою
+   * за {@code minLongestSide}.
+   */
+  private static BufferedImage decodeSubsampled(Path source, int minLongestSide)
+      throws IOException {
+    try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+      if (input == null) {
+        return null;
+      }
+      Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+      if (!readers.hasNext()) {
+        return null;
+      }
+      ImageReader reader = readers.next();
+      try {
+        reader.setInput(input, true, true);
+        int longestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+        int step = Math.max(1, longestSide / minLongestSide);
+        ImageReadParam param = reader.getDefaultReadParam();
+        param.setSourceSubsampling(step, step, 0, 0);
+        return reader.read(0, param);
+      } finally {
+        reader.dispose();
+      }
+    }
+  }
+
+  /**
+   * Зменшує зображення до заданої найбільшої сторони, зберігаючи пропорції. Зменшення виконується
+   * кроками не більше ніж удвічі, щоб білінійна інтерполяція не давала помітного аліасингу.
+   * Прозорі ділянки заповнюються білим, бо JPEG не має альфа-каналу.
+   */
+  private static BufferedImage scaleToFit(BufferedImage image, int maxSize) {
+    int width = image.getWidth();
+    int height = image.getHeight();
+    double scale = Math.min(1.0, (double) maxSize / Math.max(width, height));
+    int targetWidth = Math.max(1, (int) Math.round(width * scale));
+    int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+    BufferedImage current = image;
+    do {
+      width = Math.max(targetWidth, width / 2);
+      height = Math.max(targetHeight, height / 2);
+      BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+      Graphics2D graphics = next.createGraphics();
+      try {
+        graphics.setRenderingHint(
+            RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, width, height);
+        graphics.drawImage(current, 0, 0, width, height, null);
+      } finally {
+        graphics.dispose();
+      }
+      current = next;
+    } while (width != targetWidth || height != targetHeight);
+    return current;
+  }
+
+  private static void writeJpeg(BufferedImage image, Path target) throws IOException {
+    Files.createDirectories(target.toAbsolutePath().getParent());
+    // Потік виводу не обрізає наявний файл, тож стару копію слід прибрати
+    Files.deleteIfExists(target);
+    ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+    try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+      ImageWriteParam param = writer.getDefaultWriteParam();
+      param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+      param.setCompressionQuality(JPEG_QUALITY);
+      writer.setOutput(output);
+      writer.write(null, new IIOImage(image, null, null), param);
+    } finally {
+      writer.dispose();
+    }
+  }
+}
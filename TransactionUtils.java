@@ -0,0 +1,30 @@
+package com.trailtales.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/** Допоміжні методи для дій, прив'язаних до завершення поточної транзакції. */
+public final class TransactionUtils {
+
+  private TransactionUtils() {}
+
+  /**
+   * Виконує дію після фіксації поточної транзакції, а якщо транзакції немає — одразу. Після
+   * відкату дія не виконується, тож індекси в пам'яті не бачать змін, яких немає в базі.
+   *
+   * @param action дія, що виконується після фіксації.
+   */
+  public static void afterCommit(Runnable action) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              action.run();
+            }
+          });
+    } else {
+      action.run();
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package com.trailtales.entity;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSession {
+  private Long id;
+  private Long userId; // Власник сесії; лише він може продовжити чи завершити завантаження
+  private Long journeyId; // Подорож, до якої буде додано фото після завершення
+  private String fileName; // Ім'я вихідного файлу (для розширення збереженого вмісту)
+  private String description;
+  private long totalSize; // Очікуваний розмір файлу в байтах
+  private long receivedBytes; // Скільки байтів від початку файлу записано і перевірено
+  private String tempPath; // Тимчасовий файл, у який записуються частини
+  private LocalDateTime createdAt;
+  private LocalDateTime updatedAt;
+
+  /** Чи отримано всі байти файлу. */
+  public boolean isComplete() {
+    return receivedBytes == totalSize;
+  }
+}
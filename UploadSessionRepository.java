@@ -0,0 +1,130 @@
+package com.trailtales.repository;
+
+import com.trailtales.entity.UploadSession;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+/** Репозиторій сесій поступового завантаження файлів (таблиця {@code upload_sessions}). */
+@Repository
+public class UploadSessionRepository {
+
+  private final JdbcTemplate jdbcTemplate;
+
+  private final RowMapper<UploadSession> sessionRowMapper =
+      (rs, rowNum) -> {
+        UploadSession session = new UploadSession();
+        session.setId(rs.getLong("id"));
+        session.setUserId(rs.getLong("user_id"));
+        session.setJourneyId(rs.getLong("journey_id"));
+        session.setFileName(rs.getString("file_name"));
+        session.setDescription(rs.getString("description"));
+        session.setTotalSize(rs.getLong("total_size"));
+        session.setReceivedBytes(rs.getLong("received_bytes"));
+        session.setTempPath(rs.getString("temp_path"));
+        session.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        session.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+        return session;
+      };
+
+  /**
+   * Конструктор для впровадження залежності {@link JdbcTemplate}.
+   *
+   * @param jdbcTemplate об'єкт для взаємодії з базою даних.
+   */
+  public UploadSessionRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  public UploadSession save(UploadSession session) {
+    KeyHolder keyHolder = new GeneratedKeyHolder();
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    jdbcTemplate.update(
+        connection -> {
+          PreparedStatement ps =
+              connection.prepareStatement(
+                  "INSERT INTO upload_sessions (user_id, journey_id, file_name, description, total_size, received_bytes, temp_path, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                  Statement.RETURN_GENERATED_KEYS);
+          ps.setLong(1, session.getUserId());
+          ps.setLong(2, session.getJourneyId());
+          ps.setString(3, session.getFileName());
+          ps.setString(4, session.getDescription());
+          ps.setLong(5, session.getTotalSize());
+          ps.setLong(6, session.getReceivedBytes());
+          ps.setString(7, session.getTempPath());
+          ps.setTimestamp(8, now);
+          ps.setTimestamp(9, now);
+          return ps;
+        },
+        keyHolder);
+
+    Map<String, Object> keys = keyHolder.getKeys();
+    if (keys == null || !keys.containsKey("id")) {
+      throw new IllegalStateException(
+          "Не вдалося отримати згенерований ID після створення сесії завантаження.");
+    }
+    session.setId(((Number) keys.get("id")).longValue());
+    session.setCreatedAt(now.toLocalDateTime());
+    session.setUpdatedAt(now.toLocalDateTime());
+    return session;
+  }
+
+  public Optional<UploadSession> findById(Long id) {
+    return jdbcTemplate
+        .query("SELECT * FROM upload_sessions WHERE id = ?", sessionRowMapper, id)
+        .stream()
+        .findFirst();
+  }
+
+  /**
+   * Пересуває межу перевірених байтів, лише якщо її не пересунув інший запис тієї ж сесії.
+   *
+   * @param id ID сесії.
+   * @param expectedBytes межа, від якої записано частину.
+   * @param receivedBytes нова межа.
+   * @return {@code false}, якщо межа вже змінилася.
+   */
+  public boolean advanceReceivedBytes(Long id, long expectedBytes, long receivedBytes) {
+    return jdbcTemplate.update(
+            "UPDATE upload_sessions SET received_bytes = ?, updated_at = CURRENT_TIMESTAMP"
+                + " WHERE id = ? AND received_bytes = ?",
+            receivedBytes,
+            id,
+            expectedBytes)
+        == 1;
+  }
+
+  /**
+   * Видаляє сесію.
+   *
+   * @param id ID сесії.
+   * @return {@code false}, якщо сесії вже немає (її завершив або скасував інший виклик).
+   */
+  public boolean deleteById(Long id) {
+    return jdbcTemplate.update("DELETE FROM upload_sessions WHERE id = ?", id) == 1;
+  }
+
+  /**
+   * Повертає сесії, в які нічого не записувалося з заданого часу.
+   *
+   * @param before межа часу останнього запису (не включно).
+   * @param limit розмір порції.
+   * @return найдавніші покинуті сесії.
+   */
+  public List<UploadSession> findInactiveSince(LocalDateTime before, int limit) {
+    return jdbcTemplate.query(
+        "SELECT * FROM upload_sessions WHERE updated_at < ? ORDER BY updated_at LIMIT ?",
+        sessionRowMapper,
+        Timestamp.valueOf(before),
+        limit);
+  }
+}
@@ -0,0 +1,11 @@
+-- V10: зменшені копії фотографій для галереї
+
+-- Шляхи до малої (плитки галереї) та середньої (перегляд) копій. NULL означає, що копії ще не
+-- створено (фото завантажено до цієї міграції) або формат оригіналу не підтримується.
+ALTER TABLE photos
+    ADD COLUMN IF NOT EXISTS thumbnail_small_path VARCHAR(255),
+    ADD COLUMN IF NOT EXISTS thumbnail_medium_path VARCHAR(255);
+
+-- Фонове заповнення проходить лише фото без копій
+CREATE INDEX IF NOT EXISTS idx_photos_missing_thumbnails
+    ON photos (id) WHERE thumbnail_small_path IS NULL;
@@ -0,0 +1,62 @@
+-- V11: сховище фотографій, адресоване вмістом, з підрахунком посилань
+
+-- Один рядок на унікальний вміст (SHA-256). Однакові файли, завантажені до кількох подорожей,
+-- зберігаються один раз; ref_count — кількість рядків photos, що на нього посилаються.
+CREATE TABLE IF NOT EXISTS photo_blobs (
+    content_hash CHAR(64) PRIMARY KEY,
+    file_path VARCHAR(512) NOT NULL,
+    size_bytes BIGINT NOT NULL,
+    ref_count INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Вміст без посилань прибирається фоновим збиранням
+CREATE INDEX IF NOT EXISTS idx_photo_blobs_unreferenced
+    ON photo_blobs (created_at) WHERE ref_count = 0;
+
+-- Фото, завантажені до цієї міграції, лишаються без хешу і зберігаються за старими шляхами
+ALTER TABLE photos
+    ADD COLUMN IF NOT EXISTS content_hash CHAR(64) REFERENCES photo_blobs(content_hash);
+CREATE INDEX IF NOT EXISTS idx_photos_content_hash ON photos (content_hash);
+
+-- Кілька фото можуть посилатися на той самий файл
+ALTER TABLE photos DROP CONSTRAINT IF EXISTS photos_file_path_key;
+
+-- Лічильник посилань ведуть тригери рівня інструкції, тож каскадне видалення подорожі з
+-- тисячами фото оновлює кожен вміст один раз
+CREATE OR REPLACE FUNCTION photos_blob_ref_count()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('DELETE', 'UPDATE') THEN
+        UPDATE photo_blobs b SET ref_count = b.ref_count - d.cnt
+        FROM (SELECT content_hash, COUNT(*) AS cnt FROM old_rows
+              WHERE content_hash IS NOT NULL GROUP BY content_hash) d
+        WHERE b.content_hash = d.content_hash;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        UPDATE photo_blobs b SET ref_count = b.ref_count + d.cnt
+        FROM (SELECT content_hash, COUNT(*) AS cnt FROM new_rows
+              WHERE content_hash IS NOT NULL GROUP BY content_hash) d
+        WHERE b.content_hash = d.content_hash;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER photos_blob_ref_insert
+AFTER INSERT ON photos
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION photos_blob_ref_count();
+
+CREATE OR REPLACE TRIGGER photos_blob_ref_update
+AFTER UPDATE ON photos
+REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION photos_blob_ref_count();
+
+CREATE OR REPLACE TRIGGER photos_blob_ref_delete
+AFTER DELETE ON photos
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION photos_blob_ref_count();
@@ -0,0 +1,34 @@
+-- V12: метадані EXIF фотографій (час зйомки, камера, орієнтація, розміри, координати)
+
+-- NULL означає, що відповідного тегу у файлі немає. metadata_extracted позначає фото, файл яких
+-- уже прочитано, тож фонове заповнення не перечитує знімки без EXIF.
+ALTER TABLE photos
+    ADD COLUMN IF NOT EXISTS taken_at TIMESTAMP WITHOUT TIME ZONE,
+    ADD COLUMN IF NOT EXISTS camera_make VARCHAR(100),
+    ADD COLUMN IF NOT EXISTS camera_model VARCHAR(100),
+    ADD COLUMN IF NOT EXISTS orientation SMALLINT,
+    ADD COLUMN IF NOT EXISTS width INTEGER,
+    ADD COLUMN IF NOT EXISTS height INTEGER,
+    ADD COLUMN IF NOT EXISTS latitude DOUBLE PRECISION,
+    ADD COLUMN IF NOT EXISTS longitude DOUBLE PRECISION,
+    ADD COLUMN IF NOT EXISTS metadata_extracted BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- Координати задаються парою і в допустимих межах
+ALTER TABLE photos
+    ADD CONSTRAINT chk_photos_coordinates CHECK (
+        (latitude IS NULL) = (longitude IS NULL)
+        AND (latitude IS NULL OR latitude BETWEEN -90 AND 90)
+        AND (longitude IS NULL OR longitude BETWEEN -180 AND 180)
+    );
+
+-- Фото подорожі в хронології зйомки та у проміжку часу
+CREATE INDEX IF NOT EXISTS idx_photos_journey_taken_at ON photos (journey_id, taken_at, id);
+
+-- Фото в прямокутнику карти (як idx_locations_point)
+CREATE INDEX IF NOT EXISTS idx_photos_point ON photos
+    USING GIST (point(longitude, latitude))
+    WHERE latitude IS NOT NULL AND longitude IS NOT NULL;
+
+-- Фонове заповнення проходить лише ще не прочитані фото
+CREATE INDEX IF NOT EXISTS idx_photos_missing_metadata
+    ON photos (id) WHERE NOT metadata_extracted;
@@ -0,0 +1,37 @@
+-- V13: фонова звірка каталогу завантажень з базою даних
+
+-- Звірка читає шляхи в побайтовому порядку (COLLATE "C"), у якому обходить каталог; індекси
+-- дозволяють брати їх порціями від контрольної точки без сортування всієї таблиці
+CREATE INDEX IF NOT EXISTS idx_photos_file_path_c
+    ON photos (file_path COLLATE "C");
+CREATE INDEX IF NOT EXISTS idx_photos_thumbnail_small_path_c
+    ON photos (thumbnail_small_path COLLATE "C");
+CREATE INDEX IF NOT EXISTS idx_photos_thumbnail_medium_path_c
+    ON photos (thumbnail_medium_path COLLATE "C");
+CREATE INDEX IF NOT EXISTS idx_photo_blobs_file_path_c
+    ON photo_blobs (file_path COLLATE "C");
+
+-- Файли без посилань, перенесені в карантин. Після строку зберігання вони видаляються, а файл,
+-- на який тим часом з'явилося посилання, повертається на місце.
+CREATE TABLE IF NOT EXISTS storage_quarantine (
+    file_path VARCHAR(1024) PRIMARY KEY,
+    quarantine_path VARCHAR(1024) NOT NULL,
+    quarantined_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_storage_quarantine_quarantined_at
+    ON storage_quarantine (quarantined_at);
+
+-- Контрольна точка та лічильники поточного проходу звірки (один рядок). last_path = NULL
+-- означає, що наступна порція почне новий прохід.
+CREATE TABLE IF NOT EXISTS storage_reconciliation_state (
+    id SMALLINT PRIMARY KEY CHECK (id = 1),
+    last_path VARCHAR(1024),
+    pass_started_at TIMESTAMP WITHOUT TIME ZONE,
+    last_pass_finished_at TIMESTAMP WITHOUT TIME ZONE,
+    files_checked BIGINT NOT NULL DEFAULT 0,
+    orphans_quarantined BIGINT NOT NULL DEFAULT 0,
+    missing_files BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT INTO storage_reconciliation_state (id) VALUES (1) ON CONFLICT (id) DO NOTHING;
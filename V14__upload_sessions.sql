@@ -0,0 +1,21 @@
+-- V14: сесії поступового завантаження великих файлів
+
+-- Сесія фіксує, скільки байтів файлу вже записано і перевірено за контрольними сумами частин.
+-- Перервану передачу можна продовжити з received_bytes; рядок photos з'являється лише після
+-- завершення сесії, разом з видаленням її рядка.
+CREATE TABLE IF NOT EXISTS upload_sessions (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    journey_id BIGINT NOT NULL REFERENCES journeys(id) ON DELETE CASCADE,
+    file_name VARCHAR(255) NOT NULL,
+    description VARCHAR(500),
+    total_size BIGINT NOT NULL CHECK (total_size >= 0),
+    received_bytes BIGINT NOT NULL DEFAULT 0,
+    temp_path VARCHAR(512) NOT NULL,
+    created_at TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT chk_upload_sessions_received CHECK (received_bytes BETWEEN 0 AND total_size)
+);
+
+-- Покинуті сесії прибирає фонове обслуговування фото
+CREATE INDEX IF NOT EXISTS idx_upload_sessions_updated_at ON upload_sessions (updated_at);
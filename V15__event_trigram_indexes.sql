@@ -0,0 +1,8 @@
+-- V15: триграмні індекси для пошуку подій за підрядком назви чи опису
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- ILIKE '%текст%' не може використати B-tree індекс; GIN з gin_trgm_ops обслуговує його за
+-- триграмами шаблону. Умова OR поєднує обидва індекси через BitmapOr.
+CREATE INDEX IF NOT EXISTS idx_events_name_trgm ON events USING GIN (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_events_description_trgm ON events USING GIN (description gin_trgm_ops);
@@ -0,0 +1,4 @@
+-- V3: індекси для агрегованих лічильників подорожі
+
+-- Події вибираються та підраховуються за подорожжю, але індексу за journey_id не було
+CREATE INDEX IF NOT EXISTS idx_events_journey_id ON events (journey_id);
@@ -0,0 +1,15 @@
+-- V4: діапазон дат подорожі для запитів перетину та входження
+
+-- Генерований стовпець поєднує start_date та end_date в інклюзивний діапазон [start, end].
+-- Якщо відома лише одна з дат, подорож вважається одноденною; якщо дати переплутано місцями,
+-- діапазон будується від меншої до більшої, щоб вставка не завершилася помилкою.
+ALTER TABLE journeys
+    ADD COLUMN IF NOT EXISTS date_range DATERANGE GENERATED ALWAYS AS (
+        CASE
+            WHEN start_date IS NULL AND end_date IS NULL THEN NULL
+            ELSE daterange(LEAST(start_date, end_date), GREATEST(start_date, end_date), '[]')
+        END
+    ) STORED;
+
+-- GiST-індекс обслуговує оператори && (перетин), @> (містить) та <@ (міститься в)
+CREATE INDEX IF NOT EXISTS idx_journeys_date_range ON journeys USING GIST (date_range);
@@ -0,0 +1,10 @@
+-- V5: складений індекс хронології подій подорожі
+
+-- Індекс повторює ключ сортування хронології (дата, час, id), тож посторінкові запити
+-- вперед і назад читають лише потрібний відрізок індексу без сортування.
+-- Подія без часу впорядковується як така, що відбулася на початку дня.
+CREATE INDEX IF NOT EXISTS idx_events_journey_timeline
+    ON events (journey_id, event_date, (COALESCE(event_time, TIME '00:00')), id);
+
+-- Індекс з V3 за journey_id є префіксом нового і більше не потрібен
+DROP INDEX IF EXISTS idx_events_journey_id;
@@ -0,0 +1,126 @@
+-- V6: повнотекстовий пошук подорожей
+
+-- Документ пошуку зберігається окремо від journeys, щоб його оновлення не змінювало updated_at
+-- подорожі та не спричиняло зайвих записів у саму таблицю подорожей.
+CREATE TABLE IF NOT EXISTS journey_search_documents (
+    journey_id BIGINT PRIMARY KEY,
+    document TSVECTOR NOT NULL,
+    FOREIGN KEY (journey_id) REFERENCES journeys(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_journey_search_documents_document
+    ON journey_search_documents USING GIN (document);
+
+-- Вбудованої української конфігурації в PostgreSQL немає, тому текст індексується двічі:
+-- конфігурацією 'simple' (точні слова будь-якою мовою) та 'english' (англійські основи слів).
+CREATE OR REPLACE FUNCTION journey_search_vector(content TEXT, weight "char")
+RETURNS TSVECTOR AS $$
+    SELECT setweight(to_tsvector('simple', COALESCE(content, '')), weight)
+        || setweight(to_tsvector('english', COALESCE(content, '')), weight);
+$$ LANGUAGE sql IMMUTABLE;
+
+-- Перебудовує документи вказаних подорожей: назва (A), теги та локації (B), опис (C)
+CREATE OR REPLACE FUNCTION refresh_journey_search_documents(journey_ids BIGINT[])
+RETURNS VOID AS $$
+BEGIN
+    INSERT INTO journey_search_documents (journey_id, document)
+    SELECT j.id,
+           journey_search_vector(j.name, 'A')
+               || journey_search_vector(
+                      (SELECT string_agg(t.name, ' ')
+                       FROM journey_tags jt
+                       JOIN tags t ON t.id = jt.tag_id
+                       WHERE jt.journey_id = j.id), 'B')
+               || journey_search_vector(concat_ws(' ', origin_loc.name, dest_loc.name), 'B')
+               || journey_search_vector(j.description, 'C')
+    FROM journeys j
+    LEFT JOIN locations origin_loc ON origin_loc.id = j.origin_location_id
+    LEFT JOIN locations dest_loc ON dest_loc.id = j.destination_location_id
+    WHERE j.id = ANY (journey_ids)
+    ON CONFLICT (journey_id) DO UPDATE SET document = EXCLUDED.document;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Подорож: створення та зміна полів, що входять до документа
+CREATE OR REPLACE FUNCTION journeys_search_refresh()
+RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM refresh_journey_search_documents(ARRAY[NEW.id]);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER journeys_search_insert
+AFTER INSERT ON journeys
+FOR EACH ROW
+EXECUTE FUNCTION journeys_search_refresh();
+
+CREATE OR REPLACE TRIGGER journeys_search_update
+AFTER UPDATE OF name, description, origin_location_id, destination_location_id ON journeys
+FOR EACH ROW
+WHEN (OLD.name IS DISTINCT FROM NEW.name
+      OR OLD.description IS DISTINCT FROM NEW.description
+      OR OLD.origin_location_id IS DISTINCT FROM NEW.origin_location_id
+      OR OLD.destination_location_id IS DISTINCT FROM NEW.destination_location_id)
+EXECUTE FUNCTION journeys_search_refresh();
+
+-- Теги подорожі: тригер рівня інструкції, щоб масова заміна тегів перебудовувала кожен
+-- документ один раз, а не на кожен рядок
+CREATE OR REPLACE FUNCTION journey_tags_search_refresh()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM refresh_journey_search_documents(ARRAY(SELECT DISTINCT journey_id FROM new_rows));
+    ELSE
+        PERFORM refresh_journey_search_documents(ARRAY(SELECT DISTINCT journey_id FROM old_rows));
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER journey_tags_search_insert
+AFTER INSERT ON journey_tags
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION journey_tags_search_refresh();
+
+CREATE OR REPLACE TRIGGER journey_tags_search_delete
+AFTER DELETE ON journey_tags
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION journey_tags_search_refresh();
+
+-- Перейменування тегу або локації змінює документи всіх подорожей, що їх використовують
+CREATE OR REPLACE FUNCTION tags_search_refresh()
+RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM refresh_journey_search_documents(
+        ARRAY(SELECT journey_id FROM journey_tags WHERE tag_id = NEW.id));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER tags_search_update
+AFTER UPDATE OF name ON tags
+FOR EACH ROW
+WHEN (OLD.name IS DISTINCT FROM NEW.name)
+EXECUTE FUNCTION tags_search_refresh();
+
+CREATE OR REPLACE FUNCTION locations_search_refresh()
+RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM refresh_journey_search_documents(
+        ARRAY(SELECT id FROM journeys
+              WHERE origin_location_id = NEW.id OR destination_location_id = NEW.id));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER locations_search_update
+AFTER UPDATE OF name ON locations
+FOR EACH ROW
+WHEN (OLD.name IS DISTINCT FROM NEW.name)
+EXECUTE FUNCTION locations_search_refresh();
+
+-- Початкове заповнення документів для вже існуючих подорожей
+SELECT refresh_journey_search_documents(ARRAY(SELECT id FROM journeys));
@@ -0,0 +1,7 @@
+-- V7: триграмні індекси для нечіткого пошуку назв локацій і тегів
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- GIN-індекси обслуговують оператори % (схожість назв) та <% (схожість з частиною назви)
+CREATE INDEX IF NOT EXISTS idx_locations_name_trgm ON locations USING GIN (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_tags_name_trgm ON tags USING GIN (name gin_trgm_ops);
@@ -0,0 +1,35 @@
+-- V8: просторовий індекс координат локацій для запитів у радіусі та в прямокутнику карти
+
+-- Координати задаються парою і в допустимих межах
+ALTER TABLE locations
+    ADD CONSTRAINT chk_locations_coordinates CHECK (
+        (latitude IS NULL) = (longitude IS NULL)
+        AND (latitude IS NULL OR latitude BETWEEN -90 AND 90)
+        AND (longitude IS NULL OR longitude BETWEEN -180 AND 180)
+    );
+
+-- GiST-індекс над точкою (довгота, широта) обслуговує оператор <@ box(...);
+-- локації без координат до індексу не потрапляють
+CREATE INDEX IF NOT EXISTS idx_locations_point ON locations
+    USING GIST (point(longitude, latitude))
+    WHERE latitude IS NOT NULL AND longitude IS NOT NULL;
+
+-- Координати початкових локацій
+UPDATE locations SET latitude = 50.4501, longitude = 30.5234
+    WHERE name = 'Київ, Україна' AND latitude IS NULL;
+UPDATE locations SET latitude = 49.8397, longitude = 24.0297
+    WHERE name = 'Львів, Україна' AND latitude IS NULL;
+UPDATE locations SET latitude = 48.6800, longitude = 23.7900
+    WHERE name = 'Карпати, Україна' AND latitude IS NULL;
+UPDATE locations SET latitude = 46.4825, longitude = 30.7233
+    WHERE name = 'Одеса, Україна' AND latitude IS NULL;
+UPDATE locations SET latitude = 48.1600, longitude = 24.5000
+    WHERE name = 'Гора Говерла, Карпати' AND latitude IS NULL;
+UPDATE locations SET latitude = 46.4400, longitude = 30.7700
+    WHERE name = 'Одеса, Пляж Ланжерон' AND latitude IS NULL;
+UPDATE locations SET latitude = 46.5467, longitude = 30.6333
+    WHERE name = 'Одеса, Катакомби' AND latitude IS NULL;
+UPDATE locations SET latitude = 49.5535, longitude = 25.5948
+    WHERE name = 'Тернопіль, Україна' AND latitude IS NULL;
+UPDATE locations SET latitude = 49.9667, longitude = 24.9000
+    WHERE name = 'Олеський замок, Львівська область' AND latitude IS NULL;
@@ -0,0 +1,115 @@
+-- V9: похідні метрики маршруту подорожі (довжина, межі, тривалість)
+
+-- Метрики обчислюються фоновою задачею застосунку. Тригери лише позначають рядок застарілим
+-- (dirty) і збільшують revision, тож запис подій і локацій не сповільнюється обчисленнями, а
+-- задача не затирає позначку, що з'явилась під час її роботи.
+CREATE TABLE IF NOT EXISTS journey_route_metrics (
+    journey_id BIGINT PRIMARY KEY,
+    distance_km DOUBLE PRECISION,
+    min_latitude DOUBLE PRECISION,
+    min_longitude DOUBLE PRECISION,
+    max_latitude DOUBLE PRECISION,
+    max_longitude DOUBLE PRECISION,
+    span_days INTEGER,
+    point_count INTEGER NOT NULL DEFAULT 0,
+    dirty BOOLEAN NOT NULL DEFAULT TRUE,
+    revision BIGINT NOT NULL DEFAULT 0,
+    computed_at TIMESTAMP WITHOUT TIME ZONE,
+    FOREIGN KEY (journey_id) REFERENCES journeys(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_journey_route_metrics_dirty
+    ON journey_route_metrics (journey_id) WHERE dirty;
+CREATE INDEX IF NOT EXISTS idx_journey_route_metrics_distance
+    ON journey_route_metrics (distance_km);
+CREATE INDEX IF NOT EXISTS idx_journey_route_metrics_span
+    ON journey_route_metrics (span_days);
+
+-- Позначає метрики вказаних подорожей застарілими; подорожі, що саме видаляються, пропускаються
+CREATE OR REPLACE FUNCTION mark_route_metrics_dirty(journey_ids BIGINT[])
+RETURNS VOID AS $$
+BEGIN
+    INSERT INTO journey_route_metrics (journey_id)
+    SELECT j.id FROM journeys j WHERE j.id = ANY (journey_ids)
+    ON CONFLICT (journey_id) DO UPDATE
+        SET dirty = TRUE, revision = journey_route_metrics.revision + 1;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Подорож: створення та зміна локацій або дат
+CREATE OR REPLACE FUNCTION journeys_route_metrics_dirty()
+RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM mark_route_metrics_dirty(ARRAY[NEW.id]);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER journeys_route_metrics_insert
+AFTER INSERT ON journeys
+FOR EACH ROW
+EXECUTE FUNCTION journeys_route_metrics_dirty();
+
+CREATE OR REPLACE TRIGGER journeys_route_metrics_update
+AFTER UPDATE OF origin_location_id, destination_location_id, start_date, end_date ON journeys
+FOR EACH ROW
+WHEN (OLD.origin_location_id IS DISTINCT FROM NEW.origin_location_id
+      OR OLD.destination_location_id IS DISTINCT FROM NEW.destination_location_id
+      OR OLD.start_date IS DISTINCT FROM NEW.start_date
+      OR OLD.end_date IS DISTINCT FROM NEW.end_date)
+EXECUTE FUNCTION journeys_route_metrics_dirty();
+
+-- Події: додавання, видалення, зміна локації, дати чи подорожі
+CREATE OR REPLACE FUNCTION events_route_metrics_dirty()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM mark_route_metrics_dirty(ARRAY[NEW.journey_id]);
+    ELSIF TG_OP = 'DELETE' THEN
+        PERFORM mark_route_metrics_dirty(ARRAY[OLD.journey_id]);
+    ELSE
+        PERFORM mark_route_metrics_dirty(ARRAY[OLD.journey_id, NEW.journey_id]);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER events_route_metrics_insert_delete
+AFTER INSERT OR DELETE ON events
+FOR EACH ROW
+EXECUTE FUNCTION events_route_metrics_dirty();
+
+CREATE OR REPLACE TRIGGER events_route_metrics_update
+AFTER UPDATE OF journey_id, location_id, event_date, event_time ON events
+FOR EACH ROW
+WHEN (OLD.journey_id IS DISTINCT FROM NEW.journey_id
+      OR OLD.location_id IS DISTINCT FROM NEW.location_id
+      OR OLD.event_date IS DISTINCT FROM NEW.event_date
+      OR OLD.event_time IS DISTINCT FROM NEW.event_time)
+EXECUTE FUNCTION events_route_metrics_dirty();
+
+-- Зміна координат локації зачіпає всі подорожі, що проходять через неї
+CREATE OR REPLACE FUNCTION locations_route_metrics_dirty()
+RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM mark_route_metrics_dirty(
+        ARRAY(SELECT id FROM journeys
+              WHERE origin_location_id = NEW.id OR destination_location_id = NEW.id
+              UNION
+              SELECT journey_id FROM events WHERE location_id = NEW.id));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER locations_route_metrics_update
+AFTER UPDATE OF latitude, longitude ON locations
+FOR EACH ROW
+WHEN (OLD.latitude IS DISTINCT FROM NEW.latitude
+      OR OLD.longitude IS DISTINCT FROM NEW.longitude)
+EXECUTE FUNCTION locations_route_metrics_dirty();
+
+-- Події шукаються за локацією під час зміни координат
+CREATE INDEX IF NOT EXISTS idx_events_location_id ON events (location_id);
+
+-- Усі наявні подорожі чекають на перше обчислення
+SELECT mark_route_metrics_dirty(ARRAY(SELECT id FROM journeys));
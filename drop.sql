@@ -1,13 +1,31 @@
 -- drop.sql
+DROP TABLE IF EXISTS schema_version CASCADE;
 DROP FUNCTION IF EXISTS update_timestamp() CASCADE;
+DROP FUNCTION IF EXISTS journeys_search_refresh() CASCADE;
+DROP FUNCTION IF EXISTS journey_tags_search_refresh() CASCADE;
+DROP FUNCTION IF EXISTS tags_search_refresh() CASCADE;
+DROP FUNCTION IF EXISTS locations_search_refresh() CASCADE;
+DROP FUNCTION IF EXISTS refresh_journey_search_documents(BIGINT[]) CASCADE;
+DROP FUNCTION IF EXISTS journey_search_vector(TEXT, "char") CASCADE;
+DROP FUNCTION IF EXISTS journeys_route_metrics_dirty() CASCADE;
+DROP FUNCTION IF EXISTS events_route_metrics_dirty() CASCADE;
+DROP FUNCTION IF EXISTS locations_route_metrics_dirty() CASCADE;
+DROP FUNCTION IF EXISTS mark_route_metrics_dirty(BIGINT[]) CASCADE;
+DROP FUNCTION IF EXISTS photos_blob_ref_count() CASCADE;
 
+DROP TABLE IF EXISTS upload_sessions CASCADE;
+DROP TABLE IF EXISTS storage_reconciliation_state CASCADE;
+DROP TABLE IF EXISTS storage_quarantine CASCADE;
+DROP TABLE IF EXISTS journey_route_metrics CASCADE;
+DROP TABLE IF EXISTS journey_search_documents CASCADE;
 DROP TABLE IF EXISTS journey_tags CASCADE;
 DROP TABLE IF EXISTS tags CASCADE;
 DROP TABLE IF EXISTS photos CASCADE;
+DROP TABLE IF EXISTS photo_blobs CASCADE;
 DROP TABLE IF EXISTS events CASCADE;
 DROP TABLE IF EXISTS journey_participants CASCADE;
 DROP TABLE IF EXISTS journeys CASCADE;
 DROP TABLE IF EXISTS locations CASCADE;
 DROP TABLE IF EXISTS user_roles CASCADE;
 DROP TABLE IF EXISTS users CASCADE;
-DROP TABLE IF EXISTS roles CASCADE;
\ No newline at end of file
+DROP TABLE IF EXISTS roles CASCADE;
\ No newline at end of file